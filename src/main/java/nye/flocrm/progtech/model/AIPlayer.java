@@ -2,20 +2,37 @@ package nye.flocrm.progtech.model;
 
 import java.util.Random;
 
+import nye.flocrm.progtech.service.CandidateGenerator;
+import nye.flocrm.progtech.service.ThreatDetector;
+import nye.flocrm.progtech.service.ThreatSpaceSolver;
 import nye.flocrm.progtech.service.WinChecker;
 
 /**
  * Mesterséges intelligencia játékos implementáció.
  * Az AI először megpróbál nyerni, majd blokkolja az ellenfelet,
- * végül véletlenszerű lépést hajt végre.
+ * végül véletlenszerű lépést hajt végre. Korlátos táblán, 5-ös nyerő hossznál előbb
+ * kényszerített nyerést keres ({@link ThreatSpaceSolver}) magának, majd az ellenfélnek;
+ * az utóbbi ellen azt a lépést választja, amely után az ellenfélnek már nincs ilyen
+ * nyerése. Ha fenyegetés felismerőt kap ({@link #setThreatDetector(ThreatDetector)}),
+ * a lépéseit a fenyegetés halmazokból választja próbalépések nélkül, és a nyitott
+ * hármasokat is látja.
  */
 public class
 AIPlayer implements Player {
+    //A fenyegetés alapú lépés sorrendje: osztály és hogy saját (true) vagy az ellenfélé
+    private static final ThreatType[] THREAT_PRIORITY = {ThreatType.FIVE, ThreatType.FIVE,
+        ThreatType.OPEN_FOUR, ThreatType.OPEN_FOUR, ThreatType.OPEN_THREE, ThreatType.FOUR, ThreatType.BROKEN_THREE};
+    private static final boolean[] THREAT_OWN = {true, false, true, false, true, true, true};
+
     private final String name;
     private final char symbol;
     private final char opponentSymbol;
     private final Random random;
     private final WinChecker winChecker;
+    private ThreatDetector threatDetector;
+    private ThreatSpaceSolver threatSolver;
+    //A nyerő lépés jelöltjei (a kövek 1 sugarú környezete); korlátos táblán a táblával együtt frissül
+    private CandidateGenerator candidates;
 
     /**
      * Konstruktor az AI játékos inicializálásához.
@@ -25,11 +42,53 @@ AIPlayer implements Player {
      * @param opponentSymbol az ellenfél szimbóluma
      */
     public AIPlayer(String name, char symbol, char opponentSymbol) {
+        this(name, symbol, opponentSymbol, new WinChecker());
+    }
+
+    /**
+     * Konstruktor az AI játékos inicializálásához egyedi győzelmi szabállyal.
+     *
+     * @param name a játékos neve
+     * @param symbol a játékos szimbóluma ('X' vagy 'O')
+     * @param opponentSymbol az ellenfél szimbóluma
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz)
+     */
+    public AIPlayer(String name, char symbol, char opponentSymbol, WinChecker winChecker) {
         this.name = name;
         this.symbol = symbol;
         this.opponentSymbol = opponentSymbol;
         this.random = new Random();
-        this.winChecker = new WinChecker();
+        this.winChecker = winChecker;
+        this.threatSolver = winChecker.getWinningLength() == WinChecker.DEFAULT_WINNING_LENGTH
+                ? new ThreatSpaceSolver(winChecker) : null;
+    }
+
+    /**
+     * Beállítja a fenyegetés felismerőt. A felismerőt csak az általa követett táblán
+     * használja; más táblán a próbalépéses stratégia fut.
+     *
+     * @param threatDetector a felismerő, vagy null a kikapcsoláshoz
+     */
+    public void setThreatDetector(ThreatDetector threatDetector) {
+        this.threatDetector = threatDetector;
+    }
+
+    /**
+     * Beállítja a kényszerített nyerés keresőt (alapból 5-ös nyerő hossznál saját példány).
+     *
+     * @param threatSolver a kereső, vagy null a kikapcsoláshoz
+     */
+    public void setThreatSolver(ThreatSpaceSolver threatSolver) {
+        this.threatSolver = threatSolver;
+    }
+
+    /**
+     * Visszaadja a kényszerített nyerés keresőt (pl. a korlátok beállításához).
+     *
+     * @return a kereső, vagy null, ha nincs
+     */
+    public ThreatSpaceSolver getThreatSolver() {
+        return threatSolver;
     }
 
     /**
@@ -74,6 +133,7 @@ AIPlayer implements Player {
 
     /**
      * Lépést hajt végre a táblán. Az AI stratégiája sorrendben:
+     * 0. Korlátos táblán kényszerített nyerés (VCF/VCT) keresése magának, majd az ellenfélnek
      * 1. Először megpróbál nyerni egy lépéssel
      * 2. Ha nem tud nyerni, megpróbálja blokkolni az ellenfél nyerő lépését
      * 3. Ha egyik sem lehetséges, véletlenszerű lépést hajt végre
@@ -81,7 +141,20 @@ AIPlayer implements Player {
      * @param board a játéktábla, amelyen a lépést végre kell hajtani
      */
     @Override
-    public void makeMove(Board board) {
+    public void makeMove(GameBoard board) {
+        if (threatSolver != null && board instanceof Board bounded) {
+            int forced = findForcedMove(bounded);
+            if (forced >= 0) {
+                bounded.placeSymbol(forced / bounded.getSize(), forced % bounded.getSize(), symbol);
+                return;
+            }
+        }
+
+        if (threatDetector != null && threatDetector.getBoard() == board) {
+            makeThreatMove(threatDetector.getBoard());
+            return;
+        }
+
         // 1. Próbál nyerni
         int[] winningMove = findWinningMove(board, symbol);
         if (winningMove != null) {
@@ -101,74 +174,121 @@ AIPlayer implements Player {
     }
 
 
+    /**
+     * Kényszerített nyerés a fenyegetés-tér keresővel: a saját nyerés első lépése, vagy ha
+     * az ellenfélnek van (lépésen lévőnek tekintve), az ellene ellenőrzötten védő lépés
+     * (az ő első lépése, egy költség mező vagy saját négyes); ha egyik sem véd, az ő első
+     * lépése. Az ellenfél azonnali ötösét így blokkolja.
+     *
+     * @param board a tábla
+     * @return a lépés cellaindexe, vagy -1, ha egyik félnek sincs kényszerített nyerése
+     */
+    private int findForcedMove(Board board) {
+        ThreatSpaceSolver.Result own = threatSolver.findVct(board, symbol);
+        if (own.isWin()) {
+            return own.move();
+        }
+        return threatSolver.findDefence(board, opponentSymbol).move();
+    }
+
+    /**
+     * Lépés a fenyegetés halmazokból, sorrendben: saját ötös, az ellenfél ötösének blokkolása,
+     * saját nyílt négyes, az ellenfél nyílt négyesének (vagyis nyitott hármasának) blokkolása,
+     * saját nyitott hármas, négyes, tört hármas; ha egyik sincs, véletlen lépés.
+     *
+     * @param board a felismerő által követett tábla
+     */
+    private void makeThreatMove(Board board) {
+        for (int i = 0; i < THREAT_PRIORITY.length; i++) {
+            char player = THREAT_OWN[i] ? symbol : opponentSymbol;
+            int cell = threatDetector.firstCell(player, THREAT_PRIORITY[i]);
+            if (cell >= 0) {
+                board.placeSymbol(cell / board.getSize(), cell % board.getSize(), symbol);
+                return;
+            }
+        }
+        makeRandomMove(board);
+    }
+
     /**
      * Megkeresi a nyerő lépést az adott játékos számára.
-     * A metódus végigiterál a tábla összes üres mezőjén, és mindegyikre
+     * Nyerő lépés csak egy meglévő kő mellett lehet, ezért a metódus csak a kövek 1 sugarú
+     * környezetének üres mezőin ({@link CandidateGenerator}) iterál végig, és mindegyikre
      * ellenőrzi, hogy ha az adott játékos oda helyezné a szimbólumát,
-     * az nyerő lépés-e. A tesztelés egy másolatán történik a táblának,
-     * hogy ne módosítsuk az eredeti állapotot.
+     * az nyerő lépés-e. Több nyerő lépés közül a sorfolytonosan első mezőt adja (mint a
+     * teljes tábla bejárása). A tesztelés helyben történik: lépés, ellenőrzés, majd
+     * {@link GameBoard#undo()}, így egy próba sem foglal új táblát.
      *
      * @param board a játéktábla
      * @param playerSymbol a játékos szimbóluma, akinek a nyerő lépését keressük
      * @return egy int tömb a [sor, oszlop] pozícióval, ha talált nyerő lépést,
      *         null egyébként
      */
-    private int[] findWinningMove(Board board, char playerSymbol) {
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                if (board.isEmptyCell(row, col)) {
-                    // Másolatot készítünk a tábláról
-                    Board testBoard = copyBoard(board);
-
-                    // Teszteljük a lépést a másolaton
-                    testBoard.placeSymbol(row, col, playerSymbol);
-                    boolean wouldWin = winChecker.checkWin(testBoard, row, col);
-
-                    if (wouldWin) {
-                        return new int[]{row, col};
-                    }
-                }
+    private int[] findWinningMove(GameBoard board, char playerSymbol) {
+        CandidateGenerator generator = candidatesFor(board);
+        // A jelöltek másolatán iterál: a próbalépések a halmazt is frissítik
+        int count = generator.collect();
+        int[] best = null;
+        for (int i = 0; i < count; i++) {
+            int row = generator.rowAt(i);
+            int col = generator.colAt(i);
+            if (best != null && (row > best[0] || row == best[0] && col > best[1])) {
+                continue;
+            }
+            // Teszteljük a lépést helyben, majd visszavonjuk
+            board.placeSymbol(row, col, playerSymbol);
+            boolean wouldWin = winChecker.checkWin(board, row, col);
+            board.undo();
+
+            if (wouldWin) {
+                best = new int[]{row, col};
             }
         }
-        return null;
+        return best;
     }
 
     /**
-     * Másolatot készít a megadott tábláról.
-     * A metódus létrehoz egy új Board példányt és pontosan másolja át
-     * az összes szimbólumot az eredeti tábláról. Ez biztosítja, hogy
-     * a tesztelések ne befolyásolják az eredeti játékállapotot.
-     *
-     * @param original az eredeti tábla
-     * @return a másolt tábla
+     * A táblához tartozó jelölt generátor. Egyszer jön létre: korlátos táblán a tábla
+     * értesítéseiből frissül, végtelen táblán minden híváskor a lépéstörténetből éri utol a
+     * táblát (csak a legutóbbi hívás óta változott lépésekkel).
      */
-    private Board copyBoard(Board original) {
-        Board copy = new Board();
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                char symbol = original.getSymbolAt(row, col);
-                if (symbol != '.') {
-                    copy.placeSymbol(row, col, symbol);
-                }
+    private CandidateGenerator candidatesFor(GameBoard board) {
+        if (candidates == null || candidates.getBoard() != board) {
+            if (candidates != null) {
+                candidates.detach();
             }
+            candidates = new CandidateGenerator(board, winChecker, 1);
+        } else {
+            candidates.sync();
         }
-        return copy;
+        return candidates;
     }
 
     /**
      * Véletlenszerű lépést hajt végre egy üres mezőre.
-     * A metódus addig generál véletlenszerű pozíciókat, amíg nem talál
-     * egy üres cellát a táblán, majd oda helyezi a szimbólumot.
+     * Korlátos táblán az üres cellák halmazából egyenletes eloszlással, O(1) időben választ.
+     * Végtelen táblán addig generál véletlenszerű pozíciókat az aktív területen, amíg nem talál
+     * egy üres cellát (ott a terület nagy része mindig üres), majd oda helyezi a szimbólumot.
      *
      * @param board a játéktábla, amelyen a lépést végre kell hajtani
      */
-    private void makeRandomMove(Board board) {
+    private void makeRandomMove(GameBoard board) {
+        if (board instanceof Board bounded) {
+            int index = bounded.randomEmptyCell(random);
+            if (index >= 0) {
+                bounded.placeSymbol(index / bounded.getSize(), index % bounded.getSize(), symbol);
+            }
+            return;
+        }
+
         // Csak egy véletlen mezőt válasszon és egy jelet helyezzen rá
+        int rows = board.getMaxRow() - board.getMinRow() + 1;
+        int cols = board.getMaxCol() - board.getMinCol() + 1;
         int row;
         int col;
         do {
-            row = random.nextInt(board.getSize());
-            col = random.nextInt(board.getSize());
+            row = board.getMinRow() + random.nextInt(rows);
+            col = board.getMinCol() + random.nextInt(cols);
         } while (!board.isEmptyCell(row, col));
 
         board.placeSymbol(row, col, symbol);
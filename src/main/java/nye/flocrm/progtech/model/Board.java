@@ -1,27 +1,142 @@
 package nye.flocrm.progtech.model;
 
 import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 /**
- * 10x10-es amőba játék tábla megvalósitása:
+ * NxN-es amőba játék tábla megvalósitása (alapértelmezetten 10x10).
+ * <p>
+ * A cellák tárolása bitboard formában történik: játékosonként egy-egy bithalmaz
+ * ({@code long[]}), amelyben a cella indexe {@code sor * méret + oszlop}.
+ * Így a telítettség vizsgálata bitszámlálással, a másolás pedig tömbklónozással megoldható.
+ * <p>
+ * A tábla egy inkrementálisan frissített 64 bites Zobrist hash-t is vezet,
+ * amely az állás gyors azonosítására szolgál (pl. transzpozíciós tábla, mentések összevetése).
+ * A szimmetria-független kanonikus kulcs ({@link #getCanonicalHash()}) a 8 szimmetrikus kép
+ * (forgatások, tükrözések) hash-éből számolható, másolatok nélkül. Alapból kéréskor, a kövek
+ * bejárásával számolódik, így a keresés lépései nem fizetnek érte; a {@link #trackSymmetries()}
+ * után a tábla a 7 további kép hash-ét is lépésenként frissíti, és a kulcs O(1) időben olvasható.
+ * <p>
+ * A lépések egy primitív {@code int} veremben (lépéstörténet) is rögzülnek, így az
+ * {@link #undo()} O(1) időben, allokáció nélkül visszavonja az utolsó lépést. Az AI
+ * és a keresés ezzel helyben próbálja ki a lépéseket, másolat helyett.
+ * <p>
+ * Minden foglalt cellára és a 4 irányra (vízszintes, függőleges, főátló, mellékátló)
+ * a tábla nyilvántartja a cellán átmenő azonos szimbólumú sorozat hosszát is
+ * ({@link #getRunLength(int, int, int, int)}). Lerakáskor csak az összeolvadó sorozat
+ * cellái frissülnek, így a győzelem vizsgálata egyetlen kiolvasás.
+ * <p>
+ * Az üres cellák indexelt halmazban is nyilván vannak (sűrű tömb + pozíció index),
+ * így az üres cellák száma, egy üres cella eltávolítása és egy egyenletes eloszlású
+ * véletlen üres cella kiválasztása is O(1).
+ * <p>
+ * A tábla nem szálbiztos: egyetlen (játék) szál módosítja. Más szálak a
+ * {@link #snapshot()} által készített megváltoztathatatlan {@link BoardSnapshot}
+ * példányokat olvashatják.
  */
-public final class Board {
+public final class Board implements GameBoard {
 
     //Statikus a program futása során nem megváltoztatható változók:
+    /** Az alapértelmezett táblaméret. */
     public static final int SIZE = 10;
     private static final char EMPTY_CELL = '.';
     private static final char PLAYER_X = 'X';
     private static final char PLAYER_O = 'O';
+    private static final int SYMMETRY_COUNT = Symmetry.values().length;
 
-    //Tömb amely a táblát alkotja:
-    private final char[][] grid;
+    //A sorozat index 4 iránya (vízszintes, függőleges, főátló, mellékátló) lépésvektorai:
+    private static final int DIRECTION_COUNT = 4;
+    private static final int[] DIRECTION_ROW = {0, 1, 1, 1};
+    private static final int[] DIRECTION_COL = {1, 0, 1, -1};
+
+    //A tábla mérete és az ebből számolt tárolási adatok:
+    private final int size;
+    private final int cellCount;
+
+    //Bithalmazok amelyek a táblát alkotják (X és O játékos kövei):
+    private final long[] crossBits;
+    private final long[] noughtBits;
+
+    //Zobrist kulcsok (kövenként a 8 szimmetrikus kép kulcsa egymás mellett) és az állás
+    //8 szimmetrikus képének hash-e (symmetryHashes[t] a t sorszámú Symmetry képéé, a 0. maga az állás);
+    //lépésenként csak az első trackedSymmetries frissül (1, vagy trackSymmetries() után mind a 8):
+    private final long[] zobristKeys;
+    private final long[] symmetryHashes;
+    private int trackedSymmetries = 1;
+
+    //Lépéstörténet (cellaindexek a lerakás sorrendjében), igény szerint bővül:
+    private static final int INITIAL_HISTORY_CAPACITY = 16;
+    private int[] history;
+    private int moveCount;
+
+    //Üres cellák indexelt halmaza: freeCells[0..freeCount) az üres cellák, freePos a helyük
+    private final int[] freeCells;
+    private final int[] freePos;
+
+    //Sorozat index: runs[irány * cellCount + index] a cellán átmenő sorozat hossza (üres cellán 0)
+    private final int[] runs;
+    private int freeCount;
+
+    //Módosítás számláló és a legutóbbi pillanatkép (változatlan táblánál újra felhasználható):
+    private long version;
+    private BoardSnapshot lastSnapshot;
+
+    //Változásfigyelők (kiegészítő indexek); a másolat nem örökli őket:
+    private static final MoveListener[] NO_LISTENERS = new MoveListener[0];
+    private MoveListener[] listeners = NO_LISTENERS;
 
     /**
      * Létrehoz egy új, üres 10x10-es játéktáblát.
      */
     public Board() {
-        grid = new char[SIZE][SIZE];
-        clear();
+        this(SIZE);
+    }
+
+    /**
+     * Létrehoz egy új, üres, tetszőleges méretű négyzetes játéktáblát.
+     *
+     * @param size a tábla mérete (sorok és oszlopok száma)
+     * @throws IllegalArgumentException ha a méret nem pozitív
+     */
+    public Board(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A tábla mérete legalább 1 kell legyen: " + size);
+        }
+        this.size = size;
+        this.cellCount = size * size;
+        int wordCount = (cellCount + Long.SIZE - 1) / Long.SIZE;
+        crossBits = new long[wordCount];
+        noughtBits = new long[wordCount];
+        zobristKeys = ZobristKeys.symmetricForSize(size);
+        symmetryHashes = new long[SYMMETRY_COUNT];
+        history = new int[Math.min(cellCount, INITIAL_HISTORY_CAPACITY)];
+        freeCells = new int[cellCount];
+        freePos = new int[cellCount];
+        resetFreeCells();
+        runs = new int[DIRECTION_COUNT * cellCount];
+    }
+
+    /**
+     * Másoló konstruktor: a bithalmazokat klónozza.
+     *
+     * @param other a másolandó tábla
+     */
+    private Board(Board other) {
+        size = other.size;
+        cellCount = other.cellCount;
+        crossBits = other.crossBits.clone();
+        noughtBits = other.noughtBits.clone();
+        zobristKeys = other.zobristKeys;
+        symmetryHashes = other.symmetryHashes.clone();
+        trackedSymmetries = other.trackedSymmetries;
+        history = other.history.clone();
+        moveCount = other.moveCount;
+        freeCells = other.freeCells.clone();
+        freePos = other.freePos.clone();
+        freeCount = other.freeCount;
+        runs = other.runs.clone();
+        version = other.version;
+        lastSnapshot = other.lastSnapshot;
     }
 
     /**
@@ -30,46 +145,572 @@ public final class Board {
      * @return a tábla mérete
      */
     public int getSize() {
-        return SIZE;
+        return size;
+    }
+
+    /**
+     * Korlátos táblán a teljes tábla az aktív terület.
+     */
+    @Override
+    public int getMinRow() {
+        return 0;
+    }
+
+    @Override
+    public int getMaxRow() {
+        return size - 1;
+    }
+
+    @Override
+    public int getMinCol() {
+        return 0;
+    }
+
+    @Override
+    public int getMaxCol() {
+        return size - 1;
     }
 
     /**
      * Törli a táblát, és minden cellát üresre állít.
      */
+    @Override
     public void clear() {
-        for (final char[] row : grid) {
-            Arrays.fill(row, EMPTY_CELL);
+        Arrays.fill(crossBits, 0L);
+        Arrays.fill(noughtBits, 0L);
+        Arrays.fill(symmetryHashes, 0L);
+        moveCount = 0;
+        resetFreeCells();
+        Arrays.fill(runs, 0);
+        version++;
+        for (MoveListener listener : listeners) {
+            listener.boardReset(this);
+        }
+    }
+
+    /**
+     * Minden cellát üresként vesz fel az üres cellák halmazába.
+     */
+    private void resetFreeCells() {
+        for (int i = 0; i < cellCount; i++) {
+            freeCells[i] = i;
+            freePos[i] = i;
+        }
+        freeCount = cellCount;
+    }
+
+    /**
+     * Független másolatot készít a tábláról.
+     *
+     * @return a tábla másolata
+     */
+    @Override
+    public Board copy() {
+        return new Board(this);
+    }
+
+    /**
+     * A megadott tábla teljes állapotát átmásolja ebbe a táblába.
+     * A korábbi állapot elvész.
+     *
+     * @param source a forrás tábla
+     * @throws IllegalArgumentException ha a két tábla mérete eltér
+     */
+    public void copyFrom(Board source) {
+        if (source.size != size) {
+            throw new IllegalArgumentException("Eltérő táblaméret: " + source.size + " != " + size);
+        }
+        System.arraycopy(source.crossBits, 0, crossBits, 0, crossBits.length);
+        System.arraycopy(source.noughtBits, 0, noughtBits, 0, noughtBits.length);
+        System.arraycopy(source.symmetryHashes, 0, symmetryHashes, 0, SYMMETRY_COUNT);
+        if (trackedSymmetries > source.trackedSymmetries) {
+            System.arraycopy(computeSymmetryHashes(), 1, symmetryHashes, 1, SYMMETRY_COUNT - 1);
+        }
+        if (history.length < source.moveCount) {
+            history = new int[source.history.length];
+        }
+        System.arraycopy(source.history, 0, history, 0, source.moveCount);
+        moveCount = source.moveCount;
+        System.arraycopy(source.freeCells, 0, freeCells, 0, cellCount);
+        System.arraycopy(source.freePos, 0, freePos, 0, cellCount);
+        freeCount = source.freeCount;
+        System.arraycopy(source.runs, 0, runs, 0, runs.length);
+        version++;
+        for (MoveListener listener : listeners) {
+            listener.boardReset(this);
+        }
+    }
+
+    /**
+     * Változásfigyelőt regisztrál a táblára. A {@link #copy()} által készített másolat
+     * figyelők nélkül jön létre.
+     *
+     * @param listener a figyelő
+     */
+    public void addMoveListener(MoveListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Eltávolít egy korábban regisztrált változásfigyelőt.
+     *
+     * @param listener a figyelő
+     */
+    public void removeMoveListener(MoveListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                MoveListener[] remaining = new MoveListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining.length == 0 ? NO_LISTENERS : remaining;
+                return;
+            }
         }
     }
 
     /**
-     * A játékos szimbólumát a megadott pozicioba helyezzük.
+     * Visszaadja az aktuális állás 64 bites Zobrist hash-ét.
+     * Azonos méretű, azonos kövekkel rendelkező táblák hash-e megegyezik,
+     * a lerakás sorrendjétől függetlenül.
+     *
+     * @return az állás hash-e
+     */
+    public long getHash() {
+        return symmetryHashes[0];
+    }
+
+    /**
+     * Bekapcsolja a 8 szimmetrikus kép hash-ének lépésenkénti frissítését (a másolatok is
+     * öröklik). Olyan felhasználónak való, amely sok álláson kéri a kanonikus kulcsot; egy
+     * lépés és visszavonás így 8 XOR-ral többe kerül. Ismételt hívásnak nincs hatása.
+     */
+    public void trackSymmetries() {
+        if (trackedSymmetries < SYMMETRY_COUNT) {
+            System.arraycopy(computeSymmetryHashes(), 1, symmetryHashes, 1, SYMMETRY_COUNT - 1);
+            trackedSymmetries = SYMMETRY_COUNT;
+        }
+    }
+
+    /**
+     * Megadja, hogy a tábla lépésenként frissíti-e a szimmetrikus képek hash-ét.
+     *
+     * @return true a {@link #trackSymmetries()} után
+     */
+    public boolean isTrackingSymmetries() {
+        return trackedSymmetries == SYMMETRY_COUNT;
+    }
+
+    /**
+     * Visszaadja az állás szimmetria-független (kanonikus) hash-ét: a 8 szimmetrikus
+     * kép hash-ének (előjel nélküli) minimumát. Az egymásba forgatható vagy tükrözhető
+     * állások kanonikus hash-e azonos, így egy állásonkénti gyorsítótárban (pl. megnyitási
+     * könyv, transzpozíciós tábla) elég egyszer tárolni őket. A {@link #trackSymmetries()}
+     * nélkül a kövek számával arányos időben számolódik.
+     *
+     * @return a kanonikus hash
+     */
+    public long getCanonicalHash() {
+        long[] hashes = symmetryHashes();
+        return hashes[canonicalOrdinal(hashes)];
+    }
+
+    /**
+     * Visszaadja azt a szimmetriát, amely ezt az állást a kanonikus képére viszi.
+     * Egy lépés kanonikus koordinátái {@code s.mapRow/mapCol}, egy kanonikus lépés
+     * pedig {@code s.inverse().mapRow/mapCol} segítségével képezhető vissza erre a táblára.
+     * Több azonos minimum esetén a legkisebb sorszámú szimmetria kerül visszaadásra.
+     *
+     * @return a kanonikus képet előállító szimmetria
+     */
+    public Symmetry getCanonicalSymmetry() {
+        return Symmetry.of(canonicalOrdinal(symmetryHashes()));
+    }
+
+    private static int canonicalOrdinal(long[] hashes) {
+        int best = 0;
+        for (int t = 1; t < SYMMETRY_COUNT; t++) {
+            if (Long.compareUnsigned(hashes[t], hashes[best]) < 0) {
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A 8 szimmetrikus kép hash-e: követéskor a lépésenként frissített tömb, egyébként a
+     * kövekből újraszámolt másolat.
+     */
+    private long[] symmetryHashes() {
+        return isTrackingSymmetries() ? symmetryHashes : computeSymmetryHashes();
+    }
+
+    /**
+     * A 8 szimmetrikus kép hash-ét a kövek bejárásával számolja (kövenként 8 kulcs).
+     */
+    private long[] computeSymmetryHashes() {
+        long[] hashes = new long[SYMMETRY_COUNT];
+        for (int player = 0; player < 2; player++) {
+            long[] bits = player == 0 ? crossBits : noughtBits;
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    int index = word * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    int base = SYMMETRY_COUNT * (2 * index + player);
+                    for (int t = 0; t < SYMMETRY_COUNT; t++) {
+                        hashes[t] ^= zobristKeys[base + t];
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Visszaadja a játékos köveinek bithalmazát (másolat). A cella bitindexe
+     * {@code sor * méret + oszlop}, a tömb {@code ceil(méret * méret / 64)} szóból áll.
+     * Teljes táblás bitművelet alapú feldolgozáshoz (pl. győzelem keresés).
+     *
+     * @param player a játékos szimbóluma ('X' vagy 'O')
+     * @return a bithalmaz másolata
+     * @throws IllegalArgumentException ha a szimbólum érvénytelen
+     */
+    public long[] getBits(char player) {
+        if (!isValidPlayer(player)) {
+            throw new IllegalArgumentException("Érvénytelen játékos szimbólum: " + player);
+        }
+        return (player == PLAYER_X ? crossBits : noughtBits).clone();
+    }
+
+    /**
+     * A {@link #getBits(char)} másolás nélküli változata a teljes táblás keresőknek (pl.
+     * {@code WinChecker}): a tábla saját tömbje. Csak olvasható, és csak a tábla következő
+     * módosításáig érvényes; a hívó nem módosíthatja és nem tarthatja meg.
+     *
+     * @param player a játékos szimbóluma ('X' vagy 'O')
+     * @return a bithalmaz (nem másolat)
+     * @throws IllegalArgumentException ha a szimbólum érvénytelen
+     */
+    public long[] bitsView(char player) {
+        if (!isValidPlayer(player)) {
+            throw new IllegalArgumentException("Érvénytelen játékos szimbólum: " + player);
+        }
+        return player == PLAYER_X ? crossBits : noughtBits;
+    }
+
+    /**
+     * Visszaadja a tábla módosításainak sorszámát. Minden lépés, visszavonás,
+     * törlés és felülírás növeli.
+     *
+     * @return a tábla aktuális verziója
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Megváltoztathatatlan pillanatképet készít a tábla aktuális állásáról.
+     * A két bithalmaz klónozása O(cellák / 64); ha a tábla a legutóbbi hívás óta nem
+     * változott, a korábbi pillanatkép kerül visszaadásra (másolás nélkül).
+     * A hívásnak a táblát módosító szálon kell történnie; a visszaadott példány
+     * ezután bármely szálnak átadható.
+     *
+     * @return az aktuális állás pillanatképe
+     */
+    public BoardSnapshot snapshot() {
+        BoardSnapshot cached = lastSnapshot;
+        if (cached == null || cached.getVersion() != version) {
+            cached = new BoardSnapshot(size, crossBits.clone(), noughtBits.clone(), symmetryHashes[0], version, moveCount, freeCount);
+            lastSnapshot = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Visszaadja az üres cellák számát O(1) időben.
+     *
+     * @return az üres cellák száma
+     */
+    public int getEmptyCellCount() {
+        return freeCount;
+    }
+
+    /**
+     * Visszaadja az üres cellák halmazának i-edik elemét ({@code sor * méret + oszlop} index).
+     * A sorrend a lépések során változik, ezért csak bejárásra használható
+     * ({@code 0 <= i < getEmptyCellCount()}).
+     *
+     * @param i a halmazbeli sorszám
+     * @return az üres cella indexe
+     * @throws IndexOutOfBoundsException ha i a tartományon kívül esik
+     */
+    public int getEmptyCell(int i) {
+        if (i < 0 || i >= freeCount) {
+            throw new IndexOutOfBoundsException("Érvénytelen sorszám: " + i + " (üres cellák: " + freeCount + ")");
+        }
+        return freeCells[i];
+    }
+
+    /**
+     * Egyenletes eloszlással kiválaszt egy üres cellát O(1) időben.
+     *
+     * @param random a véletlenszám-generátor
+     * @return az üres cella indexe ({@code sor * méret + oszlop}), vagy -1, ha a tábla tele van
+     */
+    public int randomEmptyCell(RandomGenerator random) {
+        if (freeCount == 0) {
+            return -1;
+        }
+        return freeCells[random.nextInt(freeCount)];
+    }
+
+    /**
+     * Visszaadja a táblán lévő (visszavonható) lépések számát.
+     *
+     * @return a lépéstörténet hossza
+     */
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Visszaadja az utolsó (még vissza nem vont) lépés cellaindexét.
+     *
+     * @return az utolsó lépés indexe ({@code sor * méret + oszlop}), vagy -1, ha nincs lépés
+     */
+    public int getLastMove() {
+        return moveCount == 0 ? -1 : history[moveCount - 1];
+    }
+
+    /**
+     * A játékos szimbólumát a megadott pozicioba helyezzük, és a lépést a
+     * lépéstörténetbe is felvesszük.
      *
      * @param row a sor indexe (0-tól kezdődően)
      * @param col az oszlop indexe (0-tól kezdődően)
      * @param player a játékos szimbóluma (»X« vagy »O«)
      * @return true, ha a lépés sikeres volt, egyébként false
      */
+    @Override
     public boolean placeSymbol(int row, int col, char player) {
         if (!isValidPosition(row, col) || !isEmptyCell(row, col) || !isValidPlayer(player)) {
             return false;
         }
-        grid[row][col] = player;
+        int index = row * size + col;
+        toggleStone(index, player);
+        removeFreeCell(index);
+        joinRuns(row, col, player == PLAYER_X ? crossBits : noughtBits);
+        if (moveCount == history.length) {
+            history = Arrays.copyOf(history, Math.min(cellCount, history.length * 2));
+        }
+        history[moveCount++] = index;
+        version++;
+        for (MoveListener listener : listeners) {
+            listener.stonePlaced(row, col, player);
+        }
+        return true;
+    }
+
+    /**
+     * Visszavonja az utolsó lépést: leveszi a követ, és a hash-t is visszaállítja.
+     * Allokációt nem végez, így keresés közben tetszőleges mélységben hívható.
+     *
+     * @return true, ha volt visszavonható lépés, egyébként false
+     */
+    @Override
+    public boolean undo() {
+        if (moveCount == 0) {
+            return false;
+        }
+        int index = history[--moveCount];
+        boolean isX = (crossBits[index >>> 6] & (1L << index)) != 0;
+        toggleStone(index, isX ? PLAYER_X : PLAYER_O);
+        addFreeCell(index);
+        splitRuns(index / size, index % size, isX ? crossBits : noughtBits);
+        version++;
+        for (MoveListener listener : listeners) {
+            listener.stoneRemoved(index / size, index % size, isX ? PLAYER_X : PLAYER_O);
+        }
         return true;
     }
 
+    /**
+     * Visszaadja a cellán átmenő, azonos szimbólumú sorozat hosszát a megadott irányban
+     * (a cellát is beleszámolva), O(1) időben. Az irány és az ellentettje ugyanazt a
+     * vonalat jelenti, pl. (0, 1) és (0, -1) is a vízszintest.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @param rowDir a sor iránya (-1, 0, 1)
+     * @param colDir az oszlop iránya (-1, 0, 1)
+     * @return a sorozat hossza, üres vagy érvénytelen cella esetén 0
+     * @throws IllegalArgumentException ha az irány (0, 0)
+     */
+    @Override
+    public int getRunLength(int row, int col, int rowDir, int colDir) {
+        int direction = directionIndex(rowDir, colDir);
+        if (!isValidPosition(row, col)) {
+            return 0;
+        }
+        return runs[direction * cellCount + row * size + col];
+    }
+
+    /**
+     * Az irányvektort a sorozat index irányára képezi (az ellentétes irány ugyanaz a vonal).
+     */
+    private static int directionIndex(int rowDir, int colDir) {
+        if (rowDir == 0 && colDir == 0) {
+            throw new IllegalArgumentException("Érvénytelen irány: (0, 0)");
+        }
+        if (rowDir == 0) {
+            return 0;
+        }
+        if (colDir == 0) {
+            return 1;
+        }
+        return rowDir == colDir ? 2 : 3;
+    }
+
+    /**
+     * Lerakás után mind a 4 irányban összevonja a kő két oldalán álló sorozatokat.
+     * A szomszéd sorozathossza egyben az adott oldal hossza (a cella eddig üres volt),
+     * ezért csak az új, összevont sorozat celláit kell átírni.
+     *
+     * @param row a lerakott kő sora
+     * @param col a lerakott kő oszlopa
+     * @param bits a kő játékosának bithalmaza
+     */
+    private void joinRuns(int row, int col, long[] bits) {
+        int index = row * size + col;
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+            int rowStep = DIRECTION_ROW[d];
+            int colStep = DIRECTION_COL[d];
+            int offset = rowStep * size + colStep;
+            int base = d * cellCount;
+            int before = hasStone(bits, row - rowStep, col - colStep) ? runs[base + index - offset] : 0;
+            int after = hasStone(bits, row + rowStep, col + colStep) ? runs[base + index + offset] : 0;
+            int length = before + 1 + after;
+            for (int i = 0, cell = base + index - before * offset; i < length; i++, cell += offset) {
+                runs[cell] = length;
+            }
+        }
+    }
+
+    /**
+     * Levétel után mind a 4 irányban kettévágja a kő sorozatát: a két oldal
+     * megmaradó részének hossza a saját cellái közé kerül, a cella 0-t kap.
+     * A levett kő cellájában még a régi teljes hossz áll, így az egyik oldal
+     * bejárása után a másik oldal hossza kivonással adódik.
+     *
+     * @param row a levett kő sora
+     * @param col a levett kő oszlopa
+     * @param bits a kő játékosának bithalmaza (a kő már nincs benne)
+     */
+    private void splitRuns(int row, int col, long[] bits) {
+        int index = row * size + col;
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+            int base = d * cellCount;
+            int length = runs[base + index];
+            runs[base + index] = 0;
+            if (length == 1) {
+                continue;
+            }
+            int rowStep = DIRECTION_ROW[d];
+            int colStep = DIRECTION_COL[d];
+            int offset = rowStep * size + colStep;
+            int before = 0;
+            while (hasStone(bits, row - (before + 1) * rowStep, col - (before + 1) * colStep)) {
+                before++;
+            }
+            int after = length - 1 - before;
+            for (int i = 0, cell = base + index - before * offset; i < before; i++, cell += offset) {
+                runs[cell] = before;
+            }
+            for (int i = 0, cell = base + index + offset; i < after; i++, cell += offset) {
+                runs[cell] = after;
+            }
+        }
+    }
+
+    /**
+     * Megadja, hogy a pozíció a táblán van-e, és van-e rajta kő a megadott bithalmazban.
+     */
+    private boolean hasStone(long[] bits, int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return false;
+        }
+        int index = row * size + col;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Kiveszi a cellát az üres cellák halmazából: a helyére az utolsó elem kerül.
+     *
+     * @param index a cella indexe
+     */
+    private void removeFreeCell(int index) {
+        int pos = freePos[index];
+        int last = freeCells[--freeCount];
+        freeCells[pos] = last;
+        freePos[last] = pos;
+        freeCells[freeCount] = index;
+        freePos[index] = freeCount;
+    }
+
+    /**
+     * Visszateszi a cellát az üres cellák halmazának végére.
+     *
+     * @param index a cella indexe
+     */
+    private void addFreeCell(int index) {
+        int pos = freePos[index];
+        int first = freeCells[freeCount];
+        freeCells[pos] = first;
+        freePos[first] = pos;
+        freeCells[freeCount] = index;
+        freePos[index] = freeCount;
+        freeCount++;
+    }
+
+    /**
+     * Egy kő be- vagy kikapcsolása a megfelelő bithalmazban, a hash (és követéskor a többi
+     * szimmetrikus hash) inkrementális frissítésével (a kő képének kulcsa az adott szimmetriában).
+     * Lerakásnál és levételnél ({@link #undo()}) is ugyanez a művelet fut, mivel mindkettő XOR.
+     *
+     * @param index a cella indexe
+     * @param player a kő szimbóluma
+     */
+    private void toggleStone(int index, char player) {
+        boolean isX = player == PLAYER_X;
+        long[] bits = isX ? crossBits : noughtBits;
+        bits[index >>> 6] ^= 1L << index;
+        int base = SYMMETRY_COUNT * (2 * index + (isX ? 0 : 1));
+        symmetryHashes[0] ^= zobristKeys[base];
+        for (int t = 1; t < trackedSymmetries; t++) {
+            symmetryHashes[t] ^= zobristKeys[base + t];
+        }
+    }
+
     /**
      * Ellenőrizzük, hogy az adott pozició érvényes-e a táblán.
      */
+    @Override
     public boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+        return row >= 0 && row < size && col >= 0 && col < size;
     }
 
     /**
      * Ellenőrizzük, hogy egy az adott cella üres vagy sem.
      */
+    @Override
     public boolean isEmptyCell(int row, int col) {
-        return isValidPosition(row, col) && grid[row][col] == EMPTY_CELL;
+        if (!isValidPosition(row, col)) {
+            return false;
+        }
+        int index = row * size + col;
+        return ((crossBits[index >>> 6] | noughtBits[index >>> 6]) & (1L << index)) == 0;
     }
 
     /**
@@ -82,8 +723,20 @@ public final class Board {
     /**
      * Getter a megadott pozícióban lévő szimbólumnak.
      */
+    @Override
     public char getSymbolAt(int row, int col) {
-        return isValidPosition(row, col) ? grid[row][col] : EMPTY_CELL;
+        if (!isValidPosition(row, col)) {
+            return EMPTY_CELL;
+        }
+        int index = row * size + col;
+        long mask = 1L << index;
+        if ((crossBits[index >>> 6] & mask) != 0) {
+            return PLAYER_X;
+        }
+        if ((noughtBits[index >>> 6] & mask) != 0) {
+            return PLAYER_O;
+        }
+        return EMPTY_CELL;
     }
 
     /**
@@ -99,7 +752,7 @@ public final class Board {
      */
     private void printHeader() {
         System.out.print("   ");
-        for (int c = 0; c < SIZE; c++) {
+        for (int c = 0; c < size; c++) {
             System.out.print(" " + (c + 1) + "  ");
         }
         System.out.println();
@@ -109,7 +762,7 @@ public final class Board {
      * Kiírja a tábla rácsszerkezetét.
      */
     private void printGrid() {
-        for (int r = 0; r < SIZE; r++) {
+        for (int r = 0; r < size; r++) {
             printHorizontalLine();
             printRow(r);
         }
@@ -122,7 +775,7 @@ public final class Board {
      */
     private void printHorizontalLine() {
         System.out.print("  +");
-        for (int c = 0; c < SIZE; c++) {
+        for (int c = 0; c < size; c++) {
             System.out.print("---+");
         }
         System.out.println();
@@ -135,23 +788,34 @@ public final class Board {
      */
     private void printRow(int row) {
         System.out.printf("%2d|", row + 1);
-        for (int c = 0; c < SIZE; c++) {
-            System.out.print(" " + grid[row][c] + " |");
+        for (int c = 0; c < size; c++) {
+            System.out.print(" " + getSymbolAt(row, c) + " |");
         }
         System.out.println();
     }
 
     /**
      * A függvény megvizsgálja, hogy megtelt-e a tábla.
+     * Az üres cellák halmazának méretéből O(1) időben dönt.
      */
+    @Override
     public boolean isFull() {
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (grid[r][c] == EMPTY_CELL) {
-                    return false;
-                }
-            }
+        return freeCount == 0;
+    }
+
+    /**
+     * Megadja, hogy a két táblán azonos-e az állás: azonos méret és ugyanazok a kövek
+     * (a lépések sorrendje nem számít). A tábla módosítható, ezért nem írja felül az
+     * {@code equals} / {@code hashCode} párost; kulcsnak a {@link #getHash()} használható.
+     *
+     * @param other a másik tábla
+     * @return true, ha az állás azonos
+     */
+    public boolean samePosition(Board other) {
+        if (this == other) {
+            return true;
         }
-        return true;
+        return other != null && size == other.size && symmetryHashes[0] == other.symmetryHashes[0]
+                && Arrays.equals(crossBits, other.crossBits) && Arrays.equals(noughtBits, other.noughtBits);
     }
-}
\ No newline at end of file
+}
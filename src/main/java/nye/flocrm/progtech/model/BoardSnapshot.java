@@ -0,0 +1,176 @@
+package nye.flocrm.progtech.model;
+
+/**
+ * A tábla egy adott pillanatbeli, megváltoztathatatlan állapota.
+ * <p>
+ * A pillanatkép a bitboard tömbök saját példányát tartja, így tetszőleges szálról,
+ * zárolás nélkül olvasható (megjelenítés, néző, automatikus mentés, háttérben futó AI),
+ * miközben a játék szála tovább lép az élő {@link Board} példányon.
+ * A verziószám a tábla módosításainak sorszáma: két azonos verziójú pillanatkép
+ * ugyanazt az állást írja le.
+ */
+public final class BoardSnapshot {
+
+    private static final char EMPTY_CELL = '.';
+    private static final char PLAYER_X = 'X';
+    private static final char PLAYER_O = 'O';
+
+    private final int size;
+    private final long[] crossBits;
+    private final long[] noughtBits;
+    private final long hash;
+    private final long version;
+    private final int moveCount;
+    private final int emptyCellCount;
+
+    /**
+     * Pillanatkép létrehozása. A tömböket a hívó adja át, és utána nem módosíthatja őket.
+     *
+     * @param size a tábla mérete
+     * @param crossBits az X kövek bithalmaza (saját példány)
+     * @param noughtBits az O kövek bithalmaza (saját példány)
+     * @param hash az állás Zobrist hash-e
+     * @param version a tábla módosításainak sorszáma
+     * @param moveCount a lépéstörténet hossza
+     * @param emptyCellCount az üres cellák száma
+     */
+    BoardSnapshot(int size, long[] crossBits, long[] noughtBits, long hash, long version, int moveCount, int emptyCellCount) {
+        this.size = size;
+        this.crossBits = crossBits;
+        this.noughtBits = noughtBits;
+        this.hash = hash;
+        this.version = version;
+        this.moveCount = moveCount;
+        this.emptyCellCount = emptyCellCount;
+    }
+
+    /**
+     * Visszaadja a tábla méretét.
+     *
+     * @return a tábla mérete
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Visszaadja a pillanatkép verzióját (a tábla módosításainak sorszámát).
+     *
+     * @return a verziószám
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Visszaadja az állás Zobrist hash-ét.
+     *
+     * @return az állás hash-e
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Visszaadja a pillanatkép készítésekor a táblán lévő lépések számát.
+     *
+     * @return a lépések száma
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Visszaadja az üres cellák számát.
+     *
+     * @return az üres cellák száma
+     */
+    public int getEmptyCellCount() {
+        return emptyCellCount;
+    }
+
+    /**
+     * Megvizsgálja, hogy a pillanatkép készítésekor tele volt-e a tábla.
+     *
+     * @return true, ha nem volt üres cella
+     */
+    public boolean isFull() {
+        return emptyCellCount == 0;
+    }
+
+    /**
+     * Visszaadja a játékos köveinek bithalmazát (másolat, a {@link Board#getBits(char)} formátumában).
+     *
+     * @param player a játékos szimbóluma ('X' vagy 'O')
+     * @return a bithalmaz másolata
+     * @throws IllegalArgumentException ha a szimbólum érvénytelen
+     */
+    public long[] getBits(char player) {
+        if (player != PLAYER_X && player != PLAYER_O) {
+            throw new IllegalArgumentException("Érvénytelen játékos szimbólum: " + player);
+        }
+        return (player == PLAYER_X ? crossBits : noughtBits).clone();
+    }
+
+    /**
+     * A játékos köveinek bithalmazát a megadott tömbbe másolja, köztes tömb nélkül
+     * (pl. sok állás egy tömbbe tömörítéséhez).
+     *
+     * @param player a játékos szimbóluma ('X' vagy 'O')
+     * @param dest a céltömb
+     * @param offset az első szó helye a céltömbben
+     * @throws IllegalArgumentException ha a szimbólum érvénytelen
+     * @throws IndexOutOfBoundsException ha a bithalmaz nem fér el a céltömbben
+     */
+    public void copyBits(char player, long[] dest, int offset) {
+        if (player != PLAYER_X && player != PLAYER_O) {
+            throw new IllegalArgumentException("Érvénytelen játékos szimbólum: " + player);
+        }
+        long[] bits = player == PLAYER_X ? crossBits : noughtBits;
+        System.arraycopy(bits, 0, dest, offset, bits.length);
+    }
+
+    /**
+     * Ellenőrzi, hogy az adott pozíció a táblán van-e.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a pozíció érvényes
+     */
+    public boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    /**
+     * Ellenőrzi, hogy az adott cella üres-e.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a pozíció érvényes és üres
+     */
+    public boolean isEmptyCell(int row, int col) {
+        return isValidPosition(row, col) && getSymbolAt(row, col) == EMPTY_CELL;
+    }
+
+    /**
+     * Visszaadja a megadott pozícióban lévő szimbólumot.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return 'X', 'O', vagy '.' üres (illetve érvénytelen) cella esetén
+     */
+    public char getSymbolAt(int row, int col) {
+        if (!isValidPosition(row, col)) {
+            return EMPTY_CELL;
+        }
+        int index = row * size + col;
+        long mask = 1L << index;
+        if ((crossBits[index >>> 6] & mask) != 0) {
+            return PLAYER_X;
+        }
+        if ((noughtBits[index >>> 6] & mask) != 0) {
+            return PLAYER_O;
+        }
+        return EMPTY_CELL;
+    }
+}
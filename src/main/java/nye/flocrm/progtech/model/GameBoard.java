@@ -0,0 +1,156 @@
+package nye.flocrm.progtech.model;
+
+/**
+ * A játéktáblák közös interfésze.
+ * Megvalósítja a korlátos {@link Board} és a végtelen mezős {@link SparseBoard} is,
+ * így a győzelem ellenőrzés és az AI mindkettőn működik.
+ */
+public interface GameBoard {
+
+    /**
+     * A játékos szimbólumát a megadott pozícióba helyezi.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @param player a játékos szimbóluma ('X' vagy 'O')
+     * @return true, ha a lépés sikeres volt, egyébként false
+     */
+    boolean placeSymbol(int row, int col, char player);
+
+    /**
+     * Visszavonja az utolsó sikeres {@link #placeSymbol(int, int, char)} lépést.
+     * A lépések kipróbálása így helyben, másolat nélkül történhet: lépés, vizsgálat, visszavonás.
+     *
+     * @return true, ha volt visszavonható lépés, egyébként false
+     */
+    boolean undo();
+
+    /**
+     * Visszaadja a táblán lévő (visszavonható) lépések számát.
+     *
+     * @return a lépéstörténet hossza
+     */
+    int getMoveCount();
+
+    /**
+     * Ellenőrzi, hogy az adott pozíció érvényes-e a táblán.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a pozíció a táblán van
+     */
+    boolean isValidPosition(int row, int col);
+
+    /**
+     * Ellenőrzi, hogy az adott cella üres-e.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a pozíció érvényes és üres
+     */
+    boolean isEmptyCell(int row, int col);
+
+    /**
+     * Visszaadja a megadott pozícióban lévő szimbólumot.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return 'X', 'O', vagy '.' üres (illetve érvénytelen) cella esetén
+     */
+    char getSymbolAt(int row, int col);
+
+    /**
+     * Megvizsgálja, hogy megtelt-e a tábla.
+     *
+     * @return true, ha nincs több üres cella
+     */
+    boolean isFull();
+
+    /**
+     * Törli a táblát.
+     */
+    void clear();
+
+    /**
+     * Független másolatot készít a tábláról.
+     *
+     * @return a tábla másolata
+     */
+    GameBoard copy();
+
+    /**
+     * Az aktív terület legkisebb sorindexe. Korlátos táblán 0, végtelen táblán
+     * a kövek befoglaló téglalapja körüli egy cellás sáv széle.
+     *
+     * @return a legkisebb vizsgálandó sorindex
+     */
+    int getMinRow();
+
+    /**
+     * Az aktív terület legnagyobb sorindexe.
+     *
+     * @return a legnagyobb vizsgálandó sorindex
+     */
+    int getMaxRow();
+
+    /**
+     * Az aktív terület legkisebb oszlopindexe.
+     *
+     * @return a legkisebb vizsgálandó oszlopindex
+     */
+    int getMinCol();
+
+    /**
+     * Az aktív terület legnagyobb oszlopindexe.
+     *
+     * @return a legnagyobb vizsgálandó oszlopindex
+     */
+    int getMaxCol();
+
+    /**
+     * Visszaadja a cellán átmenő, azonos szimbólumú sorozat hosszát az adott vonalon
+     * (a cellát is beleszámolva; az irány és az ellentettje ugyanaz a vonal).
+     * Az alapértelmezett megvalósítás két irányba számol; a {@link Board} egy lépésenként
+     * frissített indexből O(1) időben olvassa ki.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @param rowDir a sor iránya (-1, 0, 1)
+     * @param colDir az oszlop iránya (-1, 0, 1)
+     * @return a sorozat hossza, üres cella esetén 0
+     */
+    default int getRunLength(int row, int col, int rowDir, int colDir) {
+        char symbol = getSymbolAt(row, col);
+        if (symbol != 'X' && symbol != 'O') {
+            return 0;
+        }
+        return 1 + countInDirection(row, col, symbol, rowDir, colDir)
+                + countInDirection(row, col, symbol, -rowDir, -colDir);
+    }
+
+    /**
+     * Megszámolja, hány azonos szimbólum van egy adott irányban egymás mellett
+     * (a kezdőpontot nem számolva). Az alapértelmezett megvalósítás cellánként lép;
+     * a megvalósítások gyorsabb bejárást adhatnak.
+     *
+     * @param row a kezdő sor indexe
+     * @param col a kezdő oszlop indexe
+     * @param symbol a keresett szimbólum ('X' vagy 'O')
+     * @param rowDir a sor iránya (-1, 0, 1)
+     * @param colDir az oszlop iránya (-1, 0, 1)
+     * @return az azonos szimbólumok száma az adott irányban
+     */
+    default int countInDirection(int row, int col, char symbol, int rowDir, int colDir) {
+        int count = 0;
+        int currentRow = row + rowDir;
+        int currentCol = col + colDir;
+
+        while (isValidPosition(currentRow, currentCol) && getSymbolAt(currentRow, currentCol) == symbol) {
+            count++;
+            currentRow += rowDir;
+            currentCol += colDir;
+        }
+
+        return count;
+    }
+}
@@ -4,13 +4,26 @@ package nye.flocrm.progtech.model;
  * A játék lehetséges játékmódjai.
  */
 public enum GameMode {
-    HUMAN_VS_HUMAN("Ember vs Ember"),
-    HUMAN_VS_AI("Ember vs Számítógép");
+    HUMAN_VS_HUMAN("Ember vs Ember", 0),
+    HUMAN_VS_AI("Ember vs Számítógép", 0),
+    HUMAN_VS_SEARCH_AI("Ember vs Erős számítógép", 1000),
+    HUMAN_VS_MCTS_AI("Ember vs Monte Carlo számítógép", 1000);
 
     private final String displayName;
+    private final long moveTimeMillis;
 
-    GameMode(String displayName) {
+    GameMode(String displayName, long moveTimeMillis) {
         this.displayName = displayName;
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    /**
+     * Visszaadja a kereső (alfa-béta vagy Monte Carlo) AI lépésenkénti időkeretét.
+     *
+     * @return az időkeret ezredmásodpercben, vagy 0, ha a módban nincs kereső AI
+     */
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
     }
 
     /**
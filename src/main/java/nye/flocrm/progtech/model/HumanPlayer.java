@@ -56,7 +56,7 @@ public class HumanPlayer implements Player {
      * @param board a játéktábla
      */
     @Override
-    public void makeMove(Board board) {
+    public void makeMove(GameBoard board) {
     }
 
     /**
@@ -0,0 +1,184 @@
+package nye.flocrm.progtech.model;
+
+import java.util.function.BooleanSupplier;
+
+import nye.flocrm.progtech.service.MctsEngine;
+import nye.flocrm.progtech.service.ParallelSearch;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * Monte Carlo AI játékos: a lépését Monte Carlo fakereséssel ({@link MctsEngine}) választja,
+ * lépésenként rögzített időkereten belül. A fa a lépések között megmarad, a következő lépés
+ * a ténylegesen megtett lépések alatti részfából folytatja. Végtelen táblán az
+ * {@link AIPlayer} egylépéses stratégiájával lép.
+ * <p>
+ * Háttérben gondolkodáskor ({@link #ponder(Board, long, BooleanSupplier)}) egy szálon az
+ * ellenfél lépésén lévő állás fáját építi; az ellenfél tényleges lépése alatti részfát a
+ * következő lépés megtartja (ez a találat), a többit eldobja.
+ * <p>
+ * Használat után a {@link #close()} állítja le a lejátszások szálkészletét.
+ */
+public class MctsAIPlayer implements Player, Ponderable, AutoCloseable {
+
+    private final String name;
+    private final char symbol;
+    private final long moveTimeMillis;
+    private final WinChecker winChecker;
+    private MctsEngine engine;
+    private final AIPlayer fallback;
+    private MctsEngine.Result lastResult;
+
+    /**
+     * Konstruktor a Monte Carlo AI játékos inicializálásához.
+     *
+     * @param name a játékos neve
+     * @param symbol a játékos szimbóluma ('X' vagy 'O')
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz, szabályrendszer)
+     * @param moveTimeMillis a lépésenkénti időkeret ezredmásodpercben
+     * @throws IllegalArgumentException ha az időkeret negatív
+     */
+    public MctsAIPlayer(String name, char symbol, WinChecker winChecker, long moveTimeMillis) {
+        if (moveTimeMillis < 0) {
+            throw new IllegalArgumentException("Az időkeret nem lehet negatív: " + moveTimeMillis);
+        }
+        this.name = name;
+        this.symbol = symbol;
+        this.moveTimeMillis = moveTimeMillis;
+        this.winChecker = winChecker;
+        this.engine = new MctsEngine(winChecker);
+        this.fallback = new AIPlayer(name, symbol, symbol == 'X' ? 'O' : 'X', winChecker);
+    }
+
+    /**
+     * Visszaadja a játékos nevét.
+     *
+     * @return a játékos neve
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Beállítja a játékos nevét (AI esetén nem használatos).
+     *
+     * @param name az új név
+     */
+    @Override
+    public void setName(String name) {
+    }
+
+    /**
+     * Visszaadja a játékos szimbólumát.
+     *
+     * @return a játékos szimbóluma
+     */
+    @Override
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Megadja, hogy a játékos emberi-e.
+     *
+     * @return mindig false, mivel ez AI játékos
+     */
+    @Override
+    public boolean isHuman() {
+        return false;
+    }
+
+    /**
+     * Visszaadja a lépésenkénti időkeretet.
+     *
+     * @return az időkeret ezredmásodpercben
+     */
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    /**
+     * Beállítja a lejátszások szálainak számát (alapból 1). A korábbi szálkészletet leállítja,
+     * a lejátszási keret megmarad, a fa nem.
+     *
+     * @param threads a szálak száma (1..{@value ParallelSearch#MAX_THREADS})
+     * @throws IllegalArgumentException ha a szálak száma a tartományon kívül esik
+     */
+    public void setThreadCount(int threads) {
+        if (threads == engine.getThreadCount()) {
+            return;
+        }
+        MctsEngine replacement = new MctsEngine(winChecker, threads, engine.getCapacity());
+        replacement.setPlayoutLimit(engine.getPlayoutLimit());
+        engine.close();
+        engine = replacement;
+    }
+
+    /**
+     * Visszaadja a lejátszások szálainak számát.
+     *
+     * @return a szálak száma
+     */
+    public int getThreadCount() {
+        return engine.getThreadCount();
+    }
+
+    /**
+     * Leállítja a lejátszások szálkészletét. Utána a játékos egy szálon keres tovább.
+     */
+    @Override
+    public void close() {
+        engine.close();
+    }
+
+    /**
+     * Visszaadja a kereső motort (pl. a lejátszások számának korlátozásához). A szálak számának
+     * módosítása után új példány.
+     *
+     * @return a kereső
+     */
+    public MctsEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Visszaadja a legutóbbi keresés eredményét (lejátszások, lejátszás / másodperc, megtartott látogatások).
+     *
+     * @return az eredmény, vagy null, ha még nem keresett
+     */
+    public MctsEngine.Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Háttérben gondolkodás egy szálon: a fa építése az ellenfél szemszögéből a határidőig
+     * vagy a leállítási feltételig.
+     *
+     * @param position az állás, amelyben az ellenfél van lépésen
+     * @param deadlineNanos a határidő
+     * @param stopCondition a leállítási feltétel
+     */
+    @Override
+    public void ponder(Board position, long deadlineNanos, BooleanSupplier stopCondition) {
+        engine.searchUntil(position, symbol == 'X' ? 'O' : 'X', deadlineNanos, 1, stopCondition);
+    }
+
+    /**
+     * Lépést hajt végre a táblán: korlátos táblán a Monte Carlo keresés legtöbbet látogatott
+     * lépését az időkereten belül, végtelen táblán az egylépéses stratégia lépését.
+     *
+     * @param board a játéktábla, amelyen a lépést végre kell hajtani
+     */
+    @Override
+    public void makeMove(GameBoard board) {
+        if (!(board instanceof Board bounded)) {
+            fallback.makeMove(board);
+            return;
+        }
+        lastResult = engine.search(bounded, symbol, moveTimeMillis);
+        int move = lastResult.move();
+        if (move >= 0) {
+            bounded.placeSymbol(move / bounded.getSize(), move % bounded.getSize(), symbol);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package nye.flocrm.progtech.model;
+
+/**
+ * Értesítés a {@link Board} változásairól.
+ * <p>
+ * Inkrementálisan frissített kiegészítő indexek (pl. nyerő ablakok számlálói) ezen keresztül
+ * követik a táblát, így a tábla hívóinak nem kell tudniuk róluk. Az értesítések a táblát
+ * módosító szálon, a módosítás után futnak.
+ */
+public interface MoveListener {
+
+    /**
+     * Egy kő került a táblára ({@link Board#placeSymbol(int, int, char)}).
+     *
+     * @param row a kő sora
+     * @param col a kő oszlopa
+     * @param player a kő szimbóluma ('X' vagy 'O')
+     */
+    void stonePlaced(int row, int col, char player);
+
+    /**
+     * Egy kő lekerült a tábláról ({@link Board#undo()}).
+     *
+     * @param row a kő sora
+     * @param col a kő oszlopa
+     * @param player a kő szimbóluma ('X' vagy 'O')
+     */
+    void stoneRemoved(int row, int col, char player);
+
+    /**
+     * A tábla teljes állapota lecserélődött ({@link Board#clear()}, {@link Board#copyFrom(Board)}).
+     * A figyelőnek a tábla aktuális állásából kell újraépülnie.
+     *
+     * @param board a megváltozott tábla
+     */
+    void boardReset(Board board);
+}
@@ -28,11 +28,11 @@ public interface Player {
     char getSymbol();
 
     /**
-     * Lépést hajt végre a megadott táblán.
+     * Lépést hajt végre a megadott táblán (korlátos vagy végtelen).
      *
      * @param board a játéktábla
      */
-    void makeMove(Board board);
+    void makeMove(GameBoard board);
 
     /**
      * Megadja, hogy a játékos emberi-e.
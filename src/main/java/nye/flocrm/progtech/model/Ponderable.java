@@ -0,0 +1,26 @@
+package nye.flocrm.progtech.model;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Háttérben gondolkodni képes (AI) játékos: amíg az ellenfél lépésére vár, a várható
+ * folytatásokat keresi, és az eredményt (transzpozíciós tábla, keresőfa, kész válasz) a
+ * következő {@link Player#makeMove(GameBoard)} hívás felhasználja.
+ * <p>
+ * A {@link #ponder(Board, long, BooleanSupplier)} egy háttérszálon fut; a hívó a játékos más
+ * metódusait csak azután hívja, hogy a gondolkodás befejeződött.
+ */
+public interface Ponderable {
+
+    /**
+     * Gondolkodik az álláson, amelyben az ellenfél van lépésen, legfeljebb a határidőig
+     * ({@link System#nanoTime()} szerint), vagy amíg a leállítási feltétel nem teljesül.
+     * A feltételt a gondolkodó szálon, rendszeres időközönként hívja (így az pl. a szál
+     * CPU idejét is mérheti); a hívó felel azért, hogy teljesülés után teljesült is maradjon.
+     *
+     * @param position az állás saját másolata (a játékos módosíthatja, a hívó nem használja tovább)
+     * @param deadlineNanos a határidő
+     * @param stopCondition a leállítási feltétel (törlés vagy elfogyott keret)
+     */
+    void ponder(Board position, long deadlineNanos, BooleanSupplier stopCondition);
+}
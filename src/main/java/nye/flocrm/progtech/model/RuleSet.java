@@ -0,0 +1,71 @@
+package nye.flocrm.progtech.model;
+
+/**
+ * A játszma szabályrendszere.
+ * <p>
+ * A szabályrendszer azt dönti el, hogy a nyerő hossznál hosszabb sorozat (túlhosszú sor)
+ * győzelem-e, és hogy az első (X) játékosra vonatkoznak-e tiltott lépések.
+ */
+public enum RuleSet {
+    /** Szabad gomoku: legalább nyerő hosszú sorozat nyer, nincs tiltott lépés. */
+    FREESTYLE("Szabad"),
+    /** Pontosan nyerő hosszú sorozat nyer, a túlhosszú sor egyik játékosnak sem számít. */
+    EXACT_FIVE("Pontosan öt"),
+    /**
+     * Renju: X-nek pontosan öt kell, és számára tiltott a dupla hármas, a dupla négyes
+     * és a túlhosszú sor; O-nak a túlhosszú sor is győzelem.
+     */
+    RENJU("Renju");
+
+    /** A Renju szabályrendszer nyerő hossza. */
+    public static final int RENJU_WINNING_LENGTH = 5;
+
+    private final String displayName;
+
+    RuleSet(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Megadja, hogy a játékosnak győzelem-e a nyerő hossznál hosszabb sorozat.
+     *
+     * @param player a játékos szimbóluma
+     * @return true, ha a túlhosszú sor is nyer
+     */
+    public boolean allowsOverline(char player) {
+        return switch (this) {
+            case FREESTYLE -> true;
+            case EXACT_FIVE -> false;
+            case RENJU -> player != 'X';
+        };
+    }
+
+    /**
+     * Megadja, hogy a játékosra vonatkoznak-e tiltott lépések.
+     *
+     * @param player a játékos szimbóluma
+     * @return true, ha a játékos lépéseit a tiltott lépés szabályok szűrik
+     */
+    public boolean hasForbiddenMoves(char player) {
+        return this == RENJU && player == 'X';
+    }
+
+    /**
+     * Visszaadja a szabályrendszer megjelenítendő nevét.
+     *
+     * @return a megjelenítendő név
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Visszaadja a szabályrendszer szöveges reprezentációját.
+     *
+     * @return a szabályrendszer neve
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,275 @@
+package nye.flocrm.progtech.model;
+
+import java.util.function.BooleanSupplier;
+
+import nye.flocrm.progtech.service.ParallelSearch;
+import nye.flocrm.progtech.service.SearchEngine;
+import nye.flocrm.progtech.service.TranspositionTable;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * Kereső AI játékos: a lépését alfa-béta kereséssel ({@link SearchEngine}) választja,
+ * lépésenként rögzített időkereten belül. Végtelen táblán, ahol a kereső nem használható,
+ * az {@link AIPlayer} egylépéses stratégiájával lép. A kereső saját transzpozíciós
+ * táblát kap, amely a lépések között is megmarad. Több szálon ({@link #setThreadCount(int)})
+ * a szálak ezen a táblán osztoznak ({@link ParallelSearch}).
+ * <p>
+ * Háttérben gondolkodáskor ({@link #ponder(Board, long, BooleanSupplier)}) egy szálon megbecsüli
+ * az ellenfél válaszát, és arra keresi a saját lépését. Ha az ellenfél tényleg ezt lépi
+ * (találat), és az egyszálú háttérkeresés legalább olyan mélyre jutott, mint az előző
+ * (esetleg több szálas) lépés keresése, a kész választ azonnal lépi; egyébként a szokásos
+ * keresés fut, a gondolkodás közben feltöltött táblával.
+ * <p>
+ * Használat után a {@link #close()} állítja le a keresés szálkészletét.
+ */
+public class SearchAIPlayer implements Player, Ponderable, AutoCloseable {
+
+    /** A transzpozíciós tábla mérete megabájtban. */
+    public static final int TABLE_SIZE_MB = 16;
+
+    private final String name;
+    private final char symbol;
+    private final long moveTimeMillis;
+    private final WinChecker winChecker;
+    private final TranspositionTable transpositionTable;
+    private ParallelSearch search;
+    private final AIPlayer fallback;
+    private SearchEngine.Result lastResult;
+
+    //A háttérben gondolkodás eredménye: a becsült válasz utáni állás és az arra talált lépés
+    private int predictedReply = -1;
+    private long ponderHash;
+    private int ponderMoveCount;
+    private long ponderNanos;
+    private SearchEngine.Result ponderResult;
+    private int ponderHits;
+    //Az utolsó szokásos (nem eldöntött állású) keresés mélysége: a találat mércéje
+    private int lastSearchDepth;
+
+    /**
+     * Konstruktor a kereső AI játékos inicializálásához.
+     *
+     * @param name a játékos neve
+     * @param symbol a játékos szimbóluma ('X' vagy 'O')
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz, szabályrendszer)
+     * @param moveTimeMillis a lépésenkénti időkeret ezredmásodpercben
+     * @throws IllegalArgumentException ha az időkeret negatív
+     */
+    public SearchAIPlayer(String name, char symbol, WinChecker winChecker, long moveTimeMillis) {
+        if (moveTimeMillis < 0) {
+            throw new IllegalArgumentException("Az időkeret nem lehet negatív: " + moveTimeMillis);
+        }
+        this.name = name;
+        this.symbol = symbol;
+        this.moveTimeMillis = moveTimeMillis;
+        this.winChecker = winChecker;
+        this.transpositionTable = new TranspositionTable(TABLE_SIZE_MB);
+        this.search = new ParallelSearch(winChecker, 1, transpositionTable);
+        this.fallback = new AIPlayer(name, symbol, symbol == 'X' ? 'O' : 'X', winChecker);
+    }
+
+    /**
+     * Visszaadja a játékos nevét.
+     *
+     * @return a játékos neve
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Beállítja a játékos nevét (AI esetén nem használatos).
+     *
+     * @param name az új név
+     */
+    @Override
+    public void setName(String name) {
+    }
+
+    /**
+     * Visszaadja a játékos szimbólumát.
+     *
+     * @return a játékos szimbóluma
+     */
+    @Override
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Megadja, hogy a játékos emberi-e.
+     *
+     * @return mindig false, mivel ez AI játékos
+     */
+    @Override
+    public boolean isHuman() {
+        return false;
+    }
+
+    /**
+     * Visszaadja a lépésenkénti időkeretet.
+     *
+     * @return az időkeret ezredmásodpercben
+     */
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    /**
+     * Beállítja a keresés szálainak számát (alapból 1). A korábbi szálkészletet leállítja,
+     * a transzpozíciós tábla és a maximális mélység megmarad.
+     *
+     * @param threads a szálak száma (1..{@value ParallelSearch#MAX_THREADS})
+     * @throws IllegalArgumentException ha a szálak száma a tartományon kívül esik
+     */
+    public void setThreadCount(int threads) {
+        if (threads == search.getThreadCount()) {
+            return;
+        }
+        ParallelSearch replacement = new ParallelSearch(winChecker, threads, transpositionTable);
+        replacement.getEngine().setMaxDepth(search.getEngine().getMaxDepth());
+        search.close();
+        search = replacement;
+    }
+
+    /**
+     * Visszaadja a keresés szálainak számát.
+     *
+     * @return a szálak száma
+     */
+    public int getThreadCount() {
+        return search.getThreadCount();
+    }
+
+    /**
+     * Leállítja a keresés szálkészletét. Utána a játékos egy szálon keres tovább.
+     */
+    @Override
+    public void close() {
+        search.close();
+    }
+
+    /**
+     * Visszaadja a (fő) kereső motort (pl. a mélység korlátozásához). A szálak számának
+     * módosítása után új példány.
+     *
+     * @return a kereső
+     */
+    public SearchEngine getEngine() {
+        return search.getEngine();
+    }
+
+    /**
+     * Visszaadja a legutóbbi keresés eredményét (elért mélység, érték, csomópontok).
+     *
+     * @return az eredmény, vagy null, ha még nem keresett
+     */
+    public SearchEngine.Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Visszaadja a legutóbbi háttérben gondolkodás során becsült ellenfél választ.
+     *
+     * @return a cellaindex, vagy -1, ha nincs becslés
+     */
+    public int getPredictedReply() {
+        return predictedReply;
+    }
+
+    /**
+     * Visszaadja, hány lépést hajtott végre közvetlenül a háttérkeresés eredményéből.
+     *
+     * @return a találatok száma
+     */
+    public int getPonderHitCount() {
+        return ponderHits;
+    }
+
+    /**
+     * Háttérben gondolkodás egy szálon: az ellenfél becsült válasza (egy lépésnyi időkeretű
+     * keresés az ő szemszögéből), majd a saját lépés keresése a válasz utáni állásban a
+     * határidőig vagy a leállítási feltételig. Mindkét keresés a közös transzpozíciós táblát tölti.
+     *
+     * @param position az állás, amelyben az ellenfél van lépésen
+     * @param deadlineNanos a határidő
+     * @param stopCondition a leállítási feltétel
+     */
+    @Override
+    public void ponder(Board position, long deadlineNanos, BooleanSupplier stopCondition) {
+        predictedReply = -1;
+        ponderResult = null;
+        char opponent = symbol == 'X' ? 'O' : 'X';
+        SearchEngine engine = search.getEngine();
+        long guessDeadline = Math.min(deadlineNanos, System.nanoTime() + moveTimeMillis * 1_000_000L);
+        int reply = engine.searchUntil(position, opponent, guessDeadline, stopCondition).move();
+        if (reply < 0 || stopCondition.getAsBoolean()) {
+            return;
+        }
+        int size = position.getSize();
+        position.placeSymbol(reply / size, reply % size, opponent);
+        predictedReply = reply;
+        if (winChecker.checkWin(position, reply / size, reply % size) || position.isFull()) {
+            return;
+        }
+        ponderHash = position.getHash();
+        ponderMoveCount = position.getMoveCount();
+        long start = System.nanoTime();
+        ponderResult = engine.searchUntil(position, symbol, deadlineNanos, stopCondition);
+        ponderNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Lépést hajt végre a táblán: korlátos táblán a kereső legjobb lépését az időkereten
+     * belül (háttérkeresési találatnál a kész választ), végtelen táblán az egylépéses
+     * stratégia lépését.
+     *
+     * @param board a játéktábla, amelyen a lépést végre kell hajtani
+     */
+    @Override
+    public void makeMove(GameBoard board) {
+        if (!(board instanceof Board bounded)) {
+            fallback.makeMove(board);
+            return;
+        }
+        SearchEngine.Result pondered = ponderResult;
+        ponderResult = null;
+        if (isPonderHit(bounded, pondered)) {
+            ponderHits++;
+            lastResult = pondered;
+        } else {
+            lastResult = search.search(bounded, symbol, moveTimeMillis);
+            if (!isDecided(lastResult)) {
+                lastSearchDepth = lastResult.depth();
+            }
+        }
+        int move = lastResult.move();
+        if (move >= 0) {
+            bounded.placeSymbol(move / bounded.getSize(), move % bounded.getSize(), symbol);
+        }
+    }
+
+    /**
+     * Találat: a háttérkeresés a tábla mostani állására futott, és eldöntött állást talált, vagy
+     * legalább az előző szokásos keresés mélységéig jutott. Ha még nem volt szokásos keresés,
+     * az egyszálú háttérkeresésnek a szálak számával szorzott időkeretig kellett futnia.
+     */
+    private boolean isPonderHit(Board board, SearchEngine.Result pondered) {
+        if (pondered == null || pondered.move() < 0 || board.getHash() != ponderHash
+                || board.getMoveCount() != ponderMoveCount) {
+            return false;
+        }
+        if (isDecided(pondered)) {
+            return true;
+        }
+        if (lastSearchDepth > 0) {
+            return pondered.depth() >= lastSearchDepth;
+        }
+        return ponderNanos >= moveTimeMillis * 1_000_000L * search.getThreadCount();
+    }
+
+    private static boolean isDecided(SearchEngine.Result result) {
+        return Math.abs(result.score()) > SearchEngine.WIN_SCORE - SearchEngine.MAX_DEPTH - 1;
+    }
+}
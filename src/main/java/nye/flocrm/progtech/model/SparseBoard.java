@@ -0,0 +1,404 @@
+package nye.flocrm.progtech.model;
+
+import java.util.Arrays;
+
+/**
+ * Végtelen (korlátlan) mezős amőba tábla ritka tárolással.
+ * <p>
+ * A mező 16x16-os csempékre (tile) van osztva, amelyek csak az első kő
+ * lerakásakor jönnek létre. Egy csempe játékosonként 4-4 {@code long} szóban tárolja
+ * a köveket (bitboard), a csempéket pedig egy primitív {@code long} kulcsú,
+ * nyílt címzésű hash tábla tartja nyilván. A memóriahasználat így a kövek számával
+ * arányos, nem a mező területével.
+ * <p>
+ * Bármely {@code int} koordináta érvényes, a negatívak is.
+ * <p>
+ * A lépéstörténet egy primitív {@code int} veremben tárolódik (a lépés koordinátái és az
+ * előző befoglaló téglalap), így az {@link #undo()} allokáció nélkül visszaállítja az állást.
+ * A kiürült csempék megmaradnak, hogy az ismételt kipróbálás se foglaljon memóriát.
+ */
+public final class SparseBoard implements GameBoard {
+
+    private static final char EMPTY_CELL = '.';
+    private static final char PLAYER_X = 'X';
+    private static final char PLAYER_O = 'O';
+
+    //Csempe geometria: 16x16 cella, játékosonként 4 szó
+    private static final int TILE_SHIFT = 4;
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+    private static final int TILE_WORDS = (1 << (2 * TILE_SHIFT)) / Long.SIZE;
+
+    //Lépéstörténet: lépésenként sor, oszlop és az előző minRow, maxRow, minCol, maxCol
+    private static final int HISTORY_STRIDE = 6;
+    private static final int INITIAL_HISTORY_CAPACITY = 16 * HISTORY_STRIDE;
+
+    private TileMap tiles;
+    private int stoneCount;
+    private int minRow;
+    private int maxRow;
+    private int minCol;
+    private int maxCol;
+    private int[] history;
+
+    /**
+     * Létrehoz egy új, üres végtelen táblát.
+     */
+    public SparseBoard() {
+        tiles = new TileMap();
+        history = new int[INITIAL_HISTORY_CAPACITY];
+    }
+
+    /**
+     * Másoló konstruktor: a csempéket egyenként klónozza.
+     *
+     * @param other a másolandó tábla
+     */
+    private SparseBoard(SparseBoard other) {
+        tiles = other.tiles.deepCopy();
+        stoneCount = other.stoneCount;
+        minRow = other.minRow;
+        maxRow = other.maxRow;
+        minCol = other.minCol;
+        maxCol = other.maxCol;
+        history = other.history.clone();
+    }
+
+    @Override
+    public SparseBoard copy() {
+        return new SparseBoard(this);
+    }
+
+    @Override
+    public void clear() {
+        tiles = new TileMap();
+        stoneCount = 0;
+    }
+
+    @Override
+    public boolean placeSymbol(int row, int col, char player) {
+        if (!isValidPlayer(player)) {
+            return false;
+        }
+        long[] tile = tiles.getOrCreate(tileKey(row >> TILE_SHIFT, col >> TILE_SHIFT));
+        int local = localIndex(row, col);
+        int word = local >>> 6;
+        long mask = 1L << local;
+        if (((tile[word] | tile[TILE_WORDS + word]) & mask) != 0) {
+            return false;
+        }
+        tile[player == PLAYER_X ? word : TILE_WORDS + word] |= mask;
+        pushHistory(row, col);
+        updateBounds(row, col);
+        stoneCount++;
+        return true;
+    }
+
+    /**
+     * Visszavonja az utolsó lépést, és visszaállítja a befoglaló téglalapot.
+     *
+     * @return true, ha volt visszavonható lépés, egyébként false
+     */
+    @Override
+    public boolean undo() {
+        if (stoneCount == 0) {
+            return false;
+        }
+        stoneCount--;
+        int base = stoneCount * HISTORY_STRIDE;
+        final int row = history[base];
+        final int col = history[base + 1];
+        minRow = history[base + 2];
+        maxRow = history[base + 3];
+        minCol = history[base + 4];
+        maxCol = history[base + 5];
+
+        long[] tile = tiles.get(tileKey(row >> TILE_SHIFT, col >> TILE_SHIFT));
+        int local = localIndex(row, col);
+        long clearMask = ~(1L << local);
+        tile[local >>> 6] &= clearMask;
+        tile[TILE_WORDS + (local >>> 6)] &= clearMask;
+        return true;
+    }
+
+    @Override
+    public int getMoveCount() {
+        return stoneCount;
+    }
+
+    /**
+     * A végtelen táblán minden koordináta érvényes.
+     */
+    @Override
+    public boolean isValidPosition(int row, int col) {
+        return true;
+    }
+
+    @Override
+    public boolean isEmptyCell(int row, int col) {
+        return getSymbolAt(row, col) == EMPTY_CELL;
+    }
+
+    /**
+     * Ellenőrzi a játékos szimbólumának érvényességét.
+     *
+     * @param player a szimbólum
+     * @return true, ha 'X' vagy 'O'
+     */
+    public boolean isValidPlayer(char player) {
+        return player == PLAYER_X || player == PLAYER_O;
+    }
+
+    @Override
+    public char getSymbolAt(int row, int col) {
+        long[] tile = tiles.get(tileKey(row >> TILE_SHIFT, col >> TILE_SHIFT));
+        if (tile == null) {
+            return EMPTY_CELL;
+        }
+        int local = localIndex(row, col);
+        long mask = 1L << local;
+        if ((tile[local >>> 6] & mask) != 0) {
+            return PLAYER_X;
+        }
+        if ((tile[TILE_WORDS + (local >>> 6)] & mask) != 0) {
+            return PLAYER_O;
+        }
+        return EMPTY_CELL;
+    }
+
+    /**
+     * A végtelen tábla soha nem telik meg.
+     */
+    @Override
+    public boolean isFull() {
+        return false;
+    }
+
+    /**
+     * Visszaadja a lerakott kövek számát.
+     *
+     * @return a kövek száma
+     */
+    public int getStoneCount() {
+        return stoneCount;
+    }
+
+    /**
+     * Visszaadja a lépéstörténet i-edik (0-tól számozott) lépésének sorát. A lépéstörténetből a
+     * kövek a mező területétől függetlenül, a kövek számával arányos időben bejárhatók.
+     *
+     * @param i a lépés sorszáma ({@code 0 <= i < getMoveCount()})
+     * @return a lépés sora
+     * @throws IndexOutOfBoundsException ha i a tartományon kívül esik
+     */
+    public int getMoveRow(int i) {
+        return history[historyBase(i)];
+    }
+
+    /**
+     * Visszaadja a lépéstörténet i-edik (0-tól számozott) lépésének oszlopát.
+     *
+     * @param i a lépés sorszáma ({@code 0 <= i < getMoveCount()})
+     * @return a lépés oszlopa
+     * @throws IndexOutOfBoundsException ha i a tartományon kívül esik
+     */
+    public int getMoveCol(int i) {
+        return history[historyBase(i) + 1];
+    }
+
+    /**
+     * Visszaadja a lefoglalt csempék számát (memóriahasználat mérésére).
+     *
+     * @return a csempék száma
+     */
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    @Override
+    public int getMinRow() {
+        return stoneCount == 0 ? 0 : minRow - 1;
+    }
+
+    @Override
+    public int getMaxRow() {
+        return stoneCount == 0 ? 0 : maxRow + 1;
+    }
+
+    @Override
+    public int getMinCol() {
+        return stoneCount == 0 ? 0 : minCol - 1;
+    }
+
+    @Override
+    public int getMaxCol() {
+        return stoneCount == 0 ? 0 : maxCol + 1;
+    }
+
+    /**
+     * Irányonkénti számlálás csempén belüli lépkedéssel: a hash táblát csak
+     * csempehatár átlépésekor kérdezi le, nem minden cellánál.
+     */
+    @Override
+    public int countInDirection(int row, int col, char symbol, int rowDir, int colDir) {
+        if (!isValidPlayer(symbol)) {
+            return 0;
+        }
+        int offset = symbol == PLAYER_X ? 0 : TILE_WORDS;
+        int count = 0;
+        int currentRow = row + rowDir;
+        int currentCol = col + colDir;
+        int tileRow = currentRow >> TILE_SHIFT;
+        int tileCol = currentCol >> TILE_SHIFT;
+        long[] tile = tiles.get(tileKey(tileRow, tileCol));
+
+        while (tile != null) {
+            int local = localIndex(currentRow, currentCol);
+            if ((tile[offset + (local >>> 6)] & (1L << local)) == 0) {
+                break;
+            }
+            count++;
+            currentRow += rowDir;
+            currentCol += colDir;
+
+            // Csempehatár átlépése: csak ekkor kell új keresés
+            if (currentRow >> TILE_SHIFT != tileRow || currentCol >> TILE_SHIFT != tileCol) {
+                tileRow = currentRow >> TILE_SHIFT;
+                tileCol = currentCol >> TILE_SHIFT;
+                tile = tiles.get(tileKey(tileRow, tileCol));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Felveszi a lépést és az előző befoglaló téglalapot a lépéstörténetbe.
+     */
+    private void pushHistory(int row, int col) {
+        int base = stoneCount * HISTORY_STRIDE;
+        if (base + HISTORY_STRIDE > history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[base] = row;
+        history[base + 1] = col;
+        history[base + 2] = minRow;
+        history[base + 3] = maxRow;
+        history[base + 4] = minCol;
+        history[base + 5] = maxCol;
+    }
+
+    private int historyBase(int i) {
+        if (i < 0 || i >= stoneCount) {
+            throw new IndexOutOfBoundsException("Érvénytelen sorszám: " + i + " (lépések: " + stoneCount + ")");
+        }
+        return i * HISTORY_STRIDE;
+    }
+
+    /**
+     * Frissíti a kövek befoglaló téglalapját.
+     */
+    private void updateBounds(int row, int col) {
+        if (stoneCount == 0) {
+            minRow = row;
+            maxRow = row;
+            minCol = col;
+            maxCol = col;
+            return;
+        }
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+    }
+
+    private static int localIndex(int row, int col) {
+        return ((row & TILE_MASK) << TILE_SHIFT) | (col & TILE_MASK);
+    }
+
+    private static long tileKey(int tileRow, int tileCol) {
+        return ((long) tileRow << 32) | (tileCol & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Primitív long kulcsú, nyílt címzésű (lineáris próbálkozású) hash tábla a csempékhez.
+     * Üres rést a {@code null} érték jelöl, így a kulcstartomány teljes egészében használható.
+     */
+    private static final class TileMap {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] keys;
+        private long[][] values;
+        private int size;
+
+        TileMap() {
+            keys = new long[INITIAL_CAPACITY];
+            values = new long[INITIAL_CAPACITY][];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        long[] getOrCreate(long key) {
+            long[] tile = get(key);
+            if (tile == null) {
+                tile = new long[2 * TILE_WORDS];
+                if ((size + 1) * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+                insert(key, tile);
+                size++;
+            }
+            return tile;
+        }
+
+        TileMap deepCopy() {
+            TileMap copy = new TileMap();
+            copy.keys = keys.clone();
+            copy.values = new long[values.length][];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    copy.values[i] = values[i].clone();
+                }
+            }
+            copy.size = size;
+            return copy;
+        }
+
+        private void insert(long key, long[] tile) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = tile;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[][] oldValues = values;
+            keys = new long[capacity];
+            values = new long[capacity][];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package nye.flocrm.progtech.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A négyzetes tábla 8 szimmetriája (a négyzet diéder csoportja).
+ * <p>
+ * Minden transzformáció felírható egy opcionális tükrözésként a főátlóra (csere),
+ * majd a sor- és/vagy oszlopindex megfordításaként. A {@link Board#getCanonicalSymmetry()}
+ * ezek közül adja vissza azt, amelyik a kanonikus állást előállítja; egy kanonikus
+ * koordinátájú lépés az {@link #inverse()} transzformációval képezhető vissza a táblára.
+ */
+public enum Symmetry {
+    IDENTITY(false, false, false),
+    ROTATE_90(true, false, true),
+    ROTATE_180(false, true, true),
+    ROTATE_270(true, true, false),
+    MIRROR_HORIZONTAL(false, false, true),
+    MIRROR_VERTICAL(false, true, false),
+    TRANSPOSE(true, false, false),
+    ANTI_TRANSPOSE(true, true, true);
+
+    private static final Symmetry[] VALUES = values();
+    private static final Map<Integer, int[]> INDEX_TABLES = new ConcurrentHashMap<>();
+
+    private final boolean swap;
+    private final boolean flipRow;
+    private final boolean flipCol;
+
+    Symmetry(boolean swap, boolean flipRow, boolean flipCol) {
+        this.swap = swap;
+        this.flipRow = flipRow;
+        this.flipCol = flipCol;
+    }
+
+    /**
+     * Visszaadja a transzformált cella sorindexét.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @param size a tábla mérete
+     * @return a transzformált sorindex
+     */
+    public int mapRow(int row, int col, int size) {
+        int r = swap ? col : row;
+        return flipRow ? size - 1 - r : r;
+    }
+
+    /**
+     * Visszaadja a transzformált cella oszlopindexét.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @param size a tábla mérete
+     * @return a transzformált oszlopindex
+     */
+    public int mapCol(int row, int col, int size) {
+        int c = swap ? row : col;
+        return flipCol ? size - 1 - c : c;
+    }
+
+    /**
+     * Visszaadja az inverz transzformációt (a két forgatás egymás inverze, a többi önmagáé).
+     *
+     * @return az inverz transzformáció
+     */
+    public Symmetry inverse() {
+        return switch (this) {
+            case ROTATE_90 -> ROTATE_270;
+            case ROTATE_270 -> ROTATE_90;
+            default -> this;
+        };
+    }
+
+    /**
+     * A transzformáció sorszámával indexelt elem (a {@link #values()} másolása nélkül).
+     */
+    static Symmetry of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Előre kiszámolt cellaindex leképezés az adott táblamérethez:
+     * {@code tabla[t * size * size + index]} a {@code t} sorszámú transzformáció képe.
+     * A tömb nem módosítható.
+     *
+     * @param size a tábla mérete
+     * @return a leképezési tábla (8 * size * size elem)
+     */
+    static int[] indexTable(int size) {
+        return INDEX_TABLES.computeIfAbsent(size, Symmetry::buildIndexTable);
+    }
+
+    private static int[] buildIndexTable(int size) {
+        int cellCount = size * size;
+        int[] table = new int[VALUES.length * cellCount];
+        for (Symmetry symmetry : VALUES) {
+            int base = symmetry.ordinal() * cellCount;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    table[base + row * size + col] = symmetry.mapRow(row, col, size) * size + symmetry.mapCol(row, col, size);
+                }
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,48 @@
+package nye.flocrm.progtech.model;
+
+/**
+ * Egy üres cella fenyegetés osztálya egy játékos szemszögéből: mi jön létre, ha a játékos
+ * oda lép. Az értékek erősség szerint csökkenő sorrendben vannak.
+ */
+public enum ThreatType {
+    /** A lépés nyerő sorozatot (ötöt) ad. */
+    FIVE("Ötös"),
+    /**
+     * A lépés nem védhető négyest ad: nyílt négyes (két kiegészítő cella), vagy azzal
+     * egyenértékű kettős fenyegetés (két négyes, illetve négyes és hármas).
+     */
+    OPEN_FOUR("Nyílt négyes"),
+    /** A lépés négyest ad: egyetlen cella kiegészíti ötté. */
+    FOUR("Négyes"),
+    /** A lépés nyitott hármast ad (három egymás melletti kő, ami nyílt négyessé bővíthető). */
+    OPEN_THREE("Nyitott hármas"),
+    /** A lépés tört hármast ad (pl. {@code _X_XX_}, a hézag kitöltése nyílt négyes). */
+    BROKEN_THREE("Tört hármas"),
+    /** A cellán nincs fenyegetés (vagy foglalt). */
+    NONE("Nincs");
+
+    private final String displayName;
+
+    ThreatType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Visszaadja a fenyegetés megjelenítendő nevét.
+     *
+     * @return a megjelenítendő név
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Visszaadja a fenyegetés szöveges reprezentációját.
+     *
+     * @return a fenyegetés neve
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,83 @@
+package nye.flocrm.progtech.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist kulcsok táblaméretenként.
+ * <p>
+ * Minden (cella, játékos) párhoz egy 64 bites véletlen kulcs tartozik; egy állás hash-e
+ * a rajta lévő kövek kulcsainak XOR-ja. A kulcsok rögzített magból (SplitMix64) készülnek,
+ * így a hash futások között is azonos, és a mentett állásokkal összevethető.
+ */
+final class ZobristKeys {
+
+    private static final long SEED = 0x5A0B_A5EE_D000_0001L;
+    private static final Map<Integer, long[]> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Integer, long[]> SYMMETRIC_CACHE = new ConcurrentHashMap<>();
+
+    private ZobristKeys() {
+        // utility osztály - nem példányosítható
+    }
+
+    /**
+     * Visszaadja az adott táblamérethez tartozó kulcsokat.
+     * A kulcs indexe: {@code 2 * cellaIndex + (X ? 0 : 1)}. A tömb nem módosítható.
+     *
+     * @param size a tábla mérete
+     * @return a kulcsok tömbje (2 * size * size elem)
+     */
+    static long[] forSize(int size) {
+        return CACHE.computeIfAbsent(size, ZobristKeys::generate);
+    }
+
+    /**
+     * Visszaadja a szimmetrikus hash-ek lépésenkénti frissítéséhez szükséges kulcsokat,
+     * (cella, játékos) páronként egymás mellett a 8 szimmetria szerint: a
+     * {@code 8 * (2 * cellaIndex + (X ? 0 : 1)) + t} elem a cella {@code t} sorszámú
+     * {@link Symmetry} szerinti képének kulcsa. Így egy kő 8 kulcsa egy összefüggő blokk.
+     * A tömb nem módosítható.
+     *
+     * @param size a tábla mérete
+     * @return a kulcsok tömbje (16 * size * size elem)
+     */
+    static long[] symmetricForSize(int size) {
+        return SYMMETRIC_CACHE.computeIfAbsent(size, ZobristKeys::generateSymmetric);
+    }
+
+    private static long[] generateSymmetric(int size) {
+        long[] keys = forSize(size);
+        int[] indexTable = Symmetry.indexTable(size);
+        int cellCount = size * size;
+        int symmetryCount = Symmetry.values().length;
+        long[] result = new long[symmetryCount * keys.length];
+        for (int index = 0; index < cellCount; index++) {
+            for (int player = 0; player < 2; player++) {
+                int base = symmetryCount * (2 * index + player);
+                for (int t = 0; t < symmetryCount; t++) {
+                    result[base + t] = keys[2 * indexTable[t * cellCount + index] + player];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long[] generate(int size) {
+        long[] keys = new long[2 * size * size];
+        long state = SEED + size;
+        for (int i = 0; i < keys.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            keys[i] = mix(state);
+        }
+        return keys;
+    }
+
+    /**
+     * SplitMix64 keverőfüggvény.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,197 @@
+package nye.flocrm.progtech.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.BoardSnapshot;
+
+/**
+ * Tömör bináris tábla kódoló (mentés, adatbázis, hálózat).
+ * <p>
+ * Formátum: 1 bájt fejléc (a tábla mérete, 1..255), majd cellánként 2 bit sorfolytonosan
+ * ({@code sor * méret + oszlop} sorrendben), bájtonként 4 cella a legalsó bitektől kezdve.
+ * A cellakódok: {@code 00} üres, {@code 01} X, {@code 10} O; a {@code 11} érvénytelen.
+ * Egy 10x10-es tábla így 1 + 25 bájt.
+ * <p>
+ * A dekódolt tábla lépéstörténete sorfolytonos sorrendű (az eredeti lépéssorrend nem
+ * része a formátumnak), a Zobrist hash-e viszont megegyezik az eredetiével.
+ */
+public final class BoardCodec {
+
+    /** A legnagyobb kódolható táblaméret (egy bájtos fejléc). */
+    public static final int MAX_SIZE = 255;
+
+    private static final int HEADER_BYTES = 1;
+    private static final int CELLS_PER_BYTE = 4;
+    private static final int CODE_EMPTY = 0b00;
+    private static final int CODE_X = 0b01;
+    private static final int CODE_O = 0b10;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Megadja egy adott méretű tábla kódolt hosszát bájtokban.
+     *
+     * @param size a tábla mérete
+     * @return a fejléc és a cellák együttes hossza
+     * @throws IllegalArgumentException ha a méret nem kódolható
+     */
+    public static int encodedLength(int size) {
+        checkSize(size);
+        return HEADER_BYTES + (size * size + CELLS_PER_BYTE - 1) / CELLS_PER_BYTE;
+    }
+
+    /**
+     * Bájttömbbe kódolja a táblát.
+     *
+     * @param board a kódolandó tábla
+     * @return a kódolt tábla
+     * @throws IllegalArgumentException ha a tábla mérete nagyobb, mint {@link #MAX_SIZE}
+     */
+    public static byte[] encode(Board board) {
+        return encode(board.snapshot());
+    }
+
+    /**
+     * Bájttömbbe kódolja a pillanatképet. Bármely szálról hívható.
+     *
+     * @param snapshot a kódolandó pillanatkép
+     * @return a kódolt tábla
+     * @throws IllegalArgumentException ha a tábla mérete nagyobb, mint {@link #MAX_SIZE}
+     */
+    public static byte[] encode(BoardSnapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedLength(snapshot.getSize()));
+        encode(snapshot, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * A puffer aktuális pozíciójától kódolja a táblát, és a pozíciót a kód végére lépteti.
+     *
+     * @param board a kódolandó tábla
+     * @param buffer a cél puffer
+     * @throws java.nio.BufferOverflowException ha a pufferben nincs elég hely
+     */
+    public static void encode(Board board, ByteBuffer buffer) {
+        encode(board.snapshot(), buffer);
+    }
+
+    /**
+     * A puffer aktuális pozíciójától kódolja a pillanatképet, és a pozíciót a kód végére lépteti.
+     *
+     * @param snapshot a kódolandó pillanatkép
+     * @param buffer a cél puffer
+     * @throws java.nio.BufferOverflowException ha a pufferben nincs elég hely
+     */
+    public static void encode(BoardSnapshot snapshot, ByteBuffer buffer) {
+        int size = snapshot.getSize();
+        checkSize(size);
+        buffer.put((byte) size);
+
+        int packed = 0;
+        int shift = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                packed |= cellCode(snapshot.getSymbolAt(row, col)) << shift;
+                shift += 2;
+                if (shift == 2 * CELLS_PER_BYTE) {
+                    buffer.put((byte) packed);
+                    packed = 0;
+                    shift = 0;
+                }
+            }
+        }
+        if (shift != 0) {
+            buffer.put((byte) packed);
+        }
+    }
+
+    /**
+     * Base64 szöveggé kódolja a táblát (szöveges mentéshez, adatbázis mezőhöz).
+     *
+     * @param board a kódolandó tábla
+     * @return a Base64 kód
+     */
+    public static String encodeBase64(Board board) {
+        return Base64.getEncoder().encodeToString(encode(board));
+    }
+
+    /**
+     * Visszaállítja a táblát a kódolt bájttömbből.
+     *
+     * @param data a kódolt tábla
+     * @return a dekódolt tábla
+     * @throws IllegalArgumentException ha az adat hossza vagy tartalma érvénytelen
+     */
+    public static Board decode(byte[] data) {
+        if (data.length == 0 || data.length != encodedLength(Byte.toUnsignedInt(data[0]))) {
+            throw new IllegalArgumentException("Érvénytelen tábla kód hossz: " + data.length);
+        }
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * A puffer aktuális pozíciójától dekódol egy táblát, és a pozíciót a kód végére lépteti.
+     *
+     * @param buffer a forrás puffer
+     * @return a dekódolt tábla
+     * @throws IllegalArgumentException ha az adat csonka vagy érvénytelen
+     */
+    public static Board decode(ByteBuffer buffer) {
+        try {
+            int size = Byte.toUnsignedInt(buffer.get());
+            checkSize(size);
+            Board board = new Board(size);
+
+            int cellCount = size * size;
+            for (int base = 0; base < cellCount; base += CELLS_PER_BYTE) {
+                int packed = Byte.toUnsignedInt(buffer.get());
+                if (packed == 0) {
+                    continue;
+                }
+                for (int offset = 0; offset < CELLS_PER_BYTE; offset++) {
+                    int code = (packed >>> (2 * offset)) & 0b11;
+                    int index = base + offset;
+                    if (code == CODE_EMPTY) {
+                        continue;
+                    }
+                    if ((code != CODE_X && code != CODE_O) || index >= cellCount) {
+                        throw new IllegalArgumentException("Érvénytelen cella kód a(z) " + index + ". cellán: " + code);
+                    }
+                    board.placeSymbol(index / size, index % size, code == CODE_X ? 'X' : 'O');
+                }
+            }
+            return board;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Csonka tábla kód.", e);
+        }
+    }
+
+    /**
+     * Visszaállítja a táblát a Base64 kódból.
+     *
+     * @param text a Base64 kód
+     * @return a dekódolt tábla
+     * @throws IllegalArgumentException ha a szöveg nem érvényes Base64, vagy érvénytelen táblát ír le
+     */
+    public static Board decodeBase64(String text) {
+        return decode(Base64.getDecoder().decode(text));
+    }
+
+    private static int cellCode(char symbol) {
+        return switch (symbol) {
+            case 'X' -> CODE_X;
+            case 'O' -> CODE_O;
+            default -> CODE_EMPTY;
+        };
+    }
+
+    private static void checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("A tábla mérete 1 és " + MAX_SIZE + " között kell legyen: " + size);
+        }
+    }
+}
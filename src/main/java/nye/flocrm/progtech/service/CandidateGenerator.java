@@ -0,0 +1,586 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Arrays;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.GameBoard;
+import nye.flocrm.progtech.model.MoveListener;
+import nye.flocrm.progtech.model.SparseBoard;
+import nye.flocrm.progtech.model.ThreatType;
+
+/**
+ * Jelölt lépések halmaza: a meglévő kövek {@code radius} sugarú (1 vagy 2) környezetében
+ * lévő üres cellák.
+ * <p>
+ * Cellánként számolja a környezetében lévő köveket; egy lépés csak a kő körüli
+ * {@code (2 * radius + 1)^2} cella számlálóját frissíti, és a cellát a számláló 0 / 1
+ * átmeneténél veszi ki a halmazból, illetve teszi be. {@link Board} esetén a bejegyzés a cella
+ * táblaindexe; más (pl. végtelen, {@link nye.flocrm.progtech.model.SparseBoard}) táblán a cellák
+ * koordinátával vannak nyilvántartva egy primitív {@code long} kulcsú hash táblában, így a
+ * memória a kövek számával arányos. A kiürült bejegyzések megmaradnak, hogy az ismételt
+ * kipróbálás (lépés, visszavonás) ne foglaljon memóriát.
+ * <p>
+ * {@link Board} esetén a tábla {@link MoveListener} értesítéseiből frissül; más táblán a
+ * hívónak kell a saját lépései után a {@link #stonePlaced(int, int, char)} és
+ * {@link #stoneRemoved(int, int, char)} metódust hívnia, vagy a {@link #sync()}-et, amely
+ * {@link SparseBoard} esetén a tábla lépéstörténetéből csak a változott lépéseket dolgozza fel.
+ * <p>
+ * A {@link #generate(char)} a jelölteket fenyegetés szerint csökkenő sorrendben adja:
+ * a lépő saját és az ellenfél fenyegetései közül a nagyobb számít, egyenlőségnél a saját
+ * az erősebb. A fenyegetést a {@link ThreatDetector} adja, ha van az adott táblához, egyébként
+ * a cella melletti sorozatok hosszából és nyitottságából becsült osztály.
+ */
+public final class CandidateGenerator implements MoveListener {
+
+    /** A legnagyobb megengedett sugár. */
+    public static final int MAX_RADIUS = 2;
+
+    private static final int[] DIRECTION_ROW = {0, 1, 1, 1};
+    private static final int[] DIRECTION_COL = {1, 0, 1, -1};
+    //A fenyegetés rangja: ThreatType.NONE 0 ... ThreatType.FIVE 5; a sorrend kulcsa 2 * rang (+1 a sajátnak)
+    private static final int MAX_RANK = ThreatType.NONE.ordinal();
+    private static final int PRIORITY_COUNT = 2 * MAX_RANK + 2;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final GameBoard board;
+    private final int radius;
+    private final int winningLength;
+    //Korlátos táblán a bejegyzés a cella táblaindexe (hash tábla nélkül); végtelen táblán 0
+    private final int denseSize;
+    private ThreatDetector threatDetector;
+
+    //Koordináta -> bejegyzés hash tábla (nyílt címzés): slotIds[i] = bejegyzés + 1, 0 = üres hely
+    private long[] slotKeys;
+    private int[] slotIds;
+    private int slotMask;
+
+    //Bejegyzésenként: koordináták, a környezet kövei, foglaltság, hely a jelöltek között (-1: nincs)
+    private int[] entryRows;
+    private int[] entryCols;
+    private int[] near;
+    private boolean[] occupied;
+    private int[] memberPos;
+    private int entryCount;
+
+    //A jelöltek (bejegyzések) indexelt halmaza
+    private int[] members;
+    private int memberCount;
+
+    //A legutóbbi generate() eredménye
+    private int[] orderedRows = new int[0];
+    private int[] orderedCols = new int[0];
+    private int[] orderedPriorities = new int[0];
+    private int[] orderedNeighbours = new int[0];
+    private int[] priorityBuffer = new int[0];
+    private final int[] priorityCounts = new int[PRIORITY_COUNT + 1];
+
+    //Végtelen táblán a sync() által már feldolgozott lépések (a lépéstörténet eleje)
+    private int[] syncedRows = new int[0];
+    private int[] syncedCols = new int[0];
+    private char[] syncedPlayers = new char[0];
+    private int syncedCount;
+
+    /**
+     * Felépíti a jelöltek halmazát a tábla aktuális állásából; {@link Board} esetén a táblára
+     * is regisztrál.
+     *
+     * @param board a követendő tábla
+     * @param winChecker a játékban használt győzelem ellenőrző (a becsült fenyegetésekhez)
+     * @param radius a környezet sugara (1..{@value #MAX_RADIUS})
+     * @throws IllegalArgumentException ha a sugár a tartományon kívül esik
+     */
+    public CandidateGenerator(GameBoard board, WinChecker winChecker, int radius) {
+        if (radius < 1 || radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("A sugár 1 és " + MAX_RADIUS + " között kell legyen: " + radius);
+        }
+        this.board = board;
+        this.radius = radius;
+        this.winningLength = winChecker.getWinningLength();
+        if (board instanceof Board bounded) {
+            denseSize = bounded.getSize();
+            allocateDense(denseSize);
+        } else {
+            denseSize = 0;
+            allocateEntries(INITIAL_CAPACITY / 2);
+            allocateSlots(INITIAL_CAPACITY);
+        }
+        rebuild();
+        if (board instanceof Board bounded) {
+            bounded.addMoveListener(this);
+        }
+    }
+
+    /**
+     * Leválasztja a generátort a tábláról (további lépések nem frissítik). Ezután a hívó
+     * maga is frissítheti a {@link #stonePlaced(int, int, char)} és {@link #stoneRemoved(int, int, char)}
+     * hívásokkal, pl. csak azokban a csomópontokban, ahol jelöltekre szüksége lesz.
+     */
+    public void detach() {
+        if (board instanceof Board bounded) {
+            bounded.removeMoveListener(this);
+        }
+    }
+
+    /**
+     * Beállítja a fenyegetés felismerőt a sorrendhez. Csak akkor használja, ha a felismerő
+     * ugyanazt a táblát követi.
+     *
+     * @param threatDetector a felismerő, vagy null a becsült fenyegetésekhez
+     */
+    public void setThreatDetector(ThreatDetector threatDetector) {
+        this.threatDetector = threatDetector;
+    }
+
+    /**
+     * Visszaadja a követett táblát.
+     *
+     * @return a tábla
+     */
+    public GameBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Visszaadja a környezet sugarát.
+     *
+     * @return a sugár
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Visszaadja a jelöltek számát.
+     *
+     * @return a kövek környezetében lévő üres cellák száma
+     */
+    public int size() {
+        return memberCount;
+    }
+
+    /**
+     * Megadja, hogy a cella jelölt-e.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a cella üres és kő van a környezetében
+     */
+    public boolean contains(int row, int col) {
+        int entry = find(row, col);
+        return entry >= 0 && memberPos[entry] >= 0;
+    }
+
+    /**
+     * A jelölteket rendezés nélkül, a halmaz sorrendjében gyűjti ki (a prioritás mindenhol 0).
+     * Olcsóbb a {@link #generate(char)}-nél, ahol a sorrend nem számít (pl. a keresés utolsó szintjén).
+     *
+     * @return a jelöltek száma
+     */
+    public int collect() {
+        ensureOrderedCapacity();
+        for (int i = 0; i < memberCount; i++) {
+            int entry = members[i];
+            orderedRows[i] = entryRows[entry];
+            orderedCols[i] = entryCols[entry];
+            orderedPriorities[i] = 0;
+            orderedNeighbours[i] = near[entry];
+        }
+        return memberCount;
+    }
+
+    /**
+     * Sorba rendezi a jelölteket a lépő játékos szemszögéből, fenyegetés szerint csökkenő
+     * sorrendben (azonos fenyegetésen belül a sorrend a halmazé). Az eredmény a
+     * {@link #rowAt(int)}, {@link #colAt(int)} és {@link #priorityAt(int)} metódusokkal
+     * olvasható a következő hívásig.
+     *
+     * @param player a lépő játékos
+     * @return a jelöltek száma
+     */
+    public int generate(char player) {
+        char opponent = player == 'X' ? 'O' : 'X';
+        boolean useDetector = threatDetector != null && threatDetector.getBoard() == board;
+        ensureOrderedCapacity();
+        Arrays.fill(priorityCounts, 0);
+        for (int i = 0; i < memberCount; i++) {
+            int entry = members[i];
+            int row = entryRows[entry];
+            int col = entryCols[entry];
+            int own = useDetector ? detectorRank(player, row, col) : estimatedRank(player, row, col);
+            int other = useDetector ? detectorRank(opponent, row, col) : estimatedRank(opponent, row, col);
+            int priority = Math.max(2 * own + 1, 2 * other);
+            priorityBuffer[i] = priority;
+            priorityCounts[PRIORITY_COUNT - priority]++;
+        }
+        // Leszámláló rendezés csökkenő prioritás szerint (stabil); a p prioritás rekesze PRIORITY_COUNT - 1 - p
+        for (int p = 1; p <= PRIORITY_COUNT; p++) {
+            priorityCounts[p] += priorityCounts[p - 1];
+        }
+        for (int i = 0; i < memberCount; i++) {
+            int priority = priorityBuffer[i];
+            int target = priorityCounts[PRIORITY_COUNT - 1 - priority]++;
+            int entry = members[i];
+            orderedRows[target] = entryRows[entry];
+            orderedCols[target] = entryCols[entry];
+            orderedPriorities[target] = priority;
+            orderedNeighbours[target] = near[entry];
+        }
+        return memberCount;
+    }
+
+    /**
+     * A legutóbbi {@link #generate(char)} {@code i}. jelöltjének sora.
+     *
+     * @param i a sorszám
+     * @return a sor indexe
+     */
+    public int rowAt(int i) {
+        return orderedRows[i];
+    }
+
+    /**
+     * A legutóbbi {@link #generate(char)} {@code i}. jelöltjének oszlopa.
+     *
+     * @param i a sorszám
+     * @return az oszlop indexe
+     */
+    public int colAt(int i) {
+        return orderedCols[i];
+    }
+
+    /**
+     * A legutóbbi {@link #generate(char)} {@code i}. jelöltjének prioritása: 2 * fenyegetés rang
+     * (0 nincs ... 5 ötös), a lépő saját fenyegetésénél +1.
+     *
+     * @param i a sorszám
+     * @return a prioritás (0..11)
+     */
+    public int priorityAt(int i) {
+        return orderedPriorities[i];
+    }
+
+    private void ensureOrderedCapacity() {
+        if (orderedRows.length < memberCount) {
+            int capacity = members.length;
+            orderedRows = new int[capacity];
+            orderedCols = new int[capacity];
+            orderedPriorities = new int[capacity];
+            orderedNeighbours = new int[capacity];
+            priorityBuffer = new int[capacity];
+        }
+    }
+
+    /**
+     * A legutóbbi {@link #generate(char)} vagy {@link #collect()} {@code i}. jelöltjének
+     * környezetében lévő kövek száma.
+     *
+     * @param i a sorszám
+     * @return a kövek száma a sugáron belül
+     */
+    public int neighboursAt(int i) {
+        return orderedNeighbours[i];
+    }
+
+    @Override
+    public void stonePlaced(int row, int col, char player) {
+        int entry = entryOf(row, col);
+        occupied[entry] = true;
+        removeMember(entry);
+        forEachNeighbour(row, col, 1);
+    }
+
+    @Override
+    public void stoneRemoved(int row, int col, char player) {
+        int entry = entryOf(row, col);
+        occupied[entry] = false;
+        if (near[entry] > 0) {
+            addMember(entry);
+        }
+        forEachNeighbour(row, col, -1);
+    }
+
+    @Override
+    public void boardReset(Board source) {
+        rebuild();
+    }
+
+    /**
+     * A halmazt a tábla aktuális állásából újraépíti: {@link SparseBoard} esetén a
+     * lépéstörténetből (a kövek számával arányos időben), egyébként a kövek befoglaló
+     * téglalapjának bejárásával.
+     */
+    public void rebuild() {
+        Arrays.fill(near, 0, entryCount, 0);
+        Arrays.fill(occupied, 0, entryCount, false);
+        Arrays.fill(memberPos, 0, entryCount, -1);
+        memberCount = 0;
+        syncedCount = 0;
+        if (board.getMoveCount() == 0) {
+            return;
+        }
+        if (board instanceof SparseBoard) {
+            sync();
+            return;
+        }
+        for (int row = board.getMinRow(); row <= board.getMaxRow(); row++) {
+            for (int col = board.getMinCol(); col <= board.getMaxCol(); col++) {
+                if (board.isValidPosition(row, col) && !board.isEmptyCell(row, col)) {
+                    stonePlaced(row, col, board.getSymbolAt(row, col));
+                }
+            }
+        }
+    }
+
+    /**
+     * Utoléri a táblát: {@link SparseBoard} esetén a lépéstörténet és a legutóbb feldolgozott
+     * lépések közös elejét megtartja, az azóta visszavont lépéseket kiveszi, az újakat felveszi;
+     * így egy lépés költsége a változott lépések számával arányos. {@link Board} esetén nincs
+     * teendő (a tábla értesít), más táblán újraépít. A kézi {@link #stonePlaced(int, int, char)}
+     * és {@link #stoneRemoved(int, int, char)} hívásokkal nem keverhető ({@link #rebuild()} nélkül).
+     */
+    public void sync() {
+        if (board instanceof Board) {
+            return;
+        }
+        if (!(board instanceof SparseBoard sparse)) {
+            rebuild();
+            return;
+        }
+        int moves = sparse.getMoveCount();
+        int common = 0;
+        int limit = Math.min(moves, syncedCount);
+        while (common < limit && sparse.getMoveRow(common) == syncedRows[common]
+                && sparse.getMoveCol(common) == syncedCols[common]) {
+            common++;
+        }
+        while (syncedCount > common) {
+            syncedCount--;
+            stoneRemoved(syncedRows[syncedCount], syncedCols[syncedCount], syncedPlayers[syncedCount]);
+        }
+        if (syncedRows.length < moves) {
+            int capacity = Math.max(moves, 2 * syncedRows.length);
+            syncedRows = Arrays.copyOf(syncedRows, capacity);
+            syncedCols = Arrays.copyOf(syncedCols, capacity);
+            syncedPlayers = Arrays.copyOf(syncedPlayers, capacity);
+        }
+        while (syncedCount < moves) {
+            int row = sparse.getMoveRow(syncedCount);
+            int col = sparse.getMoveCol(syncedCount);
+            char player = sparse.getSymbolAt(row, col);
+            syncedRows[syncedCount] = row;
+            syncedCols[syncedCount] = col;
+            syncedPlayers[syncedCount] = player;
+            syncedCount++;
+            stonePlaced(row, col, player);
+        }
+    }
+
+    /**
+     * A kő környezetének számlálóit frissíti, és a 0 / 1 átmeneteknél a halmazt is.
+     */
+    private void forEachNeighbour(int row, int col, int delta) {
+        if (denseSize > 0) {
+            int self = row * denseSize + col;
+            for (int r = Math.max(0, row - radius); r <= Math.min(denseSize - 1, row + radius); r++) {
+                int base = r * denseSize;
+                for (int c = Math.max(0, col - radius); c <= Math.min(denseSize - 1, col + radius); c++) {
+                    int entry = base + c;
+                    if (entry != self) {
+                        updateNear(entry, delta);
+                    }
+                }
+            }
+            return;
+        }
+        for (int r = row - radius; r <= row + radius; r++) {
+            for (int c = col - radius; c <= col + radius; c++) {
+                if (r != row || c != col) {
+                    updateNear(entryOf(r, c), delta);
+                }
+            }
+        }
+    }
+
+    private void updateNear(int entry, int delta) {
+        int count = near[entry] + delta;
+        near[entry] = count;
+        if (!occupied[entry]) {
+            if (count == 1 && delta > 0) {
+                addMember(entry);
+            } else if (count == 0) {
+                removeMember(entry);
+            }
+        }
+    }
+
+    private int detectorRank(char player, int row, int col) {
+        return MAX_RANK - threatDetector.threatAt(player, row, col).ordinal();
+    }
+
+    /**
+     * Becsült fenyegetés rang: irányonként a cella két oldalán álló saját sorozatok hossza
+     * a cellával együtt, és a sorozat két végének nyitottsága.
+     */
+    private int estimatedRank(char player, int row, int col) {
+        int best = 0;
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            int dr = DIRECTION_ROW[d];
+            int dc = DIRECTION_COL[d];
+            int before = sideRun(player, row - dr, col - dc, dr, dc);
+            int after = sideRun(player, row + dr, col + dc, dr, dc);
+            int run = before + after + 1;
+            int open = 0;
+            if (isEmpty(row - (before + 1) * dr, col - (before + 1) * dc)) {
+                open++;
+            }
+            if (isEmpty(row + (after + 1) * dr, col + (after + 1) * dc)) {
+                open++;
+            }
+            int rank;
+            if (run >= winningLength) {
+                rank = MAX_RANK;
+            } else if (run == winningLength - 1) {
+                rank = open == 2 ? MAX_RANK - 1 : open == 1 ? MAX_RANK - 2 : 0;
+            } else if (run == winningLength - 2 && open == 2) {
+                rank = MAX_RANK - 3;
+            } else if (run == winningLength - 2 && open == 1 || run == winningLength - 3 && open == 2) {
+                rank = MAX_RANK - 4;
+            } else {
+                rank = 0;
+            }
+            best = Math.max(best, rank);
+        }
+        return best;
+    }
+
+    private int sideRun(char player, int row, int col, int dr, int dc) {
+        if (!board.isValidPosition(row, col) || board.getSymbolAt(row, col) != player) {
+            return 0;
+        }
+        return board.getRunLength(row, col, dr, dc);
+    }
+
+    private boolean isEmpty(int row, int col) {
+        return board.isValidPosition(row, col) && board.isEmptyCell(row, col);
+    }
+
+    private void addMember(int entry) {
+        if (memberPos[entry] < 0) {
+            memberPos[entry] = memberCount;
+            members[memberCount++] = entry;
+        }
+    }
+
+    private void removeMember(int entry) {
+        int pos = memberPos[entry];
+        if (pos >= 0) {
+            int last = members[--memberCount];
+            members[pos] = last;
+            memberPos[last] = pos;
+            memberPos[entry] = -1;
+        }
+    }
+
+    /**
+     * A cella bejegyzése, vagy -1, ha még nincs.
+     */
+    private int find(int row, int col) {
+        if (denseSize > 0) {
+            return board.isValidPosition(row, col) ? row * denseSize + col : -1;
+        }
+        long key = key(row, col);
+        for (int slot = hash(key); slotIds[slot] != 0; slot = (slot + 1) & slotMask) {
+            if (slotKeys[slot] == key) {
+                return slotIds[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A cella bejegyzése; ha még nincs, létrehozza.
+     */
+    private int entryOf(int row, int col) {
+        if (denseSize > 0) {
+            return row * denseSize + col;
+        }
+        long key = key(row, col);
+        int slot = hash(key);
+        while (slotIds[slot] != 0) {
+            if (slotKeys[slot] == key) {
+                return slotIds[slot] - 1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        if (2 * (entryCount + 1) > slotIds.length) {
+            grow();
+            return entryOf(row, col);
+        }
+        int entry = entryCount++;
+        slotKeys[slot] = key;
+        slotIds[slot] = entry + 1;
+        entryRows[entry] = row;
+        entryCols[entry] = col;
+        memberPos[entry] = -1;
+        return entry;
+    }
+
+    /**
+     * Korlátos tábla: minden cellának előre van bejegyzése, az indexe a táblaindex.
+     */
+    private void allocateDense(int size) {
+        int cellCount = size * size;
+        allocateEntries(cellCount);
+        entryCount = cellCount;
+        for (int cell = 0; cell < cellCount; cell++) {
+            entryRows[cell] = cell / size;
+            entryCols[cell] = cell % size;
+        }
+    }
+
+    private void allocateEntries(int capacity) {
+        entryRows = new int[capacity];
+        entryCols = new int[capacity];
+        near = new int[capacity];
+        occupied = new boolean[capacity];
+        memberPos = new int[capacity];
+        members = new int[capacity];
+    }
+
+    private void allocateSlots(int capacity) {
+        slotKeys = new long[capacity];
+        slotIds = new int[capacity];
+        slotMask = capacity - 1;
+    }
+
+    /**
+     * Kétszeresére növeli a hash táblát és a bejegyzés tömböket.
+     */
+    private void grow() {
+        int capacity = 2 * slotIds.length;
+        allocateSlots(capacity);
+        entryRows = Arrays.copyOf(entryRows, capacity / 2);
+        entryCols = Arrays.copyOf(entryCols, capacity / 2);
+        near = Arrays.copyOf(near, capacity / 2);
+        occupied = Arrays.copyOf(occupied, capacity / 2);
+        memberPos = Arrays.copyOf(memberPos, capacity / 2);
+        members = Arrays.copyOf(members, capacity / 2);
+        for (int entry = 0; entry < entryCount; entry++) {
+            long key = key(entryRows[entry], entryCols[entry]);
+            int slot = hash(key);
+            while (slotIds[slot] != 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            slotKeys[slot] = key;
+            slotIds[slot] = entry + 1;
+        }
+    }
+
+    private static long key(int row, int col) {
+        return (long) row << 32 | (col & 0xFFFFFFFFL);
+    }
+
+    private int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & slotMask;
+    }
+}
@@ -0,0 +1,202 @@
+package nye.flocrm.progtech.service;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.MoveListener;
+import nye.flocrm.progtech.model.RuleSet;
+
+/**
+ * Renju tiltott lépés felismerő az első (X) játékosnak.
+ * <p>
+ * Minden cellához és mind a 4 irányhoz egy vonalkulcsot tart ({@link LinePatterns}): a cella
+ * két oldalán lévő 5-5 szomszéd állapotát hármas számrendszerben (0 üres, 1 X, 2 O vagy táblán kívül).
+ * A kulcsok a tábla {@link MoveListener} értesítéseiből frissülnek (lépésenként 4 * 10
+ * összeadás), a kulcshoz tartozó minta jellemzőit pedig egy egyszer felépített, 3^10
+ * elemű táblázat adja meg arra az esetre, ha X a cellára lépne: öt, túlhosszú sor,
+ * négyesek száma és nyitott hármas. Egy lépés vizsgálata így 4 táblázat kiolvasás.
+ * <p>
+ * Egyszerűsítés: a nyitott hármas kiegészítő lépésének tiltottságát (a szabály rekurzív
+ * részét) nem vizsgálja; ez csak ritka, összetett állásokban tér el a teljes szabálytól.
+ */
+public final class ForbiddenMoveDetector implements MoveListener {
+
+    private static final int[] DIRECTION_ROW = LinePatterns.DIRECTION_ROW;
+    private static final int RADIUS = LinePatterns.RADIUS;
+    private static final int LINE_LENGTH = LinePatterns.LINE_LENGTH;
+
+    private static final int EMPTY = LinePatterns.EMPTY;
+    private static final int OWN = LinePatterns.OWN;
+    private static final int BLOCKED = LinePatterns.BLOCKED;
+
+    //A mintatáblázat bitjei:
+    private static final int FIVE = 1;
+    private static final int OVERLINE = 1 << 1;
+    private static final int FOUR_SHIFT = 2;
+    private static final int FOUR_MASK = 0b11 << FOUR_SHIFT;
+    private static final int OPEN_THREE = 1 << 4;
+
+    private static final byte[] PATTERNS = buildPatterns();
+
+    private final Board board;
+    private final int size;
+    private final int cellCount;
+    //Vonalkulcsok: keys[irány * cellák + cella]
+    private final int[] keys;
+
+    /**
+     * Felépíti a vonalkulcsokat a tábla aktuális állásából, és a táblára regisztrál.
+     *
+     * @param board a követendő tábla
+     */
+    public ForbiddenMoveDetector(Board board) {
+        this.board = board;
+        this.size = board.getSize();
+        this.cellCount = size * size;
+        this.keys = new int[DIRECTION_ROW.length * cellCount];
+        LinePatterns.rebuild(keys, board, 'X');
+        board.addMoveListener(this);
+    }
+
+    /**
+     * Leválasztja a felismerőt a tábláról (további lépések nem frissítik).
+     */
+    public void detach() {
+        board.removeMoveListener(this);
+    }
+
+    /**
+     * Megadja, hogy X számára tiltott-e a lépés az adott üres cellára.
+     * Ötöt adó lépés sosem tiltott; egyébként tiltott a túlhosszú sor, a két vagy több
+     * négyes (egy vonalon belül is), illetve a két vagy több nyitott hármas.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a lépés tiltott; foglalt vagy táblán kívüli cellára false
+     */
+    public boolean isForbidden(int row, int col) {
+        if (!board.isEmptyCell(row, col)) {
+            return false;
+        }
+        int cell = row * size + col;
+        boolean overline = false;
+        int fours = 0;
+        int threes = 0;
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            int pattern = PATTERNS[keys[d * cellCount + cell]];
+            if ((pattern & FIVE) != 0) {
+                return false;
+            }
+            overline |= (pattern & OVERLINE) != 0;
+            fours += (pattern & FOUR_MASK) >>> FOUR_SHIFT;
+            if ((pattern & OPEN_THREE) != 0) {
+                threes++;
+            }
+        }
+        return overline || fours >= 2 || threes >= 2;
+    }
+
+    @Override
+    public void stonePlaced(int row, int col, char player) {
+        LinePatterns.update(keys, size, row, col, LinePatterns.stateOf(player, 'X'));
+    }
+
+    @Override
+    public void stoneRemoved(int row, int col, char player) {
+        LinePatterns.update(keys, size, row, col, -LinePatterns.stateOf(player, 'X'));
+    }
+
+    @Override
+    public void boardReset(Board source) {
+        LinePatterns.rebuild(keys, board, 'X');
+    }
+
+    /**
+     * Felépíti a mintatáblázatot: minden kulcshoz kibontja a vonalat (középen X),
+     * és kiértékeli a vonal jellemzőit.
+     */
+    private static byte[] buildPatterns() {
+        byte[] patterns = new byte[LinePatterns.PATTERN_COUNT];
+        int[] line = new int[LINE_LENGTH];
+        for (int key = 0; key < patterns.length; key++) {
+            LinePatterns.decode(key, line);
+            patterns[key] = (byte) evaluate(line);
+        }
+        return patterns;
+    }
+
+    /**
+     * Egy vonal jellemzői, ha a középső cellán X áll.
+     */
+    private static int evaluate(int[] line) {
+        int run = LinePatterns.runThrough(line, RADIUS);
+        if (run == RuleSet.RENJU_WINNING_LENGTH) {
+            return FIVE;
+        }
+        if (run > RuleSet.RENJU_WINNING_LENGTH) {
+            return OVERLINE;
+        }
+        int fours = countFours(line);
+        if (fours > 0) {
+            return Math.min(fours, 2) << FOUR_SHIFT;
+        }
+        return hasOpenThree(line) ? OPEN_THREE : 0;
+    }
+
+    /**
+     * A középső kövön átmenő négyesek száma: olyan 5 hosszú ablakok, amelyekben 4 X és
+     * egy üres cella van, és az üres cella kitöltése pontosan ötöt ad. Az azonos kövekből
+     * álló ablakok (pl. nyílt négyes két vége) egy négyesnek számítanak.
+     */
+    private static int countFours(int[] line) {
+        int length = RuleSet.RENJU_WINNING_LENGTH;
+        int fours = 0;
+        int lastStones = -1;
+        for (int start = RADIUS - length + 1; start <= RADIUS; start++) {
+            int stones = 0;
+            int empties = 0;
+            boolean blocked = false;
+            for (int i = start; i < start + length; i++) {
+                if (line[i] == OWN) {
+                    stones |= 1 << i;
+                } else if (line[i] == EMPTY) {
+                    empties++;
+                } else {
+                    blocked = true;
+                }
+            }
+            boolean exact = line[start - 1] != OWN && line[start + length] != OWN;
+            if (!blocked && empties == 1 && exact && stones != lastStones) {
+                fours++;
+                lastStones = stones;
+            }
+        }
+        return fours;
+    }
+
+    /**
+     * Van-e olyan üres cella, amelyre X lépve a középső kövön át egyenes (nyílt) négyes jön
+     * létre: 4 X egymás mellett, mindkét végén üres cellával, és mindkét kiegészítés pontosan ötöt ad.
+     */
+    private static boolean hasOpenThree(int[] line) {
+        int length = RuleSet.RENJU_WINNING_LENGTH - 1;
+        for (int start = RADIUS - length + 1; start <= RADIUS; start++) {
+            int end = start + length;
+            if (line[start - 1] != EMPTY || line[end] != EMPTY
+                    || line[start - 2] == OWN || line[end + 1] == OWN) {
+                continue;
+            }
+            int empties = 0;
+            boolean blocked = false;
+            for (int i = start; i < end; i++) {
+                if (line[i] == EMPTY) {
+                    empties++;
+                } else if (line[i] == BLOCKED) {
+                    blocked = true;
+                }
+            }
+            if (!blocked && empties == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -12,6 +12,7 @@ import nye.flocrm.progtech.model.Board;
 import nye.flocrm.progtech.model.GameMode;
 import nye.flocrm.progtech.model.HumanPlayer;
 import nye.flocrm.progtech.model.Player;
+import nye.flocrm.progtech.model.RuleSet;
 
 /**
  * Játékállapot mentését és betöltését végző osztály.
@@ -28,7 +29,9 @@ public class GameLoader {
             int player2Score,
             char nextPlayerSymbol,
             String timestamp,
-            GameMode gameMode
+            GameMode gameMode,
+            int winningLength,
+            RuleSet ruleSet
     ) {}
 
     /**
@@ -57,6 +60,11 @@ public class GameLoader {
             char nextSymbol = 'X';
             GameMode gameMode = GameMode.HUMAN_VS_HUMAN;
             int boardSize = Board.SIZE;
+            int winningLength = WinChecker.DEFAULT_WINNING_LENGTH;
+            RuleSet ruleSet = RuleSet.FREESTYLE;
+            Long savedHash = null;
+            Long savedCanonicalHash = null;
+            String boardCode = null;
             String timestamp = null;
 
             // ==== Fejléc sorok feldolgozása (üres sorig) ====
@@ -98,6 +106,36 @@ public class GameLoader {
                         boardSize = Integer.parseInt(txt);
                     }
 
+                } else if (line.startsWith("Nyerő hossz:")) {
+                    String txt = line.substring("Nyerő hossz:".length()).trim();
+                    if (!txt.isEmpty()) {
+                        winningLength = Integer.parseInt(txt);
+                    }
+
+                } else if (line.startsWith("Szabályrendszer:")) {
+                    String txt = line.substring("Szabályrendszer:".length()).trim();
+                    if (!txt.isEmpty()) {
+                        ruleSet = RuleSet.valueOf(txt);
+                    }
+
+                } else if (line.startsWith("Pozíció hash:")) {
+                    String txt = line.substring("Pozíció hash:".length()).trim();
+                    if (!txt.isEmpty()) {
+                        savedHash = Long.parseUnsignedLong(txt, 16);
+                    }
+
+                } else if (line.startsWith("Kanonikus hash:")) {
+                    String txt = line.substring("Kanonikus hash:".length()).trim();
+                    if (!txt.isEmpty()) {
+                        savedCanonicalHash = Long.parseUnsignedLong(txt, 16);
+                    }
+
+                } else if (line.startsWith("Tábla kód:")) {
+                    String txt = line.substring("Tábla kód:".length()).trim();
+                    if (!txt.isEmpty()) {
+                        boardCode = txt;
+                    }
+
                 } else if (line.startsWith("Dátum:")) {
                     timestamp = line.substring("Dátum:".length()).trim();
                 }
@@ -109,22 +147,25 @@ public class GameLoader {
             if (timestamp == null) {
                 timestamp = new Date().toString();
             }
+            if (boardSize < 1 || winningLength < 1 || winningLength > boardSize) {
+                throw new IOException("Érvénytelen tábla méret vagy nyerő hossz a fájlban: "
+                        + boardSize + " / " + winningLength);
+            }
+            if (ruleSet == RuleSet.RENJU && winningLength != RuleSet.RENJU_WINNING_LENGTH) {
+                throw new IOException("Renju szabályoknál a nyerő hossz " + RuleSet.RENJU_WINNING_LENGTH
+                        + " kell legyen: " + winningLength);
+            }
 
             // ==== Tábla beolvasása ====
-            Board board = new Board();
-            String boardLine;
-            int row = 0;
-
-            while ((boardLine = reader.readLine()) != null && row < boardSize) {
+            // A tömör kód elsőbbséget élvez, a szöveges tábla csak olvashatóságot szolgál
+            Board board = boardCode != null ? decodeBoardCode(boardCode, boardSize) : readBoardTable(reader, boardSize);
 
-                if (boardLine.startsWith("| Sor\\Oszlop") || boardLine.trim().isEmpty()) {
-                    continue;
-                }
-
-                if (boardLine.contains("|")) {
-                    processBoardLine(board, boardLine, row);
-                    row++;
-                }
+            // A mentett hash-nek egyeznie kell a beolvasott állás hash-ével
+            if (savedHash != null && savedHash != board.getHash()) {
+                throw new IOException("A mentett tábla nem egyezik a pozíció hash-sel (sérült fájl?).");
+            }
+            if (savedCanonicalHash != null && savedCanonicalHash != board.getCanonicalHash()) {
+                throw new IOException("A mentett tábla nem egyezik a kanonikus hash-sel (sérült fájl?).");
             }
 
             return new GameState(
@@ -135,13 +176,15 @@ public class GameLoader {
                     player2Score,
                     nextSymbol,
                     timestamp,
-                    gameMode
+                    gameMode,
+                    winningLength,
+                    ruleSet
             );
 
         } catch (NumberFormatException e) {
             throw new IOException("Érvénytelen számformátum a fájlban.", e);
         } catch (IllegalArgumentException e) {
-            throw new IOException("Érvénytelen játékmód a fájlban.", e);
+            throw new IOException("Érvénytelen játékmód vagy szabályrendszer a fájlban.", e);
         }
     }
 
@@ -155,6 +198,54 @@ public class GameLoader {
         return loadGame(SAVE_FILE);
     }
 
+    /**
+     * Visszaállítja a táblát a "Tábla kód" fejléc Base64 kódjából.
+     *
+     * @param boardCode a {@link BoardCodec} Base64 kódja
+     * @param boardSize a fejlécben megadott táblaméret
+     * @return a dekódolt tábla
+     * @throws IOException ha a kód érvénytelen vagy a mérete eltér
+     */
+    private Board decodeBoardCode(String boardCode, int boardSize) throws IOException {
+        Board board;
+        try {
+            board = BoardCodec.decodeBase64(boardCode);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Érvénytelen tábla kód a fájlban.", e);
+        }
+        if (board.getSize() != boardSize) {
+            throw new IOException("A tábla kód mérete eltér a fejléctől: " + board.getSize() + " != " + boardSize);
+        }
+        return board;
+    }
+
+    /**
+     * Beolvassa a szöveges tábla sorait.
+     *
+     * @param reader a fájl olvasója a fejléc utáni pozíción
+     * @param boardSize a tábla mérete
+     * @return a beolvasott tábla
+     * @throws IOException ha hiba történik a fájl olvasása során
+     */
+    private Board readBoardTable(BufferedReader reader, int boardSize) throws IOException {
+        Board board = new Board(boardSize);
+        String boardLine;
+        int row = 0;
+
+        while ((boardLine = reader.readLine()) != null && row < boardSize) {
+
+            if (boardLine.startsWith("| Sor\\Oszlop") || boardLine.trim().isEmpty()) {
+                continue;
+            }
+
+            if (boardLine.contains("|")) {
+                processBoardLine(board, boardLine, row);
+                row++;
+            }
+        }
+        return board;
+    }
+
     /**
      * Feldolgoz egy tábla sort a mentett fájlból és beállítja a megfelelő cellákat a táblán.
      * A metódus a fájlban található formátumot dolgozza fel, ahol a sorok a következőképpen néznek ki:
@@ -189,7 +280,7 @@ public class GameLoader {
         String[] cells = line.split("\\|");
 
         // A cellák a 2. indextől kezdődnek (0: üres, 1: sor száma, 2: első cella)
-        for (int col = 2; col < cells.length && (col - 2) < Board.SIZE; col++) {
+        for (int col = 2; col < cells.length && (col - 2) < board.getSize(); col++) {
             String cellValue = cells[col].trim();
             if (cellValue.length() == 1) {
                 char symbol = cellValue.charAt(0);
@@ -204,7 +295,7 @@ public class GameLoader {
     }
 
     /**
-     * Elmenti a játék aktuális állapotát fájlba.
+     * Elmenti a játék aktuális állapotát fájlba az alapértelmezett nyerő hosszal.
      *
      * @param board a játéktábla
      * @param gameMode a játékmód
@@ -215,6 +306,42 @@ public class GameLoader {
                          Player player2,
                          Player currentPlayer,
                          GameMode gameMode) throws IOException {
+        saveGame(board, player1, player2, currentPlayer, gameMode, WinChecker.DEFAULT_WINNING_LENGTH);
+    }
+
+    /**
+     * Elmenti a játék aktuális állapotát fájlba.
+     *
+     * @param board a játéktábla
+     * @param gameMode a játékmód
+     * @param winningLength hány azonos szimbólum kell egy vonalban a győzelemhez
+     * @throws IOException ha hiba történik a fájl írása során
+     */
+    public void saveGame(Board board,
+                         Player player1,
+                         Player player2,
+                         Player currentPlayer,
+                         GameMode gameMode,
+                         int winningLength) throws IOException {
+        saveGame(board, player1, player2, currentPlayer, gameMode, winningLength, RuleSet.FREESTYLE);
+    }
+
+    /**
+     * Elmenti a játék aktuális állapotát fájlba, a szabályrendszerrel együtt.
+     *
+     * @param board a játéktábla
+     * @param gameMode a játékmód
+     * @param winningLength hány azonos szimbólum kell egy vonalban a győzelemhez
+     * @param ruleSet a játszma szabályrendszere
+     * @throws IOException ha hiba történik a fájl írása során
+     */
+    public void saveGame(Board board,
+                         Player player1,
+                         Player player2,
+                         Player currentPlayer,
+                         GameMode gameMode,
+                         int winningLength,
+                         RuleSet ruleSet) throws IOException {
         try (PrintWriter writer = new PrintWriter(new FileWriter(SAVE_FILE))) {
 
             // 1. játékos adatai
@@ -236,9 +363,16 @@ public class GameLoader {
             // Ki következik?
             writer.println("Következő: " + currentPlayer.getSymbol());
 
-            // Játékmód, tábla méret, dátum
+            // Játékmód, tábla méret, nyerő hossz, szabályrendszer, pozíció és kanonikus hash, tömör tábla kód, dátum
             writer.println("Játékmód: " + gameMode.name());
             writer.println("Tábla mérete: " + board.getSize());
+            writer.println("Nyerő hossz: " + winningLength);
+            writer.println("Szabályrendszer: " + ruleSet.name());
+            writer.println("Pozíció hash: " + String.format("%016x", board.getHash()));
+            writer.println("Kanonikus hash: " + String.format("%016x", board.getCanonicalHash()));
+            if (board.getSize() <= BoardCodec.MAX_SIZE) {
+                writer.println("Tábla kód: " + BoardCodec.encodeBase64(board));
+            }
             writer.println("Dátum: " + new Date());
             writer.println();
 
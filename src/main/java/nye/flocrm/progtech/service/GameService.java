@@ -2,30 +2,45 @@ package nye.flocrm.progtech.service;
 
 import nye.flocrm.progtech.model.AIPlayer;
 import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.BoardSnapshot;
 import nye.flocrm.progtech.model.GameMode;
 import nye.flocrm.progtech.model.GameState;
 import nye.flocrm.progtech.model.HumanPlayer;
+import nye.flocrm.progtech.model.MctsAIPlayer;
 import nye.flocrm.progtech.model.Player;
+import nye.flocrm.progtech.model.RuleSet;
+import nye.flocrm.progtech.model.SearchAIPlayer;
 
 /**
  * A fő játékmódokat megvalósító játékszolgáltatás.
+ * <p>
+ * A játék végén (vagy a szolgáltatás cseréje előtt) a {@link #close()} lezárja a játékosok
+ * szálkészleteit.
  */
-public class GameService {
+public class GameService implements AutoCloseable {
 
     private final Board board;
     private final WinChecker winChecker;
+    //Csak Renju szabályoknál: X tiltott lépéseinek felismerője
+    private final ForbiddenMoveDetector forbiddenMoves;
+    //Csak 5-ös nyerő hossznál, első kéréskor: mindkét játékos fenyegetései (AI, tippek)
+    private ThreatDetector threats;
+    //Csak korai döntetlen szabálynál: ablakonkénti kőszámlálók a még nyerhető ablakokhoz
+    private WinningWindows earlyDrawWindows;
     private GameState gameState;
     private Player currentPlayer;
     private Player player1;
     private Player player2;
     private final GameMode gameMode;
+    //A legutóbb közzétett állás, más szálak zárolás nélkül olvashatják
+    private volatile BoardSnapshot snapshot;
 
     /**
      * Konstruktor a játék szolgáltatás inicializálásához.
      * Létrehozza a játék alapvető komponenseit és beállítja a kezdő állapotot.
      * A konstruktor a következő inicializálásokat végzi el:
      * - Létrehoz egy új 10x10-es játéktáblát
-     * - Inicializálja a győzelem ellenőrzőt
+     * - Inicializálja a győzelem ellenőrzőt (5 egy vonalban)
      * - Beállítja a játék kezdő állapotát "Folyamatban" értékre
      * - Eltárolja a kiválasztott játékmódot
      * - Inicializálja a játékosokat a játékmódnak megfelelően
@@ -34,14 +49,55 @@ public class GameService {
      *                 (ember vs. ember vagy ember vs. AI)
      */
     public GameService(GameMode gameMode) {
+        this(gameMode, Board.SIZE, WinChecker.DEFAULT_WINNING_LENGTH);
+    }
+
+    /**
+     * Konstruktor tetszőleges táblamérettel és nyerő hosszal.
+     *
+     * @param gameMode a játékmód
+     * @param boardSize a tábla mérete (pl. 10, 15, 19)
+     * @param winningLength hány azonos szimbólum kell egy vonalban a győzelemhez
+     * @throws IllegalArgumentException ha a játékmód null, vagy a nyerő hossz
+     *         nem fér el a táblán
+     */
+    public GameService(GameMode gameMode, int boardSize, int winningLength) {
+        this(gameMode, boardSize, winningLength, RuleSet.FREESTYLE);
+    }
+
+    /**
+     * Konstruktor tetszőleges táblamérettel, nyerő hosszal és szabályrendszerrel.
+     * Renju szabályoknál a nyerő hossz kötelezően 5, és X tiltott lépéseit a
+     * {@link #makeMove(int, int)} elutasítja.
+     *
+     * @param gameMode a játékmód
+     * @param boardSize a tábla mérete (pl. 10, 15, 19)
+     * @param winningLength hány azonos szimbólum kell egy vonalban a győzelemhez
+     * @param ruleSet a játszma szabályrendszere
+     * @throws IllegalArgumentException ha a játékmód vagy a szabályrendszer null, a nyerő hossz
+     *         nem fér el a táblán, vagy Renju szabályoknál nem 5
+     */
+    public GameService(GameMode gameMode, int boardSize, int winningLength, RuleSet ruleSet) {
         if (gameMode == null) {
             throw new IllegalArgumentException("A játékmód nem lehet null");
         }
-        this.board = new Board();
-        this.winChecker = new WinChecker();
+        if (ruleSet == null) {
+            throw new IllegalArgumentException("A szabályrendszer nem lehet null");
+        }
+        if (winningLength < 1 || winningLength > boardSize) {
+            throw new IllegalArgumentException("A nyerő hossz 1 és " + boardSize + " között kell legyen: " + winningLength);
+        }
+        if (ruleSet == RuleSet.RENJU && winningLength != RuleSet.RENJU_WINNING_LENGTH) {
+            throw new IllegalArgumentException("Renju szabályoknál a nyerő hossz " + RuleSet.RENJU_WINNING_LENGTH
+                    + " kell legyen: " + winningLength);
+        }
+        this.board = new Board(boardSize);
+        this.winChecker = new WinChecker(winningLength, ruleSet);
+        this.forbiddenMoves = ruleSet == RuleSet.RENJU ? new ForbiddenMoveDetector(board) : null;
         this.gameState = GameState.IN_PROGRESS;
         this.gameMode = gameMode;
         initializePlayers();
+        this.snapshot = board.snapshot();
     }
 
     /**
@@ -53,6 +109,97 @@ public class GameService {
         return board;
     }
 
+    /**
+     * Visszaadja a legutóbb közzétett, megváltoztathatatlan táblaállást.
+     * A játék szálán kívülről (megjelenítés, néző, automatikus mentés, háttér AI)
+     * ezt kell olvasni a {@link #getBoard()} élő táblája helyett, mert lépés közben
+     * sem ad félkész állást. A pillanatkép minden lépés kiértékelése után frissül.
+     *
+     * @return az aktuális állás pillanatképe
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Visszaadja a nyerő sorozathosszt.
+     *
+     * @return hány azonos szimbólum kell egy vonalban a győzelemhez
+     */
+    public int getWinningLength() {
+        return winChecker.getWinningLength();
+    }
+
+    /**
+     * Visszaadja a játszma szabályrendszerét.
+     *
+     * @return a szabályrendszer
+     */
+    public RuleSet getRuleSet() {
+        return winChecker.getRuleSet();
+    }
+
+    /**
+     * Visszaadja a tábla fenyegetés felismerőjét (tippekhez, elemzéshez). Az első kéréskor
+     * jön létre és kapcsolódik a táblához, így a lépéseket csak akkor terheli, ha valaki
+     * használja (pl. a HUMAN_VS_AI mód AI játékosa).
+     *
+     * @return a felismerő, vagy null, ha a nyerő hossz nem 5
+     */
+    public ThreatDetector getThreatDetector() {
+        return threatDetector();
+    }
+
+    private ThreatDetector threatDetector() {
+        if (threats == null && winChecker.getWinningLength() == WinChecker.DEFAULT_WINNING_LENGTH) {
+            threats = new ThreatDetector(board, winChecker);
+        }
+        return threats;
+    }
+
+    /**
+     * Be- vagy kikapcsolja a korai döntetlen szabályt (alapból ki van kapcsolva).
+     * Bekapcsolva a játszma már akkor döntetlen, amikor egyik játékosnak sincs olyan
+     * nyerő hosszú ablaka, amelyben nincs ellenfél kő, vagyis ötös már nem jöhet létre;
+     * a holtpontra jutott állást nem kell az utolsó celláig végigjátszani (pl. szimulációknál).
+     * A vizsgálat a lépésenként frissülő {@link WinningWindows} számlálóin fut.
+     * A bekapcsolás az aktuális állást nem értékeli újra; ehhez a {@link #checkForWinner()} hívható.
+     *
+     * @param enabled true a szabály bekapcsolásához
+     */
+    public void setEarlyDraw(boolean enabled) {
+        if (enabled && earlyDrawWindows == null) {
+            earlyDrawWindows = new WinningWindows(board, winChecker);
+        } else if (!enabled && earlyDrawWindows != null) {
+            earlyDrawWindows.detach();
+            earlyDrawWindows = null;
+        }
+    }
+
+    /**
+     * Megadja, hogy be van-e kapcsolva a korai döntetlen szabály.
+     *
+     * @return true, ha a játszma a nyerhetetlenné válásakor döntetlen
+     */
+    public boolean isEarlyDraw() {
+        return earlyDrawWindows != null;
+    }
+
+    /**
+     * Megadja, hogy az aktuális játékos számára tiltott-e a lépés (Renju: X dupla hármasa,
+     * dupla négyese vagy túlhosszú sora). A vizsgálat a tábla lépésenként frissülő
+     * mintakulcsain fut, nem járja be újra a vonalakat.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a szabályrendszer tiltja a lépést
+     */
+    public boolean isForbiddenMove(int row, int col) {
+        return forbiddenMoves != null
+                && getRuleSet().hasForbiddenMoves(currentPlayer.getSymbol())
+                && forbiddenMoves.isForbidden(row, col);
+    }
+
     /**
      * Visszaadja a játék aktuális állapotát.
      *
@@ -109,6 +256,25 @@ public class GameService {
         }
     }
 
+    /**
+     * Lezárja azokat a játékosokat, amelyek erőforrást (pl. a keresés szálkészletét) tartanak.
+     */
+    @Override
+    public void close() {
+        closePlayer(player1);
+        closePlayer(player2);
+    }
+
+    private static void closePlayer(Player player) {
+        if (player instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                LoggerService.warning("Nem sikerült lezárni a játékost: " + player.getName());
+            }
+        }
+    }
+
     /**
      * Inicializálja a játékosokat a kiválasztott játékmód alapján.
      * A metódus a játékmódnak megfelelően hozza létre a játékos példányokat
@@ -117,6 +283,10 @@ public class GameService {
      * A játékmódok szerinti inicializálás:
      * - HUMAN_VS_HUMAN: két HumanPlayer, "Játékos 1" (X) és "Játékos 2" (O)
      * - HUMAN_VS_AI: egy HumanPlayer "Ember" (X) és egy AIPlayer "Számítógép" (O)
+     * - HUMAN_VS_SEARCH_AI: egy HumanPlayer "Ember" (X) és egy SearchAIPlayer "Számítógép" (O),
+     *   a játékmód lépésenkénti időkeretével, a processzormagok számának megfelelő szálon
+     * - HUMAN_VS_MCTS_AI: egy HumanPlayer "Ember" (X) és egy MctsAIPlayer "Számítógép" (O),
+     *   ugyanígy az időkerettel és a processzormagok számának megfelelő lejátszó szálon
      * <p>
      * Az első játékos mindig az 'X' szimbólumot kapja, és ő kezd.
      * A metódus utolsó lépésében beállítja az aktuális játékost az első játékosra.
@@ -131,7 +301,21 @@ public class GameService {
                 break;
             case HUMAN_VS_AI:
                 this.player1 = new HumanPlayer("Ember", 'X');
-                this.player2 = new AIPlayer("Számítógép", 'O', 'X');
+                AIPlayer ai = new AIPlayer("Számítógép", 'O', 'X', winChecker);
+                ai.setThreatDetector(threatDetector());
+                this.player2 = ai;
+                break;
+            case HUMAN_VS_SEARCH_AI:
+                this.player1 = new HumanPlayer("Ember", 'X');
+                SearchAIPlayer searchAi = new SearchAIPlayer("Számítógép", 'O', winChecker, gameMode.getMoveTimeMillis());
+                searchAi.setThreadCount(Math.min(Runtime.getRuntime().availableProcessors(), ParallelSearch.MAX_THREADS));
+                this.player2 = searchAi;
+                break;
+            case HUMAN_VS_MCTS_AI:
+                this.player1 = new HumanPlayer("Ember", 'X');
+                MctsAIPlayer mctsAi = new MctsAIPlayer("Számítógép", 'O', winChecker, gameMode.getMoveTimeMillis());
+                mctsAi.setThreadCount(Math.min(Runtime.getRuntime().availableProcessors(), ParallelSearch.MAX_THREADS));
+                this.player2 = mctsAi;
                 break;
             default:
                 throw new IllegalArgumentException("Ismeretlen játékmód: " + gameMode);
@@ -144,15 +328,17 @@ public class GameService {
      * A metódus ellenőrzi a lépés érvényességét, megvizsgálja a nyerési feltételeket,
      * és váltja a játékosokat. Automatikusan indítja az AI lépését szükség esetén.
      *
-     * @return true ha a lépés sikeres volt, false ha érvénytelen (pl. foglalt mező vagy befejezett játék)
+     * @return true ha a lépés sikeres volt, false ha érvénytelen (pl. foglalt mező, tiltott lépés
+     *         vagy befejezett játék)
      */
     public boolean makeMove(int row, int col) {
-        if (gameState != GameState.IN_PROGRESS || !board.placeSymbol(row, col, currentPlayer.getSymbol())) {
+        if (gameState != GameState.IN_PROGRESS || isForbiddenMove(row, col)
+                || !board.placeSymbol(row, col, currentPlayer.getSymbol())) {
             return false;
         }
 
-        // Ellenőrizzük, hogy valaki nyert-e
-        checkForWinner();
+        // Ellenőrizzük, hogy a lépés nyert-e
+        checkLastMove();
 
         if (gameState == GameState.IN_PROGRESS) {
             switchPlayer();
@@ -169,19 +355,19 @@ public class GameService {
     /**
      * Az AI végrehajt egy automatikus lépést.
      * A metódus csak akkor fut le, ha a játék éppen folyamatban van és az aktuális játékos
-     * egy AIPlayer példány. Az AI először megpróbálja megtalálni a nyerő lépést, ha ez nem
+     * nem emberi (AIPlayer, SearchAIPlayer vagy MctsAIPlayer). Az AI először megpróbálja megtalálni a nyerő lépést, ha ez nem
      * sikerül, akkor az ellenfél nyerő lépését próbálja blokkolni, végül pedig véletlenszerűen
      * választ egy érvényes pozíciót.
      * A lépés végrehajtása után a metódus átvizsgálja a játék állapotát:
      * A folyamat során konzolüzenet jelzi a felhasználónak, hogy az AI éppen gondolkodik.
      */
     public void makeAIMove() {
-        if (currentPlayer instanceof AIPlayer && gameState == GameState.IN_PROGRESS) {
+        if (!currentPlayer.isHuman() && gameState == GameState.IN_PROGRESS) {
             System.out.println("\n" + currentPlayer.getName() + " lépett...");
             currentPlayer.makeMove(board);
 
-            // Ellenőrizzük, hogy az AI nyert-e
-            checkForWinner();
+            // Ellenőrizzük, hogy az AI lépése nyert-e
+            checkLastMove();
 
             if (gameState == GameState.IN_PROGRESS) {
                 switchPlayer();
@@ -203,6 +389,9 @@ public class GameService {
         board.print();
         System.out.println("\nJelenlegi játékos: " + currentPlayer.getName() + " (" + currentPlayer.getSymbol() + ")");
         System.out.println("Játék mód: " + gameMode.getDisplayName());
+        System.out.println("Tábla: " + board.getSize() + "x" + board.getSize()
+                + ", nyerő hossz: " + winChecker.getWinningLength()
+                + ", szabályok: " + getRuleSet().getDisplayName());
 
         // Játék állapot megjelenítése játékos nevekkel
         String stateDisplay = switch (gameState) {
@@ -215,16 +404,56 @@ public class GameService {
     }
 
     /**
-     * Ellenőrzi, hogy van-e győztes vagy döntetlen.
-     * Frissíti a játék állapotát az ellenőrzés eredménye alapján.
+     * Az utolsó lépés alapján frissíti a játék állapotát.
+     * Új ötös (nyerő sorozat) csak a legutóbb lerakott kőn át jöhet létre, ezért elég
+     * ennek a cellának a 4 irányát vizsgálni (sorozat index, O(1)); a döntetlen az
+     * üres cellák számából, korai döntetlen szabálynál a nyitott ablakok számlálóiból
+     * adódik. A lépés költsége így független a tábla méretétől és telítettségétől.
+     * A teljes táblát bejáró {@link #checkForWinner()} csak betöltés vagy visszaállítás
+     * után szükséges.
+     */
+    private void checkLastMove() {
+        int lastMove = board.getLastMove();
+        if (lastMove >= 0) {
+            int row = lastMove / board.getSize();
+            int col = lastMove % board.getSize();
+            if (winChecker.checkWin(board, row, col)) {
+                gameState = board.getSymbolAt(row, col) == 'X' ? GameState.PLAYER_X_WON : GameState.PLAYER_O_WON;
+            } else if (isDrawn()) {
+                gameState = GameState.DRAW;
+            }
+        }
+        snapshot = board.snapshot();
+    }
+
+    /**
+     * Ellenőrzi, hogy van-e győztes vagy döntetlen a teljes tábla bejárásával.
+     * Frissíti a játék állapotát az ellenőrzés eredménye alapján,
+     * és közzéteszi a tábla új pillanatképét. Betöltés vagy visszaállítás után kell
+     * hívni, amikor a tábla nem lépésenként jött létre; lépésenként a
+     * {@link #makeMove(int, int)} már csak az utolsó lépést vizsgálja.
      */
     public void checkForWinner() {
         if (winChecker.checkWinForPlayer(board, 'X')) {
             gameState = GameState.PLAYER_X_WON;
         } else if (winChecker.checkWinForPlayer(board, 'O')) {
             gameState = GameState.PLAYER_O_WON;
-        } else if (board.isFull()) {
+        } else if (isDrawn()) {
             gameState = GameState.DRAW;
         }
+        snapshot = board.snapshot();
+    }
+
+    /**
+     * Döntetlen, ha a tábla megtelt, vagy korai döntetlen szabálynál egyik játékosnak
+     * sincs már nyitott (ellenfél kő nélküli) ablaka.
+     */
+    private boolean isDrawn() {
+        if (board.isFull()) {
+            return true;
+        }
+        return earlyDrawWindows != null
+                && earlyDrawWindows.getOpenWindowCount('X') == 0
+                && earlyDrawWindows.getOpenWindowCount('O') == 0;
     }
 }
\ No newline at end of file
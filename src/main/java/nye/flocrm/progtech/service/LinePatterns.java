@@ -0,0 +1,165 @@
+package nye.flocrm.progtech.service;
+
+import nye.flocrm.progtech.model.Board;
+
+/**
+ * Közös vonalkulcs kezelés a mintatáblázatos felismerőkhöz (tiltott lépések, fenyegetések).
+ * <p>
+ * Egy cella egy irányú vonalkulcsa a cella két oldalán lévő {@link #RADIUS}-{@link #RADIUS}
+ * szomszéd állapota hármas számrendszerben, egy adott játékos szemszögéből: 0 üres,
+ * 1 saját kő, 2 ellenfél kő vagy táblán kívüli cella. A kulcsok lépésenként
+ * összeadással frissülnek, a jelentésüket előre felépített, {@link #PATTERN_COUNT}
+ * elemű táblázatok adják meg.
+ */
+final class LinePatterns {
+
+    /** A vonal sugara: ennyi szomszéd számít a cella mindkét oldalán. */
+    static final int RADIUS = 5;
+    /** A kibontott vonal hossza (a cellával együtt). */
+    static final int LINE_LENGTH = 2 * RADIUS + 1;
+    /** A lehetséges kulcsok száma (3^10). */
+    static final int PATTERN_COUNT = pow3(LINE_LENGTH - 1);
+
+    static final int EMPTY = 0;
+    static final int OWN = 1;
+    static final int BLOCKED = 2;
+
+    /** Irányonkénti sorlépés (vízszintes, függőleges, főátló, mellékátló). */
+    static final int[] DIRECTION_ROW = {0, 1, 1, 1};
+    /** Irányonkénti oszloplépés. */
+    static final int[] DIRECTION_COL = {1, 0, 1, -1};
+
+    //A szomszéd eltolásához (-RADIUS..RADIUS, 0 nélkül) tartozó helyiérték
+    private static final int[] WEIGHTS = buildWeights();
+
+    private LinePatterns() {
+    }
+
+    /**
+     * A kő állapota a megadott játékos szemszögéből.
+     *
+     * @param symbol a cella szimbóluma
+     * @param player a szemszög játékosa
+     * @return {@link #EMPTY}, {@link #OWN} vagy {@link #BLOCKED}
+     */
+    static int stateOf(char symbol, char player) {
+        if (symbol == '.') {
+            return EMPTY;
+        }
+        return symbol == player ? OWN : BLOCKED;
+    }
+
+    /**
+     * Frissíti a megváltozott cellát szomszédként látó cellák kulcsait.
+     * A {@code (row, col)} cella a {@code c = (row, col) - j * irány} cellából {@code j} eltolásra van.
+     *
+     * @param keys a kulcsok ({@code keys[irány * cellák + cella]})
+     * @param size a tábla mérete
+     * @param row a megváltozott cella sora
+     * @param col a megváltozott cella oszlopa
+     * @param delta az állapot változása (lerakásnál +állapot, levételnél -állapot)
+     */
+    static void update(int[] keys, int size, int row, int col, int delta) {
+        int cellCount = size * size;
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            int base = d * cellCount;
+            for (int j = -RADIUS; j <= RADIUS; j++) {
+                if (j == 0) {
+                    continue;
+                }
+                int r = row - j * DIRECTION_ROW[d];
+                int c = col - j * DIRECTION_COL[d];
+                if (r >= 0 && r < size && c >= 0 && c < size) {
+                    keys[base + r * size + c] += delta * WEIGHTS[j + RADIUS];
+                }
+            }
+        }
+    }
+
+    /**
+     * A kulcsokat a tábla aktuális állásából újraszámolja (a táblán kívüli szomszéd foglaltnak számít).
+     *
+     * @param keys a kulcsok ({@code keys[irány * cellák + cella]})
+     * @param board a tábla
+     * @param player a szemszög játékosa
+     */
+    static void rebuild(int[] keys, Board board, char player) {
+        int size = board.getSize();
+        int cellCount = size * size;
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int key = 0;
+                    for (int j = -RADIUS; j <= RADIUS; j++) {
+                        if (j == 0) {
+                            continue;
+                        }
+                        int r = row + j * DIRECTION_ROW[d];
+                        int c = col + j * DIRECTION_COL[d];
+                        int state = r >= 0 && r < size && c >= 0 && c < size
+                                ? stateOf(board.getSymbolAt(r, c), player)
+                                : BLOCKED;
+                        key += state * WEIGHTS[j + RADIUS];
+                    }
+                    keys[d * cellCount + row * size + col] = key;
+                }
+            }
+        }
+    }
+
+    /**
+     * Kibontja a kulcsot vonallá; a középső cellára saját követ tesz.
+     *
+     * @param key a vonalkulcs
+     * @param line a cél tömb ({@link #LINE_LENGTH} elem)
+     */
+    static void decode(int key, int[] line) {
+        int rest = key;
+        for (int i = 0; i < LINE_LENGTH; i++) {
+            if (i == RADIUS) {
+                line[i] = OWN;
+            } else {
+                line[i] = rest % 3;
+                rest /= 3;
+            }
+        }
+    }
+
+    /**
+     * A saját kövek sorozatának hossza a vonal {@code center} indexű cellájától mindkét irányba.
+     *
+     * @param line a kibontott vonal
+     * @param center a kiinduló index (saját kő)
+     * @return a sorozat hossza
+     */
+    static int runThrough(int[] line, int center) {
+        int run = 1;
+        for (int i = center - 1; i >= 0 && line[i] == OWN; i--) {
+            run++;
+        }
+        for (int i = center + 1; i < LINE_LENGTH && line[i] == OWN; i++) {
+            run++;
+        }
+        return run;
+    }
+
+    private static int pow3(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+
+    private static int[] buildWeights() {
+        int[] weights = new int[LINE_LENGTH];
+        int weight = 1;
+        for (int i = 0; i < LINE_LENGTH; i++) {
+            if (i != RADIUS) {
+                weights[i] = weight;
+                weight *= 3;
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,918 @@
+package nye.flocrm.progtech.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import nye.flocrm.progtech.model.Board;
+
+/**
+ * Monte Carlo fakereső (MCTS) UCT kiválasztással, véletlen lejátszásokkal.
+ * <p>
+ * A fa csomópontjai egy előre lefoglalt csomópont készletben (primitív {@code int} tömbökben)
+ * vannak, egy csomópont gyermekei egymás után. Egy csomópont első bejárásakor az összes
+ * gyermeke létrejön: a kövek 1 sugarú környezetének üres cellái, de ha van nyerő lépés, csak
+ * az, ha pedig az ellenfélnek van nyerő lépése, csak a blokkolások. A nyerő gyermek végállapot,
+ * lejátszás nélkül nyer. A lejátszás a szál saját bitboard másolatán egyenletes eloszlású
+ * véletlen lépésekkel a játszma végéig tart, lépésenként O(nyerő hossz) győzelem ellenőrzéssel;
+ * a lejátszás és a fa bejárása nem foglal memóriát.
+ * <p>
+ * Több szálon a szálak ugyanazt a fát építik zárolás nélkül: a látogatásszámot a leszálláskor
+ * növelik (virtuális vereség, így a szálak más ágakat választanak), az eredményt a visszaterjesztéskor
+ * adják hozzá atomi művelettel, a kibontást pedig egy állapot mező CAS művelete védi.
+ * <p>
+ * A fa a lépések között megmarad: a következő keresés a korábbi gyökérből a közben megtett
+ * (legfeljebb egy saját és egy ellenfél) lépéssel leszáll, és csak az ott lévő részfát tartja
+ * meg (átmásolja a másik csomópont készletbe). A szabályrendszer nyerő hosszát és túlhosszú sor
+ * szabályát követi; tiltott lépéseket nem szűr.
+ * <p>
+ * Egy példány egyszerre egy keresést futtathat. Használat után a {@link #close()} állítja le
+ * a szálkészletet.
+ */
+public final class MctsEngine implements AutoCloseable {
+
+    /** Az alapértelmezett csomópont készlet méret (csomópontok száma). */
+    public static final int DEFAULT_CAPACITY = 1 << 19;
+    /** A legkisebb csomópont készlet méret. */
+    public static final int MIN_CAPACITY = 1024;
+    /** A legnagyobb csomópont készlet méret. */
+    public static final int MAX_CAPACITY = 1 << 26;
+    /** Az UCT felfedezési együtthatója. */
+    public static final double EXPLORATION = 1.4;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    //Ennyi lejátszásonként ellenőrzi a határidőt és a keretet
+    private static final int CHECK_INTERVAL = 16;
+    //Egy csomópont (a gyökér kivételével) csak ennyi látogatás után bomlik ki; addig csak lejátszik belőle
+    private static final int EXPAND_VISITS = 8;
+    //Az irányok, majd az ellentettjeik (d + 4)
+    private static final int[] DIRECTION_ROW = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] DIRECTION_COL = {1, 0, 1, -1, -1, 0, -1, 1};
+
+    //Csomópont állapotok: még nem bontott, kibontás alatt, kibontott, a belépő lépés nyert,
+    //döntetlen (tele tábla), levél (betelt a készlet)
+    private static final int NEW = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+    private static final int WIN = 3;
+    private static final int DRAW = 4;
+    private static final int LEAF = 5;
+
+    //Lejátszás eredménye: a nyertes játékos indexe (0 = X, 1 = O), vagy döntetlen
+    private static final int NO_WINNER = -1;
+
+    /**
+     * Egy keresés eredménye.
+     *
+     * @param move a választott lépés cellaindexe ({@code sor * méret + oszlop}), vagy -1, ha a tábla tele van
+     * @param visits a választott lépés látogatásainak száma
+     * @param winRate a választott lépés becsült nyerési aránya a lépő szemszögéből (döntetlen fél győzelem)
+     * @param playouts a keresés alatt futtatott lejátszások száma (az összes szálon)
+     * @param reusedVisits a gyökér előző keresésből megtartott látogatásainak száma
+     * @param elapsedNanos a keresés ideje nanoszekundumban
+     */
+    public record Result(int move, int visits, double winRate, long playouts, int reusedVisits, long elapsedNanos) {
+
+        /**
+         * A lejátszások másodpercenkénti száma.
+         *
+         * @return lejátszás / másodperc, vagy 0, ha nem volt mérhető idő
+         */
+        public double playoutsPerSecond() {
+            return elapsedNanos <= 0 ? 0 : playouts * 1e9 / elapsedNanos;
+        }
+    }
+
+    private final WinChecker winChecker;
+    private final int capacity;
+    private final Worker[] workers;
+    private final ExecutorService helpers;
+    private long playoutLimit = Long.MAX_VALUE;
+    private volatile boolean stopRequested;
+    private volatile boolean closed;
+
+    //A fa (és a részfa másolásához a tartalék készlet)
+    private Tree tree;
+    private Tree spare;
+    private int[] origin;
+
+    //A fa gyökerének állása
+    private int size;
+    private int winningLength;
+    private boolean[] overline;
+    //steps[d]: az irány lépése cellaindexben; reach[d * cellák + cella]: a tábla széléig hátralévő lépések
+    private int[] steps;
+    private int[] reach;
+    private long[][] rootBits;
+    private int[] rootEmpties;
+    private int[] rootEmptyPos;
+    private int rootEmptyCount;
+    private int rootSide;
+    private boolean rootValid;
+
+    //Az aktuális keresés állapota
+    private long deadline;
+    private final AtomicLong remaining = new AtomicLong();
+
+    /**
+     * Létrehozza a keresőt az alapértelmezett csomópont készlet mérettel, egy szálon.
+     *
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz, szabályrendszer)
+     */
+    public MctsEngine(WinChecker winChecker) {
+        this(winChecker, 1, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Létrehozza a keresőt.
+     *
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz, szabályrendszer)
+     * @param threads a szálak száma a hívó szállal együtt (1..{@value ParallelSearch#MAX_THREADS})
+     * @param capacity a csomópont készlet mérete ({@value #MIN_CAPACITY}..{@value #MAX_CAPACITY})
+     * @throws IllegalArgumentException ha a győzelem ellenőrző null, vagy egy paraméter a tartományon kívül esik
+     */
+    public MctsEngine(WinChecker winChecker, int threads, int capacity) {
+        if (winChecker == null) {
+            throw new IllegalArgumentException("A győzelem ellenőrző nem lehet null");
+        }
+        if (threads < 1 || threads > ParallelSearch.MAX_THREADS) {
+            throw new IllegalArgumentException("A szálak száma 1 és " + ParallelSearch.MAX_THREADS + " között kell legyen: " + threads);
+        }
+        if (capacity < MIN_CAPACITY || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "A készlet mérete " + MIN_CAPACITY + " és " + MAX_CAPACITY + " között kell legyen: " + capacity);
+        }
+        this.winChecker = winChecker;
+        this.capacity = capacity;
+        this.workers = new Worker[threads];
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "amoba-mcts");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Visszaadja a szálak számát.
+     *
+     * @return a szálak száma a hívó szállal együtt
+     */
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /**
+     * Visszaadja a csomópont készlet méretét.
+     *
+     * @return a csomópontok legnagyobb száma
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Visszaadja a fa csomópontjainak számát (a következő keresés ebből indul, ha az állás folytatása).
+     *
+     * @return a csomópontok száma, vagy 0, ha nincs fa
+     */
+    public int getTreeSize() {
+        return rootValid ? tree.size.get() : 0;
+    }
+
+    /**
+     * Beállítja a keresésenkénti lejátszások legnagyobb számát (alapból korlátlan, csak az idő számít).
+     *
+     * @param playoutLimit a lejátszások száma (legalább 1)
+     * @throws IllegalArgumentException ha a keret kisebb 1-nél
+     */
+    public void setPlayoutLimit(long playoutLimit) {
+        if (playoutLimit < 1) {
+            throw new IllegalArgumentException("A lejátszások száma legalább 1 kell legyen: " + playoutLimit);
+        }
+        this.playoutLimit = playoutLimit;
+    }
+
+    /**
+     * Visszaadja a keresésenkénti lejátszások legnagyobb számát.
+     *
+     * @return a keret
+     */
+    public long getPlayoutLimit() {
+        return playoutLimit;
+    }
+
+    /**
+     * Eldobja a fát; a következő keresés üres fából indul.
+     */
+    public void clearTree() {
+        rootValid = false;
+    }
+
+    /**
+     * Leállítja a futó keresést: a szálak a következő ellenőrzésnél befejezik. Bármely szálból hívható.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott időkereten belül. A tábla nem változik.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param timeMillis az időkeret ezredmásodpercben
+     * @return a keresés eredménye
+     * @throws IllegalArgumentException ha az időkeret negatív
+     */
+    public Result search(Board position, char player, long timeMillis) {
+        if (timeMillis < 0) {
+            throw new IllegalArgumentException("Az időkeret nem lehet negatív: " + timeMillis);
+        }
+        return searchUntil(position, player, System.nanoTime() + timeMillis * 1_000_000L);
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott határidőig ({@link System#nanoTime()} szerint).
+     * Lejárt határidő mellett is ad érvényes lépést.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param deadlineNanos a határidő
+     * @return a keresés eredménye
+     */
+    public Result searchUntil(Board position, char player, long deadlineNanos) {
+        return searchUntil(position, player, deadlineNanos, workers.length, () -> false);
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott határidőig vagy a leállítási feltétel teljesüléséig,
+     * legfeljebb a megadott számú szálon (pl. háttérben gondolkodáshoz egy szálon). A fa ugyanaz,
+     * mint a teljes keresésé. A feltételt csak a hívó szál hívja, {@value #CHECK_INTERVAL}
+     * lejátszásonként; a {@link #stop()} kérésétől eltérően a keresés kezdete nem törli.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param deadlineNanos a határidő
+     * @param maxThreads a szálak legnagyobb száma (a példány szálszámánál több nem fut)
+     * @param stopCondition a leállítási feltétel
+     * @return a keresés eredménye
+     * @throws IllegalArgumentException ha a szálak száma kisebb 1-nél
+     */
+    public Result searchUntil(Board position, char player, long deadlineNanos, int maxThreads,
+                              BooleanSupplier stopCondition) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("A szálak száma legalább 1 kell legyen: " + maxThreads);
+        }
+        final long start = System.nanoTime();
+        stopRequested = false;
+        if (position.isFull()) {
+            return new Result(-1, 0, 0, 0, 0, 0);
+        }
+        int boardSize = position.getSize();
+        if (position.getMoveCount() == 0) {
+            return new Result((boardSize / 2) * boardSize + boardSize / 2, 0, 0.5, 0, 0, 0);
+        }
+        int side = player == 'X' ? 0 : 1;
+        if (!reuseTree(position, side)) {
+            newTree(position, side);
+        }
+        final int reusedVisits = tree.visits[0];
+        deadline = deadlineNanos;
+        int threads = prepareWorkers(maxThreads);
+        long playouts = 0;
+        if (tree.states[0] == NEW) {
+            // Lejárt határidőnél is legyen kibontott gyökér (nyerő és blokkoló lépés)
+            workers[0].iterate();
+            playouts++;
+        }
+        remaining.set(playoutLimit - playouts);
+        playouts += runWorkers(threads, stopCondition);
+        int child = bestChild();
+        return new Result(child >= 0 ? tree.moves[child] : rootEmpties[0], child >= 0 ? tree.visits[child] : 0,
+                winRate(child), playouts, reusedVisits, System.nanoTime() - start);
+    }
+
+    /**
+     * Leállítja a segédszálak készletét. A példány ezután csak egy szálon keres.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Létrehozza a szálak munkaállapotát, ha még nincs, vagy más méretű táblához készült.
+     *
+     * @return a keresésben részt vevő szálak száma
+     */
+    private int prepareWorkers(int maxThreads) {
+        int threads = helpers == null || closed ? 1 : Math.min(maxThreads, workers.length);
+        for (int i = 0; i < threads; i++) {
+            if (workers[i] == null || workers[i].cellCount != size * size) {
+                workers[i] = new Worker(i);
+            }
+        }
+        return threads;
+    }
+
+    /**
+     * A keresés a hívó szálon és a segédszálakon; a hívó szál végén a többit is leállítja.
+     *
+     * @return az összes lejátszás száma
+     */
+    private long runWorkers(int threads, BooleanSupplier stopCondition) {
+        List<Future<Long>> futures = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            Worker worker = workers[i];
+            futures.add(helpers.submit(() -> worker.run(() -> false)));
+        }
+        long playouts;
+        try {
+            playouts = workers[0].run(stopCondition);
+        } finally {
+            stopRequested = true;
+        }
+        for (Future<Long> future : futures) {
+            playouts += await(future);
+        }
+        return playouts;
+    }
+
+    /**
+     * Új, egyetlen gyökérből álló fa az állásból.
+     */
+    private void newTree(Board position, int side) {
+        size = position.getSize();
+        final int cellCount = size * size;
+        if (tree == null) {
+            tree = new Tree(capacity);
+            spare = new Tree(capacity);
+            origin = new int[capacity];
+        }
+        winningLength = winChecker.getWinningLength();
+        overline = new boolean[] {winChecker.getRuleSet().allowsOverline('X'), winChecker.getRuleSet().allowsOverline('O')};
+        if (reach == null || reach.length != DIRECTION_ROW.length * cellCount) {
+            buildReach(cellCount);
+        }
+        rootBits = new long[][] {position.getBits('X'), position.getBits('O')};
+        rootEmpties = new int[cellCount];
+        rootEmptyPos = new int[cellCount];
+        rootEmptyCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (isSet(rootBits[0], cell) || isSet(rootBits[1], cell)) {
+                rootEmptyPos[cell] = -1;
+            } else {
+                rootEmptyPos[cell] = rootEmptyCount;
+                rootEmpties[rootEmptyCount++] = cell;
+            }
+        }
+        rootSide = side;
+        tree.reset();
+        rootValid = true;
+    }
+
+    /**
+     * Irányonként és cellánként a tábla széléig megtehető lépések száma (a győzelem
+     * ellenőrzés így határellenőrzés nélkül lépked).
+     */
+    private void buildReach(int cellCount) {
+        steps = new int[DIRECTION_ROW.length];
+        reach = new int[DIRECTION_ROW.length * cellCount];
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            steps[d] = DIRECTION_ROW[d] * size + DIRECTION_COL[d];
+            for (int cell = 0; cell < cellCount; cell++) {
+                int r = cell / size + DIRECTION_ROW[d];
+                int c = cell % size + DIRECTION_COL[d];
+                int count = 0;
+                while (r >= 0 && r < size && c >= 0 && c < size) {
+                    count++;
+                    r += DIRECTION_ROW[d];
+                    c += DIRECTION_COL[d];
+                }
+                reach[d * cellCount + cell] = count;
+            }
+        }
+    }
+
+    /**
+     * Az előző fa újrahasznosítása: ha az állás a korábbi gyökérből legfeljebb egy lépő és egy
+     * ellenfél lépéssel (ebben a sorrendben) elérhető, és ezek a lépések a fában vannak, a
+     * megfelelő részfa lesz az új fa.
+     *
+     * @return true, ha a fa megmaradt
+     */
+    private boolean reuseTree(Board position, int side) {
+        if (!rootValid || position.getSize() != size || winChecker.getWinningLength() != winningLength) {
+            return false;
+        }
+        long[][] bits = {position.getBits('X'), position.getBits('O')};
+        int[] added = {-1, -1};
+        for (int player = 0; player < 2; player++) {
+            for (int word = 0; word < bits[player].length; word++) {
+                if ((rootBits[player][word] & ~bits[player][word]) != 0) {
+                    return false;
+                }
+                long extra = bits[player][word] & ~rootBits[player][word];
+                if (extra != 0) {
+                    if (added[player] >= 0 || Long.bitCount(extra) > 1) {
+                        return false;
+                    }
+                    added[player] = word * Long.SIZE + Long.numberOfTrailingZeros(extra);
+                }
+            }
+        }
+        // A gyökér lépője lép először, az ellenfél csak utána
+        int first = added[rootSide];
+        int second = added[1 - rootSide];
+        int plies = (first >= 0 ? 1 : 0) + (second >= 0 ? 1 : 0);
+        if (first < 0 && second >= 0 || (plies % 2 == 0 ? rootSide : 1 - rootSide) != side) {
+            return false;
+        }
+        int node = first >= 0 ? tree.child(0, first) : 0;
+        if (node >= 0 && second >= 0) {
+            node = tree.child(node, second);
+        }
+        if (node < 0) {
+            return false;
+        }
+        if (node != 0) {
+            copySubtree(node);
+        }
+        for (int player = 0; player < 2; player++) {
+            if (added[player] >= 0) {
+                int cell = added[player];
+                rootBits[player][cell >>> 6] |= 1L << cell;
+                removeEmpty(rootEmpties, rootEmptyPos, rootEmptyCount--, cell);
+            }
+        }
+        rootSide = side;
+        return true;
+    }
+
+    /**
+     * A {@code node} részfáját a tartalék készletbe másolja (szélességi bejárással, a
+     * testvérek egymás után maradnak), majd a két készletet felcseréli.
+     */
+    private void copySubtree(int node) {
+        spare.size.set(1);
+        origin[0] = node;
+        for (int target = 0; target < spare.size.get(); target++) {
+            int source = origin[target];
+            spare.moves[target] = target == 0 ? -1 : tree.moves[source];
+            spare.visits[target] = tree.visits[source];
+            spare.scores[target] = tree.scores[source];
+            int state = tree.states[source];
+            if (state == EXPANDED) {
+                int count = tree.childCount[source];
+                int firstChild = spare.size.getAndAdd(count);
+                for (int k = 0; k < count; k++) {
+                    origin[firstChild + k] = tree.firstChild[source] + k;
+                }
+                spare.firstChild[target] = firstChild;
+                spare.childCount[target] = count;
+            } else {
+                spare.firstChild[target] = 0;
+                spare.childCount[target] = 0;
+            }
+            spare.states[target] = state == EXPANDING || state == LEAF ? NEW : state;
+        }
+        Tree swap = tree;
+        tree = spare;
+        spare = swap;
+    }
+
+    /**
+     * A gyökér legtöbbet látogatott gyermeke (a nyerő gyermek mindig elsőbbséget kap).
+     *
+     * @return a gyermek csomópont, vagy -1, ha a gyökér nincs kibontva
+     */
+    private int bestChild() {
+        if (tree.states[0] != EXPANDED) {
+            return -1;
+        }
+        int first = tree.firstChild[0];
+        int best = first;
+        for (int child = first; child < first + tree.childCount[0]; child++) {
+            if (tree.states[child] == WIN) {
+                return child;
+            }
+            if (tree.visits[child] > tree.visits[best]) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private double winRate(int child) {
+        if (child < 0 || tree.visits[child] == 0) {
+            return child >= 0 && tree.states[child] == WIN ? 1 : 0.5;
+        }
+        return tree.scores[child] / (2.0 * tree.visits[child]);
+    }
+
+    private boolean rootSolved() {
+        return tree.states[0] == EXPANDED && tree.childCount[0] == 1 && tree.states[tree.firstChild[0]] == WIN;
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] >>> cell & 1) != 0;
+    }
+
+    /**
+     * Kiveszi a cellát az üres cellák indexelt halmazából (a helyére az utolsó kerül).
+     */
+    private static void removeEmpty(int[] empties, int[] emptyPos, int count, int cell) {
+        int pos = emptyPos[cell];
+        int last = empties[count - 1];
+        empties[pos] = last;
+        emptyPos[last] = pos;
+        emptyPos[cell] = -1;
+    }
+
+    /**
+     * Megvárja a leállított segédszál eredményét, a hívó szál megszakítása esetén is.
+     */
+    private static long await(Future<Long> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw new IllegalStateException("A segédszál keresése hibával állt le", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Csomópont készlet: csomópontonként a belépő lépés, a gyermekek kezdete és száma, az
+     * állapot, a látogatások száma és a belépő lépést tevő játékos pontszáma (győzelem 2,
+     * döntetlen 1, vereség 0 pont lejátszásonként).
+     */
+    private static final class Tree {
+        final int[] moves;
+        final int[] firstChild;
+        final int[] childCount;
+        final int[] states;
+        final int[] visits;
+        final int[] scores;
+        final AtomicInteger size = new AtomicInteger();
+
+        Tree(int capacity) {
+            moves = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            states = new int[capacity];
+            visits = new int[capacity];
+            scores = new int[capacity];
+        }
+
+        void reset() {
+            size.set(1);
+            moves[0] = -1;
+            firstChild[0] = 0;
+            childCount[0] = 0;
+            states[0] = NEW;
+            visits[0] = 0;
+            scores[0] = 0;
+        }
+
+        /**
+         * Lefoglal {@code count} egymás utáni csomópontot.
+         *
+         * @return az első indexe, vagy -1, ha nem fér el
+         */
+        int allocate(int count) {
+            while (true) {
+                int current = size.get();
+                if (current + count > moves.length) {
+                    return -1;
+                }
+                if (size.compareAndSet(current, current + count)) {
+                    return current;
+                }
+            }
+        }
+
+        /**
+         * A kibontott csomópont adott lépésű gyermeke.
+         *
+         * @return a gyermek, vagy -1, ha nincs
+         */
+        int child(int node, int move) {
+            if (states[node] != EXPANDED) {
+                return -1;
+            }
+            for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+                if (moves[child] == move) {
+                    return child;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Egy szál munkaállapota: a gyökér állás saját bitboard másolata, az üres cellák indexelt
+     * halmaza, a bejárt út és a véletlenszám generátor. Keresés közben nem foglal memóriát.
+     */
+    private final class Worker {
+        final int cellCount;
+        final long[][] bits;
+        final int[] empties;
+        final int[] emptyPos;
+        final int[] path;
+        final int[] candidates;
+        final int[] blocks;
+        int emptyCount;
+        long random;
+
+        Worker(int index) {
+            cellCount = size * size;
+            bits = new long[][] {new long[rootBits[0].length], new long[rootBits[1].length]};
+            empties = new int[cellCount];
+            emptyPos = new int[cellCount];
+            path = new int[cellCount + 1];
+            candidates = new int[cellCount];
+            blocks = new int[cellCount];
+            random = 0x9E3779B97F4A7C15L * (index + 1);
+        }
+
+        /**
+         * Lejátszásokat futtat a határidőig, a keret kimerüléséig vagy leállításig.
+         *
+         * @param stopCondition a hívó leállítási feltétele
+         * @return a lejátszások száma
+         */
+        long run(BooleanSupplier stopCondition) {
+            long playouts = 0;
+            while (!stopRequested && System.nanoTime() - deadline < 0 && !rootSolved() && !stopCondition.getAsBoolean()) {
+                long batch = Math.min(CHECK_INTERVAL, remaining.getAndAdd(-CHECK_INTERVAL));
+                if (batch <= 0) {
+                    break;
+                }
+                for (int i = 0; i < batch; i++) {
+                    iterate();
+                }
+                playouts += batch;
+            }
+            return playouts;
+        }
+
+        /**
+         * Egy iteráció: leszállás UCT szerint, kibontás, lejátszás, visszaterjesztés.
+         */
+        void iterate() {
+            final Tree nodes = tree;
+            System.arraycopy(rootBits[0], 0, bits[0], 0, bits[0].length);
+            System.arraycopy(rootBits[1], 0, bits[1], 0, bits[1].length);
+            System.arraycopy(rootEmpties, 0, empties, 0, rootEmptyCount);
+            System.arraycopy(rootEmptyPos, 0, emptyPos, 0, cellCount);
+            emptyCount = rootEmptyCount;
+            int side = rootSide;
+            int node = 0;
+            int depth = 0;
+            path[0] = 0;
+            INTS.getAndAdd(nodes.visits, 0, 1);
+            int winner;
+            while (true) {
+                int state = (int) INTS.getAcquire(nodes.states, node);
+                if (state == WIN) {
+                    winner = 1 - side;
+                    break;
+                }
+                if (state == DRAW) {
+                    winner = NO_WINNER;
+                    break;
+                }
+                if (state == EXPANDED) {
+                    node = select(nodes, node);
+                    place(nodes.moves[node], side);
+                    path[++depth] = node;
+                    INTS.getAndAdd(nodes.visits, node, 1);
+                    side = 1 - side;
+                    continue;
+                }
+                if (state == NEW && (node == 0 || nodes.visits[node] >= EXPAND_VISITS)
+                        && INTS.compareAndSet(nodes.states, node, NEW, EXPANDING)) {
+                    int expanded = expand(nodes, node, side);
+                    INTS.setRelease(nodes.states, node, expanded);
+                    if (expanded == DRAW) {
+                        winner = NO_WINNER;
+                        break;
+                    }
+                    if (expanded == EXPANDED) {
+                        // Egy új gyermekből játszik le (a fa iterációnként egy szinttel nő)
+                        node = select(nodes, node);
+                        place(nodes.moves[node], side);
+                        path[++depth] = node;
+                        INTS.getAndAdd(nodes.visits, node, 1);
+                        side = 1 - side;
+                        if (nodes.states[node] == WIN) {
+                            winner = 1 - side;
+                            break;
+                        }
+                    }
+                }
+                winner = playout(side);
+                break;
+            }
+            // A d mélységű csomópontba lépő játékos: páratlan mélységben a gyökér lépője
+            for (int d = 0; d <= depth; d++) {
+                int mover = d % 2 == 1 ? rootSide : 1 - rootSide;
+                int reward = winner == NO_WINNER ? 1 : winner == mover ? 2 : 0;
+                if (reward != 0) {
+                    INTS.getAndAdd(nodes.scores, path[d], reward);
+                }
+            }
+        }
+
+        /**
+         * UCT: a legnagyobb {@code átlag + C * sqrt(ln N / n)} értékű gyermek; a még nem
+         * látogatott és a nyerő gyermek azonnal.
+         */
+        int select(Tree nodes, int node) {
+            int first = nodes.firstChild[node];
+            int last = first + nodes.childCount[node];
+            double logVisits = Math.log(Math.max(1, nodes.visits[node]));
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = first; child < last; child++) {
+                int visits = nodes.visits[child];
+                if (visits == 0 || nodes.states[child] == WIN) {
+                    return child;
+                }
+                double value = nodes.scores[child] / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Létrehozza a csomópont gyermekeit: nyerő lépés, ha van; különben az ellenfél nyerő
+         * lépéseinek blokkolása, ha van; különben a kövek 1 sugarú környezetének üres cellái.
+         *
+         * @return a csomópont új állapota
+         */
+        int expand(Tree nodes, int node, int side) {
+            if (emptyCount == 0) {
+                return DRAW;
+            }
+            int candidateCount = 0;
+            int blockCount = 0;
+            for (int i = 0; i < emptyCount; i++) {
+                int cell = empties[i];
+                if (hasNeighbour(cell)) {
+                    if (wins(cell, side)) {
+                        return createChildren(nodes, node, cell);
+                    }
+                    if (wins(cell, 1 - side)) {
+                        blocks[blockCount++] = cell;
+                    }
+                    candidates[candidateCount++] = cell;
+                }
+            }
+            int[] moves = blockCount > 0 ? blocks : candidates;
+            int count = blockCount > 0 ? blockCount : candidateCount;
+            if (count == 0) {
+                moves = empties;
+                count = emptyCount;
+            }
+            int first = nodes.allocate(count);
+            if (first < 0) {
+                return LEAF;
+            }
+            for (int k = 0; k < count; k++) {
+                initNode(nodes, first + k, moves[k], NEW);
+            }
+            nodes.firstChild[node] = first;
+            nodes.childCount[node] = count;
+            return EXPANDED;
+        }
+
+        /**
+         * Egyetlen, nyerő gyermek.
+         */
+        int createChildren(Tree nodes, int node, int winningMove) {
+            int first = nodes.allocate(1);
+            if (first < 0) {
+                return LEAF;
+            }
+            initNode(nodes, first, winningMove, WIN);
+            nodes.firstChild[node] = first;
+            nodes.childCount[node] = 1;
+            return EXPANDED;
+        }
+
+        void initNode(Tree nodes, int index, int move, int state) {
+            nodes.moves[index] = move;
+            nodes.firstChild[index] = 0;
+            nodes.childCount[index] = 0;
+            nodes.visits[index] = 0;
+            nodes.scores[index] = 0;
+            nodes.states[index] = state;
+        }
+
+        /**
+         * Véletlen lejátszás a játszma végéig.
+         *
+         * @return a nyertes játékos indexe, vagy {@link #NO_WINNER}
+         */
+        int playout(int side) {
+            while (emptyCount > 0) {
+                int cell = empties[nextIndex(emptyCount)];
+                place(cell, side);
+                if (wins(cell, side)) {
+                    return side;
+                }
+                side = 1 - side;
+            }
+            return NO_WINNER;
+        }
+
+        void place(int cell, int side) {
+            bits[side][cell >>> 6] |= 1L << cell;
+            removeEmpty(empties, emptyPos, emptyCount--, cell);
+        }
+
+        /**
+         * Megadja, hogy a játékos a cellára lépve nyer-e (a cella saját bitjétől függetlenül).
+         */
+        boolean wins(int cell, int side) {
+            long[] own = bits[side];
+            int half = DIRECTION_ROW.length / 2;
+            for (int d = 0; d < half; d++) {
+                int run = 1 + count(own, cell, d) + count(own, cell, d + half);
+                if (overline[side] ? run >= winningLength : run == winningLength) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * A saját kövek száma a cellától az adott irányban (legfeljebb nyerő hossznyi; a túlhosszú
+         * sor felismeréséhez ennyi elég).
+         */
+        int count(long[] own, int cell, int d) {
+            int step = steps[d];
+            int limit = Math.min(reach[d * cellCount + cell], winningLength);
+            int run = 0;
+            int next = cell + step;
+            while (run < limit && isSet(own, next)) {
+                run++;
+                next += step;
+            }
+            return run;
+        }
+
+        boolean hasNeighbour(int cell) {
+            int row = cell / size;
+            int col = cell % size;
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    int other = r * size + c;
+                    if (isSet(bits[0], other) || isSet(bits[1], other)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Egyenletes véletlen index a {@code 0..bound-1} tartományban (xorshift64*).
+         */
+        int nextIndex(int bound) {
+            random ^= random >>> 12;
+            random ^= random << 25;
+            random ^= random >>> 27;
+            long value = (random * 0x2545F4914F6CDD1DL) >>> 32;
+            return (int) ((value * bound) >>> 32);
+        }
+    }
+}
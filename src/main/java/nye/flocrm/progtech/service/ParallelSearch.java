@@ -0,0 +1,188 @@
+package nye.flocrm.progtech.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import nye.flocrm.progtech.model.Board;
+
+/**
+ * Többszálú keresés (Lazy SMP): több {@link SearchEngine} ugyanazt a gyökeret keresi
+ * egymástól függetlenül, egy közös {@link TranspositionTable}-n keresztül osztozva az
+ * eredményeiken. A szálak között nincs más szinkronizáció: a segédszálak által kitöltött
+ * bejegyzések a fő keresőt vágásokkal és jobb lépéssorrenddel gyorsítják.
+ * <p>
+ * A fő kereső a hívó szálon fut, a segédszálak egy saját (démon) szálkészleten. A páratlan
+ * sorszámú segédszálak egy szinttel mélyebbről kezdik az iteratív mélyítést, így a szálak
+ * nem ugyanazt a fát járják be lépésről lépésre. Amikor a fő kereső befejeződik (határidő,
+ * maximális mélység vagy eldőlt állás), a segédszálakat leállítja, és megvárja őket.
+ * Az eredmény a legmélyebb teljes iterációt befejező kereső lépése (egyenlőségnél a fő
+ * keresőé), a csomópontok száma az összes szálé.
+ * <p>
+ * Egy példány egyszerre egy keresést futtathat. Használat után a {@link #close()} állítja le
+ * a szálkészletet.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    /** A szálak megengedett legnagyobb száma. */
+    public static final int MAX_THREADS = 256;
+
+    private final SearchEngine[] engines;
+    private final TranspositionTable transpositionTable;
+    private final ExecutorService helpers;
+    private volatile boolean closed;
+
+    /**
+     * Létrehozza a keresőket és a segédszálak készletét.
+     *
+     * @param winChecker a játékban használt győzelem ellenőrző
+     * @param threads a szálak száma a hívó szállal együtt (1..{@value #MAX_THREADS})
+     * @param transpositionTable a közös transzpozíciós tábla
+     * @throws IllegalArgumentException ha a szálak száma a tartományon kívül esik, vagy a tábla null
+     */
+    public ParallelSearch(WinChecker winChecker, int threads, TranspositionTable transpositionTable) {
+        if (threads < 1 || threads > MAX_THREADS) {
+            throw new IllegalArgumentException("A szálak száma 1 és " + MAX_THREADS + " között kell legyen: " + threads);
+        }
+        if (transpositionTable == null) {
+            throw new IllegalArgumentException("A transzpozíciós tábla nem lehet null");
+        }
+        this.transpositionTable = transpositionTable;
+        this.engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(winChecker);
+            engines[i].setTranspositionTable(transpositionTable);
+        }
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "amoba-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Visszaadja a szálak számát.
+     *
+     * @return a szálak száma a hívó szállal együtt
+     */
+    public int getThreadCount() {
+        return engines.length;
+    }
+
+    /**
+     * Visszaadja a fő keresőt. A maximális mélységét ({@link SearchEngine#setMaxDepth(int)})
+     * minden keresés a segédszálakra is átveszi.
+     *
+     * @return a hívó szálon futó kereső
+     */
+    public SearchEngine getEngine() {
+        return engines[0];
+    }
+
+    /**
+     * Visszaadja a közös transzpozíciós táblát.
+     *
+     * @return a tábla
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott időkereten belül, az összes szálon. A tábla nem változik.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param timeMillis az időkeret ezredmásodpercben
+     * @return a keresés eredménye
+     * @throws IllegalArgumentException ha az időkeret negatív
+     */
+    public SearchEngine.Result search(Board position, char player, long timeMillis) {
+        if (timeMillis < 0) {
+            throw new IllegalArgumentException("Az időkeret nem lehet negatív: " + timeMillis);
+        }
+        return searchUntil(position, player, System.nanoTime() + timeMillis * 1_000_000L);
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott határidőig ({@link System#nanoTime()} szerint), az összes szálon.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param deadlineNanos a határidő
+     * @return a keresés eredménye
+     */
+    public SearchEngine.Result searchUntil(Board position, char player, long deadlineNanos) {
+        SearchEngine main = engines[0];
+        if (helpers == null || closed || position.isFull() || position.getMoveCount() == 0) {
+            return main.searchUntil(position, player, deadlineNanos);
+        }
+        transpositionTable.newSearch();
+        List<Future<SearchEngine.Result>> futures = new ArrayList<>(engines.length - 1);
+        for (int i = 1; i < engines.length; i++) {
+            SearchEngine helper = engines[i];
+            int startDepth = 1 + i % 2;
+            helper.setMaxDepth(main.getMaxDepth());
+            helper.clearStop();
+            futures.add(helpers.submit(() -> helper.run(position, player, deadlineNanos, startDepth, SearchEngine.NEVER_STOP)));
+        }
+        main.clearStop();
+        SearchEngine.Result best;
+        try {
+            best = main.run(position, player, deadlineNanos, 1, SearchEngine.NEVER_STOP);
+        } finally {
+            for (int i = 1; i < engines.length; i++) {
+                engines[i].stop();
+            }
+        }
+        long nodes = best.nodes();
+        for (Future<SearchEngine.Result> future : futures) {
+            SearchEngine.Result result = await(future);
+            nodes += result.nodes();
+            if (result.depth() > best.depth()) {
+                best = result;
+            }
+        }
+        return new SearchEngine.Result(best.move(), best.score(), best.depth(), nodes);
+    }
+
+    /**
+     * Leállítja a segédszálak készletét. A példány ezután csak egy szálon keres.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Megvárja a leállított segédszál eredményét (néhány csomóponton belül visszatér), a hívó
+     * szál megszakítása esetén is. A segédszál hibáját a hívó szálon dobja tovább.
+     */
+    private static SearchEngine.Result await(Future<SearchEngine.Result> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw new IllegalStateException("A segédszál keresése hibával állt le", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package nye.flocrm.progtech.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.Player;
+import nye.flocrm.progtech.model.Ponderable;
+
+/**
+ * Háttérben gondolkodás vezérlése: amíg az ember a lépésén gondolkodik, az AI ellenfél
+ * ({@link Ponderable}) egy külön (démon, alacsony prioritású) szálon keres.
+ * <p>
+ * Egy állásra a gondolkodás legfeljebb a beállított CPU keretig fut: a háttérszál saját
+ * CPU idejét méri ({@link ThreadMXBean#getCurrentThreadCpuTime()}; ha a JVM ezt nem
+ * támogatja, a szál futási idejét). Ha ugyanarra az állásra többször indul (pl. érvénytelen
+ * bemenet után), a korábban elhasznált idő beleszámít.
+ * <p>
+ * Minden indítás saját törlési jelzőt kap, amelyet csak a {@link #stop()} állít be, és a
+ * keresés sosem töröl; a {@link #stop()} ezért egyetlen kérés után megvárja a gondolkodást,
+ * így utána a játékos biztonságosan léphet.
+ * <p>
+ * A vezérlő egy szálból (a játék szálából) használandó.
+ */
+public final class Ponderer implements AutoCloseable {
+
+    /** Az alapértelmezett CPU keret egy állásra ezredmásodpercben. */
+    public static final long DEFAULT_BUDGET_MILLIS = 30_000;
+
+    //A gondolkodásnak nincs falióra szerinti határideje, csak a CPU kerete
+    private static final long NO_DEADLINE_NANOS = 1L << 62;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long budgetMillis;
+    private final ExecutorService executor;
+    private boolean closed;
+
+    //Az aktuális állás: a tábla, a verziója, a gondolkodó játékos és az elhasznált CPU idő
+    private Board sessionBoard;
+    private long sessionVersion;
+    private Ponderable sessionPlayer;
+    private long spentNanos;
+    private Future<Long> running;
+    private AtomicBoolean cancelled;
+
+    /**
+     * Létrehozza a vezérlőt.
+     *
+     * @param budgetMillis a gondolkodás CPU kerete egy állásra ezredmásodpercben (0: kikapcsolva)
+     * @throws IllegalArgumentException ha a keret negatív
+     */
+    public Ponderer(long budgetMillis) {
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("A keret nem lehet negatív: " + budgetMillis);
+        }
+        this.budgetMillis = budgetMillis;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "amoba-ponder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Visszaadja a gondolkodás CPU keretét egy állásra.
+     *
+     * @return a keret ezredmásodpercben
+     */
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * Megadja, hogy fut-e éppen gondolkodás.
+     *
+     * @return true, ha a háttérszál keres
+     */
+    public boolean isPondering() {
+        return running != null && !running.isDone();
+    }
+
+    /**
+     * Elindítja a játékos gondolkodását a tábla aktuális állásán (annak másolatán).
+     * Nem indul, ha a játékos nem tud gondolkodni, ugyanerre az állásra már fut, vagy az
+     * állás kerete elfogyott; más állásnál a korábbi gondolkodást előbb leállítja.
+     *
+     * @param player a gondolkodó (az ellenfél lépésére váró) játékos
+     * @param board az élő tábla
+     * @return true, ha elindult a gondolkodás
+     */
+    public boolean start(Player player, Board board) {
+        if (closed || !(player instanceof Ponderable ponderable)) {
+            return false;
+        }
+        if (board != sessionBoard || board.getVersion() != sessionVersion || ponderable != sessionPlayer) {
+            stop();
+            sessionBoard = board;
+            sessionVersion = board.getVersion();
+            sessionPlayer = ponderable;
+            spentNanos = 0;
+        } else if (isPondering()) {
+            return false;
+        } else {
+            // A magától befejeződött gondolkodás idejét is elszámolja
+            stop();
+        }
+        long remaining = budgetMillis * 1_000_000L - spentNanos;
+        if (remaining <= 0) {
+            return false;
+        }
+        Board position = board.copy();
+        AtomicBoolean token = new AtomicBoolean();
+        cancelled = token;
+        running = executor.submit(() -> {
+            long cpuStart = cpuTime();
+            ponderable.ponder(position, System.nanoTime() + NO_DEADLINE_NANOS,
+                    () -> token.get() || cpuTime() - cpuStart >= remaining);
+            return cpuTime() - cpuStart;
+        });
+        return true;
+    }
+
+    /**
+     * Leállítja és megvárja a futó gondolkodást (a hívó szál megszakítása esetén is).
+     * A gondolkodás hibáját naplózza.
+     */
+    public void stop() {
+        if (running == null) {
+            return;
+        }
+        cancelled.set(true);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    spentNanos += running.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    LoggerService.warning("Hiba a háttérben gondolkodás során: " + e.getCause());
+                    break;
+                }
+            }
+        } finally {
+            running = null;
+            cancelled = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Leállítja a gondolkodást és a háttérszálat.
+     */
+    @Override
+    public void close() {
+        stop();
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    //A hívó szál CPU ideje, ha a JVM méri; egyébként a falióra (a különbségek számítanak)
+    private static long cpuTime() {
+        if (THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()) {
+            return THREADS.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,457 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import nye.flocrm.progtech.model.Board;
+
+/**
+ * Negamax alfa-béta kereső korlátos táblára.
+ * <p>
+ * Iteratív mélyítéssel keres (1, 2, 3, ... mélység), amíg a határidő le nem jár, nyerő
+ * vagy vesztő sorozatot nem talál, vagy el nem éri a maximális mélységet. Az előző
+ * iteráció legjobb lépését a következő iteráció gyökerében elsőként vizsgálja, így a
+ * főváltozat keresés (PVS) a többi lépést nulla szélességű ablakkal zárhatja ki, és csak
+ * akkor keres újra teljes ablakkal, ha egy lépés mégis jobbnak bizonyul.
+ * <p>
+ * A keresés a tábla egy másolatán fut, amelyhez egy {@link WinningWindows} index
+ * kapcsolódik; a kiértékelés ennek ellenfél nélküli ablakaiból számol (több kő, nagyobb
+ * súly), lépésenként O(nyerő hossz) költséggel. Jelöltek csak a meglévő kövek
+ * {@value #NEAR_RADIUS} sugarú környezetének üres cellái, amelyeket egy inkrementálisan
+ * karbantartott {@link CandidateGenerator} ad; a sorrendet a mélyebb csomópontokban a
+ * fenyegetés prioritás, azon belül a vágást okozó lépések története (history heurisztika)
+ * és a szomszédos kövek száma adja.
+ * <p>
+ * Transzpozíciós táblával ({@link #setTranspositionTable(TranspositionTable)}) a már
+ * bejárt állások eredményét (korlátját és legjobb lépését) újrahasználja: elég mély
+ * bejegyzés esetén a csomópont azonnal visszatér, egyébként a tárolt lépést vizsgálja elsőként.
+ * <p>
+ * A határidőt {@value #CHECK_INTERVAL} csomópontonként ellenőrzi, így egy lépés ideje
+ * legfeljebb néhány ezredmásodperccel lépi túl a keretet. Lejártakor a félbehagyott
+ * iteráció eredményét eldobja, és az utolsó teljes iteráció lépését adja vissza.
+ * <p>
+ * A {@link #stop()} más szálból is leállíthatja a futó keresést (pl. ha egy párhuzamos
+ * keresés már befejeződött). A {@link #searchUntil(Board, char, long, BooleanSupplier)}
+ * leállítási feltételét (pl. háttérben gondolkodás törlése, CPU keret) a határidővel együtt
+ * ellenőrzi; ezt a keresés nem törli, így a korán teljesülő feltétel sem vész el. Egy példány egyszerre egy keresést futtathat; több szálon
+ * egy közös transzpozíciós táblájú {@link ParallelSearch} keres.
+ */
+public final class SearchEngine {
+
+    /** A nyert állás értéke; a gyorsabb győzelem (kisebb ply) értéke nagyobb. */
+    public static final int WIN_SCORE = 1_000_000;
+    /** A maximális keresési mélység. */
+    public static final int MAX_DEPTH = 64;
+
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int NEAR_RADIUS = 2;
+    private static final int CHECK_INTERVAL = 64;
+    //Leállítási feltétel nélküli keresés
+    static final BooleanSupplier NEVER_STOP = () -> false;
+    private static final int HISTORY_BITS = 24;
+    private static final int HISTORY_LIMIT = (1 << HISTORY_BITS) - 1;
+    //Ettől a hátralévő mélységtől rendezi a jelölteket fenyegetés szerint (sekélyebben a becslés drágább a haszonnál)
+    private static final int THREAT_ORDER_DEPTH = 3;
+    //A kiértékelés korlátja: a nyert állások értéke alatt marad
+    private static final int EVAL_LIMIT = WIN_SCORE / 2;
+
+    /**
+     * Egy keresés eredménye.
+     *
+     * @param move a választott lépés cellaindexe ({@code sor * méret + oszlop}), vagy -1, ha a tábla tele van
+     * @param score a lépés értéke a lépő játékos szemszögéből
+     * @param depth az utolsó teljesen lefutott iteráció mélysége
+     * @param nodes a bejárt csomópontok száma
+     */
+    public record Result(int move, int score, int depth, long nodes) {
+    }
+
+    private final WinChecker winChecker;
+    private int maxDepth = MAX_DEPTH;
+    private TranspositionTable transpositionTable;
+
+    //Az aktuális keresés állapota:
+    private Board board;
+    private WinningWindows windows;
+    private int size;
+    private CandidateGenerator candidates;
+    private int[] history;
+    private int[][] moves;
+    private int[][] orderKeys;
+    private long[] weights;
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+    private BooleanSupplier stopCondition = NEVER_STOP;
+    private int rootBest;
+    private int rootPv;
+
+    /**
+     * Létrehozza a keresőt a játékban használt győzelem ellenőrzővel (nyerő hossz, szabályrendszer).
+     *
+     * @param winChecker a győzelem ellenőrző
+     * @throws IllegalArgumentException ha a győzelem ellenőrző null
+     */
+    public SearchEngine(WinChecker winChecker) {
+        if (winChecker == null) {
+            throw new IllegalArgumentException("A győzelem ellenőrző nem lehet null");
+        }
+        this.winChecker = winChecker;
+    }
+
+    /**
+     * Beállítja a maximális keresési mélységet (alapból {@value #MAX_DEPTH}).
+     *
+     * @param maxDepth a mélység (1..{@value #MAX_DEPTH})
+     * @throws IllegalArgumentException ha a mélység a tartományon kívül esik
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("A mélység 1 és " + MAX_DEPTH + " között kell legyen: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Beállítja a transzpozíciós táblát. Több kereső (akár több szálon) is használhatja ugyanazt.
+     *
+     * @param transpositionTable a tábla, vagy null a kikapcsoláshoz
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Visszaadja a transzpozíciós táblát.
+     *
+     * @return a tábla, vagy null, ha nincs beállítva
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Visszaadja a maximális keresési mélységet.
+     *
+     * @return a mélység
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott időkereten belül. A tábla nem változik.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param timeMillis az időkeret ezredmásodpercben
+     * @return a keresés eredménye
+     * @throws IllegalArgumentException ha az időkeret negatív
+     */
+    public Result search(Board position, char player, long timeMillis) {
+        if (timeMillis < 0) {
+            throw new IllegalArgumentException("Az időkeret nem lehet negatív: " + timeMillis);
+        }
+        return searchUntil(position, player, System.nanoTime() + timeMillis * 1_000_000L);
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott határidőig ({@link System#nanoTime()} szerint).
+     * Lejárt határidő mellett is ad érvényes lépést (a legjobbnak rendezett jelöltet).
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param deadlineNanos a határidő
+     * @return a keresés eredménye
+     */
+    public Result searchUntil(Board position, char player, long deadlineNanos) {
+        return searchUntil(position, player, deadlineNanos, NEVER_STOP);
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott határidőig vagy a leállítási feltétel teljesüléséig.
+     * A feltételt a határidővel együtt, {@value #CHECK_INTERVAL} csomópontonként hívja a
+     * kereső szálon, és (a {@link #stop()} kérésétől eltérően) a keresés kezdete nem törli.
+     *
+     * @param position az állás
+     * @param player a lépő játékos
+     * @param deadlineNanos a határidő
+     * @param stopCondition a leállítási feltétel
+     * @return a keresés eredménye
+     */
+    public Result searchUntil(Board position, char player, long deadlineNanos, BooleanSupplier stopCondition) {
+        stopRequested = false;
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+        return run(position, player, deadlineNanos, 1, stopCondition);
+    }
+
+    /**
+     * Leállítja a futó keresést: az a következő határidő ellenőrzésnél az utolsó teljes
+     * iteráció eredményével tér vissza. Bármely szálból hívható.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Törli a leállítási kérést. A {@link ParallelSearch} a segédszálak indítása előtt hívja,
+     * hogy a korán érkező {@link #stop()} ne vesszen el.
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Az iteratív mélyítés a {@code startDepth} mélységtől; a leállítási kérést és a
+     * transzpozíciós tábla generációját a hívó kezeli.
+     */
+    Result run(Board position, char player, long deadlineNanos, int startDepth, BooleanSupplier stopCondition) {
+        if (position.isFull()) {
+            return new Result(-1, 0, 0, 0);
+        }
+        size = position.getSize();
+        if (position.getMoveCount() == 0) {
+            return new Result((size / 2) * size + size / 2, 0, 0, 0);
+        }
+        prepare(position);
+        deadline = deadlineNanos;
+        this.stopCondition = stopCondition;
+        char opponent = player == 'X' ? 'O' : 'X';
+        try {
+            int count = generateMoves(0, player, maxDepth);
+            int bestMove = selectMove(0, 0, count, -1);
+            int bestScore = 0;
+            int completed = 0;
+            int depthLimit = Math.min(maxDepth, board.getEmptyCellCount());
+            for (int depth = Math.min(startDepth, depthLimit); depth <= depthLimit; depth++) {
+                rootPv = bestMove;
+                int score = negamax(depth, 0, -INFINITY, INFINITY, player, opponent);
+                if (aborted) {
+                    break;
+                }
+                bestMove = rootBest;
+                bestScore = score;
+                completed = depth;
+                if (Math.abs(score) > WIN_SCORE - MAX_DEPTH - 1 || shouldStop()) {
+                    break;
+                }
+            }
+            return new Result(bestMove, bestScore, completed, nodes);
+        } finally {
+            windows.detach();
+            board = null;
+            windows = null;
+            candidates = null;
+            this.stopCondition = NEVER_STOP;
+        }
+    }
+
+    private boolean shouldStop() {
+        return stopRequested || System.nanoTime() - deadline >= 0 || stopCondition.getAsBoolean();
+    }
+
+    /**
+     * Felépíti a keresés munkaállapotát az állás másolatán.
+     */
+    private void prepare(Board position) {
+        board = position.copy();
+        windows = new WinningWindows(board, winChecker);
+        candidates = new CandidateGenerator(board, winChecker, NEAR_RADIUS);
+        candidates.detach();
+        int cellCount = size * size;
+        if (history == null || history.length != cellCount) {
+            history = new int[cellCount];
+            moves = new int[MAX_DEPTH + 1][cellCount];
+            orderKeys = new int[MAX_DEPTH + 1][cellCount];
+        } else {
+            Arrays.fill(history, 0);
+        }
+        int length = winChecker.getWinningLength();
+        weights = new long[length + 1];
+        for (int stones = 1; stones <= length; stones++) {
+            weights[stones] = 1L << Math.min(2 * (stones - 1), 20);
+        }
+        nodes = 0;
+        aborted = false;
+    }
+
+    /**
+     * Negamax alfa-béta főváltozat kereséssel.
+     *
+     * @return az állás értéke a lépő ({@code side}) szemszögéből
+     */
+    private int negamax(int depth, int ply, int alpha, int beta, char side, char other) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && shouldStop()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (depth == 0) {
+            return evaluate(side, other);
+        }
+        long key = board.getHash();
+        int preferred = ply == 0 ? rootPv : -1;
+        if (transpositionTable != null) {
+            long entry = transpositionTable.probe(key);
+            if (entry != 0 && ply > 0) {
+                preferred = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.BOUND_EXACT
+                            || bound == TranspositionTable.BOUND_LOWER && score >= beta
+                            || bound == TranspositionTable.BOUND_UPPER && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+        }
+        int count = generateMoves(ply, side, depth);
+        if (count == 0) {
+            return 0;
+        }
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int cell = selectMove(ply, i, count, preferred);
+            int row = cell / size;
+            int col = cell % size;
+            place(cell, side, depth > 1);
+            int score;
+            if (winChecker.checkWin(board, row, col)) {
+                score = WIN_SCORE - ply - 1;
+            } else if (i == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha, other, side);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha, other, side);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha, other, side);
+                }
+            }
+            unplace(cell, side, depth > 1);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = cell;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                history[cell] += depth * depth;
+                break;
+            }
+        }
+        if (ply == 0) {
+            rootBest = bestMove;
+        }
+        if (transpositionTable != null) {
+            int bound = best <= originalAlpha ? TranspositionTable.BOUND_UPPER
+                    : best >= beta ? TranspositionTable.BOUND_LOWER : TranspositionTable.BOUND_EXACT;
+            transpositionTable.store(key, bestMove, toTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    /**
+     * A nyert / vesztett állások értékét a gyökértől mért távolság helyett a csomóponttól
+     * mért távolsággal tárolja, hogy más mélységben elért azonos állásra is helyes legyen.
+     */
+    private static int toTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_DEPTH - 1) {
+            return score + ply;
+        }
+        return score < -WIN_SCORE + MAX_DEPTH + 1 ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_DEPTH - 1) {
+            return score - ply;
+        }
+        return score < -WIN_SCORE + MAX_DEPTH + 1 ? score + ply : score;
+    }
+
+    /**
+     * Statikus kiértékelés: ablakonként az ellenfél nélküli ablakok kőszám szerinti súlyozott
+     * összege, a lépő játékos és az ellenfél különbsége.
+     */
+    private int evaluate(char side, char other) {
+        long score = 0;
+        for (int stones = 1; stones < weights.length - 1; stones++) {
+            score += weights[stones] * (windows.countWindows(side, stones) - windows.countWindows(other, stones));
+        }
+        return (int) Math.max(-EVAL_LIMIT, Math.min(EVAL_LIMIT, score));
+    }
+
+    /**
+     * A jelöltek a {@code moves[ply]} tömbbe, rendezési kulcsukkal együtt: elsődlegesen a
+     * fenyegetés prioritás, azon belül a vágást okozó lépések története.
+     *
+     * @return a jelöltek száma
+     */
+    private int generateMoves(int ply, char side, int depth) {
+        int[] list = moves[ply];
+        int[] keys = orderKeys[ply];
+        int count = depth >= THREAT_ORDER_DEPTH ? candidates.generate(side) : candidates.collect();
+        for (int i = 0; i < count; i++) {
+            int cell = candidates.rowAt(i) * size + candidates.colAt(i);
+            list[i] = cell;
+            keys[i] = candidates.priorityAt(i) << HISTORY_BITS | Math.min(history[cell] + candidates.neighboursAt(i), HISTORY_LIMIT);
+        }
+        return count;
+    }
+
+    /**
+     * Kiválasztja a legjobb rendezési kulcsú jelöltet az {@code index..count} tartományból,
+     * és az {@code index} helyre cseréli (lusta rendezés: vágásnál a többit nem kell rendezni).
+     * A {@code preferred} lépés, ha jelölt, mindig elsőként kerül sorra.
+     *
+     * @return a kiválasztott cella
+     */
+    private int selectMove(int ply, int index, int count, int preferred) {
+        int[] list = moves[ply];
+        int[] keys = orderKeys[ply];
+        int best = index;
+        for (int i = index; i < count; i++) {
+            if (list[i] == preferred) {
+                best = i;
+                break;
+            }
+            if (keys[i] > keys[best]) {
+                best = i;
+            }
+        }
+        int cell = list[best];
+        list[best] = list[index];
+        list[index] = cell;
+        int key = keys[best];
+        keys[best] = keys[index];
+        keys[index] = key;
+        return cell;
+    }
+
+    /**
+     * Lerakja a követ. A jelölt halmazt csak akkor frissíti, ha a gyermek csomópont még
+     * generál lépéseket (a levelek a kiértékelés után azonnal visszavonódnak).
+     */
+    private void place(int cell, char side, boolean trackCandidates) {
+        board.placeSymbol(cell / size, cell % size, side);
+        if (trackCandidates) {
+            candidates.stonePlaced(cell / size, cell % size, side);
+        }
+    }
+
+    private void unplace(int cell, char side, boolean trackCandidates) {
+        board.undo();
+        if (trackCandidates) {
+            candidates.stoneRemoved(cell / size, cell % size, side);
+        }
+    }
+}
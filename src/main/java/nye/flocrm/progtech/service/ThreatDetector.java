@@ -0,0 +1,338 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Arrays;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.MoveListener;
+import nye.flocrm.progtech.model.ThreatType;
+
+/**
+ * Lépésenként frissülő fenyegetés felismerő mindkét játékosnak.
+ * <p>
+ * Minden üres cellát mindkét játékos szemszögéből besorol egy {@link ThreatType} osztályba
+ * aszerint, hogy mi jönne létre, ha a játékos oda lépne. Az osztályozás a
+ * {@link ForbiddenMoveDetector}-éval azonos vonalkulcsokon ({@link LinePatterns}) fut,
+ * játékosonként külön kulccsal, és egy egyszer felépített mintatáblázat adja meg
+ * irányonként a fenyegetést. Egy lépés csak a lépés vonalain lévő, legfeljebb
+ * 4 * 10 cellát sorolja be újra.
+ * <p>
+ * Az osztályok játékosonként indexelt halmazok: a {@link #count(char, ThreatType)} és a
+ * {@link #cellAt(char, ThreatType, int)} allokáció nélkül járja be őket (AI, tippek,
+ * szabály ellenőrzések). A minták ötös sorozatra épülnek, ezért a felismerő csak
+ * 5-ös nyerő hosszal használható; a túlhosszú sor a szabályrendszer szerint számít ötösnek.
+ */
+public final class ThreatDetector implements MoveListener {
+
+    private static final int[] DIRECTION_ROW = LinePatterns.DIRECTION_ROW;
+    private static final int[] DIRECTION_COL = LinePatterns.DIRECTION_COL;
+    private static final int RADIUS = LinePatterns.RADIUS;
+    private static final int WINNING_LENGTH = 5;
+
+    private static final ThreatType[] TYPES = ThreatType.values();
+    private static final int NONE = ThreatType.NONE.ordinal();
+    private static final int FOUR = ThreatType.FOUR.ordinal();
+    private static final int OPEN_THREE = ThreatType.OPEN_THREE.ordinal();
+    private static final int BROKEN_THREE = ThreatType.BROKEN_THREE.ordinal();
+
+    private static final char[] PLAYERS = {'X', 'O'};
+
+    private final Board board;
+    private final int size;
+    private final int cellCount;
+
+    //Játékosonként (0: X, 1: O):
+    private final byte[][] tables = new byte[2][];
+    //vonalkulcsok: keys[p][irány * cellák + cella]
+    private final int[][] keys;
+    //a cella aktuális osztálya (sorszám)
+    private final byte[][] cellThreat;
+    //osztályonként indexelt halmaz: members[p][osztály][i], memberPos[p][cella] a cella helye
+    private final int[][][] members;
+    private final int[][] memberPos;
+    private final int[][] counts;
+
+    /**
+     * Felépíti a felismerőt a tábla aktuális állásából, és a táblára regisztrál.
+     *
+     * @param board a követendő tábla
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz és szabályrendszer)
+     * @throws IllegalArgumentException ha a nyerő hossz nem 5
+     */
+    public ThreatDetector(Board board, WinChecker winChecker) {
+        if (winChecker.getWinningLength() != WINNING_LENGTH) {
+            throw new IllegalArgumentException("A fenyegetés felismerő csak " + WINNING_LENGTH
+                    + "-ös nyerő hosszal használható: " + winChecker.getWinningLength());
+        }
+        this.board = board;
+        this.size = board.getSize();
+        this.cellCount = size * size;
+        this.keys = new int[2][DIRECTION_ROW.length * cellCount];
+        this.cellThreat = new byte[2][cellCount];
+        this.members = new int[2][NONE][cellCount];
+        this.memberPos = new int[2][cellCount];
+        this.counts = new int[2][NONE];
+        for (int p = 0; p < PLAYERS.length; p++) {
+            tables[p] = winChecker.getRuleSet().allowsOverline(PLAYERS[p]) ? Tables.OVERLINE_WINS : Tables.EXACT_FIVE;
+        }
+        rebuild();
+        board.addMoveListener(this);
+    }
+
+    /**
+     * Leválasztja a felismerőt a tábláról (további lépések nem frissítik).
+     */
+    public void detach() {
+        board.removeMoveListener(this);
+    }
+
+    /**
+     * Visszaadja, melyik táblát követi a felismerő.
+     *
+     * @return a követett tábla
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Megadja, hány cella tartozik a játékos adott fenyegetés osztályába.
+     *
+     * @param player a játékos szimbóluma
+     * @param type a fenyegetés osztálya
+     * @return a cellák száma ({@link ThreatType#NONE} és érvénytelen játékos esetén 0)
+     */
+    public int count(char player, ThreatType type) {
+        int p = playerIndex(player);
+        return p < 0 || type == ThreatType.NONE ? 0 : counts[p][type.ordinal()];
+    }
+
+    /**
+     * Visszaadja a játékos adott osztályú fenyegetés celláinak {@code i}. elemét.
+     * A sorrend a frissítések során változik.
+     *
+     * @param player a játékos szimbóluma
+     * @param type a fenyegetés osztálya
+     * @param i az elem sorszáma (0 .. {@link #count(char, ThreatType)} - 1)
+     * @return a cella indexe ({@code sor * méret + oszlop})
+     * @throws IndexOutOfBoundsException ha a sorszám a tartományon kívül esik
+     */
+    public int cellAt(char player, ThreatType type, int i) {
+        int count = count(player, type);
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Fenyegetés index: " + i + ", darab: " + count);
+        }
+        return members[playerIndex(player)][type.ordinal()][i];
+    }
+
+    /**
+     * Visszaadja a játékos adott osztályú fenyegetés celláinak egyikét.
+     *
+     * @param player a játékos szimbóluma
+     * @param type a fenyegetés osztálya
+     * @return a cella indexe, vagy -1, ha az osztály üres
+     */
+    public int firstCell(char player, ThreatType type) {
+        return count(player, type) > 0 ? members[playerIndex(player)][type.ordinal()][0] : -1;
+    }
+
+    /**
+     * Visszaadja, mi jönne létre, ha a játékos az adott cellára lépne.
+     *
+     * @param player a játékos szimbóluma
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return a fenyegetés osztálya; foglalt vagy táblán kívüli cellára {@link ThreatType#NONE}
+     */
+    public ThreatType threatAt(char player, int row, int col) {
+        int p = playerIndex(player);
+        if (p < 0 || !board.isValidPosition(row, col)) {
+            return ThreatType.NONE;
+        }
+        return TYPES[cellThreat[p][row * size + col]];
+    }
+
+    @Override
+    public void stonePlaced(int row, int col, char player) {
+        update(row, col, player, 1);
+    }
+
+    @Override
+    public void stoneRemoved(int row, int col, char player) {
+        update(row, col, player, -1);
+    }
+
+    @Override
+    public void boardReset(Board source) {
+        rebuild();
+    }
+
+    private void update(int row, int col, char player, int sign) {
+        for (int p = 0; p < PLAYERS.length; p++) {
+            LinePatterns.update(keys[p], size, row, col, sign * LinePatterns.stateOf(player, PLAYERS[p]));
+        }
+        reclassify(row * size + col);
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            for (int j = -RADIUS; j <= RADIUS; j++) {
+                int r = row + j * DIRECTION_ROW[d];
+                int c = col + j * DIRECTION_COL[d];
+                if (j != 0 && r >= 0 && r < size && c >= 0 && c < size) {
+                    reclassify(r * size + c);
+                }
+            }
+        }
+    }
+
+    private void rebuild() {
+        for (int p = 0; p < PLAYERS.length; p++) {
+            LinePatterns.rebuild(keys[p], board, PLAYERS[p]);
+            Arrays.fill(cellThreat[p], (byte) NONE);
+            Arrays.fill(counts[p], 0);
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            reclassify(cell);
+        }
+    }
+
+    /**
+     * A cellát mindkét játékosnál újra besorolja, és szükség esetén áthelyezi a halmazok között.
+     */
+    private void reclassify(int cell) {
+        boolean empty = board.getSymbolAt(cell / size, cell % size) == '.';
+        for (int p = 0; p < PLAYERS.length; p++) {
+            int type = empty ? classify(p, cell) : NONE;
+            int old = cellThreat[p][cell];
+            if (type != old) {
+                if (old != NONE) {
+                    remove(p, old, cell);
+                }
+                if (type != NONE) {
+                    add(p, type, cell);
+                }
+                cellThreat[p][cell] = (byte) type;
+            }
+        }
+    }
+
+    /**
+     * A 4 irány fenyegetéseiből a cella osztálya: a legerősebb, de két négyes, vagy egy
+     * négyes és egy hármas (különböző irányban) nem védhető, ezért nyílt négyesnek számít.
+     */
+    private int classify(int p, int cell) {
+        byte[] table = tables[p];
+        int[] playerKeys = keys[p];
+        int best = NONE;
+        int fours = 0;
+        int threes = 0;
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            int type = table[playerKeys[d * cellCount + cell]];
+            best = Math.min(best, type);
+            if (type == FOUR) {
+                fours++;
+            } else if (type == OPEN_THREE || type == BROKEN_THREE) {
+                threes++;
+            }
+        }
+        if (best == FOUR && (fours >= 2 || threes >= 1)) {
+            return ThreatType.OPEN_FOUR.ordinal();
+        }
+        return best;
+    }
+
+    private void add(int p, int type, int cell) {
+        int position = counts[p][type]++;
+        members[p][type][position] = cell;
+        memberPos[p][cell] = position;
+    }
+
+    private void remove(int p, int type, int cell) {
+        int position = memberPos[p][cell];
+        int last = members[p][type][--counts[p][type]];
+        members[p][type][position] = last;
+        memberPos[p][last] = position;
+    }
+
+    private static int playerIndex(char player) {
+        if (player == 'X') {
+            return 0;
+        }
+        return player == 'O' ? 1 : -1;
+    }
+
+    /**
+     * A mintatáblázatok (csak az első használatkor épülnek fel): kulcsonként az adott irányú
+     * fenyegetés osztály sorszáma, ha a túlhosszú sor nyer, illetve ha pontosan öt kell.
+     */
+    private static final class Tables {
+
+        static final byte[] OVERLINE_WINS = build(true);
+        static final byte[] EXACT_FIVE = build(false);
+
+        private Tables() {
+        }
+
+        private static byte[] build(boolean overlineWins) {
+            byte[] table = new byte[LinePatterns.PATTERN_COUNT];
+            int[] line = new int[LinePatterns.LINE_LENGTH];
+            for (int key = 0; key < table.length; key++) {
+                LinePatterns.decode(key, line);
+                table[key] = (byte) evaluate(line, overlineWins).ordinal();
+            }
+            return table;
+        }
+
+        /**
+         * Egy vonal fenyegetése, ha a középső cellán saját kő áll.
+         */
+        private static ThreatType evaluate(int[] line, boolean overlineWins) {
+            int run = LinePatterns.runThrough(line, RADIUS);
+            if (run >= WINNING_LENGTH) {
+                return isFive(run, overlineWins) ? ThreatType.FIVE : ThreatType.NONE;
+            }
+            int completions = completions(line, overlineWins);
+            if (completions >= 2) {
+                return ThreatType.OPEN_FOUR;
+            }
+            if (completions == 1) {
+                return ThreatType.FOUR;
+            }
+            boolean solid = run >= 3;
+            ThreatType best = ThreatType.NONE;
+            for (int i = RADIUS - WINNING_LENGTH + 2; i <= RADIUS + WINNING_LENGTH - 2; i++) {
+                if (line[i] != LinePatterns.EMPTY) {
+                    continue;
+                }
+                line[i] = LinePatterns.OWN;
+                if (completions(line, overlineWins) >= 2) {
+                    if (solid) {
+                        line[i] = LinePatterns.EMPTY;
+                        return ThreatType.OPEN_THREE;
+                    }
+                    best = ThreatType.BROKEN_THREE;
+                }
+                line[i] = LinePatterns.EMPTY;
+            }
+            return best;
+        }
+
+        /**
+         * Hány üres cella egészíti ki a vonalat a középső kövön átmenő ötössé.
+         */
+        private static int completions(int[] line, boolean overlineWins) {
+            int count = 0;
+            for (int i = RADIUS - WINNING_LENGTH + 1; i <= RADIUS + WINNING_LENGTH - 1; i++) {
+                if (line[i] == LinePatterns.EMPTY) {
+                    line[i] = LinePatterns.OWN;
+                    if (isFive(LinePatterns.runThrough(line, RADIUS), overlineWins)) {
+                        count++;
+                    }
+                    line[i] = LinePatterns.EMPTY;
+                }
+            }
+            return count;
+        }
+
+        private static boolean isFive(int run, boolean overlineWins) {
+            return run == WINNING_LENGTH || (overlineWins && run > WINNING_LENGTH);
+        }
+    }
+}
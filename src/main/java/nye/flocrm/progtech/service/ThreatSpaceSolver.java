@@ -0,0 +1,548 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Arrays;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.RuleSet;
+import nye.flocrm.progtech.model.ThreatType;
+
+/**
+ * Fenyegetés-tér kereső: kényszerített nyerést keres csak kényszerítő lépésekkel.
+ * <p>
+ * A VCF (folyamatos négyesek) keresésben a támadó csak négyest ad, a védőnek egyetlen
+ * válasza van: az ötöt kiegészítő cella. A VCT (folyamatos fenyegetések) keresésben a
+ * támadó nyitott vagy tört hármast is adhat; ekkor a védő válaszai a hármas "költség
+ * mezői" (a cellák, amelyekkel a támadó négyest vagy nyílt négyest adna), valamint a védő
+ * saját négyesei. A VCF pontos, a VCT a klasszikus fenyegetés-tér keresés közelítése.
+ * Ha a védőnek ötös fenyegetése van, a támadónak azt kell blokkolnia, és csak akkor
+ * folytathat, ha a blokkolás maga is fenyegetés.
+ * <p>
+ * A keresés a kapott állás saját másolatán fut, a lépések osztályait egy hozzá kötött
+ * {@link ThreatDetector} adja lépésenként frissítve. A támadó mindig lépésen van (a másik
+ * fél kényszerített nyerésének felismeréséhez is ugyanígy hívható). Az eredmények egy
+ * rögzített méretű, Zobrist hash kulcsú gyorsítótárba kerülnek, amely a hívások között
+ * megmarad. A keresést csomópont és időkorlát zárja le; korlát miatt félbehagyott
+ * keresés eredménye "nincs nyerés". Renju szabálynál X tiltott lépéseit kihagyja.
+ * <p>
+ * A fenyegetés felismerőhöz hasonlóan csak 5-ös nyerő hosszal használható.
+ */
+public final class ThreatSpaceSolver {
+
+    /** Az alapértelmezett VCF mélység (a támadó négyeseinek legnagyobb száma). */
+    public static final int DEFAULT_VCF_DEPTH = 16;
+    /** Az alapértelmezett VCT mélység (a támadó hármasainak legnagyobb száma). */
+    public static final int DEFAULT_VCT_DEPTH = 3;
+    /** Az alapértelmezett csomópont korlát hívásonként. */
+    public static final long DEFAULT_NODE_LIMIT = 50_000;
+    /** Az alapértelmezett időkorlát hívásonként ezredmásodpercben. */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 5;
+    /** A legnagyobb VCF mélység. */
+    public static final int MAX_VCF_DEPTH = 60;
+    /** A legnagyobb VCT mélység. */
+    public static final int MAX_VCT_DEPTH = 15;
+
+    private static final int WINNING_LENGTH = 5;
+    private static final int NO_WIN = -1;
+
+    //A gyorsítótár: kulcs és adat; az adat mezői (alsó bittől): lépés + 1 20, négyesek 6,
+    //hármasok 4 bit, nyerés 1 bit
+    private static final int CACHE_SIZE = 1 << 14;
+    private static final int FOURS_SHIFT = 20;
+    private static final int THREES_SHIFT = 26;
+    private static final int MOVE_MASK = 0xFFFFF;
+    private static final int FOURS_MASK = 0x3F;
+    private static final int THREES_MASK = 0xF;
+    private static final int WIN_FLAG = 1 << 30;
+    //A kulcsba kevert érték a támadó szerint (a hash nem tartalmazza a lépő felet)
+    private static final long[] ATTACKER_SALT = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL};
+
+    /**
+     * Egy keresés eredménye.
+     *
+     * @param move a kényszerített nyerés első lépésének cellaindexe ({@code sor * méret + oszlop}),
+     *             vagy -1, ha nem talált
+     * @param nodes a bejárt csomópontok száma
+     * @param aborted true, ha a keresést a csomópont vagy időkorlát zárta le
+     * @param elapsedNanos a keresés ideje nanoszekundumban
+     */
+    public record Result(int move, long nodes, boolean aborted, long elapsedNanos) {
+
+        /**
+         * Megadja, hogy talált-e kényszerített nyerést.
+         *
+         * @return true, ha van nyerő lépés
+         */
+        public boolean isWin() {
+            return move >= 0;
+        }
+    }
+
+    private final WinChecker winChecker;
+    private final RuleSet ruleSet;
+    private int vcfDepth = DEFAULT_VCF_DEPTH;
+    private int vctDepth = DEFAULT_VCT_DEPTH;
+    private long nodeLimit = DEFAULT_NODE_LIMIT;
+    private long timeLimitMillis = DEFAULT_TIME_LIMIT_MILLIS;
+
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final int[] cacheData = new int[CACHE_SIZE];
+
+    //A keresés saját táblája és a hozzá kötött felismerők
+    private Board work;
+    private ThreatDetector threats;
+    private ForbiddenMoveDetector forbiddenMoves;
+    //Szintenként a támadó lépései és a védő válaszai
+    private int[][] attackMoves;
+    private int[][] defenceMoves;
+    //A védő válaszainak ismétlődés szűrése: a cella jelölése az aktuális sorszámmal
+    private int[] marks;
+    private int markStamp;
+    //A védekező lépés keresés jelöltjei
+    private int[] defenceCandidates;
+
+    //Az aktuális keresés állapota
+    private char attacker;
+    private char defender;
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+
+    /**
+     * Létrehozza a keresőt.
+     *
+     * @param winChecker a játékban használt győzelem ellenőrző (nyerő hossz, szabályrendszer)
+     * @throws IllegalArgumentException ha a győzelem ellenőrző null, vagy a nyerő hossz nem 5
+     */
+    public ThreatSpaceSolver(WinChecker winChecker) {
+        if (winChecker == null) {
+            throw new IllegalArgumentException("A győzelem ellenőrző nem lehet null");
+        }
+        if (winChecker.getWinningLength() != WINNING_LENGTH) {
+            throw new IllegalArgumentException("A fenyegetés-tér kereső csak " + WINNING_LENGTH
+                    + "-ös nyerő hosszal használható: " + winChecker.getWinningLength());
+        }
+        this.winChecker = winChecker;
+        this.ruleSet = winChecker.getRuleSet();
+    }
+
+    /**
+     * Beállítja a VCF mélységet: a támadó négyeseinek legnagyobb számát egy változatban.
+     *
+     * @param vcfDepth a mélység (1..{@value #MAX_VCF_DEPTH})
+     * @throws IllegalArgumentException ha a mélység a tartományon kívül esik
+     */
+    public void setVcfDepth(int vcfDepth) {
+        if (vcfDepth < 1 || vcfDepth > MAX_VCF_DEPTH) {
+            throw new IllegalArgumentException("A VCF mélység 1 és " + MAX_VCF_DEPTH + " között kell legyen: " + vcfDepth);
+        }
+        this.vcfDepth = vcfDepth;
+        this.attackMoves = null;
+    }
+
+    /**
+     * Visszaadja a VCF mélységet.
+     *
+     * @return a támadó négyeseinek legnagyobb száma
+     */
+    public int getVcfDepth() {
+        return vcfDepth;
+    }
+
+    /**
+     * Beállítja a VCT mélységet: a támadó hármasainak legnagyobb számát egy változatban.
+     *
+     * @param vctDepth a mélység (1..{@value #MAX_VCT_DEPTH})
+     * @throws IllegalArgumentException ha a mélység a tartományon kívül esik
+     */
+    public void setVctDepth(int vctDepth) {
+        if (vctDepth < 1 || vctDepth > MAX_VCT_DEPTH) {
+            throw new IllegalArgumentException("A VCT mélység 1 és " + MAX_VCT_DEPTH + " között kell legyen: " + vctDepth);
+        }
+        this.vctDepth = vctDepth;
+        this.attackMoves = null;
+    }
+
+    /**
+     * Visszaadja a VCT mélységet.
+     *
+     * @return a támadó hármasainak legnagyobb száma
+     */
+    public int getVctDepth() {
+        return vctDepth;
+    }
+
+    /**
+     * Beállítja a hívásonkénti csomópont korlátot.
+     *
+     * @param nodeLimit a csomópontok legnagyobb száma (legalább 1)
+     * @throws IllegalArgumentException ha a korlát kisebb 1-nél
+     */
+    public void setNodeLimit(long nodeLimit) {
+        if (nodeLimit < 1) {
+            throw new IllegalArgumentException("A csomópont korlát legalább 1 kell legyen: " + nodeLimit);
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Visszaadja a hívásonkénti csomópont korlátot.
+     *
+     * @return a korlát
+     */
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Beállítja a hívásonkénti időkorlátot.
+     *
+     * @param timeLimitMillis az időkorlát ezredmásodpercben (nem negatív)
+     * @throws IllegalArgumentException ha az időkorlát negatív
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Az időkorlát nem lehet negatív: " + timeLimitMillis);
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Visszaadja a hívásonkénti időkorlátot.
+     *
+     * @return az időkorlát ezredmásodpercben
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Törli a gyorsítótárat.
+     */
+    public void clearCache() {
+        Arrays.fill(cacheKeys, 0);
+        Arrays.fill(cacheData, 0);
+    }
+
+    /**
+     * Folyamatos négyesekkel (VCF) kényszerített nyerést keres. A tábla nem változik.
+     *
+     * @param position az állás
+     * @param player a támadó (lépésen lévő) játékos
+     * @return a keresés eredménye
+     * @throws IllegalArgumentException ha a játékos nem 'X' vagy 'O'
+     */
+    public Result findVcf(Board position, char player) {
+        return solve(position, player, false);
+    }
+
+    /**
+     * Folyamatos fenyegetésekkel (VCT) kényszerített nyerést keres; előbb a VCF változatokat
+     * nézi végig. A tábla nem változik.
+     *
+     * @param position az állás
+     * @param player a támadó (lépésen lévő) játékos
+     * @return a keresés eredménye
+     * @throws IllegalArgumentException ha a játékos nem 'X' vagy 'O'
+     */
+    public Result findVct(Board position, char player) {
+        return solve(position, player, true);
+    }
+
+    /**
+     * Védekező lépést keres a támadó kényszerített nyerése (VCT) ellen; a védő van lépésen.
+     * A jelöltek: a nyerés első lépése, az utána keletkező költség mezők (a támadó ötös és
+     * négyes cellái), valamint a védő saját négyesei. Az első jelöltet adja, amely után a
+     * támadónak már nincs kényszerített nyerése. Ha egyik sem cáfolja (vagy a korlát
+     * közbeszól), a nyerés első lépését adja, mint legjobb blokkolást. A csomópont és
+     * időkorlát a teljes hívásra vonatkozik. A tábla nem változik.
+     *
+     * @param position az állás
+     * @param player a támadó játékos (a védő az ellenfele)
+     * @return a keresés eredménye; a lépés -1, ha a támadónak nincs kényszerített nyerése
+     * @throws IllegalArgumentException ha a játékos nem 'X' vagy 'O'
+     */
+    public Result findDefence(Board position, char player) {
+        long start = begin(position, player);
+        int threat = search(true);
+        if (threat == NO_WIN) {
+            return new Result(NO_WIN, nodes, aborted, System.nanoTime() - start);
+        }
+        int count = collectDefences(threat);
+        int size = work.getSize();
+        for (int i = 0; i < count && !aborted; i++) {
+            int cell = defenceCandidates[i];
+            work.placeSymbol(cell / size, cell % size, defender);
+            boolean refuted = search(true) == NO_WIN;
+            work.undo();
+            if (refuted && !aborted) {
+                return new Result(cell, nodes, false, System.nanoTime() - start);
+            }
+        }
+        return new Result(threat, nodes, aborted, System.nanoTime() - start);
+    }
+
+    private Result solve(Board position, char player, boolean useThrees) {
+        long start = begin(position, player);
+        int move = search(useThrees);
+        return new Result(move, nodes, aborted, System.nanoTime() - start);
+    }
+
+    /**
+     * Előkészíti a saját táblát és a keresés állapotát (korlátok) egy híváshoz.
+     *
+     * @return a hívás kezdete
+     */
+    private long begin(Board position, char player) {
+        if (player != 'X' && player != 'O') {
+            throw new IllegalArgumentException("Érvénytelen játékos: " + player);
+        }
+        final long start = System.nanoTime();
+        prepare(position);
+        attacker = player;
+        defender = player == 'X' ? 'O' : 'X';
+        nodes = 0;
+        aborted = false;
+        deadline = start + timeLimitMillis * 1_000_000L;
+        return start;
+    }
+
+    /**
+     * Kényszerített nyerés a saját tábla állásából, előbb csak négyesekkel.
+     */
+    private int search(boolean useThrees) {
+        int move = attack(vcfDepth, 0, 0);
+        if (move == NO_WIN && useThrees && !aborted) {
+            move = attack(vcfDepth, vctDepth, 0);
+        }
+        return move;
+    }
+
+    /**
+     * A védő jelöltjei a támadó {@code threat} kezdetű nyerése ellen (ismétlődés és tiltott
+     * lépések nélkül) a {@link #defenceCandidates} tömbbe.
+     *
+     * @return a jelöltek száma
+     */
+    private int collectDefences(int threat) {
+        markStamp++;
+        int count = 0;
+        if (!isForbidden(threat, defender)) {
+            marks[threat] = markStamp;
+            defenceCandidates[count++] = threat;
+        }
+        int size = work.getSize();
+        work.placeSymbol(threat / size, threat % size, attacker);
+        count = addDefences(defenceCandidates, count, attacker, ThreatType.FIVE);
+        count = addDefences(defenceCandidates, count, attacker, ThreatType.OPEN_FOUR);
+        count = addDefences(defenceCandidates, count, attacker, ThreatType.FOUR);
+        work.undo();
+        count = addDefences(defenceCandidates, count, defender, ThreatType.OPEN_FOUR);
+        return addDefences(defenceCandidates, count, defender, ThreatType.FOUR);
+    }
+
+    /**
+     * A saját tábla az állás másolata; a felismerők a tábla cseréjekor újraépülnek, a
+     * gyorsítótár ekkor törlődik (a Zobrist kulcsok cellaindexhez tartoznak, más méretű
+     * táblán ugyanaz a kulcs más állást jelent).
+     */
+    private void prepare(Board position) {
+        if (work == null || work.getSize() != position.getSize()) {
+            work = position.copy();
+            threats = new ThreatDetector(work, winChecker);
+            forbiddenMoves = ruleSet == RuleSet.RENJU ? new ForbiddenMoveDetector(work) : null;
+            marks = new int[position.getSize() * position.getSize()];
+            defenceCandidates = new int[marks.length];
+            attackMoves = null;
+            clearCache();
+        } else {
+            work.copyFrom(position);
+        }
+        if (attackMoves == null) {
+            int cellCount = marks.length;
+            attackMoves = new int[vcfDepth + vctDepth + 1][cellCount + 1];
+            defenceMoves = new int[vcfDepth + vctDepth + 1][cellCount + 1];
+        }
+    }
+
+    /**
+     * A támadó lépése: nyerő lépést ad vissza, ha a megadott négyes és hármas kereten
+     * belül kényszerített nyerése van.
+     *
+     * @return a nyerő lépés cellaindexe, vagy {@link #NO_WIN}
+     */
+    private int attack(int fours, int threes, int ply) {
+        if (limitReached()) {
+            return NO_WIN;
+        }
+        int five = threats.firstCell(attacker, ThreatType.FIVE);
+        if (five >= 0) {
+            return five;
+        }
+        int defenderFives = threats.count(defender, ThreatType.FIVE);
+        if (defenderFives > 1 || fours == 0) {
+            return NO_WIN;
+        }
+        long key = work.getHash() ^ ATTACKER_SALT[attacker == 'X' ? 0 : 1];
+        int slot = (int) key & (CACHE_SIZE - 1);
+        if (cacheKeys[slot] == key) {
+            int data = cacheData[slot];
+            int storedFours = data >>> FOURS_SHIFT & FOURS_MASK;
+            int storedThrees = data >>> THREES_SHIFT & THREES_MASK;
+            if ((data & WIN_FLAG) != 0) {
+                if (storedFours <= fours && storedThrees <= threes) {
+                    return (data & MOVE_MASK) - 1;
+                }
+            } else if (storedFours >= fours && storedThrees >= threes) {
+                return NO_WIN;
+            }
+        }
+        int forced = defenderFives == 1 ? threats.firstCell(defender, ThreatType.FIVE) : -1;
+        int[] moves = attackMoves[ply];
+        int count = 0;
+        count = addAttacks(moves, count, ThreatType.OPEN_FOUR, forced);
+        count = addAttacks(moves, count, ThreatType.FOUR, forced);
+        int fourCount = count;
+        if (threes > 0) {
+            count = addAttacks(moves, count, ThreatType.OPEN_THREE, forced);
+            count = addAttacks(moves, count, ThreatType.BROKEN_THREE, forced);
+        }
+        int size = work.getSize();
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            boolean isFour = i < fourCount;
+            work.placeSymbol(cell / size, cell % size, attacker);
+            boolean won = isFour ? defendFour(fours - 1, threes, ply) : defendThree(fours, threes - 1, ply);
+            work.undo();
+            if (won) {
+                store(slot, key, cell, fours, threes, true);
+                return cell;
+            }
+            if (aborted) {
+                return NO_WIN;
+            }
+        }
+        store(slot, key, -1, fours, threes, false);
+        return NO_WIN;
+    }
+
+    /**
+     * A védő válasza a támadó négyesére: egyetlen kiegészítő cellát blokkolhat (kettőt nem).
+     */
+    private boolean defendFour(int fours, int threes, int ply) {
+        int completions = threats.count(attacker, ThreatType.FIVE);
+        if (completions >= 2) {
+            return true;
+        }
+        if (completions == 0) {
+            return false;
+        }
+        int block = threats.firstCell(attacker, ThreatType.FIVE);
+        int size = work.getSize();
+        if (isForbidden(block, defender)) {
+            return true;
+        }
+        work.placeSymbol(block / size, block % size, defender);
+        boolean won = attack(fours, threes, ply + 1) != NO_WIN;
+        work.undo();
+        return won;
+    }
+
+    /**
+     * A védő válaszai a támadó hármasára: a támadó négyest adó cellái és a védő saját
+     * négyesei; a támadó csak akkor nyer, ha mindegyik válaszra van folytatása.
+     */
+    private boolean defendThree(int fours, int threes, int ply) {
+        int[] defences = defenceMoves[ply];
+        markStamp++;
+        int count = 0;
+        count = addDefences(defences, count, attacker, ThreatType.OPEN_FOUR);
+        if (count == 0) {
+            // Nincs nyílt négyes fenyegetés: a lépés nem kényszerítő
+            return false;
+        }
+        count = addDefences(defences, count, attacker, ThreatType.FOUR);
+        count = addDefences(defences, count, defender, ThreatType.OPEN_FOUR);
+        count = addDefences(defences, count, defender, ThreatType.FOUR);
+        int size = work.getSize();
+        for (int i = 0; i < count; i++) {
+            int cell = defences[i];
+            work.placeSymbol(cell / size, cell % size, defender);
+            boolean won = attack(fours, threes, ply + 1) != NO_WIN;
+            work.undo();
+            if (!won) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A támadó adott osztályú lépéseit a listához fűzi (tiltott lépések nélkül); ha a védő
+     * ötösét blokkolni kell, csak a blokkoló cellát, ha az ebbe az osztályba esik.
+     */
+    private int addAttacks(int[] moves, int count, ThreatType type, int forced) {
+        if (forced >= 0) {
+            int size = work.getSize();
+            if (threats.threatAt(attacker, forced / size, forced % size) == type && !isForbidden(forced, attacker)) {
+                moves[count++] = forced;
+            }
+            return count;
+        }
+        int available = threats.count(attacker, type);
+        for (int i = 0; i < available; i++) {
+            int cell = threats.cellAt(attacker, type, i);
+            if (!isForbidden(cell, attacker)) {
+                moves[count++] = cell;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A játékos adott osztályú celláit a védő válaszaihoz fűzi, ismétlődés és a védőnek
+     * tiltott lépések nélkül.
+     */
+    private int addDefences(int[] defences, int count, char player, ThreatType type) {
+        int available = threats.count(player, type);
+        for (int i = 0; i < available; i++) {
+            int cell = threats.cellAt(player, type, i);
+            if (marks[cell] != markStamp && !isForbidden(cell, defender)) {
+                marks[cell] = markStamp;
+                defences[count++] = cell;
+            }
+        }
+        return count;
+    }
+
+    private boolean isForbidden(int cell, char player) {
+        int size = work.getSize();
+        return forbiddenMoves != null && ruleSet.hasForbiddenMoves(player)
+                && forbiddenMoves.isForbidden(cell / size, cell % size);
+    }
+
+    /**
+     * Csomópontot számol; 8 csomópontonként (néhány mikroszekundum) az időt is ellenőrzi.
+     */
+    private boolean limitReached() {
+        if (aborted) {
+            return true;
+        }
+        nodes++;
+        if (nodes > nodeLimit || (nodes & 7) == 0 && System.nanoTime() - deadline > 0) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Eredményt ír a gyorsítótárba; félbehagyott keresés "nincs nyerés" eredményét nem.
+     */
+    private void store(int slot, long key, int move, int fours, int threes, boolean win) {
+        if (aborted && !win) {
+            return;
+        }
+        cacheKeys[slot] = key;
+        cacheData[slot] = (move + 1) | Math.min(fours, FOURS_MASK) << FOURS_SHIFT
+                | Math.min(threes, THREES_MASK) << THREES_SHIFT | (win ? WIN_FLAG : 0);
+    }
+}
@@ -0,0 +1,254 @@
+package nye.flocrm.progtech.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rögzített méretű transzpozíciós tábla a keresőhöz, primitív {@code long[]} tömbben.
+ * <p>
+ * A tábla 2 bejegyzéses vödrökből áll: az első hely mélység szerint cserél (csak mélyebb
+ * vagy frissebb keresés írhatja felül), a második mindig cserél. Egy bejegyzés két
+ * {@code long}: az adatszó (lépés, érték, mélység, korlát típusa, generáció) és a
+ * {@code kulcs ^ adat} ellenőrző szó. Zárolás nincs: több szál egyszerre írhat és olvashat,
+ * a félig felülírt bejegyzés ellenőrző szava nem egyezik, így hiánynak számít (nem ad
+ * hibás adatot). Az egyes szavak olvasása és írása atomi ({@link VarHandle} opaque elérés).
+ * <p>
+ * A kulcs az állás Zobrist hash-e ({@link nye.flocrm.progtech.model.Board#getHash()}).
+ * A lépő fél nincs a kulcsban: egy keresésen belül a kövek száma meghatározza.
+ */
+public final class TranspositionTable {
+
+    /** Pontos érték. */
+    public static final int BOUND_EXACT = 1;
+    /** Alsó korlát (béta vágás: az érték legalább ennyi). */
+    public static final int BOUND_LOWER = 2;
+    /** Felső korlát (egyik lépés sem érte el az alfát). */
+    public static final int BOUND_UPPER = 3;
+    /** A legnagyobb megengedett méret megabájtban. */
+    public static final int MAX_SIZE_MB = 4096;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    //Egy vödör: 2 bejegyzés * (ellenőrző szó + adatszó)
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+
+    //Az adatszó mezői (alsó bittől): korlát 2, mélység 7, generáció 8, lépés + 1 20, érték 27 bit
+    private static final int DEPTH_SHIFT = 2;
+    private static final int GENERATION_SHIFT = 9;
+    private static final int MOVE_SHIFT = 17;
+    private static final int SCORE_SHIFT = 37;
+    private static final long BOUND_MASK = 0b11;
+    private static final long DEPTH_MASK = 0x7F;
+    private static final long GENERATION_MASK = 0xFF;
+    private static final long MOVE_MASK = 0xFFFFF;
+    private static final int SCORE_OFFSET = 1 << 26;
+
+    /** A legnagyobb tárolható mélység. */
+    public static final int MAX_DEPTH = (int) DEPTH_MASK;
+    /** A legnagyobb tárolható lépés (cellaindex). */
+    public static final int MAX_MOVE = (int) MOVE_MASK - 1;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Létrehozza a táblát a megadott méretkeretben. A vödrök száma a keretbe férő
+     * legnagyobb kettőhatvány.
+     *
+     * @param sizeMb a méret megabájtban (1..{@value #MAX_SIZE_MB})
+     * @throws IllegalArgumentException ha a méret a tartományon kívül esik
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1 || sizeMb > MAX_SIZE_MB) {
+            throw new IllegalArgumentException("A méret 1 és " + MAX_SIZE_MB + " MB között kell legyen: " + sizeMb);
+        }
+        long buckets = Long.highestOneBit((long) sizeMb * 1024 * 1024 / BYTES_PER_BUCKET);
+        this.table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Visszaadja a vödrök számát.
+     *
+     * @return a vödrök száma (kettőhatvány)
+     */
+    public int getBucketCount() {
+        return bucketMask + 1;
+    }
+
+    /**
+     * Új keresést jelez: a korábbi keresések bejegyzései ezután a mélység szerint
+     * cserélő helyen is felülírhatók.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & (int) GENERATION_MASK;
+    }
+
+    /**
+     * Kiüríti a táblát, és nullázza a statisztikákat.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+    }
+
+    /**
+     * Megkeresi az álláshoz tartozó bejegyzést.
+     *
+     * @param key az állás hash-e
+     * @return az adatszó (a mezőit a statikus segédmetódusok bontják ki), vagy 0, ha nincs találat
+     */
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketBase(key);
+        boolean occupied = false;
+        for (int slot = base; slot < base + LONGS_PER_BUCKET; slot += 2) {
+            long data = (long) SLOTS.getOpaque(table, slot + 1);
+            long check = (long) SLOTS.getOpaque(table, slot);
+            if (data != 0) {
+                if ((check ^ data) == key) {
+                    hits.increment();
+                    return data;
+                }
+                occupied = true;
+            }
+        }
+        if (occupied) {
+            collisions.increment();
+        }
+        return 0;
+    }
+
+    /**
+     * Eltárolja az állás keresési eredményét. A vödör első helyére kerül, ha az üres,
+     * korábbi keresésből származik, vagy a régi bejegyzés nem mélyebb; egyébként a
+     * mindig cserélő második helyre.
+     *
+     * @param key az állás hash-e
+     * @param move a legjobb lépés cellaindexe, vagy -1
+     * @param score az érték (a kereső állásra vonatkoztatott értéke)
+     * @param depth a keresés mélysége (0..{@value #MAX_DEPTH})
+     * @param bound a korlát típusa ({@link #BOUND_EXACT}, {@link #BOUND_LOWER}, {@link #BOUND_UPPER})
+     * @throws IllegalArgumentException ha valamelyik mező nem fér el a bejegyzésben
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        if (move < -1 || move > MAX_MOVE || depth < 0 || depth > MAX_DEPTH
+                || bound < BOUND_EXACT || bound > BOUND_UPPER || Math.abs(score) >= SCORE_OFFSET) {
+            throw new IllegalArgumentException("Érvénytelen bejegyzés: lépés " + move + ", érték " + score
+                    + ", mélység " + depth + ", korlát " + bound);
+        }
+        int currentGeneration = generation;
+        long data = bound
+                | (long) depth << DEPTH_SHIFT
+                | (long) currentGeneration << GENERATION_SHIFT
+                | (long) (move + 1) << MOVE_SHIFT
+                | (long) (score + SCORE_OFFSET) << SCORE_SHIFT;
+        int base = bucketBase(key);
+        long old = (long) SLOTS.getOpaque(table, base + 1);
+        int slot = old == 0 || depth >= depth(old) || generation(old) != currentGeneration ? base : base + 2;
+        SLOTS.setOpaque(table, slot + 1, data);
+        SLOTS.setOpaque(table, slot, key ^ data);
+    }
+
+    /**
+     * Az adatszó lépése.
+     *
+     * @param data a {@link #probe(long)} által visszaadott adatszó
+     * @return a lépés cellaindexe, vagy -1
+     */
+    public static int move(long data) {
+        return (int) (data >>> MOVE_SHIFT & MOVE_MASK) - 1;
+    }
+
+    /**
+     * Az adatszó értéke.
+     *
+     * @param data az adatszó
+     * @return az érték
+     */
+    public static int score(long data) {
+        return (int) (data >>> SCORE_SHIFT) - SCORE_OFFSET;
+    }
+
+    /**
+     * Az adatszó mélysége.
+     *
+     * @param data az adatszó
+     * @return a keresés mélysége
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT & DEPTH_MASK);
+    }
+
+    /**
+     * Az adatszó korlát típusa.
+     *
+     * @param data az adatszó
+     * @return {@link #BOUND_EXACT}, {@link #BOUND_LOWER} vagy {@link #BOUND_UPPER}
+     */
+    public static int bound(long data) {
+        return (int) (data & BOUND_MASK);
+    }
+
+    /**
+     * A keresések közül a találatot adók aránya.
+     *
+     * @return a találati arány (0..1), keresés nélkül 0
+     */
+    public double getHitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * A keresések közül azok aránya, ahol a vödör foglalt volt, de más állás bejegyzéseivel.
+     *
+     * @return az ütközési arány (0..1), keresés nélkül 0
+     */
+    public double getCollisionRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) collisions.sum() / total;
+    }
+
+    /**
+     * A foglalt bejegyzések aránya. A teljes táblát bejárja, ezért ritkán (pl. keresés után) hívandó.
+     *
+     * @return a telítettség (0..1)
+     */
+    public double getFillRate() {
+        long used = 0;
+        for (int slot = 1; slot < table.length; slot += 2) {
+            if ((long) SLOTS.getOpaque(table, slot) != 0) {
+                used++;
+            }
+        }
+        return (double) used / (table.length / 2);
+    }
+
+    /**
+     * Visszaadja a keresések számát.
+     *
+     * @return a {@link #probe(long)} hívások száma
+     */
+    public long getProbeCount() {
+        return probes.sum();
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT & GENERATION_MASK);
+    }
+
+    private int bucketBase(long key) {
+        return ((int) key & bucketMask) * LONGS_PER_BUCKET;
+    }
+}
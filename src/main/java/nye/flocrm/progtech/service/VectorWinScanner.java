@@ -0,0 +1,135 @@
+package nye.flocrm.progtech.service;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link WinChecker#hasWinningLine(long[], int)} eltolás-és-ÉS keresésének vektoros változata
+ * (JDK Vector API, {@code jdk.incubator.vector}).
+ * <p>
+ * Egy vektor a processzor által preferált számú (pl. AVX2-n 4) egymást követő 64 bites szót
+ * dolgoz fel, így egy lépésben több sornyi cella kezdőbitjeit vizsgálja. Az eltolt szavakat
+ * a bithalmaz mindkét végén kipárnázott másolatából tölti, így a főciklusban nincs
+ * határellenőrzés. A párnázott puffert a hívó adja (méret: {@link #paddedLength(int, int[], int)}),
+ * így egy keresés nem foglal memóriát.
+ * <p>
+ * Az osztály csak akkor töltődik be, ha a modul elérhető ({@code --add-modules jdk.incubator.vector});
+ * a {@link WinChecker} egyébként a skalár keresést használja.
+ */
+final class VectorWinScanner {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private VectorWinScanner() {
+    }
+
+    /**
+     * Hány szót dolgoz fel egy vektor.
+     *
+     * @return a sávok száma
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * A párnázott puffer szükséges hossza: elöl a balra tolás (a sorozat előtti cella),
+     * hátul a leghosszabb jobbra tolás (a sorozat utáni cella) szavai és egy teljes vektor.
+     *
+     * @param words a bitboard szavainak száma
+     * @param steps irányonként a bitindex lépése
+     * @param winningLength a nyerő hossz
+     * @return a puffer hossza
+     */
+    static int paddedLength(int words, int[] steps, int winningLength) {
+        return front(steps) + words + (winningLength * maxStep(steps) >>> 6) + 1 + SPECIES.length();
+    }
+
+    /**
+     * Nyerő sorozatot keres a bitboardon. Pontos módban (nem null szélmaszkokkal) a sorozat
+     * előtti és utáni cella nem lehet saját kő, mint a {@link WinChecker} skalár útján.
+     *
+     * @param bits a játékos kövei sorfolytonos bitindexeléssel
+     * @param offset a bitboard első szavának indexe a tömbben
+     * @param masks irányonként a kezdőcellák maszkja (a {@link WinChecker} gyorsítótárából)
+     * @param steps irányonként a bitindex lépése
+     * @param winningLength a nyerő hossz
+     * @param startEdges irányonként a sorozat előtt táblaszélű kezdőcellák, vagy null (legalább nyerő hossz)
+     * @param endEdges irányonként a sorozat után táblaszélű kezdőcellák, vagy null
+     * @param padded a párnázott puffer ({@link #paddedLength(int, int[], int)} hosszú; a bitboard
+     *               helyén kívül csupa nulla, amit a keresés meg is tart)
+     * @return true, ha a kövek között van nyerő sorozat
+     */
+    static boolean hasWinningLine(long[] bits, int offset, long[][] masks, int[] steps, int winningLength,
+                                  long[][] startEdges, long[][] endEdges, long[] padded) {
+        int words = masks[0].length;
+        int lanes = SPECIES.length();
+        //A tábla utolsó szava utáni és az első előtti bitek sosem esnek nyerő sorozatba, ezért nullák
+        int front = front(steps);
+        System.arraycopy(bits, offset, padded, front, words);
+
+        for (int d = 0; d < steps.length; d++) {
+            long[] mask = masks[d];
+            for (int word = 0; word < words; word += lanes) {
+                VectorMask<Long> inRange = SPECIES.indexInRange(word, words);
+                LongVector acc = LongVector.fromArray(SPECIES, mask, word, inRange)
+                        .and(LongVector.fromArray(SPECIES, padded, front + word));
+                for (int i = 1; i < winningLength; i++) {
+                    acc = acc.and(shifted(padded, front + word, i * steps[d]));
+                }
+                if (endEdges != null) {
+                    acc = acc.and(LongVector.fromArray(SPECIES, endEdges[d], word, inRange)
+                            .or(shifted(padded, front + word, winningLength * steps[d]).not()));
+                    acc = acc.and(LongVector.fromArray(SPECIES, startEdges[d], word, inRange)
+                            .or(leftShifted(padded, front + word, steps[d]).not()));
+                }
+                if (acc.compare(VectorOperators.NE, 0L).anyTrue()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A {@code padded[index ..]} szavak {@code shift} bittel jobbra tolt változata.
+     */
+    private static LongVector shifted(long[] padded, int index, int shift) {
+        int source = index + (shift >>> 6);
+        int bitShift = shift & 63;
+        LongVector low = LongVector.fromArray(SPECIES, padded, source);
+        if (bitShift == 0) {
+            return low;
+        }
+        LongVector high = LongVector.fromArray(SPECIES, padded, source + 1);
+        return low.lanewise(VectorOperators.LSHR, bitShift).or(high.lanewise(VectorOperators.LSHL, Long.SIZE - bitShift));
+    }
+
+    /**
+     * A {@code padded[index ..]} szavak {@code shift} bittel balra tolt változata.
+     */
+    private static LongVector leftShifted(long[] padded, int index, int shift) {
+        int source = index - (shift >>> 6);
+        int bitShift = shift & 63;
+        LongVector high = LongVector.fromArray(SPECIES, padded, source);
+        if (bitShift == 0) {
+            return high;
+        }
+        LongVector low = LongVector.fromArray(SPECIES, padded, source - 1);
+        return high.lanewise(VectorOperators.LSHL, bitShift).or(low.lanewise(VectorOperators.LSHR, Long.SIZE - bitShift));
+    }
+
+    private static int front(int[] steps) {
+        return (maxStep(steps) >>> 6) + 1;
+    }
+
+    private static int maxStep(int[] steps) {
+        int max = 0;
+        for (int step : steps) {
+            max = Math.max(max, step);
+        }
+        return max;
+    }
+}
@@ -1,19 +1,156 @@
 package nye.flocrm.progtech.service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.BoardSnapshot;
+import nye.flocrm.progtech.model.GameBoard;
+import nye.flocrm.progtech.model.RuleSet;
 
 /**
  * Szolgáltatás a győzelmi feltétel meghatározására
+ * <p>
+ * Két üzemmódja van: a {@link #checkWin(GameBoard, int, int)} egy cellán (az utolsó lépésen)
+ * átmenő vonalakat vizsgálja, a {@link #hasWinningLine(long[], int)} pedig egy teljes,
+ * bitboard formájú táblán keres nyerő sorozatot eltolás-és-ÉS műveletekkel. A
+ * {@link #checkWinners(long[], int, byte[])} ugyanezt sok, egy tömbbe tömörített táblára végzi.
+ * A {@link RuleSet} dönti el, hogy a nyerő hossznál hosszabb sorozat is győzelem-e.
+ * <p>
+ * A bitboard keresésnek van vektoros (JDK Vector API) változata nagy táblákhoz. Alapból a
+ * skalár út fut; a vektoros a {@code -Damoba.vector=true} kapcsolóval vagy a
+ * {@link #setVectorEnabled(boolean)} hívással kapcsolható be, és csak akkor lép életbe,
+ * ha a JVM a {@code jdk.incubator.vector} modullal indult. Ha a modul nem elérhető,
+ * automatikusan a skalár út marad. A kapcsoló minden szabályrendszerre érvényes: pontos
+ * hosszú keresésnél a vektoros út is kizárja a túlhosszú sorokat.
  */
 public class WinChecker {
 
-    private static final int WINNING_LENGTH = 5;
+    /** Az alapértelmezett nyerő sorozathossz. */
+    public static final int DEFAULT_WINNING_LENGTH = 5;
+
+    /** A vektoros bitboard keresést bekapcsoló rendszertulajdonság neve. */
+    public static final String VECTOR_PROPERTY = "amoba.vector";
+
+    /** Kötegelt ellenőrzés eredménye: egyik játékosnak sincs nyerő sorozata. */
+    public static final byte NO_WINNER = 0;
+    /** Kötegelt ellenőrzés eredménybitje: X-nek van nyerő sorozata. */
+    public static final byte WINNER_X = 1;
+    /** Kötegelt ellenőrzés eredménybitje: O-nak van nyerő sorozata. */
+    public static final byte WINNER_O = 2;
+
+    //Ennyi tábla alatt a párhuzamos köteget nem osztjuk tovább
+    private static final int BATCH_THRESHOLD = 512;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final boolean VECTOR_AVAILABLE = detectVectorSupport();
+    private static volatile boolean vectorEnabled = VECTOR_AVAILABLE && Boolean.getBoolean(VECTOR_PROPERTY);
+
+    //A bitboard keresés iránylépései (vízszintes, függőleges, főátló, mellékátló):
+    private static final int[] DIRECTION_ROW = {0, 1, 1, 1};
+    private static final int[] DIRECTION_COL = {1, 0, 1, -1};
+
+    private final int winningLength;
+    private final RuleSet ruleSet;
+    //Táblaméretenként és irányonként azon cellák maszkja, ahonnan egy nyerő sorozat elfér:
+    private final Map<Integer, StartMasks> startMasks = new ConcurrentHashMap<>();
+    //A legutóbb használt méret maszkjai (a jellemző eset: mindig ugyanaz a tábla)
+    private volatile StartMasks lastMasks;
+
+    //A vektoros út szálanként újrahasznált párnázott puffere (null, ha a modul nem elérhető)
+    private record StartMasks(int size, long[][] masks, int[] steps, long[][] startEdges, long[][] endEdges,
+                              ThreadLocal<long[]> vectorPads) {}
+
+    /**
+     * Létrehoz egy győzelem ellenőrzőt az alapértelmezett (5-ös) nyerő hosszal.
+     */
+    public WinChecker() {
+        this(DEFAULT_WINNING_LENGTH);
+    }
+
+    /**
+     * Létrehoz egy győzelem ellenőrzőt tetszőleges nyerő hosszal, szabad szabályokkal.
+     *
+     * @param winningLength hány azonos szimbólum kell egy vonalban a győzelemhez
+     * @throws IllegalArgumentException ha a nyerő hossz nem pozitív
+     */
+    public WinChecker(int winningLength) {
+        this(winningLength, RuleSet.FREESTYLE);
+    }
+
+    /**
+     * Létrehoz egy győzelem ellenőrzőt tetszőleges nyerő hosszal és szabályrendszerrel.
+     *
+     * @param winningLength hány azonos szimbólum kell egy vonalban a győzelemhez
+     * @param ruleSet a szabályrendszer
+     * @throws IllegalArgumentException ha a nyerő hossz nem pozitív, vagy a szabályrendszer null
+     */
+    public WinChecker(int winningLength, RuleSet ruleSet) {
+        if (winningLength < 1) {
+            throw new IllegalArgumentException("A nyerő hossz legalább 1 kell legyen: " + winningLength);
+        }
+        if (ruleSet == null) {
+            throw new IllegalArgumentException("A szabályrendszer nem lehet null");
+        }
+        this.winningLength = winningLength;
+        this.ruleSet = ruleSet;
+    }
+
+    /**
+     * Visszaadja a nyerő sorozathosszt.
+     *
+     * @return hány azonos szimbólum kell egy vonalban a győzelemhez
+     */
+    public int getWinningLength() {
+        return winningLength;
+    }
+
+    /**
+     * Megadja, hogy a JVM-ben elérhető-e a vektoros keresés ({@code jdk.incubator.vector} modul).
+     *
+     * @return true, ha a vektoros út bekapcsolható
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Megadja, hogy a bitboard keresés a vektoros utat használja-e.
+     *
+     * @return true, ha a vektoros út be van kapcsolva
+     */
+    public static boolean isVectorEnabled() {
+        return vectorEnabled;
+    }
+
+    /**
+     * Futás közben be- vagy kikapcsolja a vektoros bitboard keresést (minden példányra).
+     * Ha a modul nem elérhető, a kérés ellenére a skalár út marad.
+     *
+     * @param enabled a kívánt állapot
+     * @return a ténylegesen beállt állapot
+     */
+    public static boolean setVectorEnabled(boolean enabled) {
+        vectorEnabled = enabled && VECTOR_AVAILABLE;
+        return vectorEnabled;
+    }
+
+    /**
+     * Visszaadja a szabályrendszert.
+     *
+     * @return a győzelmet meghatározó szabályrendszer
+     */
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
 
     /**
      * Ellenőrzi, hogy az adott pozícióból kiindulva létrejött-e győztes sorozat.
      * <p>
      * A metódus a legutóbb elhelyezett szimbólum (X vagy O) pozíciójából indul ki,
-     * és négy irányban vizsgálja meg, hogy található-e legalább 5 egymást követő,
+     * és négy irányban vizsgálja meg, hogy található-e legalább nyerő hosszú (alapból 5) egymást követő,
      * azonos szimbólumból álló sorozat:
      * <ul>
      *     <li>vízszintesen (balról jobbra),</li>
@@ -21,37 +158,190 @@ public class WinChecker {
      *     <li>főátló mentén (bal felsőtől jobb alsó felé),</li>
      *     <li>mellékátló mentén (jobb felsőtől bal alsó felé).</li>
      * </ul>
+     * Ha a szabályrendszer a játékosnak nem engedi a túlhosszú sort, a sorozatnak pontosan
+     * nyerő hosszúnak kell lennie.
      *
      * @param board   a játéktábla, amelyen az ellenőrzés történik
-     * @param lastRow a legutóbbi lépés sora (0–9 közötti index)
-     * @param lastCol a legutóbbi lépés oszlopa (0–9 közötti index)
-     * @return {@code true}, ha bármelyik irányban megtalálható egy 5 azonos jelből
+     * @param lastRow a legutóbbi lépés sora (0-tól kezdődő index)
+     * @param lastCol a legutóbbi lépés oszlopa (0-tól kezdődő index)
+     * @return {@code true}, ha bármelyik irányban megtalálható egy nyerő hosszú, azonos jelekből
      *         álló sorozat; {@code false} különben
      */
-    public boolean checkWin(Board board, int lastRow, int lastCol) {
+    public boolean checkWin(GameBoard board, int lastRow, int lastCol) {
         char symbol = board.getSymbolAt(lastRow, lastCol);
         if (symbol == '.') {
             return false;
         }
 
-        return checkHorizontal(board, lastRow, lastCol, symbol) ||
-                checkVertical(board, lastRow, lastCol, symbol) ||
-                checkDiagonal(board, lastRow, lastCol, symbol) ||
-                checkAntiDiagonal(board, lastRow, lastCol, symbol);
+        boolean overline = ruleSet.allowsOverline(symbol);
+        return checkHorizontal(board, lastRow, lastCol, overline) ||
+                checkVertical(board, lastRow, lastCol, overline) ||
+                checkDiagonal(board, lastRow, lastCol, overline) ||
+                checkAntiDiagonal(board, lastRow, lastCol, overline);
     }
 
     /**
      * Ellenőrzi, hogy az adott játékos nyert-e a táblán.
+     * A játékos bitboardján fut, cellánkénti bejárás nélkül; ha a szabályrendszer a
+     * játékosnak nem engedi a túlhosszú sort, pontosan nyerő hosszú sorozatot keres.
      *
      * @param board a játéktábla
      * @param playerSymbol a játékos szimbóluma ('X' vagy 'O')
      * @return true ha a játékos nyert, egyébként false
      */
     public boolean checkWinForPlayer(Board board, char playerSymbol) {
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                if (board.getSymbolAt(row, col) == playerSymbol &&
-                        checkWin(board, row, col)) {
+        if (!board.isValidPlayer(playerSymbol)) {
+            return false;
+        }
+        return hasLine(board.bitsView(playerSymbol), 0, startMasksFor(board.getSize()),
+                !ruleSet.allowsOverline(playerSymbol));
+    }
+
+    /**
+     * Teljes táblás győzelem keresés bitboardon.
+     * <p>
+     * Irányonként a {@code lépés = sorLépés * méret + oszlopLépés} bitnyi eltolással:
+     * {@code kezdő = maszk & b & (b >>> lépés) & (b >>> 2*lépés) & ...}, ahol a maszk azokat
+     * a cellákat tartalmazza, ahonnan a nyerő hosszú sorozat az adott irányban a táblán belül
+     * marad. Ez kezeli a sorvégeket: a sor végén "átforduló" bitek sosem kezdőcellák.
+     * Egy irány szavanként legfeljebb nyerő hossz darab ÉS művelet, és a keresés az első
+     * üres akkumulátornál megáll. A szabályrendszert nem nézi: legalább nyerő hosszú sorozatot keres.
+     * Bekapcsolt vektoros útnál, ha a tábla legalább egy vektornyi szó, egyszerre több szót dolgoz fel.
+     *
+     * @param bits a játékos kövei sorfolytonos bitindexeléssel ({@code sor * méret + oszlop})
+     * @param size a tábla mérete
+     * @return true, ha a kövek között van legalább nyerő hosszú sorozat
+     * @throws IllegalArgumentException ha a bithalmaz rövidebb a táblánál
+     */
+    public boolean hasWinningLine(long[] bits, int size) {
+        int cellCount = size * size;
+        if (bits.length * Long.SIZE < cellCount) {
+            throw new IllegalArgumentException("A bithalmaz túl rövid a " + size + "x" + size + "-es táblához");
+        }
+        return hasLine(bits, 0, startMasksFor(size), false);
+    }
+
+    /**
+     * Megadja egy tömörített tábla hosszát ({@code long} elemekben) a kötegelt ellenőrzéshez:
+     * a tábla szavai előbb X, majd O köveire.
+     *
+     * @param size a tábla mérete
+     * @return egy tábla hossza a tömbben
+     */
+    public static int packedStride(int size) {
+        return 2 * wordCount(size);
+    }
+
+    /**
+     * A pillanatképet a tömb {@code index}. táblájának helyére írja ({@link #packedStride(int)} elemenként).
+     *
+     * @param snapshot a tömörítendő állás
+     * @param packed a táblák tömbje
+     * @param index a tábla sorszáma a tömbben
+     */
+    public static void pack(BoardSnapshot snapshot, long[] packed, int index) {
+        int words = wordCount(snapshot.getSize());
+        int base = index * 2 * words;
+        snapshot.copyBits('X', packed, base);
+        snapshot.copyBits('O', packed, base + words);
+    }
+
+    /**
+     * Kötegelt győzelem ellenőrzés: a {@code packed} tömb egymás után álló tábláira
+     * ({@link #pack(BoardSnapshot, long[], int)} formátum) a {@code results} tömbbe írja,
+     * ki nyert: {@link #WINNER_X} és/vagy {@link #WINNER_O} bit, vagy {@link #NO_WINNER}.
+     * A táblák száma a {@code results} hossza. Objektumot nem hoz létre (a vektoros út kivételével).
+     *
+     * @param packed a tömörített táblák
+     * @param size a táblák mérete
+     * @param results az eredmények helye, táblánként egy bájt
+     * @throws IllegalArgumentException ha a tömb kevesebb táblát tartalmaz, mint az eredmények száma
+     */
+    public void checkWinners(long[] packed, int size, byte[] results) {
+        StartMasks cached = checkBatch(packed, size, results);
+        checkRange(packed, cached, results, 0, results.length);
+    }
+
+    /**
+     * A {@link #checkWinners(long[], int, byte[])} párhuzamos változata: a köteget a
+     * fork-join készlet szálai között felezve osztja szét.
+     *
+     * @param packed a tömörített táblák
+     * @param size a táblák mérete
+     * @param results az eredmények helye, táblánként egy bájt
+     * @param pool a futtató fork-join készlet (pl. {@link ForkJoinPool#commonPool()})
+     * @throws IllegalArgumentException ha a tömb kevesebb táblát tartalmaz, mint az eredmények száma
+     */
+    public void checkWinners(long[] packed, int size, byte[] results, ForkJoinPool pool) {
+        StartMasks cached = checkBatch(packed, size, results);
+        pool.invoke(new BatchTask(packed, cached, results, 0, results.length));
+    }
+
+    /**
+     * Visszaadja a mérethez tartozó kezdőcella maszkokat, a legutóbbi méretet gyorsítótárazva.
+     */
+    private StartMasks startMasksFor(int size) {
+        StartMasks last = lastMasks;
+        if (last == null || last.size() != size) {
+            last = startMasks.computeIfAbsent(size, this::buildStartMasks);
+            lastMasks = last;
+        }
+        return last;
+    }
+
+    private StartMasks checkBatch(long[] packed, int size, byte[] results) {
+        if ((long) results.length * packedStride(size) > packed.length) {
+            throw new IllegalArgumentException("A tömb kevesebb mint " + results.length + " darab "
+                    + size + "x" + size + "-es táblát tartalmaz");
+        }
+        return startMasksFor(size);
+    }
+
+    /**
+     * A {@code [from, to)} tartomány tábláit ellenőrzi.
+     */
+    private void checkRange(long[] packed, StartMasks cached, byte[] results, int from, int to) {
+        int words = cached.masks()[0].length;
+        boolean exactX = !ruleSet.allowsOverline('X');
+        boolean exactO = !ruleSet.allowsOverline('O');
+        for (int i = from; i < to; i++) {
+            int base = i * 2 * words;
+            int winners = NO_WINNER;
+            if (hasLine(packed, base, cached, exactX)) {
+                winners |= WINNER_X;
+            }
+            if (hasLine(packed, base + words, cached, exactO)) {
+                winners |= WINNER_O;
+            }
+            results[i] = (byte) winners;
+        }
+    }
+
+    /**
+     * Nyerő sorozatot keres a {@code bits[offset ..]} kezdetű bitboardon.
+     * Pontos módban a sorozat előtti és utáni cella nem lehet saját kő (a tábla széle megengedett):
+     * {@code kezdő &= (végSzél | ~(b >>> hossz*lépés)) & (kezdőSzél | ~(b << lépés))}.
+     */
+    private boolean hasLine(long[] bits, int offset, StartMasks cached, boolean exact) {
+        long[][] masks = cached.masks();
+        int words = masks[0].length;
+        if (vectorEnabled && words >= VectorWinScanner.lanes()) {
+            return VectorWinScanner.hasWinningLine(bits, offset, masks, cached.steps(), winningLength,
+                    exact ? cached.startEdges() : null, exact ? cached.endEdges() : null, cached.vectorPads().get());
+        }
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            int step = cached.steps()[d];
+            long[] mask = masks[d];
+            for (int word = 0; word < words; word++) {
+                long acc = mask[word] & bits[offset + word];
+                for (int i = 1; i < winningLength && acc != 0; i++) {
+                    acc &= shiftedWord(bits, offset, words, word, i * step);
+                }
+                if (exact && acc != 0) {
+                    acc &= cached.endEdges()[d][word] | ~shiftedWord(bits, offset, words, word, winningLength * step);
+                    acc &= cached.startEdges()[d][word] | ~leftShiftedWord(bits, offset, words, word, step);
+                }
+                if (acc != 0) {
                     return true;
                 }
             }
@@ -59,17 +349,140 @@ public class WinChecker {
         return false;
     }
 
+    /**
+     * A vektoros út akkor elérhető, ha a modul a boot rétegben van, és a vektoros osztály betölthető.
+     */
+    private static boolean detectVectorSupport() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorWinScanner.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static int wordCount(int size) {
+        return (size * size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * A {@code bits[offset .. offset + words)} bithalmaz {@code shift} bittel jobbra tolt
+     * változatának adott szava (allokáció nélkül).
+     */
+    private static long shiftedWord(long[] bits, int offset, int words, int word, int shift) {
+        int source = word + (shift >>> 6);
+        int bitShift = shift & 63;
+        long low = source < words ? bits[offset + source] : 0L;
+        if (bitShift == 0) {
+            return low;
+        }
+        long high = source + 1 < words ? bits[offset + source + 1] : 0L;
+        return (low >>> bitShift) | (high << (Long.SIZE - bitShift));
+    }
+
+    /**
+     * A bithalmaz {@code shift} bittel balra tolt változatának adott szava (allokáció nélkül).
+     */
+    private static long leftShiftedWord(long[] bits, int offset, int words, int word, int shift) {
+        int source = word - (shift >>> 6);
+        int bitShift = shift & 63;
+        long high = source >= 0 && source < words ? bits[offset + source] : 0L;
+        if (bitShift == 0) {
+            return high;
+        }
+        long low = source - 1 >= 0 && source - 1 < words ? bits[offset + source - 1] : 0L;
+        return (high << bitShift) | (low >>> (Long.SIZE - bitShift));
+    }
+
+    /**
+     * Irányonként felépíti a kezdőcellák maszkját, valamint a pontos hosszú kereséshez azon
+     * kezdőcellák maszkját, amelyek előtt, illetve amelyek sorozata után a tábla széle van.
+     */
+    private StartMasks buildStartMasks(int size) {
+        int wordCount = wordCount(size);
+        long[][] masks = new long[DIRECTION_ROW.length][wordCount];
+        long[][] startEdges = new long[DIRECTION_ROW.length][wordCount];
+        long[][] endEdges = new long[DIRECTION_ROW.length][wordCount];
+        int[] steps = new int[DIRECTION_ROW.length];
+        int reach = winningLength - 1;
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            steps[d] = DIRECTION_ROW[d] * size + DIRECTION_COL[d];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int index = row * size + col;
+                    long bit = 1L << index;
+                    int endRow = row + reach * DIRECTION_ROW[d];
+                    int endCol = col + reach * DIRECTION_COL[d];
+                    if (endRow < size && endCol >= 0 && endCol < size) {
+                        masks[d][index >>> 6] |= bit;
+                    }
+                    if (!isOnBoard(row - DIRECTION_ROW[d], col - DIRECTION_COL[d], size)) {
+                        startEdges[d][index >>> 6] |= bit;
+                    }
+                    if (!isOnBoard(endRow + DIRECTION_ROW[d], endCol + DIRECTION_COL[d], size)) {
+                        endEdges[d][index >>> 6] |= bit;
+                    }
+                }
+            }
+        }
+        ThreadLocal<long[]> vectorPads = null;
+        if (VECTOR_AVAILABLE) {
+            int paddedLength = VectorWinScanner.paddedLength(wordCount, steps, winningLength);
+            vectorPads = ThreadLocal.withInitial(() -> new long[paddedLength]);
+        }
+        return new StartMasks(size, masks, steps, startEdges, endEdges, vectorPads);
+    }
+
+    private static boolean isOnBoard(int row, int col, int size) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    /**
+     * A köteg felezésével szétosztott ellenőrzés; a küszöb alatti tartományt egy szál dolgozza fel.
+     */
+    private final class BatchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient long[] packed;
+        private final transient StartMasks cached;
+        private final transient byte[] results;
+        private final int from;
+        private final int to;
+
+        BatchTask(long[] packed, StartMasks cached, byte[] results, int from, int to) {
+            this.packed = packed;
+            this.cached = cached;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                checkRange(packed, cached, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(packed, cached, results, from, middle),
+                    new BatchTask(packed, cached, results, middle, to));
+        }
+    }
+
     /**
      * Vízszintes irányban ellenőrzi a nyerési feltételt.
      *
      * @param board a játéktábla
      * @param row a kezdő sor
      * @param col a kezdő oszlop
-     * @param symbol az ellenőrzendő szimbólum
+     * @param overline nyer-e a nyerő hossznál hosszabb sorozat
      * @return true ha van nyerő sorozat
      */
-    private boolean checkHorizontal(Board board, int row, int col, char symbol) {
-        return countConsecutive(board, row, col, symbol, 0, 1) >= WINNING_LENGTH;
+    private boolean checkHorizontal(GameBoard board, int row, int col, boolean overline) {
+        return isWinningRun(countConsecutive(board, row, col, 0, 1), overline);
     }
 
     /**
@@ -78,11 +491,11 @@ public class WinChecker {
      * @param board a játéktábla
      * @param row a kezdő sor
      * @param col a kezdő oszlop
-     * @param symbol az ellenőrzendő szimbólum
+     * @param overline nyer-e a nyerő hossznál hosszabb sorozat
      * @return true ha van nyerő sorozat
      */
-    private boolean checkVertical(Board board, int row, int col, char symbol) {
-        return countConsecutive(board, row, col, symbol, 1, 0) >= WINNING_LENGTH;
+    private boolean checkVertical(GameBoard board, int row, int col, boolean overline) {
+        return isWinningRun(countConsecutive(board, row, col, 1, 0), overline);
     }
 
     /**
@@ -91,11 +504,11 @@ public class WinChecker {
      * @param board a játéktábla
      * @param row a kezdő sor
      * @param col a kezdő oszlop
-     * @param symbol az ellenőrzendő szimbólum
+     * @param overline nyer-e a nyerő hossznál hosszabb sorozat
      * @return true ha van nyerő sorozat
      */
-    private boolean checkDiagonal(Board board, int row, int col, char symbol) {
-        return countConsecutive(board, row, col, symbol, 1, 1) >= WINNING_LENGTH;
+    private boolean checkDiagonal(GameBoard board, int row, int col, boolean overline) {
+        return isWinningRun(countConsecutive(board, row, col, 1, 1), overline);
     }
 
     /**
@@ -104,58 +517,33 @@ public class WinChecker {
      * @param board a játéktábla
      * @param row a kezdő sor
      * @param col a kezdő oszlop
-     * @param symbol az ellenőrzendő szimbólum
+     * @param overline nyer-e a nyerő hossznál hosszabb sorozat
      * @return true ha van nyerő sorozat
      */
-    private boolean checkAntiDiagonal(Board board, int row, int col, char symbol) {
-        return countConsecutive(board, row, col, symbol, 1, -1) >= WINNING_LENGTH;
+    private boolean checkAntiDiagonal(GameBoard board, int row, int col, boolean overline) {
+        return isWinningRun(countConsecutive(board, row, col, 1, -1), overline);
     }
 
     /**
-     * Megszámolja, hány azonos szimbólum van egy vonalban mindkét irányba.
-     *
-     * @param board a játéktábla
-     * @param row a kezdő sor indexe
-     * @param col a kezdő oszlop indexe
-     * @param symbol a keresett szimbólum ('X' vagy 'O')
-     * @param rowDir az első irány sor változása
-     * @param colDir az első irány oszlop változása
-     * @return az összes egymás mellett lévő azonos szimbólum száma a teljes vonalban
+     * Eldönti, hogy egy adott hosszú sorozat nyer-e.
      */
-    private int countConsecutive(Board board, int row, int col, char symbol, int rowDir, int colDir) {
-        int count = 1;
-
-        // Pozitív irányú számlálás
-        count += countInDirection(board, row, col, symbol, rowDir, colDir);
-        // Negatív irányú számlálás
-        count += countInDirection(board, row, col, symbol, -rowDir, -colDir);
-
-        return count;
+    private boolean isWinningRun(int length, boolean overline) {
+        return overline ? length >= winningLength : length == winningLength;
     }
 
     /**
-     * Segédmetódus: Megszámolja, hány azonos szimbólum van egy adott irányban egymás mellett.
+     * Megszámolja, hány azonos szimbólum van egy vonalban mindkét irányba.
+     * A tábla sorozat indexét használja ({@link GameBoard#getRunLength}), amely a
+     * korlátos táblán egyetlen kiolvasás.
      *
      * @param board a játéktábla
      * @param row a kezdő sor indexe
      * @param col a kezdő oszlop indexe
-     * @param symbol a keresett szimbólum ('X' vagy 'O')
-     * @param rowDir a sor iránya (-1: fel, 0: marad, 1: le)
-     * @param colDir az oszlop iránya (-1: balra, 0: marad, 1: jobbra)
-     * @return az azonos szimbólumok száma az adott irányban (a kezdőpontot nem számolva)
+     * @param rowDir az első irány sor változása
+     * @param colDir az első irány oszlop változása
+     * @return az összes egymás mellett lévő azonos szimbólum száma a teljes vonalban
      */
-    private int countInDirection(Board board, int row, int col, char symbol, int rowDir, int colDir) {
-        int count = 0;
-        int currentRow = row + rowDir;
-        int currentCol = col + colDir;
-
-        while (board.isValidPosition(currentRow, currentCol) &&
-                board.getSymbolAt(currentRow, currentCol) == symbol) {
-            count++;
-            currentRow += rowDir;
-            currentCol += colDir;
-        }
-
-        return count;
+    private int countConsecutive(GameBoard board, int row, int col, int rowDir, int colDir) {
+        return board.getRunLength(row, col, rowDir, colDir);
     }
-}
\ No newline at end of file
+}
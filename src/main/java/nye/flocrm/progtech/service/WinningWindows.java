@@ -0,0 +1,285 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.MoveListener;
+
+/**
+ * Nyerő ablakok indexe egy táblához.
+ * <p>
+ * Egyszer felsorolja a tábla összes nyerő hosszú (alapból 5 cellás) ablakát a 4 irányban,
+ * felépít egy cella → ablakok indexet, és ablakonként számolja az X és O köveket.
+ * A számlálók a tábla {@link MoveListener} értesítéseiből frissülnek, így a tábla
+ * hívóinak (GameService, AIPlayer, GameLoader) nem kell tudniuk az indexről.
+ * <p>
+ * Egy lépés csak a cellát érintő (legfeljebb 4 * nyerő hossz) ablakot frissíti. A győzelem
+ * kérdése így "elérte-e valamelyik ablak a nyerő hosszt", és ugyanezek a számlálók adják
+ * az AI olcsó jellemzőit: üres ablakok, ellenfél nélküli ablakok kő szerinti eloszlása.
+ */
+public final class WinningWindows implements MoveListener {
+
+    private static final int[] DIRECTION_ROW = {0, 1, 1, 1};
+    private static final int[] DIRECTION_COL = {1, 0, 1, -1};
+
+    private final Board board;
+    private final int size;
+    private final int windowLength;
+    private final int windowCount;
+
+    //Cella -> ablakok index (CSR): a cella ablakai windowIds[cellStart[i] .. cellStart[i + 1])
+    private final int[] cellStart;
+    private final int[] windowIds;
+
+    //Ablakonkénti kőszámlálók:
+    private final int[] crossCounts;
+    private final int[] noughtCounts;
+
+    //Ablakok osztályonként: pureX[n] / pureO[n] = n saját és 0 ellenfél kő (n >= 1)
+    private final int[] pureX;
+    private final int[] pureO;
+    private int emptyWindows;
+
+    /**
+     * Felépíti az indexet a WinChecker nyerő hosszával, és a táblára regisztrálja.
+     *
+     * @param board a követendő tábla
+     * @param winChecker a játékban használt győzelem ellenőrző
+     */
+    public WinningWindows(Board board, WinChecker winChecker) {
+        this(board, winChecker.getWinningLength());
+    }
+
+    /**
+     * Felépíti az indexet tetszőleges ablakhosszal, és a táblára regisztrálja.
+     *
+     * @param board a követendő tábla
+     * @param windowLength az ablak hossza (nyerő hossz)
+     * @throws IllegalArgumentException ha az ablakhossz nem pozitív
+     */
+    public WinningWindows(Board board, int windowLength) {
+        if (windowLength < 1) {
+            throw new IllegalArgumentException("Az ablak hossza legalább 1 kell legyen: " + windowLength);
+        }
+        this.board = board;
+        this.size = board.getSize();
+        this.windowLength = windowLength;
+
+        // 1. Ablakok felsorolása: kezdőcella és irány
+        int cellCount = size * size;
+        int[] starts = new int[DIRECTION_ROW.length * cellCount];
+        int[] directions = new int[starts.length];
+        int count = 0;
+        int[] perCell = new int[cellCount + 1];
+        for (int d = 0; d < DIRECTION_ROW.length; d++) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    if (fits(row, col, d)) {
+                        starts[count] = row * size + col;
+                        directions[count] = d;
+                        count++;
+                        forEachCell(row, col, d, cell -> perCell[cell + 1]++);
+                    }
+                }
+            }
+        }
+        this.windowCount = count;
+
+        // 2. Cella -> ablakok index
+        cellStart = new int[cellCount + 1];
+        for (int i = 0; i < cellCount; i++) {
+            cellStart[i + 1] = cellStart[i] + perCell[i + 1];
+        }
+        windowIds = new int[cellStart[cellCount]];
+        int[] fill = new int[cellCount];
+        for (int w = 0; w < windowCount; w++) {
+            int window = w;
+            forEachCell(starts[w] / size, starts[w] % size, directions[w],
+                    cell -> windowIds[cellStart[cell] + fill[cell]++] = window);
+        }
+
+        crossCounts = new int[windowCount];
+        noughtCounts = new int[windowCount];
+        pureX = new int[windowLength + 1];
+        pureO = new int[windowLength + 1];
+        rebuild();
+        board.addMoveListener(this);
+    }
+
+    /**
+     * Leválasztja az indexet a tábláról (további lépések nem frissítik).
+     */
+    public void detach() {
+        board.removeMoveListener(this);
+    }
+
+    /**
+     * Visszaadja az ablakok számát.
+     *
+     * @return a táblán elférő nyerő hosszú ablakok száma
+     */
+    public int getWindowCount() {
+        return windowCount;
+    }
+
+    /**
+     * Visszaadja az ablakhosszt.
+     *
+     * @return az ablak hossza
+     */
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Megadja, hogy a játékosnak van-e teli ablaka (nyerő sorozata), O(1) időben.
+     *
+     * @param player a játékos szimbóluma
+     * @return true, ha valamelyik ablak a játékos köveivel telt meg
+     */
+    public boolean hasWin(char player) {
+        return countWindows(player, windowLength) > 0;
+    }
+
+    /**
+     * Megadja, hogy a cellán lévő kő nyerő sorozat része-e: elérte-e valamelyik,
+     * a cellát érintő ablak a nyerő hosszt.
+     *
+     * @param row a sor indexe
+     * @param col az oszlop indexe
+     * @return true, ha a cellán át van teli ablak
+     */
+    public boolean isWinAt(int row, int col) {
+        char symbol = board.getSymbolAt(row, col);
+        if (symbol == '.') {
+            return false;
+        }
+        int[] counts = symbol == 'X' ? crossCounts : noughtCounts;
+        int cell = row * size + col;
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            if (counts[windowIds[i]] == windowLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Megszámolja azokat az ablakokat, amelyekben a játékosnak pontosan {@code stones}
+     * köve van, az ellenfélnek pedig egy sem (pl. 4 kő és üres ötödik cella: nyerő fenyegetés).
+     *
+     * @param player a játékos szimbóluma
+     * @param stones a kövek száma (1..ablakhossz)
+     * @return az ilyen ablakok száma
+     * @throws IllegalArgumentException ha a kövek száma a tartományon kívül esik
+     */
+    public int countWindows(char player, int stones) {
+        if (stones < 1 || stones > windowLength) {
+            throw new IllegalArgumentException("A kövek száma 1 és " + windowLength + " között kell legyen: " + stones);
+        }
+        if (player == 'X') {
+            return pureX[stones];
+        }
+        return player == 'O' ? pureO[stones] : 0;
+    }
+
+    /**
+     * Visszaadja a teljesen üres ablakok számát.
+     *
+     * @return az üres ablakok száma
+     */
+    public int getEmptyWindowCount() {
+        return emptyWindows;
+    }
+
+    /**
+     * Visszaadja a játékos számára még nyitott (ellenfél kő nélküli) ablakok számát,
+     * az üreseket is beleértve. Ha egyik játékosnak sincs nyitott ablaka, a játszma
+     * már nem nyerhető meg.
+     *
+     * @param player a játékos szimbóluma
+     * @return a nyitott ablakok száma
+     */
+    public int getOpenWindowCount(char player) {
+        int open = emptyWindows;
+        for (int stones = 1; stones <= windowLength; stones++) {
+            open += countWindows(player, stones);
+        }
+        return open;
+    }
+
+    @Override
+    public void stonePlaced(int row, int col, char player) {
+        update(row * size + col, player, 1);
+    }
+
+    @Override
+    public void stoneRemoved(int row, int col, char player) {
+        update(row * size + col, player, -1);
+    }
+
+    @Override
+    public void boardReset(Board source) {
+        rebuild();
+    }
+
+    /**
+     * A cellát érintő ablakok számlálóit és osztályait frissíti.
+     */
+    private void update(int cell, char player, int delta) {
+        int[] counts = player == 'X' ? crossCounts : noughtCounts;
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int window = windowIds[i];
+            classify(window, -1);
+            counts[window] += delta;
+            classify(window, 1);
+        }
+    }
+
+    /**
+     * Az ablakot hozzáadja (+1) vagy kiveszi (-1) az osztályszámlálókból.
+     */
+    private void classify(int window, int delta) {
+        int x = crossCounts[window];
+        int o = noughtCounts[window];
+        if (x == 0 && o == 0) {
+            emptyWindows += delta;
+        } else if (o == 0) {
+            pureX[x] += delta;
+        } else if (x == 0) {
+            pureO[o] += delta;
+        }
+    }
+
+    /**
+     * A számlálókat a tábla aktuális állásából újraszámolja.
+     */
+    private void rebuild() {
+        Arrays.fill(crossCounts, 0);
+        Arrays.fill(noughtCounts, 0);
+        Arrays.fill(pureX, 0);
+        Arrays.fill(pureO, 0);
+        emptyWindows = windowCount;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                char symbol = board.getSymbolAt(row, col);
+                if (symbol != '.') {
+                    update(row * size + col, symbol, 1);
+                }
+            }
+        }
+    }
+
+    private boolean fits(int row, int col, int direction) {
+        int endRow = row + (windowLength - 1) * DIRECTION_ROW[direction];
+        int endCol = col + (windowLength - 1) * DIRECTION_COL[direction];
+        return endRow < size && endCol >= 0 && endCol < size;
+    }
+
+    private void forEachCell(int row, int col, int direction, IntConsumer action) {
+        for (int i = 0; i < windowLength; i++) {
+            action.accept((row + i * DIRECTION_ROW[direction]) * size + col + i * DIRECTION_COL[direction]);
+        }
+    }
+}
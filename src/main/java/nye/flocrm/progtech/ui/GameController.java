@@ -9,20 +9,30 @@ import nye.flocrm.progtech.model.GameMode;
 import nye.flocrm.progtech.model.GameState;
 import nye.flocrm.progtech.model.HumanPlayer;
 import nye.flocrm.progtech.model.Player;
+import nye.flocrm.progtech.model.RuleSet;
 import nye.flocrm.progtech.service.DatabaseService;
 import nye.flocrm.progtech.service.GameLoader;
 import nye.flocrm.progtech.service.GameService;
 import nye.flocrm.progtech.service.LoggerService;
+import nye.flocrm.progtech.service.Ponderer;
+import nye.flocrm.progtech.service.WinChecker;
 
 /**
  * A játék vezérléséért felelős osztály.
  * Kezeli a felhasználói interfészt és a játék folyamatát.
  */
 public class GameController {
+    private static final int MIN_BOARD_SIZE = 3;
+    private static final int MAX_BOARD_SIZE = 100;
+    private static final int MIN_WINNING_LENGTH = 3;
+    //Az AI háttérben gondolkodásának kerete egy emberi lépésre
+    private static final long PONDER_BUDGET_MILLIS = Ponderer.DEFAULT_BUDGET_MILLIS;
+
     private GameService gameService;
     private final Scanner scanner;
     private final GameLoader gameLoader;
     private final DatabaseService databaseService;
+    private final Ponderer ponderer;
 
     /**
      * Konstruktor a játékvezérlő inicializálásához.
@@ -32,6 +42,7 @@ public class GameController {
         this.scanner = new Scanner(System.in);
         this.gameLoader = new GameLoader();
         this.databaseService = new DatabaseService();
+        this.ponderer = new Ponderer(PONDER_BUDGET_MILLIS);
 
         // Kapcsolat ellenőrzése az adatbázissal:
         if (!databaseService.isConnectionAvailable()) {
@@ -61,6 +72,24 @@ public class GameController {
         showMainMenu();
 
         scanner.close();
+        ponderer.close();
+        if (gameService != null) {
+            gameService.close();
+        }
+    }
+
+    /**
+     * Lecseréli a játékszolgáltatást: leállítja a háttérben gondolkodást, és lezárja az
+     * előző szolgáltatást (a játékosok szálkészleteit), hogy azok ne maradjanak futva.
+     *
+     * @param next az új játékszolgáltatás
+     */
+    private void replaceGameService(GameService next) {
+        ponderer.stop();
+        if (gameService != null) {
+            gameService.close();
+        }
+        this.gameService = next;
     }
 
     /**
@@ -215,7 +244,7 @@ public class GameController {
      * Betölti és beállítja a játék állapotát egy mentett GameState objektumból.
      * A metódus a következő feladatokat látja el:
      * <p>
-     * - Létrehoz egy új GameService példányt a mentett játékmód alapján
+     * - Létrehoz egy új GameService példányt a mentett játékmód, táblaméret és nyerő hossz alapján
      * - Másolja a mentett tábla állapotát az aktuális játék táblájába
      * - Beállítja a játékos adatait (nevet és pontszámot) a mentett állapotból
      * - Frissíti a győzelem ellenőrző állapotát az új tábla alapján
@@ -241,8 +270,11 @@ public class GameController {
      *         játékos nem HumanPlayer a név és pontszám másolásakor
      */
     private void loadGameState(GameLoader.GameState gameState) {
-        // GameService létrehozása a mentett játékmóddal
-        this.gameService = new GameService(gameState.gameMode());
+        // GameService létrehozása a mentett játékmóddal, táblamérettel, nyerő hosszal és szabályrendszerrel
+        replaceGameService(new GameService(gameState.gameMode(),
+                gameState.board().getSize(),
+                gameState.winningLength(),
+                gameState.ruleSet()));
 
         // Tábla másolása
         copyBoard(gameState.board(), gameService.getBoard());
@@ -465,45 +497,22 @@ public class GameController {
      * Egy játéktábla teljes állapotát másolja át egy másik táblába.
      * A metódus a következő feladatokat látja el:
      * <p>
-     * - Kiüríti a cél táblát a target.clear() hívással
-     * - Végigiterál a forrás tábla összes celláján (0-tól Board.SIZE-1-ig)
-     * - Minden nem üres cellát (szimbólum != '.') átmásol a forrásból a célba
-     * - Megőrzi a cellák pozícióját (sor és oszlop indexek)
-     * - Csak érvényes szimbólumokat másol ('X' és 'O')
+     * - A cél tábla korábbi állapotát teljesen felülírja
+     * - A forrás tábla bithalmazait tömbmásolással viszi át, cellánkénti bejárás nélkül
      * <p>
-     * A metódus feltételezi, hogy a forrás és cél táblák mérete megegyezik (Board.SIZE).
+     * A metódus feltételezi, hogy a forrás és cél táblák mérete megegyezik
+     * (a GameService a betöltött tábla méretével jön létre).
      *
      * @param source a forrás tábla, amelyből másoljuk az állapotot
      * @param target a cél tábla, amelybe másoljuk az állapotot
      *
-     * @see Board#clear() A cél tábla kiürítését végző metódus
-     * @see Board#getSymbolAt(int, int) A cella értékének lekérdezését végző metódus
-     * @see Board#placeSymbol(int, int, char) A szimbólum elhelyezését végző metódus
+     * @see Board#copyFrom(Board) A tényleges másolást végző metódus
      *
      * @implNote A metódus csak olvasási műveleteket végez a forrás táblán, így az változatlan marad.
      *           A cél tábla teljesen újraírásra kerül, minden korábbi állapot elvész.
-     *           A másolás során csak a nem üres mezők kerülnek átvitelre, optimalizálva a folyamatot.
-     *
-     * @implSpec A metódus nem végez méretellenőrzést, feltételezve, hogy a forrás és cél táblák
-     *           kompatibilisek. Ha a táblák mérete eltérő, váratlan viselkedés léphet fel.
-     *
-     * @example
-     * // Példa másolási folyamat:
-     * // Forrás tábla: [['X', '.', 'O'], ['.', 'X', '.'], ['.', '.', 'O']]
-     * // Cél tábla kiürítése
-     * // Cél tálla másolás után: [['X', '.', 'O'], ['.', 'X', '.'], ['.', '.', 'O']]
      */
     private void copyBoard(Board source, Board target) {
-        target.clear();
-
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                char symbol = source.getSymbolAt(row, col);
-                if (symbol != '.') { // Csak a nem üres mezőket másoljuk
-                    target.placeSymbol(row, col, symbol);
-                }
-            }
-        }
+        target.copyFrom(source);
     }
 
     /**
@@ -513,7 +522,7 @@ public class GameController {
      * - Felosztja a bemeneti stringet szóközök mentén részekre
      * - Ellenőrzi, hogy pontosan két számot tartalmaz-e a bemenet
      * - Konvertálja a számokat integer értékekké
-     * - Ellenőrzi a számok tartományát (1 és Board.SIZE között kell legyenek)
+     * - Ellenőrzi a számok tartományát (1 és az aktuális tábla mérete között kell legyenek)
      * - Átkonvertálja a felhasználóbarát (1-alapú) indexeket programbarát (0-alapú) indexekké
      * - Megkísérli végrehajtani a lépést a játék szolgáltatáson keresztül
      * - Átfogó hibakezelést biztosít minden lehetséges bemeneti hiba esetén
@@ -525,7 +534,7 @@ public class GameController {
      *         a bemenet vagy a lépés nem hajtható végre
      *
      * @see GameService#makeMove(int, int) A tényleges lépés végrehajtását végző metódus
-     * @see Board#SIZE A tábla méretének konstansa
+     * @see Board#getSize() Az aktuális tábla mérete
      *
      * @implNote A metódus kivételkezeléssel van ellátva, hogy biztosítsa a rendszer
      *           stabil működését még érvénytelen bemenet esetén is. A hibakezelés
@@ -553,21 +562,26 @@ public class GameController {
             int col = Integer.parseInt(parts[1]) - 1;
 
             // Tartomány ellenőrzése
-            if (row < 0 || row >= Board.SIZE || col < 0 || col >= Board.SIZE) {
-                System.out.println("Érvénytelen tartomány! Csak 1 és " + Board.SIZE + " közötti számokat adj meg.");
+            int size = gameService.getBoard().getSize();
+            if (row < 0 || row >= size || col < 0 || col >= size) {
+                System.out.println("Érvénytelen tartomány! Csak 1 és " + size + " közötti számokat adj meg.");
                 return false;
             }
 
             // Lépés végrehajtása
             if (gameService.makeMove(row, col)) {
                 return true;
+            } else if (gameService.isForbiddenMove(row, col)) {
+                System.out.println("Tiltott lépés! (" + gameService.getRuleSet().getDisplayName()
+                        + ": dupla hármas, dupla négyes vagy túlhosszú sor)");
+                return false;
             } else {
                 System.out.println("Érvénytelen lépés! A mező már foglalt!");
                 return false;
             }
 
         } catch (NumberFormatException e) {
-            System.out.println("Érvénytelen bevitel! Csak számokat adhatsz meg (1-" + Board.SIZE + ").");
+            System.out.println("Érvénytelen bevitel! Csak számokat adhatsz meg (1-" + gameService.getBoard().getSize() + ").");
             System.out.println("Példa: '3 5' vagy '10 2'");
             return false;
         } catch (Exception e) {
@@ -593,7 +607,7 @@ public class GameController {
      * - Igen: "i", "igen" (kis/nagybetű érzéketlen)
      * - Nem: "n", "nem" (kis/nagybetű érzéketlen)
      *
-     * @see GameLoader#saveGame(Board, Player, Player, Player, GameMode) A játék mentését végző metódus
+     * @see GameLoader#saveGame(Board, Player, Player, Player, GameMode, int) A játék mentését végző metódus
      * @see LoggerService#warning(String) A figyelmeztető üzenetek naplózását végző metódus
      *
      * @implNote A metódus egy while ciklusban működik, amely addig ismétli a kérdést,
@@ -612,7 +626,9 @@ public class GameController {
                             gameService.getPlayer1(),
                             gameService.getPlayer2(),
                             gameService.getCurrentPlayer(),
-                            gameService.getGameMode()
+                            gameService.getGameMode(),
+                            gameService.getWinningLength(),
+                            gameService.getRuleSet()
                     );
                     System.out.println("Játékállás sikeresen mentve!");
                 } catch (Exception e) {
@@ -650,6 +666,9 @@ public class GameController {
      *    - "k" vagy "kilépés": kilépés a játékból (mentés lehetőségével)
      *    - Egyéb: lépés feldolgozása
      * 5. Sikeres lépés után, ha a következő játékos AI, akkor AI lépés végrehajtása
+     * <p>
+     * Amíg az ember a bemenetet gépeli, az AI ellenfél a háttérben gondolkodik ({@link Ponderer});
+     * lépés és kilépés előtt a gondolkodás leáll.
      *
      * @see #processMoveInput(String) A lépés feldolgozását végző metódus
      * @see #offerSaveGame() A mentést felajánló metódus
@@ -677,6 +696,7 @@ public class GameController {
             System.out.print("\n" + playerName + " (" + playerSymbol + ") lépése: " +
                     "[sor oszlop] vagy [m]entés vagy [k]ilépés: ");
 
+            startPondering();
             String input = scanner.nextLine().trim().toLowerCase();
 
             // Üres bemenet - újra kérjük
@@ -694,7 +714,9 @@ public class GameController {
                                 gameService.getPlayer1(),
                                 gameService.getPlayer2(),
                                 gameService.getCurrentPlayer(),
-                                gameService.getGameMode()
+                                gameService.getGameMode(),
+                                gameService.getWinningLength(),
+                                gameService.getRuleSet()
                         );
                         System.out.println("Játékállás sikeresen mentve!");
                     } catch (Exception e) {
@@ -703,6 +725,7 @@ public class GameController {
                     continue;
                 }
                 case "k", "kilépés" -> {
+                    ponderer.stop();
                     offerSaveGame();
                     return;
                 }
@@ -712,6 +735,7 @@ public class GameController {
             }
 
             // Lépés feldolgozása
+            ponderer.stop();
             boolean moveSuccessful = processMoveInput(input);
 
             if (moveSuccessful && !gameService.getCurrentPlayer().isHuman()) {
@@ -723,6 +747,19 @@ public class GameController {
         offerNewGame();
     }
 
+    /**
+     * Elindítja az AI ellenfél háttérben gondolkodását, ha emberi játékos van lépésen és az
+     * ellenfele AI. Ugyanarra az állásra (pl. érvénytelen bemenet után) a még meglévő keretből
+     * folytatja.
+     */
+    private void startPondering() {
+        Player current = gameService.getCurrentPlayer();
+        Player other = current == gameService.getPlayer1() ? gameService.getPlayer2() : gameService.getPlayer1();
+        if (current.isHuman() && !other.isHuman()) {
+            ponderer.start(other, gameService.getBoard());
+        }
+    }
+
     /**
      * Kezeli a játék végét és végrehajtja a végeredmény alapján szükséges műveleteket.
      * A metódus a következő feladatokat látja el:
@@ -874,8 +911,9 @@ public class GameController {
      * <ul>
      *   <li>Megjeleníti a választható játékmódokat</li>
      *   <li>Lehetőséget biztosít a "vissza" kulcsszó megadásával a főmenübe való visszatérésre</li>
-     *   <li>Ellenőrzi a bemenet érvényességét (1-2 szám vagy "vissza")</li>
-     *   <li>Inicializálja a GameService-t a kiválasztott játékmóddal</li>
+     *   <li>Ellenőrzi a bemenet érvényességét (1-4 szám vagy "vissza")</li>
+     *   <li>Bekéri a tábla méretét és a nyerő hosszt (Enter esetén az alapértelmezett marad)</li>
+     *   <li>Inicializálja a GameService-t a kiválasztott játékmóddal és beállításokkal</li>
      * </ul>
      *
      * @return true ha sikeresen kiválasztották a játékmódot, false ha visszaléptek a főmenübe
@@ -888,8 +926,10 @@ public class GameController {
             System.out.println("Játékmód kiválasztása:");
             System.out.println("1. " + GameMode.HUMAN_VS_HUMAN.getDisplayName());
             System.out.println("2. " + GameMode.HUMAN_VS_AI.getDisplayName());
+            System.out.println("3. " + GameMode.HUMAN_VS_SEARCH_AI.getDisplayName());
+            System.out.println("4. " + GameMode.HUMAN_VS_MCTS_AI.getDisplayName());
             System.out.println("****************************");
-            System.out.print("\n---> Kérlek válassz (1-2 vagy 'vissza' a menühöz): ");
+            System.out.print("\n---> Kérlek válassz (1-4 vagy 'vissza' a menühöz): ");
 
             String input = scanner.nextLine().trim();
 
@@ -902,17 +942,24 @@ public class GameController {
             try {
                 int choice = Integer.parseInt(input);
 
-                if (choice == 1 || choice == 2) {
-                    GameMode selectedMode = (choice == 1) ? GameMode.HUMAN_VS_HUMAN : GameMode.HUMAN_VS_AI;
-                    this.gameService = new GameService(selectedMode);
+                if (choice >= 1 && choice <= 4) {
+                    GameMode selectedMode = GameMode.values()[choice - 1];
                     System.out.println("\nKiválasztva: " + selectedMode.getDisplayName());
+
+                    int boardSize = getIntSetting("Tábla mérete", Board.SIZE, MIN_BOARD_SIZE, MAX_BOARD_SIZE);
+                    RuleSet ruleSet = getRuleSetSetting(boardSize);
+                    int winningLength = ruleSet == RuleSet.RENJU
+                            ? RuleSet.RENJU_WINNING_LENGTH
+                            : getIntSetting("Nyerő hossz",
+                                    Math.min(WinChecker.DEFAULT_WINNING_LENGTH, boardSize), MIN_WINNING_LENGTH, boardSize);
+                    replaceGameService(new GameService(selectedMode, boardSize, winningLength, ruleSet));
                     break;
                 } else {
-                    System.out.println("HIBA: Csak 1 vagy 2 lehet a választás!");
+                    System.out.println("HIBA: Csak 1, 2, 3 vagy 4 lehet a választás!");
                     System.out.println("Próbáld újra vagy írd be 'vissza' a főmenübe.");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("HIBA: Érvénytelen bemenet! Csak 1, 2 vagy 'vissza' fogadható el.");
+                System.out.println("HIBA: Érvénytelen bemenet! Csak 1, 2, 3, 4 vagy 'vissza' fogadható el.");
                 System.out.println("Próbáld újra.");
             }
         }
@@ -925,7 +972,7 @@ public class GameController {
      * <p>
      * - A játékmód alapján meghatározza, hány játékos nevét kell bekérni
      * - HUMAN_VS_HUMAN esetén két játékos nevét kéri be
-     * - HUMAN_VS_AI esetén csak az emberi játékos nevét kéri be, az AI neve automatikusan "AI" lesz
+     * - AI elleni módokban csak az emberi játékos nevét kéri be, az AI neve automatikusan "AI" lesz
      * - Meghívja a getPlayerName() segédmetódust a név bekérésére és validálására
      * - Beállítja a játékosok neveit a GameService-ben
      * - Megjeleníti a beállított játékosneveket visszajelzésként
@@ -967,7 +1014,7 @@ public class GameController {
 
         if (gameService.getGameMode() == GameMode.HUMAN_VS_HUMAN) {
             System.out.println("\nJátékosok:");
-        } else if (gameService.getGameMode() == GameMode.HUMAN_VS_AI) {
+        } else {
             System.out.println("\nJátékos:");
         }
 
@@ -979,7 +1026,7 @@ public class GameController {
             String player2Name = getPlayerName("Második játékos neve");
             gameService.getPlayer2().setName(player2Name);
 
-        } else if (gameService.getGameMode() == GameMode.HUMAN_VS_AI) {
+        } else {
 
             String player1Name = getPlayerName("Add meg a neved");
             gameService.getPlayer1().setName(player1Name);
@@ -1014,6 +1061,54 @@ public class GameController {
         }
     }
 
+    /**
+     * Bekéri a szabályrendszert. A Renju (fix 5-ös nyerő hossz) csak legalább 5-ös táblán választható.
+     *
+     * @param boardSize a választott táblaméret
+     * @return a választott szabályrendszer
+     */
+    private RuleSet getRuleSetSetting(int boardSize) {
+        RuleSet[] choices = boardSize >= RuleSet.RENJU_WINNING_LENGTH
+                ? RuleSet.values()
+                : new RuleSet[] {RuleSet.FREESTYLE, RuleSet.EXACT_FIVE};
+        System.out.println("Szabályrendszer:");
+        for (int i = 0; i < choices.length; i++) {
+            System.out.println("  " + (i + 1) + " - " + choices[i].getDisplayName());
+        }
+        return choices[getIntSetting("Szabályrendszer", 1, 1, choices.length) - 1];
+    }
+
+    /**
+     * Bekér egy egész számú beállítást a megadott tartományban.
+     * Üres bemenet esetén az alapértelmezett értéket adja vissza.
+     *
+     * @param prompt a megjelenítendő kérdés
+     * @param defaultValue az alapértelmezett érték
+     * @param min a legkisebb elfogadott érték
+     * @param max a legnagyobb elfogadott érték
+     * @return a választott érték
+     */
+    private int getIntSetting(String prompt, int defaultValue, int min, int max) {
+        while (true) {
+            System.out.print(prompt + " (" + min + "-" + max + ", Enter = " + defaultValue + "): ");
+
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return defaultValue;
+            }
+
+            try {
+                int value = Integer.parseInt(input);
+                if (value >= min && value <= max) {
+                    return value;
+                }
+                System.out.println("HIBA: Csak " + min + " és " + max + " közötti szám adható meg!");
+            } catch (NumberFormatException e) {
+                System.out.println("HIBA: Érvénytelen bemenet! Csak számot adhatsz meg.");
+            }
+        }
+    }
+
     /**
      * Beolvas és validál egy menüpont választást a felhasználótól a megadott tartományban.
      * A metódus addig ismétli a bemenet kérését, amíg a felhasználó érvényes numerikus
@@ -0,0 +1,89 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * Kötegelt győzelem ellenőrzés áteresztőképessége (tábla / másodperc) a szálak számának függvényében.
+ * <p>
+ * {@code threads=1} a soros {@link WinChecker#checkWinners(long[], int, byte[])} út, a többi
+ * egy adott párhuzamosságú fork-join készleten fut. A mért érték táblánkénti művelet
+ * ({@link OperationsPerInvocation}), így közvetlenül tábla / másodperc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchWinCheckBenchmark {
+
+    private static final int BOARDS = 65_536;
+
+    @Param({"15", "19"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private WinChecker winChecker;
+    private long[] packed;
+    private byte[] results;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        winChecker = new WinChecker();
+        packed = new long[BOARDS * WinChecker.packedStride(size)];
+        results = new byte[BOARDS];
+
+        // Játszmavégi jellegű állások: a cellák ~40%-a foglalt
+        Random random = new Random(16);
+        int stones = size * size * 2 / 5;
+        for (int i = 0; i < BOARDS; i++) {
+            Board board = new Board(size);
+            while (board.getMoveCount() < stones) {
+                int index = board.randomEmptyCell(random);
+                board.placeSymbol(index / size, index % size, board.getMoveCount() % 2 == 0 ? 'X' : 'O');
+            }
+            WinChecker.pack(board.snapshot(), packed, i);
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public byte[] checkWinners() {
+        if (pool == null) {
+            winChecker.checkWinners(packed, size, results);
+        } else {
+            winChecker.checkWinners(packed, size, results, pool);
+        }
+        return results;
+    }
+}
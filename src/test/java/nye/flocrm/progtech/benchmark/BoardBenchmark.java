@@ -0,0 +1,156 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * A bitboard alapú Board és a korábbi char[][] tábla összehasonlítása
+ * az AI és a győzelem-ellenőrzés forró útvonalain.
+ * <p>
+ * Futtatás: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=BoardBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int STONES = 30;
+
+    private Board board;
+    private CharGridBoard charBoard;
+    private WinChecker winChecker;
+
+    @Setup
+    public void setUp() {
+        board = new Board();
+        charBoard = new CharGridBoard();
+        winChecker = new WinChecker();
+
+        // Determinisztikus középjáték állás, mindkét táblán azonos
+        Random random = new Random(42);
+        int placed = 0;
+        while (placed < STONES) {
+            int row = random.nextInt(Board.SIZE);
+            int col = random.nextInt(Board.SIZE);
+            char symbol = placed % 2 == 0 ? 'X' : 'O';
+            if (board.placeSymbol(row, col, symbol)) {
+                charBoard.placeSymbol(row, col, symbol);
+                placed++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Object copyCharGrid() {
+        return charBoard.copy();
+    }
+
+    @Benchmark
+    public Object copyBitboard() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public boolean isFullCharGrid() {
+        return charBoard.isFull();
+    }
+
+    @Benchmark
+    public boolean isFullBitboard() {
+        return board.isFull();
+    }
+
+    /**
+     * Az AIPlayer.findWinningMove() mintája: minden üres cellára másolat, lépés és győzelem-ellenőrzés.
+     */
+    @Benchmark
+    public int aiProbeCharGrid() {
+        int wins = 0;
+        for (int row = 0; row < CharGridBoard.SIZE; row++) {
+            for (int col = 0; col < CharGridBoard.SIZE; col++) {
+                if (charBoard.isEmptyCell(row, col)) {
+                    CharGridBoard testBoard = charBoard.copy();
+                    testBoard.placeSymbol(row, col, 'X');
+                    if (testBoard.checkWin(row, col)) {
+                        wins++;
+                    }
+                }
+            }
+        }
+        return wins;
+    }
+
+    @Benchmark
+    public int aiProbeBitboard() {
+        int wins = 0;
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int col = 0; col < Board.SIZE; col++) {
+                if (board.isEmptyCell(row, col)) {
+                    Board testBoard = board.copy();
+                    testBoard.placeSymbol(row, col, 'X');
+                    if (winChecker.checkWin(testBoard, row, col)) {
+                        wins++;
+                    }
+                }
+            }
+        }
+        return wins;
+    }
+
+    /**
+     * Ugyanaz a próba helyben: lépés, ellenőrzés, visszavonás (allokáció nélkül).
+     */
+    @Benchmark
+    public int aiProbeUndo() {
+        int wins = 0;
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int col = 0; col < Board.SIZE; col++) {
+                if (board.placeSymbol(row, col, 'X')) {
+                    if (winChecker.checkWin(board, row, col)) {
+                        wins++;
+                    }
+                    board.undo();
+                }
+            }
+        }
+        return wins;
+    }
+
+    /**
+     * A WinChecker.checkWinForPlayer() mintája: teljes tábla bejárása.
+     */
+    @Benchmark
+    public boolean winScanCharGrid() {
+        for (int row = 0; row < CharGridBoard.SIZE; row++) {
+            for (int col = 0; col < CharGridBoard.SIZE; col++) {
+                if (charBoard.getSymbolAt(row, col) == 'X' && charBoard.checkWin(row, col)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean winScanBitboard() {
+        return winChecker.checkWinForPlayer(board, 'X');
+    }
+}
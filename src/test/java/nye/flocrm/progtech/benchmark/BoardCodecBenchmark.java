@@ -0,0 +1,77 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.BoardSnapshot;
+import nye.flocrm.progtech.service.BoardCodec;
+
+/**
+ * A BoardCodec kódolási és dekódolási áteresztőképessége (tábla / ms).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardCodecBenchmark {
+
+    @Param({"10", "19", "100"})
+    private int size;
+
+    private BoardSnapshot snapshot;
+    private byte[] encoded;
+    private String encodedBase64;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        Board board = new Board(size);
+        Random random = new Random(42);
+        int stones = size * size * 3 / 10;
+        while (board.getMoveCount() < stones) {
+            board.placeSymbol(random.nextInt(size), random.nextInt(size), board.getMoveCount() % 2 == 0 ? 'X' : 'O');
+        }
+        snapshot = board.snapshot();
+        encoded = BoardCodec.encode(board);
+        encodedBase64 = BoardCodec.encodeBase64(board);
+        buffer = ByteBuffer.allocateDirect(BoardCodec.encodedLength(size));
+    }
+
+    @Benchmark
+    public byte[] encodeBytes() {
+        return BoardCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeIntoBuffer() {
+        buffer.clear();
+        BoardCodec.encode(snapshot, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Board decodeBytes() {
+        return BoardCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public Board decodeBase64() {
+        return BoardCodec.decodeBase64(encodedBase64);
+    }
+}
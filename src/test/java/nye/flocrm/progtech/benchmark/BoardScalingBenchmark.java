@@ -0,0 +1,121 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.AIPlayer;
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * Skálázódási mérés 10x10-es és 100x100-as tábla között.
+ * A cellánkénti műveleteknek méretfüggetlennek, a teljes táblás műveleteknek
+ * legfeljebb a cellák számával arányosnak kell maradniuk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardScalingBenchmark {
+
+    @Param({"10", "15", "19", "50", "100"})
+    private int size;
+
+    private Board board;
+    private WinChecker winChecker;
+    private AIPlayer aiPlayer;
+    private int probeRow;
+    private int probeCol;
+    private Random sampler;
+
+    @Setup
+    public void setUp() {
+        board = new Board(size);
+        winChecker = new WinChecker();
+        aiPlayer = new AIPlayer("AI", 'O', 'X', winChecker);
+
+        // A cellák ~30%-a foglalt, nyerő sor nélkül
+        Random random = new Random(42);
+        int stones = size * size * 3 / 10;
+        int placed = 0;
+        while (placed < stones) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            char symbol = placed % 2 == 0 ? 'X' : 'O';
+            Board probe = board.copy();
+            if (probe.placeSymbol(row, col, symbol) && !winChecker.checkWin(probe, row, col)) {
+                board.placeSymbol(row, col, symbol);
+                placed++;
+            }
+        }
+        probeRow = size / 2;
+        probeCol = size / 2;
+        sampler = new Random(7);
+    }
+
+    @Benchmark
+    public char getSymbolAt() {
+        return board.getSymbolAt(probeRow, probeCol);
+    }
+
+    @Benchmark
+    public boolean checkWinAtCell() {
+        return winChecker.checkWin(board, probeRow, probeCol);
+    }
+
+    @Benchmark
+    public boolean isFull() {
+        return board.isFull();
+    }
+
+    @Benchmark
+    public int randomEmptyCell() {
+        return board.randomEmptyCell(sampler);
+    }
+
+    @Benchmark
+    public Object copy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public boolean checkWinForPlayer() {
+        return winChecker.checkWinForPlayer(board, 'X');
+    }
+
+    /**
+     * A korábbi, cellánkénti teljes táblás keresés (összevetési alap).
+     */
+    @Benchmark
+    public boolean checkWinPerCellScan() {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (board.getSymbolAt(row, col) == 'X' && winChecker.checkWin(board, row, col)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public Object aiMove() {
+        Board work = board.copy();
+        aiPlayer.makeMove(work);
+        return work;
+    }
+}
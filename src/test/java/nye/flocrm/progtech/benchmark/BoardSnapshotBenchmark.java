@@ -0,0 +1,81 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.BoardSnapshot;
+
+/**
+ * A pillanatkép közzétételének lépésenkénti költsége.
+ * Alapvonal a puszta lépés + visszavonás, összevetésként a teljes táblamásolás.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSnapshotBenchmark {
+
+    @Param({"10", "19", "100"})
+    private int size;
+
+    private Board board;
+    private int moveRow;
+    private int moveCol;
+
+    @Setup
+    public void setUp() {
+        board = new Board(size);
+        Random random = new Random(42);
+        int stones = size * size * 3 / 10;
+        while (board.getMoveCount() < stones) {
+            board.placeSymbol(random.nextInt(size), random.nextInt(size), board.getMoveCount() % 2 == 0 ? 'X' : 'O');
+        }
+        int index = board.randomEmptyCell(random);
+        moveRow = index / size;
+        moveCol = index % size;
+    }
+
+    @Benchmark
+    public long moveOnly() {
+        board.placeSymbol(moveRow, moveCol, 'X');
+        long hash = board.getHash();
+        board.undo();
+        return hash;
+    }
+
+    @Benchmark
+    public BoardSnapshot moveAndSnapshot() {
+        board.placeSymbol(moveRow, moveCol, 'X');
+        BoardSnapshot snapshot = board.snapshot();
+        board.undo();
+        return snapshot;
+    }
+
+    @Benchmark
+    public Board moveAndCopy() {
+        board.placeSymbol(moveRow, moveCol, 'X');
+        Board copy = board.copy();
+        board.undo();
+        return copy;
+    }
+
+    @Benchmark
+    public BoardSnapshot cachedSnapshot() {
+        return board.snapshot();
+    }
+}
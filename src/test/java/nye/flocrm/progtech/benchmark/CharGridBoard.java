@@ -0,0 +1,94 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * A Board korábbi, {@code char[][]} alapú tárolásának másolata.
+ * Kizárólag a benchmarkok összehasonlítási alapjaként szerepel.
+ */
+final class CharGridBoard {
+
+    static final int SIZE = 10;
+    private static final char EMPTY_CELL = '.';
+
+    private final char[][] grid;
+
+    CharGridBoard() {
+        grid = new char[SIZE][SIZE];
+        for (final char[] row : grid) {
+            Arrays.fill(row, EMPTY_CELL);
+        }
+    }
+
+    boolean placeSymbol(int row, int col, char player) {
+        if (!isValidPosition(row, col) || !isEmptyCell(row, col)) {
+            return false;
+        }
+        grid[row][col] = player;
+        return true;
+    }
+
+    boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
+    boolean isEmptyCell(int row, int col) {
+        return isValidPosition(row, col) && grid[row][col] == EMPTY_CELL;
+    }
+
+    char getSymbolAt(int row, int col) {
+        return isValidPosition(row, col) ? grid[row][col] : EMPTY_CELL;
+    }
+
+    boolean isFull() {
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (grid[r][c] == EMPTY_CELL) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A korábbi AIPlayer.copyBoard() megfelelője: cellánkénti másolás placeSymbol-lal.
+     */
+    CharGridBoard copy() {
+        CharGridBoard copy = new CharGridBoard();
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                char symbol = getSymbolAt(row, col);
+                if (symbol != EMPTY_CELL) {
+                    copy.placeSymbol(row, col, symbol);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * A WinChecker.checkWin() logikájának megfelelője a char táblára.
+     */
+    boolean checkWin(int row, int col) {
+        char symbol = getSymbolAt(row, col);
+        if (symbol == EMPTY_CELL) {
+            return false;
+        }
+        return countConsecutive(row, col, symbol, 0, 1) >= 5
+                || countConsecutive(row, col, symbol, 1, 0) >= 5
+                || countConsecutive(row, col, symbol, 1, 1) >= 5
+                || countConsecutive(row, col, symbol, 1, -1) >= 5;
+    }
+
+    private int countConsecutive(int row, int col, char symbol, int rowDir, int colDir) {
+        int count = 1;
+        for (int r = row + rowDir, c = col + colDir; isValidPosition(r, c) && grid[r][c] == symbol; r += rowDir, c += colDir) {
+            count++;
+        }
+        for (int r = row - rowDir, c = col - colDir; isValidPosition(r, c) && grid[r][c] == symbol; r -= rowDir, c -= colDir) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.GameMode;
+import nye.flocrm.progtech.model.GameState;
+import nye.flocrm.progtech.service.GameService;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * Egy lépés kiértékelésének költsége a GameService-ben, különböző táblaméreteken és telítettségen.
+ * A makeMove() csak az utolsó lépést vizsgálja, ezért költségének a mérettől és a telítettségtől
+ * függetlennek kell lennie; összevetésként a korábbi, teljes táblát bejáró checkForWinner().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameServiceMoveBenchmark {
+
+    @Param({"10", "19", "50", "100"})
+    private int size;
+
+    @Param({"10", "60"})
+    private int fillPercent;
+
+    private GameService gameService;
+    private Board board;
+    private int moveRow;
+    private int moveCol;
+
+    @Setup
+    public void setUp() {
+        gameService = new GameService(GameMode.HUMAN_VS_HUMAN, size, WinChecker.DEFAULT_WINNING_LENGTH);
+        board = gameService.getBoard();
+        WinChecker winChecker = new WinChecker();
+
+        // A cellák adott hányada foglalt, nyerő sor nélkül
+        Random random = new Random(42);
+        int stones = size * size * fillPercent / 100;
+        while (board.getMoveCount() < stones) {
+            int index = board.randomEmptyCell(random);
+            int row = index / size;
+            int col = index % size;
+            board.placeSymbol(row, col, board.getMoveCount() % 2 == 0 ? 'X' : 'O');
+            if (winChecker.checkWin(board, row, col)) {
+                board.undo();
+            }
+        }
+
+        // Olyan üres cella, ahová X lépése nem nyer
+        do {
+            int index = board.randomEmptyCell(random);
+            moveRow = index / size;
+            moveCol = index % size;
+            board.placeSymbol(moveRow, moveCol, 'X');
+            boolean wins = winChecker.checkWin(board, moveRow, moveCol);
+            board.undo();
+            if (!wins) {
+                break;
+            }
+        } while (true);
+        gameService.checkForWinner();
+    }
+
+    @Benchmark
+    public GameState makeMoveLastMoveCheck() {
+        gameService.makeMove(moveRow, moveCol);
+        GameState state = gameService.getGameState();
+        board.undo();
+        gameService.setCurrentPlayerBySymbol('X');
+        return state;
+    }
+
+    @Benchmark
+    public GameState makeMoveFullScan() {
+        board.placeSymbol(moveRow, moveCol, 'X');
+        gameService.checkForWinner();
+        GameState state = gameService.getGameState();
+        board.undo();
+        return state;
+    }
+}
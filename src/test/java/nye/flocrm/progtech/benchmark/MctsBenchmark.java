@@ -0,0 +1,80 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.MctsEngine;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * A Monte Carlo kereső lejátszás / másodperc értéke a szálak számának függvényében.
+ * <p>
+ * Egy művelet egy 100 ms-os keresés ugyanabból az állásból, üres fával. A {@code playouts}
+ * kiegészítő számláló az összes szál lejátszása, a JMH kimenetében lejátszás / másodpercként
+ * jelenik meg.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MctsBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    @Param({"15"})
+    private int boardSize;
+
+    private Board board;
+    private MctsEngine engine;
+
+    /**
+     * A keresések lejátszásainak száma (JMH kiegészítő számláló).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Playouts {
+        public long playouts;
+    }
+
+    @Setup
+    public void setUp() {
+        // Ugyanaz a kiegyenlített nyitás, mint a ParallelSearchBenchmark-ban
+        board = new Board(boardSize);
+        int center = boardSize / 2;
+        int[] moves = {0, 0, 0, 1, 1, 0, -1, -1, 1, 2, 2, 1};
+        for (int i = 0; i < moves.length; i += 2) {
+            board.placeSymbol(center + moves[i], center + moves[i + 1], i % 4 == 0 ? 'X' : 'O');
+        }
+        engine = new MctsEngine(new WinChecker(), threads, MctsEngine.DEFAULT_CAPACITY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public int search(Playouts counter) {
+        engine.clearTree();
+        MctsEngine.Result result = engine.search(board, 'X', 100);
+        counter.playouts += result.playouts();
+        return result.move();
+    }
+}
@@ -0,0 +1,90 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.ParallelSearch;
+import nye.flocrm.progtech.service.SearchEngine;
+import nye.flocrm.progtech.service.TranspositionTable;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * A többszálú keresés skálázódása a szálak számának függvényében.
+ * <p>
+ * Egy művelet egy rögzített mélységű keresés üres transzpozíciós táblával indulva, így a
+ * művelet / másodperc reciproka az idő a mélységig. A {@code nodes} kiegészítő számláló az
+ * összes szál csomópontja, a JMH kimenetében csomópont / másodpercként jelenik meg.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threads;
+
+    @Param({"6"})
+    private int depth;
+
+    private Board board;
+    private TranspositionTable table;
+    private ParallelSearch search;
+
+    /**
+     * A keresések csomópontjainak száma (JMH kiegészítő számláló).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        // Kiegyenlített nyitás, amelyben a kereső nem talál kényszerített nyerést
+        board = new Board(15);
+        int[] moves = {7, 7, 7, 8, 8, 7, 6, 6, 8, 9, 9, 8};
+        for (int i = 0; i < moves.length; i += 2) {
+            board.placeSymbol(moves[i], moves[i + 1], i % 4 == 0 ? 'X' : 'O');
+        }
+        WinChecker winChecker = new WinChecker();
+        table = new TranspositionTable(64);
+        search = new ParallelSearch(winChecker, threads, table);
+        search.getEngine().setMaxDepth(depth);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public int timeToDepth(Nodes counter) {
+        SearchEngine.Result result = search.search(board, 'X', 600_000);
+        counter.nodes += result.nodes();
+        return result.move();
+    }
+}
@@ -0,0 +1,83 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.ThreatSpaceSolver;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * A fenyegetés-tér kereső ideje középjáték állásokon, ahogy az AIPlayer hívja: VCT keresés
+ * a lépő félnek, majd az ellenfélnek, üres gyorsítótárral.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreatSpaceSolverBenchmark {
+
+    private static final int POSITIONS = 64;
+    private static final int SIZE = 15;
+
+    private final Board[] positions = new Board[POSITIONS];
+    private ThreatSpaceSolver solver;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        WinChecker winChecker = new WinChecker();
+        solver = new ThreatSpaceSolver(winChecker);
+        // Determinisztikus, a középre sűrűsödő állások 10..40 kővel, nyerő sor nélkül
+        Random random = new Random(42);
+        for (int i = 0; i < POSITIONS; i++) {
+            Board board;
+            boolean won;
+            do {
+                board = new Board(SIZE);
+                won = false;
+                int stones = 10 + random.nextInt(31);
+                for (int k = 0; k < stones && !won; k++) {
+                    int row = clamp(SIZE / 2 + (int) Math.round(random.nextGaussian() * 3));
+                    int col = clamp(SIZE / 2 + (int) Math.round(random.nextGaussian() * 3));
+                    if (!board.placeSymbol(row, col, k % 2 == 0 ? 'X' : 'O')) {
+                        k--;
+                        continue;
+                    }
+                    won = winChecker.checkWin(board, row, col);
+                }
+            } while (won);
+            positions[i] = board;
+        }
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(SIZE - 1, value));
+    }
+
+    @Benchmark
+    public int ownThenOpponentVct() {
+        Board board = positions[next];
+        next = (next + 1) % POSITIONS;
+        solver.clearCache();
+        char player = board.getMoveCount() % 2 == 0 ? 'X' : 'O';
+        ThreatSpaceSolver.Result own = solver.findVct(board, player);
+        if (own.isWin()) {
+            return own.move();
+        }
+        return solver.findVct(board, player == 'X' ? 'O' : 'X').move();
+    }
+}
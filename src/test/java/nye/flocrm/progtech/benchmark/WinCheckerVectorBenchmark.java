@@ -0,0 +1,73 @@
+package nye.flocrm.progtech.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.service.WinChecker;
+
+/**
+ * Teljes táblás bitboard győzelem keresés: skalár és vektoros (Vector API) út összevetése.
+ * <p>
+ * A tábla sűrűn tele van 4-es sorozatokkal (minden 5. sor és oszlop üres), nyerő sor
+ * nélkül: a keresés nem állhat meg korán, ez a legrosszabb eset.
+ * A vektoros út a villás JVM-ben a {@code jdk.incubator.vector} modullal fut;
+ * {@code vector=true} mellett a modul nélkül a mérés a skalár utat mérné, ezért a
+ * beállítás hibát dob.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class WinCheckerVectorBenchmark {
+
+    @Param({"15", "50", "100", "200"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean vector;
+
+    private WinChecker winChecker;
+    private long[] bits;
+
+    @Setup
+    public void setUp() {
+        if (WinChecker.setVectorEnabled(vector) != vector) {
+            throw new IllegalStateException("A vektoros út nem kapcsolható be (hiányzó jdk.incubator.vector modul)");
+        }
+        winChecker = new WinChecker();
+        Board board = new Board(size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (row % 5 != 4 && col % 5 != 4) {
+                    board.placeSymbol(row, col, 'X');
+                }
+            }
+        }
+        bits = board.getBits('X');
+    }
+
+    @TearDown
+    public void tearDown() {
+        WinChecker.setVectorEnabled(false);
+    }
+
+    @Benchmark
+    public boolean hasWinningLine() {
+        return winChecker.hasWinningLine(bits, size);
+    }
+}
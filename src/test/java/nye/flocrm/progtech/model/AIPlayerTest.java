@@ -1,10 +1,16 @@
 package nye.flocrm.progtech.model;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import nye.flocrm.progtech.service.ThreatDetector;
+import nye.flocrm.progtech.service.ThreatSpaceSolver;
+import nye.flocrm.progtech.service.WinChecker;
+
 public class AIPlayerTest {
     private AIPlayer aiPlayer;
     private Board board;
@@ -164,4 +170,221 @@ public class AIPlayerTest {
         // JAVÍTVA (5,5)-ről (5,0)-ra
         assertEquals('O', board.getSymbolAt(5, 0), "Az AI-nak az ellenfél nyerő (5,0) pozícióját kellett volna blokkolnia.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Az AI végtelen táblán is blokkolja az ellenfél nyerő lépését")
+    void testMakeMoveBlocksOnSparseBoard() {
+        // AMIKOR - 4 'X' egy sorban, negatív koordinátákon, csempehatáron át
+        SparseBoard sparseBoard = new SparseBoard();
+        for (int col = -2; col < 2; col++) {
+            sparseBoard.placeSymbol(-100, col, 'X');
+        }
+        sparseBoard.placeSymbol(-100, -3, 'O');
+
+        // AMIT
+        aiPlayer.makeMove(sparseBoard);
+
+        // AKKOR
+        assertEquals('O', sparseBoard.getSymbolAt(-100, 2), "Az AI-nak a (-100, 2) pozíciót kellett blokkolnia");
+    }
+
+    @Test
+    @DisplayName("Végtelen táblán a lépés ideje nem függ a kövek távolságától")
+    void testMakeMoveOnSparseBoardFarApart() {
+        // AMIKOR - két kő egymillió cella távolságra: a befoglaló téglalap bejárása órákig tartana
+        SparseBoard sparseBoard = new SparseBoard();
+        sparseBoard.placeSymbol(0, 0, 'X');
+        sparseBoard.placeSymbol(1_000_000, 1_000_000, 'X');
+
+        // AMIT
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            aiPlayer.makeMove(sparseBoard);
+            sparseBoard.placeSymbol(-1_000_000, 0, 'X');
+            aiPlayer.makeMove(sparseBoard);
+        });
+
+        // AKKOR
+        assertEquals(5, sparseBoard.getStoneCount());
+    }
+
+    @Test
+    @DisplayName("Az AI üres végtelen táblán is lép")
+    void testMakeMoveOnEmptySparseBoard() {
+        // AMIKOR
+        SparseBoard sparseBoard = new SparseBoard();
+        aiPlayer.makeMove(sparseBoard);
+
+        // AKKOR
+        assertEquals(1, sparseBoard.getStoneCount());
+    }
+
+    @Test
+    @DisplayName("Az AI helyben próbálja a lépéseket: a tábla csak a saját lépésével változik")
+    void testMakeMoveLeavesNoProbeStones() {
+        // AMIKOR
+        board.placeSymbol(5, 1, 'X');
+        board.placeSymbol(5, 2, 'X');
+        board.placeSymbol(0, 0, 'O');
+        Board before = board.copy();
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR - pontosan egy új kő, a többi cella változatlan
+        assertEquals(before.getMoveCount() + 1, board.getMoveCount());
+        board.undo();
+        assertTrue(before.samePosition(board));
+    }
+
+    @Test
+    @DisplayName("Fenyegetés felismerővel az AI blokkolja az ellenfél nyitott hármasát")
+    void testThreatDetectorBlocksOpenThree() {
+        // AMIKOR - X nyitott hármasa a 15x15-ös tábla közepén
+        Board bigBoard = new Board(15);
+        WinChecker winChecker = new WinChecker();
+        AIPlayer threatAware = new AIPlayer("AI", 'O', 'X', winChecker);
+        threatAware.setThreatDetector(new ThreatDetector(bigBoard, winChecker));
+        bigBoard.placeSymbol(7, 5, 'X');
+        bigBoard.placeSymbol(7, 6, 'X');
+        bigBoard.placeSymbol(7, 7, 'X');
+
+        // AMIT
+        threatAware.makeMove(bigBoard);
+
+        // AKKOR
+        assertTrue(bigBoard.getSymbolAt(7, 4) == 'O' || bigBoard.getSymbolAt(7, 8) == 'O',
+                "Az AI a hármas egyik végére lép");
+    }
+
+    @Test
+    @DisplayName("Fenyegetés felismerővel az AI a saját ötösét az ellenfél blokkolása elé helyezi")
+    void testThreatDetectorPrefersOwnWin() {
+        // AMIKOR - mindkét félnek van négyese
+        WinChecker winChecker = new WinChecker();
+        AIPlayer threatAware = new AIPlayer("AI", 'O', 'X', winChecker);
+        threatAware.setThreatDetector(new ThreatDetector(board, winChecker));
+        for (int col = 0; col < 4; col++) {
+            board.placeSymbol(0, col, 'X');
+            board.placeSymbol(5, col, 'O');
+        }
+
+        // AMIT
+        threatAware.makeMove(board);
+
+        // AKKOR
+        assertEquals('O', board.getSymbolAt(5, 4));
+        assertTrue(winChecker.checkWin(board, 5, 4));
+    }
+
+    /**
+     * Az AI keresője csak a csomópont korláttal álljon meg (az időkorlát ne tegye gépfüggővé).
+     */
+    private void useNodeLimitOnly() {
+        aiPlayer.getThreatSolver().setTimeLimitMillis(60_000);
+        aiPlayer.getThreatSolver().setNodeLimit(ThreatSpaceSolver.DEFAULT_NODE_LIMIT);
+    }
+
+    @Test
+    @DisplayName("Az AI a saját kényszerített nyerését (dupla négyes) választja")
+    void testThreatSolverPicksOwnForcedWin() {
+        // AMIKOR - 15x15-ös tábla, O-nak a (7,10) dupla négyes
+        Board bigBoard = new Board(15);
+        int[] own = {7, 7, 7, 8, 7, 9, 8, 10, 9, 10, 10, 10};
+        int[] blocks = {7, 6, 11, 10, 0, 0, 0, 3, 0, 6, 0, 9};
+        for (int i = 0; i < own.length; i += 2) {
+            bigBoard.placeSymbol(own[i], own[i + 1], 'O');
+            bigBoard.placeSymbol(blocks[i], blocks[i + 1], 'X');
+        }
+        useNodeLimitOnly();
+
+        // AMIT
+        aiPlayer.makeMove(bigBoard);
+
+        // AKKOR
+        assertEquals('O', bigBoard.getSymbolAt(7, 10));
+    }
+
+    @Test
+    @DisplayName("Ha egy lépés sem cáfolja az ellenfél nyerését, annak első lépését foglalja el")
+    void testThreatSolverBlocksVctFirstMove() {
+        // AMIKOR - X két nyitott kettese a (7,7)-ben találkozik
+        Board bigBoard = new Board(15);
+        int[] threes = {7, 5, 7, 6, 5, 7, 6, 7};
+        for (int i = 0; i < threes.length; i += 2) {
+            bigBoard.placeSymbol(threes[i], threes[i + 1], 'X');
+            bigBoard.placeSymbol(14, 2 * i, 'O');
+        }
+        useNodeLimitOnly();
+        int threat = aiPlayer.getThreatSolver().findVct(bigBoard, 'X').move();
+
+        // AMIT
+        aiPlayer.makeMove(bigBoard);
+
+        // AKKOR
+        assertTrue(threat >= 0, "X-nek kényszerített nyerése van");
+        assertEquals('O', bigBoard.getSymbolAt(threat / 15, threat % 15));
+    }
+
+    @Test
+    @DisplayName("Ha az ellenfél nyerésének első lépése nem véd, az AI cáfoló költség mezőt választ")
+    void testThreatSolverRefutesWhenFirstMoveFails() {
+        // AMIKOR - X nyitott átlós hármasa mellett egy második fenyegetés is kész
+        Board bigBoard = new Board(15);
+        int[] xStones = {5, 7, 6, 8, 7, 8, 7, 9, 9, 8};
+        int[] oStones = {6, 6, 6, 7, 7, 6, 8, 7, 9, 7};
+        for (int i = 0; i < xStones.length; i += 2) {
+            bigBoard.placeSymbol(xStones[i], xStones[i + 1], 'X');
+            bigBoard.placeSymbol(oStones[i], oStones[i + 1], 'O');
+        }
+        useNodeLimitOnly();
+        int first = aiPlayer.getThreatSolver().findVct(bigBoard, 'X').move();
+        Board blocked = bigBoard.copy();
+        blocked.placeSymbol(first / 15, first % 15, 'O');
+        assertTrue(aiPlayer.getThreatSolver().findVct(blocked, 'X').isWin(), "Az első lépés elfoglalása nem elég");
+
+        // AMIT
+        aiPlayer.makeMove(bigBoard);
+
+        // AKKOR
+        assertEquals(11, bigBoard.getMoveCount());
+        assertEquals('.', bigBoard.getSymbolAt(first / 15, first % 15));
+        assertFalse(aiPlayer.getThreatSolver().findVct(bigBoard, 'X').isWin(), "A választott lépés cáfolja a nyerést");
+    }
+
+    @Test
+    @DisplayName("Alapbeállítással (5 ms, 50 000 csomópont hívásonként) is megtalálja a dupla négyest")
+    void testThreatSolverDefaultLimits() {
+        // AMIKOR
+        Board bigBoard = new Board(15);
+        int[] own = {7, 7, 7, 8, 7, 9, 8, 10, 9, 10, 10, 10};
+        int[] blocks = {7, 6, 11, 10, 0, 0, 0, 3, 0, 6, 0, 9};
+        for (int i = 0; i < own.length; i += 2) {
+            bigBoard.placeSymbol(own[i], own[i + 1], 'O');
+            bigBoard.placeSymbol(blocks[i], blocks[i + 1], 'X');
+        }
+        ThreatSpaceSolver solver = aiPlayer.getThreatSolver();
+        // Az osztálybetöltés ne számítson bele az első hívás idejébe
+        solver.findVct(bigBoard.copy(), 'X');
+
+        // AMIT
+        ThreatSpaceSolver.Result result = solver.findVct(bigBoard, 'O');
+        aiPlayer.makeMove(bigBoard);
+
+        // AKKOR
+        assertEquals(ThreatSpaceSolver.DEFAULT_TIME_LIMIT_MILLIS, solver.getTimeLimitMillis());
+        assertEquals(ThreatSpaceSolver.DEFAULT_NODE_LIMIT, solver.getNodeLimit());
+        assertFalse(result.aborted(), "A dupla négyes a kereten belül van");
+        assertEquals(7 * 15 + 10, result.move());
+        assertEquals('O', bigBoard.getSymbolAt(7, 10));
+    }
+
+    @Test
+    @DisplayName("A kényszerített nyerés kereső kikapcsolható, 4-es nyerő hossznál nincs")
+    void testThreatSolverConfiguration() {
+        // AMIKOR & AKKOR
+        assertNotNull(aiPlayer.getThreatSolver());
+        aiPlayer.setThreatSolver(null);
+        assertNull(aiPlayer.getThreatSolver());
+        assertNull(new AIPlayer("AI", 'O', 'X', new WinChecker(4)).getThreatSolver());
+    }
+}
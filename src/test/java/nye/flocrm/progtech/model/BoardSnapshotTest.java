@@ -0,0 +1,126 @@
+package nye.flocrm.progtech.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoardSnapshot (megváltoztathatatlan pillanatkép) tesztjei
+ */
+public class BoardSnapshotTest {
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+    }
+
+    @Test
+    @DisplayName("A pillanatkép a készítéskori állást mutatja, a későbbi lépésektől függetlenül")
+    void testSnapshotIsImmutable() {
+        // AMIKOR
+        board.placeSymbol(1, 2, 'X');
+        BoardSnapshot snapshot = board.snapshot();
+
+        // AMIT - a tábla tovább változik
+        board.placeSymbol(3, 4, 'O');
+        board.undo();
+        board.undo();
+        board.placeSymbol(5, 5, 'O');
+
+        // AKKOR
+        assertEquals('X', snapshot.getSymbolAt(1, 2));
+        assertEquals('.', snapshot.getSymbolAt(5, 5));
+        assertTrue(snapshot.isEmptyCell(3, 4));
+        assertEquals(1, snapshot.getMoveCount());
+        assertEquals(99, snapshot.getEmptyCellCount());
+        assertFalse(snapshot.isFull());
+        assertEquals(Board.SIZE, snapshot.getSize());
+    }
+
+    @Test
+    @DisplayName("Változatlan táblánál ugyanaz a pillanatkép, változás után új verzió")
+    void testSnapshotVersioning() {
+        // AMIKOR
+        BoardSnapshot first = board.snapshot();
+        BoardSnapshot again = board.snapshot();
+        board.placeSymbol(0, 0, 'X');
+        BoardSnapshot afterMove = board.snapshot();
+
+        // AKKOR
+        assertSame(first, again, "Változatlan táblán nem kell új másolat");
+        assertNotSame(first, afterMove);
+        assertTrue(afterMove.getVersion() > first.getVersion());
+        assertEquals(board.getHash(), afterMove.getHash());
+        assertEquals(board.getVersion(), afterMove.getVersion());
+    }
+
+    @Test
+    @DisplayName("A visszavonás után az állás hash-e egyezik, de a verzió új")
+    void testUndoCreatesNewVersion() {
+        // AMIKOR
+        BoardSnapshot before = board.snapshot();
+        board.placeSymbol(4, 4, 'X');
+        board.undo();
+        BoardSnapshot after = board.snapshot();
+
+        // AKKOR
+        assertEquals(before.getHash(), after.getHash());
+        assertNotEquals(before.getVersion(), after.getVersion());
+    }
+
+    @Test
+    @DisplayName("Más szálon olvasott pillanatkép konzisztens állást ad")
+    void testSnapshotReadFromOtherThread() throws InterruptedException {
+        // AMIKOR
+        Board small = new Board(3);
+        small.placeSymbol(0, 0, 'X');
+        small.placeSymbol(2, 2, 'O');
+        BoardSnapshot snapshot = small.snapshot();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        // AMIT
+        Thread reader = new Thread(() -> {
+            StringBuilder cells = new StringBuilder();
+            for (int row = 0; row < 3; row++) {
+                for (int col = 0; col < 3; col++) {
+                    cells.append(snapshot.getSymbolAt(row, col));
+                }
+            }
+            seen.set(cells.toString());
+        });
+        reader.start();
+        small.clear();
+        reader.join();
+
+        // AKKOR
+        assertEquals("X.......O", seen.get());
+    }
+
+    @Test
+    @DisplayName("A copyBits() a getBits() tartalmát a céltömb megadott helyére írja")
+    void testCopyBits() {
+        // AMIKOR
+        board.placeSymbol(1, 2, 'X');
+        board.placeSymbol(9, 9, 'O');
+        BoardSnapshot snapshot = board.snapshot();
+        int words = snapshot.getBits('X').length;
+        long[] dest = new long[1 + 2 * words];
+
+        // AMIT
+        snapshot.copyBits('X', dest, 1);
+        snapshot.copyBits('O', dest, 1 + words);
+
+        // AKKOR
+        assertEquals(0L, dest[0], "Az eltolás előtti szó érintetlen");
+        assertArrayEquals(snapshot.getBits('X'), Arrays.copyOfRange(dest, 1, 1 + words));
+        assertArrayEquals(snapshot.getBits('O'), Arrays.copyOfRange(dest, 1 + words, 1 + 2 * words));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.copyBits('Z', dest, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.copyBits('X', dest, dest.length));
+    }
+}
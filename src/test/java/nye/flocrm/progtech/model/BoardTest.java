@@ -2,6 +2,7 @@
 
     import java.io.ByteArrayOutputStream;
     import java.io.PrintStream;
+    import java.util.Random;
 
     import org.junit.jupiter.api.BeforeEach;
     import org.junit.jupiter.api.DisplayName;
@@ -282,4 +283,431 @@
             assertTrue(output.contains("10"), "A fejlécnek tartalmaznia kell a 10-es számot");
         }
 
+    
+        @Test
+        @DisplayName("A copy() metódus független másolatot készít")
+        void testCopyIsIndependent() {
+            // AMIKOR
+            board.placeSymbol(0, 0, 'X');
+            board.placeSymbol(9, 9, 'O');
+            Board copy = board.copy();
+
+            // AMIT - az eredeti tábla módosítása
+            board.placeSymbol(5, 5, 'X');
+
+            // AKKOR
+            assertEquals('X', copy.getSymbolAt(0, 0), "A másolatban 0,0 pozíción 'X'-nek kell lennie");
+            assertEquals('O', copy.getSymbolAt(9, 9), "A másolatban 9,9 pozíción 'O'-nak kell lennie");
+            assertEquals('.', copy.getSymbolAt(5, 5), "Az eredeti módosítása nem hathat a másolatra");
+        }
+
+        @Test
+        @DisplayName("A bitsView() másolás nélkül a getBits() tartalmát adja, és követi a táblát")
+        void testBitsView() {
+            // AMIKOR
+            board.placeSymbol(2, 3, 'X');
+            board.placeSymbol(9, 9, 'O');
+
+            // AMIT
+            long[] view = board.bitsView('X');
+
+            // AKKOR
+            assertArrayEquals(board.getBits('X'), view);
+            assertSame(view, board.bitsView('X'), "Nem készít másolatot");
+            assertNotSame(board.getBits('X'), board.getBits('X'), "A getBits() másolatot ad");
+            board.placeSymbol(4, 4, 'X');
+            assertArrayEquals(board.getBits('X'), view, "A nézet a tábla saját tömbje");
+            assertThrows(IllegalArgumentException.class, () -> board.bitsView('Z'));
+        }
+
+        @Test
+        @DisplayName("A copyFrom() metódus felülírja a tábla teljes állapotát")
+        void testCopyFromOverwritesBoard() {
+            // AMIKOR
+            Board source = new Board();
+            source.placeSymbol(3, 4, 'O');
+            board.placeSymbol(0, 0, 'X');
+
+            // AMIT
+            board.copyFrom(source);
+
+            // AKKOR
+            assertEquals('O', board.getSymbolAt(3, 4), "A 3,4 pozíción 'O'-nak kell lennie");
+            assertEquals('.', board.getSymbolAt(0, 0), "A korábbi állapotnak el kell vesznie");
+        }
+
+    
+
+        @Test
+        @DisplayName("A Board(int) konstruktor tetszőleges méretű táblát hoz létre")
+        void testCustomSizeBoard() {
+            // AMIKOR
+            Board bigBoard = new Board(19);
+
+            // AKKOR
+            assertEquals(19, bigBoard.getSize(), "A tábla méretének 19-nek kell lennie");
+            assertTrue(bigBoard.isValidPosition(18, 18), "18,18 pozíciónak érvényesnek kell lennie");
+            assertFalse(bigBoard.isValidPosition(19, 0), "19,0 pozíciónak érvénytelennek kell lennie");
+            assertTrue(bigBoard.placeSymbol(18, 18, 'O'), "A sarokba lépésnek sikeresnek kell lennie");
+            assertEquals('O', bigBoard.getSymbolAt(18, 18), "A 18,18 pozíción 'O'-nak kell lennie");
+        }
+
+        @Test
+        @DisplayName("A Board(int) konstruktor kivételt dob nem pozitív méretre")
+        void testInvalidSizeBoard() {
+            // AMIKOR & AKKOR
+            assertThrows(IllegalArgumentException.class, () -> new Board(0));
+        }
+
+        @Test
+        @DisplayName("A copyFrom() metódus kivételt dob eltérő méretű táblára")
+        void testCopyFromDifferentSize() {
+            // AMIKOR & AKKOR
+            assertThrows(IllegalArgumentException.class, () -> board.copyFrom(new Board(15)));
+        }
+    
+
+        @Test
+        @DisplayName("A getHash() a lerakás sorrendjétől független, és lépésenként változik")
+        void testZobristHashOrderIndependent() {
+            // AMIKOR
+            long emptyHash = board.getHash();
+            board.placeSymbol(0, 0, 'X');
+            long afterOne = board.getHash();
+            board.placeSymbol(5, 5, 'O');
+
+            Board other = new Board();
+            other.placeSymbol(5, 5, 'O');
+            other.placeSymbol(0, 0, 'X');
+
+            // AKKOR
+            assertEquals(0L, emptyHash, "Üres tábla hash-e 0");
+            assertNotEquals(emptyHash, afterOne, "Lépés után a hash-nek változnia kell");
+            assertEquals(board.getHash(), other.getHash(), "Azonos állásnak azonos a hash-e");
+            assertTrue(board.samePosition(other), "Azonos állású táblák állása azonos");
+            assertNotEquals(board, other, "A módosítható tábla nem érték szerint egyenlő");
+        }
+
+        @Test
+        @DisplayName("A hash megkülönbözteti a játékosokat, és a másolás/törlés kezeli")
+        void testZobristHashCopyAndClear() {
+            // AMIKOR
+            Board xBoard = new Board();
+            xBoard.placeSymbol(3, 3, 'X');
+            board.placeSymbol(3, 3, 'O');
+
+            // AKKOR
+            assertNotEquals(xBoard.getHash(), board.getHash(), "X és O ugyanott eltérő hash-t ad");
+            assertFalse(xBoard.samePosition(board));
+            assertEquals(board.getHash(), board.copy().getHash(), "A másolat hash-e megegyezik");
+
+            Board target = new Board();
+            target.copyFrom(xBoard);
+            assertEquals(xBoard.getHash(), target.getHash(), "A copyFrom() a hash-t is átviszi");
+
+            board.clear();
+            assertEquals(0L, board.getHash(), "Törlés után a hash 0");
+        }
+    
+
+        @Test
+        @DisplayName("Az undo() fordított sorrendben visszavonja a lépéseket, a hash-sel együtt")
+        void testUndoRestoresState() {
+            // AMIKOR
+            long emptyHash = board.getHash();
+            board.placeSymbol(2, 3, 'X');
+            long afterFirst = board.getHash();
+            board.placeSymbol(4, 4, 'O');
+
+            // AMIT
+            boolean undone = board.undo();
+
+            // AKKOR
+            assertTrue(undone);
+            assertEquals(1, board.getMoveCount());
+            assertTrue(board.isEmptyCell(4, 4), "A visszavont lépés cellája üres");
+            assertEquals('X', board.getSymbolAt(2, 3), "A korábbi lépés megmarad");
+            assertEquals(afterFirst, board.getHash());
+
+            assertTrue(board.undo());
+            assertEquals(emptyHash, board.getHash());
+            assertFalse(board.undo(), "Üres lépéstörténetnél nincs mit visszavonni");
+        }
+
+        @Test
+        @DisplayName("Sikertelen lépés nem kerül a lépéstörténetbe; a másolat a történetet is viszi")
+        void testUndoHistoryWithCopy() {
+            // AMIKOR
+            board.placeSymbol(0, 0, 'X');
+            board.placeSymbol(0, 0, 'O');
+            board.placeSymbol(-1, 0, 'O');
+            Board copy = board.copy();
+            board.clear();
+
+            // AKKOR
+            assertEquals(0, board.getMoveCount(), "A clear() a lépéstörténetet is törli");
+            assertEquals(1, copy.getMoveCount());
+            assertTrue(copy.undo());
+            assertTrue(copy.isEmptyCell(0, 0));
+        }
+
+        @Test
+        @DisplayName("Telerakott majd teljesen visszavont tábla az üres táblával egyenlő")
+        void testUndoFullBoard() {
+            // AMIKOR
+            Board small = new Board(3);
+            for (int i = 0; i < 9; i++) {
+                small.placeSymbol(i / 3, i % 3, i % 2 == 0 ? 'X' : 'O');
+            }
+            assertTrue(small.isFull());
+            while (small.undo()) {
+                // visszavonás az elejéig
+            }
+
+            // AKKOR
+            assertTrue(new Board(3).samePosition(small));
+            assertEquals(0L, small.getHash());
+        }
+    
+
+        @Test
+        @DisplayName("Az üres cellák száma lépésenként és visszavonáskor O(1) időben követi az állást")
+        void testEmptyCellCountTracksMoves() {
+            // AMIKOR
+            board.placeSymbol(0, 0, 'X');
+            board.placeSymbol(9, 9, 'O');
+            board.placeSymbol(9, 9, 'X');
+
+            // AKKOR
+            assertEquals(98, board.getEmptyCellCount());
+            for (int i = 0; i < board.getEmptyCellCount(); i++) {
+                int index = board.getEmptyCell(i);
+                assertTrue(board.isEmptyCell(index / Board.SIZE, index % Board.SIZE));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> board.getEmptyCell(98));
+
+            board.undo();
+            assertEquals(99, board.getEmptyCellCount());
+            board.clear();
+            assertEquals(100, board.getEmptyCellCount());
+        }
+
+        @Test
+        @DisplayName("A randomEmptyCell() mindig üres cellát ad, és tele táblánál -1-et")
+        void testRandomEmptyCellFillsBoard() {
+            // AMIKOR - a táblát kizárólag véletlen üres cellákkal töltjük fel
+            Board small = new Board(4);
+            Random random = new Random(7);
+            for (int move = 0; move < 16; move++) {
+                int index = small.randomEmptyCell(random);
+
+                // AKKOR
+                assertTrue(small.placeSymbol(index / 4, index % 4, move % 2 == 0 ? 'X' : 'O'),
+                        "A kiválasztott cellának üresnek kell lennie");
+            }
+            assertTrue(small.isFull());
+            assertEquals(-1, small.randomEmptyCell(random));
+        }
+
+        @Test
+        @DisplayName("A randomEmptyCell() minden üres cellát közel azonos eséllyel választ")
+        void testRandomEmptyCellIsUniform() {
+            // AMIKOR
+            Board small = new Board(3);
+            small.placeSymbol(1, 1, 'X');
+            small.placeSymbol(0, 0, 'O');
+            int[] hits = new int[9];
+            Random random = new Random(11);
+
+            // AMIT
+            for (int i = 0; i < 7000; i++) {
+                hits[small.randomEmptyCell(random)]++;
+            }
+
+            // AKKOR - 7 üres cella, egyenként ~1000 találat
+            assertEquals(0, hits[0]);
+            assertEquals(0, hits[4]);
+            for (int index : new int[]{1, 2, 3, 5, 6, 7, 8}) {
+                assertTrue(hits[index] > 850 && hits[index] < 1150, "Egyenetlen eloszlás: " + hits[index]);
+            }
+        }
+    
+
+        /**
+         * Az adott szimmetriával transzformált táblát építi fel (a lépések sorrendjében).
+         */
+        private static Board transformed(Board source, Symmetry symmetry) {
+            int size = source.getSize();
+            Board result = new Board(size);
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    char symbol = source.getSymbolAt(row, col);
+                    if (symbol != '.') {
+                        result.placeSymbol(symmetry.mapRow(row, col, size), symmetry.mapCol(row, col, size), symbol);
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Test
+        @DisplayName("Az egymásba forgatható/tükrözhető állások kanonikus hash-e azonos")
+        void testCanonicalHashIsSymmetryInvariant() {
+            // AMIKOR
+            Board source = new Board(7);
+            source.placeSymbol(0, 1, 'X');
+            source.placeSymbol(2, 5, 'O');
+            source.placeSymbol(3, 3, 'X');
+            source.placeSymbol(6, 0, 'O');
+
+            // AKKOR
+            for (Symmetry symmetry : Symmetry.values()) {
+                Board image = transformed(source, symmetry);
+                assertEquals(source.getCanonicalHash(), image.getCanonicalHash(), symmetry.name());
+            }
+            Board other = new Board(7);
+            other.placeSymbol(0, 0, 'X');
+            assertNotEquals(source.getCanonicalHash(), other.getCanonicalHash());
+        }
+
+        @Test
+        @DisplayName("A kanonikus szimmetria a kanonikus képet adja, és egy lépés oda-vissza leképezhető")
+        void testCanonicalSymmetryMapsMoves() {
+            // AMIKOR
+            Board source = new Board(9);
+            source.placeSymbol(1, 2, 'X');
+            source.placeSymbol(7, 3, 'O');
+            source.placeSymbol(4, 8, 'X');
+
+            // AMIT
+            Symmetry symmetry = source.getCanonicalSymmetry();
+            Board canonical = transformed(source, symmetry);
+
+            // AKKOR
+            assertEquals(source.getCanonicalHash(), canonical.getHash(), "A kanonikus kép hash-e a kanonikus hash");
+            int canonicalRow = symmetry.mapRow(1, 2, 9);
+            int canonicalCol = symmetry.mapCol(1, 2, 9);
+            assertEquals('X', canonical.getSymbolAt(canonicalRow, canonicalCol));
+            assertEquals(1, symmetry.inverse().mapRow(canonicalRow, canonicalCol, 9));
+            assertEquals(2, symmetry.inverse().mapCol(canonicalRow, canonicalCol, 9));
+        }
+
+        @Test
+        @DisplayName("A kanonikus hash a visszavonást, másolást és törlést is követi")
+        void testCanonicalHashWithUndoCopyClear() {
+            // AMIKOR
+            long emptyCanonical = board.getCanonicalHash();
+            board.placeSymbol(2, 7, 'X');
+            long afterMove = board.getCanonicalHash();
+            Board copy = board.copy();
+            board.undo();
+
+            // AKKOR
+            assertEquals(emptyCanonical, board.getCanonicalHash());
+            assertEquals(afterMove, copy.getCanonicalHash());
+            Board target = new Board();
+            target.copyFrom(copy);
+            assertEquals(afterMove, target.getCanonicalHash());
+            copy.clear();
+            assertEquals(emptyCanonical, copy.getCanonicalHash());
+            assertEquals(Symmetry.IDENTITY, copy.getCanonicalSymmetry());
+        }
+
+        @Test
+        @DisplayName("A lépésenként követett és a kéréskor számolt kanonikus hash megegyezik")
+        void testTrackedSymmetriesMatchOnDemand() {
+            // AMIKOR
+            Board tracked = new Board(7);
+            tracked.placeSymbol(3, 4, 'X');
+            tracked.trackSymmetries();
+            Board plain = new Board(7);
+            plain.placeSymbol(3, 4, 'X');
+            Random random = new Random(9);
+
+            // AMIT & AKKOR - véletlen lépések és visszavonások
+            assertTrue(tracked.isTrackingSymmetries());
+            assertFalse(plain.isTrackingSymmetries());
+            for (int step = 0; step < 200; step++) {
+                if (tracked.getMoveCount() > 1 && (tracked.isFull() || random.nextInt(3) == 0)) {
+                    tracked.undo();
+                    plain.undo();
+                } else {
+                    int index = tracked.randomEmptyCell(random);
+                    char player = step % 2 == 0 ? 'X' : 'O';
+                    tracked.placeSymbol(index / 7, index % 7, player);
+                    plain.placeSymbol(index / 7, index % 7, player);
+                }
+                assertEquals(plain.getHash(), tracked.getHash());
+                assertEquals(plain.getCanonicalHash(), tracked.getCanonicalHash());
+                assertEquals(plain.getCanonicalSymmetry(), tracked.getCanonicalSymmetry());
+            }
+            Board target = new Board(7);
+            target.trackSymmetries();
+            target.copyFrom(plain);
+            assertEquals(plain.getCanonicalHash(), target.getCanonicalHash(), "Nem követett forrásból is helyes");
+            assertTrue(tracked.copy().isTrackingSymmetries());
+        }
+    
+
+        /**
+         * A sorozat hossza cellánkénti lépkedéssel (összevetési alap a sorozat indexhez).
+         */
+        private static int bruteForceRun(Board source, int row, int col, int rowDir, int colDir) {
+            char symbol = source.getSymbolAt(row, col);
+            if (symbol == '.') {
+                return 0;
+            }
+            return 1 + source.countInDirection(row, col, symbol, rowDir, colDir)
+                    + source.countInDirection(row, col, symbol, -rowDir, -colDir);
+        }
+
+        @Test
+        @DisplayName("A sorozat index lerakás és visszavonás után is megegyezik a cellánkénti számlálással")
+        void testRunIndexMatchesBruteForce() {
+            // AMIKOR - véletlen lépések és visszavonások egy 7x7-es táblán
+            Board small = new Board(7);
+            Random random = new Random(5);
+            int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}, {0, -1}, {-1, -1}};
+            for (int step = 0; step < 400; step++) {
+                if (small.getMoveCount() > 0 && (small.isFull() || random.nextInt(3) == 0)) {
+                    small.undo();
+                } else {
+                    int index = small.randomEmptyCell(random);
+                    small.placeSymbol(index / 7, index % 7, random.nextBoolean() ? 'X' : 'O');
+                }
+
+                // AKKOR
+                for (int row = 0; row < 7; row++) {
+                    for (int col = 0; col < 7; col++) {
+                        for (int[] dir : directions) {
+                            assertEquals(bruteForceRun(small, row, col, dir[0], dir[1]),
+                                    small.getRunLength(row, col, dir[0], dir[1]),
+                                    "Eltérés a(z) " + step + ". lépés után: " + row + "," + col);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("A getRunLength() két sorozat összeolvadását egy lépésből követi")
+        void testRunLengthJoin() {
+            // AMIKOR - X X . X X a 3. sorban
+            board.placeSymbol(3, 0, 'X');
+            board.placeSymbol(3, 1, 'X');
+            board.placeSymbol(3, 3, 'X');
+            board.placeSymbol(3, 4, 'X');
+            assertEquals(2, board.getRunLength(3, 4, 0, 1));
+
+            // AMIT
+            board.placeSymbol(3, 2, 'X');
+
+            // AKKOR
+            assertEquals(5, board.getRunLength(3, 0, 0, 1));
+            assertEquals(5, board.getRunLength(3, 4, 0, -1));
+            assertEquals(1, board.getRunLength(3, 2, 1, 0));
+            assertEquals(0, board.getRunLength(4, 2, 1, 0), "Üres cellán 0");
+            assertEquals(0, board.getRunLength(-1, 2, 1, 0), "Táblán kívül 0");
+            assertThrows(IllegalArgumentException.class, () -> board.getRunLength(3, 2, 0, 0));
+        }
     }
@@ -0,0 +1,125 @@
+package nye.flocrm.progtech.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import nye.flocrm.progtech.service.WinChecker;
+
+public class MctsAIPlayerTest {
+    private MctsAIPlayer aiPlayer;
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        aiPlayer = new MctsAIPlayer("Monte Carlo", 'O', new WinChecker(), 200);
+        board = new Board();
+    }
+
+    @Test
+    @DisplayName("Az MctsAIPlayer létrehozása helyes adatokkal")
+    void testMctsAIPlayerCreation() {
+        // AMIKOR & AKKOR
+        assertEquals("Monte Carlo", aiPlayer.getName());
+        assertEquals('O', aiPlayer.getSymbol());
+        assertFalse(aiPlayer.isHuman());
+        assertEquals(200, aiPlayer.getMoveTimeMillis());
+        assertEquals(1, aiPlayer.getThreadCount());
+        assertNull(aiPlayer.getLastResult());
+        assertThrows(IllegalArgumentException.class, () -> new MctsAIPlayer("AI", 'O', new WinChecker(), -1));
+    }
+
+    @Test
+    @DisplayName("Az MctsAIPlayer blokkolja az ellenfél négyesét")
+    void testBlocksFour() {
+        // AMIKOR
+        board.placeSymbol(4, 2, 'X');
+        board.placeSymbol(4, 3, 'X');
+        board.placeSymbol(4, 4, 'X');
+        board.placeSymbol(4, 5, 'X');
+        board.placeSymbol(4, 1, 'O');
+        board.placeSymbol(9, 9, 'O');
+        board.placeSymbol(0, 0, 'O');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(8, board.getMoveCount());
+        assertEquals('O', board.getSymbolAt(4, 6), "A négyes nyitott végére kell lépnie");
+        assertNotNull(aiPlayer.getLastResult());
+        assertTrue(aiPlayer.getLastResult().playouts() > 0);
+    }
+
+    @Test
+    @DisplayName("Végtelen táblán az egylépéses stratégiával lép")
+    void testFallbackOnSparseBoard() {
+        // AMIKOR
+        SparseBoard sparse = new SparseBoard();
+        sparse.placeSymbol(0, 0, 'X');
+
+        // AMIT
+        aiPlayer.makeMove(sparse);
+
+        // AKKOR
+        assertEquals(2, sparse.getMoveCount());
+        assertNull(aiPlayer.getLastResult());
+    }
+
+    @Test
+    @DisplayName("Több szálon is lép, a beállított lejátszási keret megmarad")
+    void testMultipleThreads() {
+        // AMIKOR
+        aiPlayer.getEngine().setPlayoutLimit(2000);
+        aiPlayer.setThreadCount(4);
+        board.placeSymbol(4, 4, 'X');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(4, aiPlayer.getThreadCount());
+        assertEquals(2000, aiPlayer.getEngine().getPlayoutLimit());
+        assertEquals(2, board.getMoveCount());
+        assertTrue(aiPlayer.getLastResult().playouts() <= 2000);
+        assertThrows(IllegalArgumentException.class, () -> aiPlayer.setThreadCount(0));
+        assertEquals(4, aiPlayer.getThreadCount());
+    }
+
+    @Test
+    @DisplayName("A háttérben épített fát az ellenfél lépése után megtartja")
+    void testPonderingKeepsSubtree() {
+        // AMIKOR
+        board.placeSymbol(7, 7, 'X');
+        board.placeSymbol(7, 8, 'O');
+        aiPlayer.ponder(board.copy(), System.nanoTime() + 200_000_000L, () -> false);
+        board.placeSymbol(8, 7, 'X');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(4, board.getMoveCount());
+        assertTrue(aiPlayer.getLastResult().reusedVisits() > 0, "Az ellenfél lépése alatti részfa megmarad");
+    }
+
+    @Test
+    @DisplayName("Teljesült leállítási feltételnél a háttérben gondolkodás azonnal visszatér")
+    void testPonderStopCondition() {
+        // AMIKOR
+        board.placeSymbol(7, 7, 'X');
+        AtomicInteger checks = new AtomicInteger();
+
+        // AMIT
+        long start = System.nanoTime();
+        aiPlayer.ponder(board.copy(), System.nanoTime() + 60_000_000_000L, () -> checks.incrementAndGet() > 3);
+        long elapsed = System.nanoTime() - start;
+
+        // AKKOR
+        assertTrue(elapsed < 10_000_000_000L, "A feltétel teljesülése után nem fut a határidőig");
+        assertTrue(checks.get() > 3, "A feltételt a keresés közben is ellenőrzi");
+    }
+}
@@ -0,0 +1,169 @@
+package nye.flocrm.progtech.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import nye.flocrm.progtech.service.WinChecker;
+
+public class SearchAIPlayerTest {
+    private SearchAIPlayer aiPlayer;
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        aiPlayer = new SearchAIPlayer("Kereső", 'O', new WinChecker(), 200);
+        board = new Board();
+    }
+
+    @Test
+    @DisplayName("A SearchAIPlayer létrehozása helyes adatokkal")
+    void testSearchAIPlayerCreation() {
+        // AMIKOR & AKKOR
+        assertEquals("Kereső", aiPlayer.getName());
+        assertEquals('O', aiPlayer.getSymbol());
+        assertFalse(aiPlayer.isHuman());
+        assertEquals(200, aiPlayer.getMoveTimeMillis());
+        assertNull(aiPlayer.getLastResult());
+        assertThrows(IllegalArgumentException.class, () -> new SearchAIPlayer("AI", 'O', new WinChecker(), -1));
+    }
+
+    @Test
+    @DisplayName("A SearchAIPlayer blokkolja az ellenfél nyitott hármasát")
+    void testBlocksOpenThree() {
+        // AMIKOR
+        board.placeSymbol(4, 3, 'X');
+        board.placeSymbol(4, 4, 'X');
+        board.placeSymbol(4, 5, 'X');
+        board.placeSymbol(0, 0, 'O');
+        board.placeSymbol(9, 9, 'O');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(6, board.getMoveCount());
+        assertTrue(board.getSymbolAt(4, 2) == 'O' || board.getSymbolAt(4, 6) == 'O',
+                "A hármas egyik végére kell lépnie");
+        assertNotNull(aiPlayer.getLastResult());
+        assertTrue(aiPlayer.getLastResult().depth() >= 1);
+    }
+
+    @Test
+    @DisplayName("Végtelen táblán az egylépéses stratégiával lép")
+    void testFallbackOnSparseBoard() {
+        // AMIKOR
+        SparseBoard sparse = new SparseBoard();
+        sparse.placeSymbol(0, 0, 'X');
+
+        // AMIT
+        aiPlayer.makeMove(sparse);
+
+        // AKKOR
+        assertEquals(2, sparse.getMoveCount());
+        assertNull(aiPlayer.getLastResult());
+    }
+
+    @Test
+    @DisplayName("Több szálon is blokkolja a nyitott hármast, a beállított mélység megmarad")
+    void testMultipleThreads() {
+        // AMIKOR
+        aiPlayer.getEngine().setMaxDepth(6);
+        aiPlayer.setThreadCount(4);
+        board.placeSymbol(4, 3, 'X');
+        board.placeSymbol(4, 4, 'X');
+        board.placeSymbol(4, 5, 'X');
+        board.placeSymbol(0, 0, 'O');
+        board.placeSymbol(9, 9, 'O');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(4, aiPlayer.getThreadCount());
+        assertEquals(6, aiPlayer.getEngine().getMaxDepth());
+        assertTrue(board.getSymbolAt(4, 2) == 'O' || board.getSymbolAt(4, 6) == 'O',
+                "A hármas egyik végére kell lépnie");
+        assertThrows(IllegalArgumentException.class, () -> aiPlayer.setThreadCount(0));
+        assertEquals(4, aiPlayer.getThreadCount());
+    }
+
+    @Test
+    @DisplayName("Háttérkeresési találatnál a kész választ lépi meg")
+    void testPonderHit() {
+        // AMIKOR
+        board.placeSymbol(7, 7, 'X');
+        board.placeSymbol(7, 8, 'O');
+        aiPlayer.ponder(board.copy(), System.nanoTime() + 600_000_000L, () -> false);
+        int reply = aiPlayer.getPredictedReply();
+        assertTrue(reply >= 0, "Becsült ellenfél válasz kell");
+        board.placeSymbol(reply / board.getSize(), reply % board.getSize(), 'X');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(1, aiPlayer.getPonderHitCount());
+        assertEquals(4, board.getMoveCount());
+    }
+
+    @Test
+    @DisplayName("Eltérő ellenfél lépésnél rendes keresést végez")
+    void testPonderMiss() {
+        // AMIKOR
+        board.placeSymbol(7, 7, 'X');
+        board.placeSymbol(7, 8, 'O');
+        aiPlayer.ponder(board.copy(), System.nanoTime() + 600_000_000L, () -> false);
+        int reply = aiPlayer.getPredictedReply();
+        int other = reply == 0 ? 1 : 0;
+        board.placeSymbol(other / board.getSize(), other % board.getSize(), 'X');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(0, aiPlayer.getPonderHitCount());
+        assertEquals(4, board.getMoveCount());
+        assertNotNull(aiPlayer.getLastResult());
+    }
+
+    @Test
+    @DisplayName("Több szálnál a rövid egyszálú háttérkeresés nem számít találatnak")
+    void testPonderHitScalesWithThreads() {
+        // AMIKOR
+        aiPlayer.setThreadCount(4);
+        board.placeSymbol(7, 7, 'X');
+        board.placeSymbol(7, 8, 'O');
+        aiPlayer.ponder(board.copy(), System.nanoTime() + 600_000_000L, () -> false);
+        int reply = aiPlayer.getPredictedReply();
+        assertTrue(reply >= 0, "Becsült ellenfél válasz kell");
+        board.placeSymbol(reply / board.getSize(), reply % board.getSize(), 'X');
+
+        // AMIT
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertEquals(0, aiPlayer.getPonderHitCount(), "A négy szál keretét nem érte el");
+        assertEquals(4, board.getMoveCount());
+    }
+
+    @Test
+    @DisplayName("Teljesült leállítási feltételnél nem marad kész válasz")
+    void testPonderStopCondition() {
+        // AMIKOR
+        board.placeSymbol(7, 7, 'X');
+        board.placeSymbol(7, 8, 'O');
+
+        // AMIT
+        long start = System.nanoTime();
+        aiPlayer.ponder(board.copy(), System.nanoTime() + 60_000_000_000L, () -> true);
+        long elapsed = System.nanoTime() - start;
+        aiPlayer.makeMove(board);
+
+        // AKKOR
+        assertTrue(elapsed < 10_000_000_000L, "A feltétel teljesülése után nem fut a határidőig");
+        assertEquals(0, aiPlayer.getPonderHitCount());
+        assertEquals(3, board.getMoveCount());
+    }
+}
@@ -0,0 +1,139 @@
+package nye.flocrm.progtech.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SparseBoard (végtelen tábla) tesztjei
+ */
+public class SparseBoardTest {
+
+    private SparseBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new SparseBoard();
+    }
+
+    @Test
+    @DisplayName("Az új végtelen tábla üres és nem foglal csempét")
+    void testNewBoardIsEmpty() {
+        // AKKOR
+        assertEquals(0, board.getStoneCount());
+        assertEquals(0, board.getTileCount());
+        assertEquals('.', board.getSymbolAt(1_000_000, -1_000_000));
+        assertFalse(board.isFull(), "A végtelen tábla soha nem telik meg");
+    }
+
+    @Test
+    @DisplayName("A placeSymbol() negatív és nagyon távoli koordinátákon is működik")
+    void testPlaceSymbolAnywhere() {
+        // AMIKOR
+        assertTrue(board.placeSymbol(-5, -17, 'X'));
+        assertTrue(board.placeSymbol(2_000_000, 3, 'O'));
+
+        // AKKOR
+        assertEquals('X', board.getSymbolAt(-5, -17));
+        assertEquals('O', board.getSymbolAt(2_000_000, 3));
+        assertFalse(board.isEmptyCell(-5, -17));
+        assertTrue(board.isEmptyCell(-5, -16));
+        assertEquals(2, board.getStoneCount());
+    }
+
+    @Test
+    @DisplayName("A placeSymbol() elutasítja a foglalt cellát és az érvénytelen szimbólumot")
+    void testPlaceSymbolRejectsInvalid() {
+        // AMIKOR
+        board.placeSymbol(0, 0, 'X');
+
+        // AKKOR
+        assertFalse(board.placeSymbol(0, 0, 'O'), "Foglalt cellára nem lehet lépni");
+        assertFalse(board.placeSymbol(1, 1, 'A'), "Érvénytelen szimbólum nem helyezhető el");
+        assertEquals(1, board.getStoneCount());
+    }
+
+    @Test
+    @DisplayName("A memóriahasználat a kövek számával nő, nem a terület nagyságával")
+    void testTilesAllocatedLazily() {
+        // AMIKOR - két kő egy csempében, egy nagyon messze
+        board.placeSymbol(0, 0, 'X');
+        board.placeSymbol(15, 15, 'O');
+        board.placeSymbol(-1_000_000, 1_000_000, 'X');
+
+        // AKKOR
+        assertEquals(2, board.getTileCount(), "Csak a követ tartalmazó csempék jönnek létre");
+    }
+
+    @Test
+    @DisplayName("A countInDirection() csempehatáron átnyúló sorozatot is megszámol")
+    void testCountInDirectionAcrossTiles() {
+        // AMIKOR - 6 X a 13..18 oszlopokban (a 15/16 határon át)
+        for (int col = 13; col <= 18; col++) {
+            board.placeSymbol(-1, col, 'X');
+        }
+
+        // AKKOR
+        assertEquals(5, board.countInDirection(-1, 13, 'X', 0, 1));
+        assertEquals(5, board.countInDirection(-1, 18, 'X', 0, -1));
+        assertEquals(0, board.countInDirection(-1, 18, 'O', 0, -1));
+    }
+
+    @Test
+    @DisplayName("Az aktív terület a kövek körüli egy cellás sáv")
+    void testActiveArea() {
+        // AMIKOR
+        board.placeSymbol(-3, 4, 'X');
+        board.placeSymbol(7, -2, 'O');
+
+        // AKKOR
+        assertEquals(-4, board.getMinRow());
+        assertEquals(8, board.getMaxRow());
+        assertEquals(-3, board.getMinCol());
+        assertEquals(5, board.getMaxCol());
+    }
+
+    @Test
+    @DisplayName("A copy() független másolatot készít, a clear() mindent töröl")
+    void testCopyAndClear() {
+        // AMIKOR
+        board.placeSymbol(20, 20, 'X');
+        SparseBoard copy = board.copy();
+        board.clear();
+
+        // AKKOR
+        assertEquals('X', copy.getSymbolAt(20, 20));
+        assertEquals('.', board.getSymbolAt(20, 20));
+        assertEquals(0, board.getStoneCount());
+        assertEquals(0, board.getTileCount());
+    }
+
+    @Test
+    @DisplayName("Az undo() leveszi a követ és visszaállítja az aktív területet")
+    void testUndoRestoresBounds() {
+        // AMIKOR
+        board.placeSymbol(0, 0, 'X');
+        board.placeSymbol(-50, 70, 'O');
+        assertEquals(-50, board.getMoveRow(1));
+        assertEquals(70, board.getMoveCol(1));
+
+        // AMIT
+        boolean undone = board.undo();
+
+        // AKKOR
+        assertTrue(undone);
+        assertThrows(IndexOutOfBoundsException.class, () -> board.getMoveRow(1));
+        assertEquals('.', board.getSymbolAt(-50, 70));
+        assertEquals(1, board.getMoveCount());
+        assertEquals(-1, board.getMinRow());
+        assertEquals(1, board.getMaxRow());
+        assertEquals(-1, board.getMinCol());
+        assertEquals(1, board.getMaxCol());
+
+        assertTrue(board.undo());
+        assertFalse(board.undo());
+        assertEquals(0, board.getStoneCount());
+        assertEquals(0, board.getMaxRow());
+    }
+}
@@ -0,0 +1,59 @@
+package nye.flocrm.progtech.model;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Symmetry (a tábla 8 szimmetriája) tesztjei
+ */
+public class SymmetryTest {
+
+    @Test
+    @DisplayName("A forgatások és tükrözések a várt cellára képeznek le")
+    void testMapping() {
+        // AMIKOR - 5x5-ös tábla, a (0, 1) cella
+        int size = 5;
+
+        // AKKOR
+        assertEquals(0, Symmetry.IDENTITY.mapRow(0, 1, size));
+        assertEquals(1, Symmetry.IDENTITY.mapCol(0, 1, size));
+        assertEquals(1, Symmetry.ROTATE_90.mapRow(0, 1, size));
+        assertEquals(4, Symmetry.ROTATE_90.mapCol(0, 1, size));
+        assertEquals(4, Symmetry.ROTATE_180.mapRow(0, 1, size));
+        assertEquals(3, Symmetry.ROTATE_180.mapCol(0, 1, size));
+        assertEquals(3, Symmetry.ROTATE_270.mapRow(0, 1, size));
+        assertEquals(0, Symmetry.ROTATE_270.mapCol(0, 1, size));
+        assertEquals(3, Symmetry.MIRROR_HORIZONTAL.mapCol(0, 1, size));
+        assertEquals(4, Symmetry.MIRROR_VERTICAL.mapRow(0, 1, size));
+        assertEquals(1, Symmetry.TRANSPOSE.mapRow(0, 1, size));
+        assertEquals(3, Symmetry.ANTI_TRANSPOSE.mapRow(0, 1, size));
+        assertEquals(4, Symmetry.ANTI_TRANSPOSE.mapCol(0, 1, size));
+    }
+
+    @Test
+    @DisplayName("Minden szimmetria bijekció, és az inverze visszaadja az eredeti cellát")
+    void testInverseRoundTrip() {
+        int size = 6;
+        for (Symmetry symmetry : Symmetry.values()) {
+            Set<Integer> images = new HashSet<>();
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    // AMIT
+                    int mappedRow = symmetry.mapRow(row, col, size);
+                    int mappedCol = symmetry.mapCol(row, col, size);
+                    Symmetry inverse = symmetry.inverse();
+
+                    // AKKOR
+                    images.add(mappedRow * size + mappedCol);
+                    assertEquals(row, inverse.mapRow(mappedRow, mappedCol, size), symmetry + " sor");
+                    assertEquals(col, inverse.mapCol(mappedRow, mappedCol, size), symmetry + " oszlop");
+                }
+            }
+            assertEquals(size * size, images.size(), symmetry + " nem bijekció");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package nye.flocrm.progtech.service;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoardCodec (tömör bináris tábla kód) tesztjei
+ */
+public class BoardCodecTest {
+
+    private static Board randomBoard(int size, int stones, long seed) {
+        Board board = new Board(size);
+        Random random = new Random(seed);
+        while (board.getMoveCount() < stones) {
+            board.placeSymbol(random.nextInt(size), random.nextInt(size), board.getMoveCount() % 2 == 0 ? 'X' : 'O');
+        }
+        return board;
+    }
+
+    @Test
+    @DisplayName("Egy 10x10-es tábla 1 bájt fejléc + 25 bájt")
+    void testEncodedLength() {
+        // AMIKOR
+        byte[] data = BoardCodec.encode(new Board());
+
+        // AKKOR
+        assertEquals(26, data.length);
+        assertEquals(26, BoardCodec.encodedLength(10));
+        assertEquals(1 + 91, BoardCodec.encodedLength(19));
+    }
+
+    @Test
+    @DisplayName("A kódolás és dekódolás visszaadja ugyanazt az állást, a hash-sel együtt")
+    void testRoundTrip() {
+        for (int size : new int[]{1, 3, 10, 15, 19, 100}) {
+            // AMIKOR
+            Board board = randomBoard(size, size * size / 3, size);
+
+            // AMIT
+            Board decoded = BoardCodec.decode(BoardCodec.encode(board));
+
+            // AKKOR
+            assertTrue(board.samePosition(decoded), "Eltérő állás " + size + "x" + size + " méretnél");
+            assertEquals(board.getHash(), decoded.getHash());
+            assertEquals(board.getEmptyCellCount(), decoded.getEmptyCellCount());
+        }
+    }
+
+    @Test
+    @DisplayName("A cellák sorfolytonosan, bájtonként 4 cellával, a legalsó bitektől kerülnek a kódba")
+    void testBitLayout() {
+        // AMIKOR
+        Board board = new Board(3);
+        board.placeSymbol(0, 0, 'X');
+        board.placeSymbol(0, 1, 'O');
+        board.placeSymbol(2, 2, 'X');
+
+        // AMIT
+        byte[] data = BoardCodec.encode(board);
+
+        // AKKOR - 0. cella 01, 1. cella 10, 8. cella 01
+        assertArrayEquals(new byte[]{3, 0b1001, 0, 0b01}, data);
+    }
+
+    @Test
+    @DisplayName("A ByteBuffer forma egymás után több táblát is kódol")
+    void testByteBufferStream() {
+        // AMIKOR
+        Board first = randomBoard(10, 30, 1);
+        Board second = randomBoard(15, 50, 2);
+        ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.encodedLength(10) + BoardCodec.encodedLength(15));
+
+        // AMIT
+        BoardCodec.encode(first, buffer);
+        BoardCodec.encode(second.snapshot(), buffer);
+        buffer.flip();
+
+        // AKKOR
+        assertTrue(first.samePosition(BoardCodec.decode(buffer)));
+        assertTrue(second.samePosition(BoardCodec.decode(buffer)));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("A Base64 forma oda-vissza alakítható")
+    void testBase64RoundTrip() {
+        // AMIKOR
+        Board board = randomBoard(10, 40, 3);
+
+        // AMIT
+        String text = BoardCodec.encodeBase64(board);
+
+        // AKKOR
+        assertTrue(board.samePosition(BoardCodec.decodeBase64(text)));
+    }
+
+    @Test
+    @DisplayName("Csonka, hibás cellakódú vagy túl nagy tábla esetén IllegalArgumentException")
+    void testInvalidInput() {
+        // AMIKOR & AKKOR
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{10, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(ByteBuffer.wrap(new byte[]{10, 0, 0})));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{1, 0b11}));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{1, 0b0100}),
+                "A kitöltő bitek nem tartalmazhatnak követ");
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.encode(new Board(256)));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decodeBase64("nem base64!"));
+    }
+}
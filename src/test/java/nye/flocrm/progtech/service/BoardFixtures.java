@@ -0,0 +1,25 @@
+package nye.flocrm.progtech.service;
+
+import nye.flocrm.progtech.model.Board;
+
+/**
+ * A tesztállások felépítésének közös segédfüggvényei.
+ */
+final class BoardFixtures {
+
+    private BoardFixtures() {
+    }
+
+    /**
+     * Egy játékos köveit rakja le a táblára, a megadás sorrendjében.
+     *
+     * @param board a tábla
+     * @param player a kövek szimbóluma ('X' vagy 'O')
+     * @param cells a kövek helye sor, oszlop párokban
+     */
+    static void place(Board board, char player, int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            board.placeSymbol(cells[i], cells[i + 1], player);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.SparseBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * CandidateGenerator (jelölt lépés generátor) tesztjei
+ */
+public class CandidateGeneratorTest {
+
+    private Board board;
+    private CandidateGenerator candidates;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        candidates = new CandidateGenerator(board, new WinChecker(), 2);
+    }
+
+    /**
+     * Teljes bejárással ellenőrzi, hogy a jelöltek pontosan a kövek környezetének üres cellái.
+     */
+    private void assertMatchesNeighbourhood(int radius) {
+        int expected = 0;
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                boolean near = false;
+                for (int r = row - radius; r <= row + radius && !near; r++) {
+                    for (int c = col - radius; c <= col + radius && !near; c++) {
+                        near = board.isValidPosition(r, c) && !board.isEmptyCell(r, c);
+                    }
+                }
+                boolean candidate = near && board.isEmptyCell(row, col);
+                assertEquals(candidate, candidates.contains(row, col), "Cella: " + row + ", " + col);
+                if (candidate) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, candidates.size());
+    }
+
+    @Test
+    @DisplayName("Üres táblán nincs jelölt, egy kő körül a környezet üres cellái a jelöltek")
+    void testSingleStone() {
+        // AKKOR
+        assertEquals(0, candidates.size());
+
+        // AMIKOR
+        place(board, 'X', 7, 7);
+
+        // AKKOR - 2 sugarú környezet: 5 * 5 - 1 cella
+        assertEquals(24, candidates.size());
+        assertTrue(candidates.contains(5, 5));
+        assertFalse(candidates.contains(7, 7), "Foglalt cella nem jelölt");
+        assertFalse(candidates.contains(4, 7));
+
+        CandidateGenerator narrow = new CandidateGenerator(board, new WinChecker(), 1);
+        assertEquals(8, narrow.size(), "1 sugarú környezet: 3 * 3 - 1 cella");
+    }
+
+    @Test
+    @DisplayName("Sarokban a tábla szélén kívüli cellák nem jelöltek")
+    void testCorner() {
+        // AMIKOR
+        place(board, 'X', 0, 0);
+
+        // AKKOR
+        assertEquals(8, candidates.size());
+        assertMatchesNeighbourhood(2);
+    }
+
+    @Test
+    @DisplayName("Véletlen lépések és visszavonások után a halmaz megegyezik a teljes bejárás eredményével")
+    void testRandomPlaceAndUndo() {
+        // AMIKOR
+        Random random = new Random(7);
+        for (int step = 0; step < 400; step++) {
+            if (board.getMoveCount() > 0 && random.nextInt(3) == 0) {
+                board.undo();
+            } else {
+                int row = random.nextInt(board.getSize());
+                int col = random.nextInt(board.getSize());
+                board.placeSymbol(row, col, step % 2 == 0 ? 'X' : 'O');
+            }
+
+            // AKKOR
+            if (step % 20 == 0) {
+                assertMatchesNeighbourhood(2);
+            }
+        }
+        assertMatchesNeighbourhood(2);
+
+        // AMIKOR - törlés
+        board.clear();
+
+        // AKKOR
+        assertEquals(0, candidates.size());
+    }
+
+    @Test
+    @DisplayName("Leválasztás után a tábla lépései nem frissítik a halmazt, kézi frissítéssel igen")
+    void testDetach() {
+        // AMIKOR
+        place(board, 'X', 7, 7);
+        candidates.detach();
+        place(board, 'O', 0, 0);
+
+        // AKKOR
+        assertEquals(24, candidates.size());
+        assertFalse(candidates.contains(0, 1));
+
+        // AMIKOR
+        candidates.stonePlaced(0, 0, 'O');
+
+        // AKKOR
+        assertMatchesNeighbourhood(2);
+    }
+
+    @Test
+    @DisplayName("A generate a nyerő és a blokkoló lépést a sor elejére teszi, a saját nyerés előbb jön")
+    void testOrderingByThreat() {
+        // AMIKOR - X-nek négyese van (7,3), O-nak nyílt hármasa
+        place(board, 'X', 7, 4, 7, 5, 7, 6, 7, 7);
+        place(board, 'O', 3, 4, 3, 5, 3, 6);
+        place(board, 'X', 12, 12);
+        place(board, 'O', 12, 0);
+
+        // AMIT
+        int count = candidates.generate('O');
+
+        // AKKOR - O szemszögéből a blokkolandó X ötös az első, utána a saját nyílt négyes
+        assertEquals(candidates.size(), count);
+        assertTrue(candidates.rowAt(0) == 7 && (candidates.colAt(0) == 3 || candidates.colAt(0) == 8));
+        assertTrue(candidates.rowAt(1) == 7 && (candidates.colAt(1) == 3 || candidates.colAt(1) == 8));
+        assertEquals(3, candidates.rowAt(2));
+        assertTrue(candidates.colAt(2) == 3 || candidates.colAt(2) == 7);
+        for (int i = 1; i < count; i++) {
+            assertTrue(candidates.priorityAt(i - 1) >= candidates.priorityAt(i), "Csökkenő prioritás");
+        }
+
+        // AMIT - X szemszögéből
+        candidates.generate('X');
+
+        // AKKOR - a saját nyerés megelőzi az ellenfél blokkolását
+        assertEquals(7, candidates.rowAt(0));
+        assertTrue(candidates.priorityAt(0) > candidates.priorityAt(2));
+    }
+
+    @Test
+    @DisplayName("Fenyegetés felismerővel ugyanazt a sorrendet adja, mint a becsléssel")
+    void testOrderingWithThreatDetector() {
+        // AMIKOR
+        place(board, 'X', 7, 4, 7, 5, 7, 6, 7, 7);
+        place(board, 'O', 3, 4, 3, 5, 3, 6);
+        ThreatDetector threats = new ThreatDetector(board, new WinChecker());
+        candidates.setThreatDetector(threats);
+
+        // AMIT
+        candidates.generate('O');
+
+        // AKKOR
+        assertEquals(7, candidates.rowAt(0));
+        assertEquals(7, candidates.rowAt(1));
+        assertEquals(3, candidates.rowAt(2));
+        threats.detach();
+    }
+
+    @Test
+    @DisplayName("Végtelen táblán negatív koordinátákkal, kézi frissítéssel is működik")
+    void testSparseBoard() {
+        // AMIKOR
+        SparseBoard sparse = new SparseBoard();
+        sparse.placeSymbol(-1000, -1000, 'X');
+        CandidateGenerator generator = new CandidateGenerator(sparse, new WinChecker(), 1);
+
+        // AKKOR
+        assertEquals(8, generator.size());
+        assertTrue(generator.contains(-1001, -999));
+
+        // AMIKOR - sok kő, a belső hash tábla is nő
+        for (int i = 0; i < 300; i++) {
+            sparse.placeSymbol(i * 3, -i * 3, 'O');
+            generator.stonePlaced(i * 3, -i * 3, 'O');
+        }
+
+        // AKKOR
+        assertEquals(8 + 300 * 8, generator.size());
+
+        // AMIKOR - visszavonás
+        sparse.undo();
+        generator.stoneRemoved(897, -897, 'O');
+
+        // AKKOR
+        assertEquals(8 + 299 * 8, generator.size());
+        assertFalse(generator.contains(898, -898));
+
+        // AMIKOR - újraépítés az aktuális állásból
+        generator.rebuild();
+
+        // AKKOR
+        assertEquals(8 + 299 * 8, generator.size());
+    }
+
+    @Test
+    @DisplayName("Végtelen táblán a sync() a lépéstörténetből utoléri a táblát")
+    void testSparseSync() {
+        // AMIKOR
+        SparseBoard sparse = new SparseBoard();
+        sparse.placeSymbol(0, 0, 'X');
+        sparse.placeSymbol(30_000, -30_000, 'O');
+        CandidateGenerator generator = new CandidateGenerator(sparse, new WinChecker(), 1);
+        assertEquals(16, generator.size());
+
+        // AMIT - visszavonás, új lépés, majd utolérés
+        sparse.undo();
+        sparse.placeSymbol(0, 1, 'O');
+        sparse.placeSymbol(5, 5, 'X');
+        generator.sync();
+
+        // AKKOR
+        assertEquals(new CandidateGenerator(sparse, new WinChecker(), 1).size(), generator.size());
+        assertFalse(generator.contains(30_001, -30_000), "A visszavont kő környezete kikerült");
+        assertFalse(generator.contains(0, 1), "Az új kő helye foglalt");
+        assertTrue(generator.contains(0, 2));
+        assertTrue(generator.contains(4, 4));
+
+        // AMIKOR & AKKOR - változás nélkül nincs teendő
+        int size = generator.size();
+        generator.sync();
+        assertEquals(size, generator.size());
+    }
+
+    @Test
+    @DisplayName("Érvénytelen sugár esetén kivételt dob")
+    void testInvalidRadius() {
+        // AKKOR
+        assertThrows(IllegalArgumentException.class, () -> new CandidateGenerator(board, new WinChecker(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new CandidateGenerator(board, new WinChecker(), 3));
+    }
+}
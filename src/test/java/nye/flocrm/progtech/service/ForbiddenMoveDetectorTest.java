@@ -0,0 +1,147 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * ForbiddenMoveDetector (Renju tiltott lépések) tesztjei
+ */
+public class ForbiddenMoveDetectorTest {
+
+    private Board board;
+    private ForbiddenMoveDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        detector = new ForbiddenMoveDetector(board);
+    }
+
+    @Test
+    @DisplayName("Üres táblán és egyetlen nyitott hármasnál nincs tiltott lépés")
+    void testSingleThreeAllowed() {
+        // AKKOR
+        assertFalse(detector.isForbidden(7, 7));
+
+        // AMIKOR
+        place(board, 'X', 7, 5, 7, 6);
+
+        // AKKOR
+        assertFalse(detector.isForbidden(7, 7));
+    }
+
+    @Test
+    @DisplayName("Két nyitott hármas egyszerre tiltott")
+    void testDoubleThreeForbidden() {
+        // AMIKOR
+        place(board, 'X', 7, 5, 7, 6, 5, 7, 6, 7);
+
+        // AKKOR
+        assertTrue(detector.isForbidden(7, 7));
+    }
+
+    @Test
+    @DisplayName("Az egyik végén blokkolt hármas nem nyitott, így nincs dupla hármas")
+    void testBlockedThreeNotCounted() {
+        // AMIKOR
+        place(board, 'X', 7, 5, 7, 6, 5, 7, 6, 7);
+        place(board, 'O', 7, 8);
+
+        // AKKOR
+        assertFalse(detector.isForbidden(7, 7));
+    }
+
+    @Test
+    @DisplayName("Két négyes tiltott, egy vonalon belül is; a négy-hármas megengedett")
+    void testDoubleFour() {
+        // AMIKOR - két irányú négyes
+        place(board, 'X', 7, 4, 7, 5, 7, 6, 4, 7, 5, 7, 6, 7);
+
+        // AKKOR
+        assertTrue(detector.isForbidden(7, 7));
+
+        // AMIKOR - X . X X X . X egy sorban, a középső kő hiányzik
+        board.clear();
+        place(board, 'X', 2, 3, 2, 5, 2, 7, 2, 9);
+
+        // AKKOR
+        assertTrue(detector.isForbidden(2, 6));
+
+        // AMIKOR - négyes és hármas
+        board.clear();
+        place(board, 'X', 7, 4, 7, 5, 7, 6, 5, 7, 6, 7);
+
+        // AKKOR
+        assertFalse(detector.isForbidden(7, 7));
+    }
+
+    @Test
+    @DisplayName("A túlhosszú sor tiltott, az ötös akkor is megengedett, ha mellette dupla négyes is keletkezne")
+    void testOverlineAndFive() {
+        // AMIKOR - hatos sor jönne létre
+        place(board, 'X', 7, 1, 7, 2, 7, 3, 7, 4, 7, 6);
+
+        // AKKOR
+        assertTrue(detector.isForbidden(7, 5));
+
+        // AMIKOR - vízszintes ötös és függőleges négyes
+        board.clear();
+        place(board, 'X', 7, 3, 7, 4, 7, 5, 7, 6, 4, 7, 5, 7, 6, 7, 9, 9);
+
+        // AKKOR
+        assertFalse(detector.isForbidden(7, 7));
+        assertFalse(detector.isForbidden(9, 9), "Foglalt cella nem tiltott lépés");
+    }
+
+    @Test
+    @DisplayName("A táblán kívüli szomszéd blokkolónak számít")
+    void testEdgeBlocks() {
+        // AMIKOR - ugyanaz az alakzat a tábla sarkában és a közepén
+        place(board, 'X', 0, 0, 0, 1, 1, 2, 2, 2);
+        place(board, 'X', 5, 5, 5, 6, 6, 7, 7, 7);
+
+        // AKKOR - a sarokban mindkét hármas a tábla széléhez ér, egyik sem nyitott
+        assertFalse(detector.isForbidden(0, 2));
+        assertTrue(detector.isForbidden(5, 7));
+    }
+
+    @Test
+    @DisplayName("A lépésenként frissített kulcsok megegyeznek az újraépített kulcsokkal lépések és visszavonások után")
+    void testIncrementalMatchesRebuild() {
+        // AMIKOR
+        Random random = new Random(14);
+        for (int step = 0; step < 400; step++) {
+            if (board.getMoveCount() > 0 && random.nextInt(4) == 0) {
+                board.undo();
+            } else if (!board.isFull()) {
+                int cell = board.randomEmptyCell(random);
+                board.placeSymbol(cell / 15, cell % 15, random.nextBoolean() ? 'X' : 'O');
+            }
+        }
+        ForbiddenMoveDetector fresh = new ForbiddenMoveDetector(board.copy());
+
+        // AKKOR
+        for (int row = 0; row < 15; row++) {
+            for (int col = 0; col < 15; col++) {
+                assertEquals(fresh.isForbidden(row, col), detector.isForbidden(row, col), "Eltérés: " + row + "," + col);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A leválasztott felismerő nem követi a táblát")
+    void testDetach() {
+        // AMIKOR
+        detector.detach();
+        place(board, 'X', 7, 5, 7, 6, 5, 7, 6, 7);
+
+        // AKKOR
+        assertFalse(detector.isForbidden(7, 7));
+    }
+}
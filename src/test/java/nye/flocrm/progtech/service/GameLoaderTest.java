@@ -9,6 +9,7 @@ import nye.flocrm.progtech.model.Board;
 import nye.flocrm.progtech.model.GameMode;
 import nye.flocrm.progtech.model.HumanPlayer;
 import nye.flocrm.progtech.model.Player;
+import nye.flocrm.progtech.model.RuleSet;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -473,4 +474,155 @@ public class GameLoaderTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("A mentés és betöltés megőrzi a táblaméretet és a nyerő hosszt")
+    void testSaveAndLoadCustomBoardSize() throws IOException {
+        // AMIKOR - 15x15-ös tábla, 4-es nyerő hossz
+        Board bigBoard = new Board(15);
+        bigBoard.placeSymbol(14, 14, 'X');
+        bigBoard.placeSymbol(12, 13, 'O');
+        gameLoader.saveGame(bigBoard, player1, player2, currentPlayer, GameMode.HUMAN_VS_HUMAN, 4);
+
+        // AMIT
+        GameLoader.GameState loadedState = gameLoader.loadGame();
+
+        // AKKOR
+        assertEquals(15, loadedState.board().getSize(), "A tábla méretének 15-nek kell lennie");
+        assertEquals(4, loadedState.winningLength(), "A nyerő hossznak 4-nek kell lennie");
+        assertEquals('X', loadedState.board().getSymbolAt(14, 14), "14,14 pozíción X-nek kell lennie");
+        assertEquals('O', loadedState.board().getSymbolAt(12, 13), "12,13 pozíción O-nak kell lennie");
+
+        // Takarítás
+        deleteFileSilently(new File("game_save.txt"));
+    }
+
+    @Test
+    @DisplayName("A loadGame() metódus alapértelmezett nyerő hosszt ad, ha a fejléc hiányzik")
+    void testLoadGameDefaultWinningLength() throws IOException {
+        // AMIKOR - régi formátumú fájl (nincs "Nyerő hossz" sor)
+        createValidSaveFile(tempFile);
+
+        // AMIT
+        GameLoader.GameState loadedState = gameLoader.loadGame(tempFile.getAbsolutePath());
+
+        // AKKOR
+        assertEquals(WinChecker.DEFAULT_WINNING_LENGTH, loadedState.winningLength());
+    }
+
+    @Test
+    @DisplayName("A betöltött tábla hash-e megegyezik a mentett tábláéval")
+    void testSaveAndLoadKeepsHash() throws IOException {
+        // AMIKOR
+        gameLoader.saveGame(board, player1, player2, currentPlayer, GameMode.HUMAN_VS_HUMAN);
+
+        // AMIT
+        GameLoader.GameState loadedState = gameLoader.loadGame();
+
+        // AKKOR
+        assertEquals(board.getHash(), loadedState.board().getHash(), "A hash-nek egyeznie kell");
+        assertTrue(board.samePosition(loadedState.board()), "A betöltött táblának egyeznie kell a mentettel");
+
+        // Takarítás
+        deleteFileSilently(new File("game_save.txt"));
+    }
+
+    @Test
+    @DisplayName("A loadGame() kivételt dob, ha a tábla nem egyezik a mentett hash-sel")
+    void testLoadGameThrowsExceptionForHashMismatch() throws IOException {
+        // AMIKOR - érvényes fájl, de hibás hash fejléccel
+        createValidSaveFile(tempFile);
+        String content = Files.readString(tempFile.toPath());
+        Files.writeString(tempFile.toPath(), "Pozíció hash: 0000000000000001\n" + content);
+
+        // AKKOR
+        assertThrows(IOException.class, () -> gameLoader.loadGame(tempFile.getAbsolutePath()));
+    }
+
+    @Test
+    @DisplayName("A mentés tömör tábla kódot is ír, és a betöltés azt használja")
+    void testSaveWritesBoardCode() throws IOException {
+        // AMIKOR
+        gameLoader.saveGame(board, player1, player2, currentPlayer, GameMode.HUMAN_VS_HUMAN);
+        File saveFile = new File("game_save.txt");
+
+        // AMIT - a szöveges táblát eltávolítjuk, csak a fejléc marad
+        String content = Files.readString(saveFile.toPath());
+        String header = content.substring(0, content.indexOf("| Sor"));
+        Files.writeString(saveFile.toPath(), header);
+        GameLoader.GameState loadedState = gameLoader.loadGame();
+
+        // AKKOR
+        assertTrue(header.contains("Tábla kód: " + BoardCodec.encodeBase64(board)));
+        assertTrue(board.samePosition(loadedState.board()), "A tábla a kódból is visszaáll");
+
+        // Takarítás
+        deleteFileSilently(saveFile);
+    }
+
+    @Test
+    @DisplayName("A loadGame() kivételt dob érvénytelen vagy eltérő méretű tábla kód esetén")
+    void testLoadGameThrowsExceptionForInvalidBoardCode() throws IOException {
+        // AMIKOR
+        createValidSaveFile(tempFile);
+        String content = Files.readString(tempFile.toPath());
+
+        // AKKOR - hibás Base64
+        Files.writeString(tempFile.toPath(), "Tábla kód: ###\n" + content);
+        assertThrows(IOException.class, () -> gameLoader.loadGame(tempFile.getAbsolutePath()));
+
+        // AKKOR - 3x3-as kód 10x10-es fejléc mellett
+        Files.writeString(tempFile.toPath(), "Tábla kód: " + BoardCodec.encodeBase64(new Board(3)) + "\n" + content);
+        assertThrows(IOException.class, () -> gameLoader.loadGame(tempFile.getAbsolutePath()));
+    }
+
+    @Test
+    @DisplayName("A mentés a kanonikus hash-t is kiírja, hibás érték esetén a betöltés kivételt dob")
+    void testCanonicalHashHeader() throws IOException {
+        // AMIKOR
+        gameLoader.saveGame(board, player1, player2, currentPlayer, GameMode.HUMAN_VS_HUMAN);
+        File saveFile = new File("game_save.txt");
+        String content = Files.readString(saveFile.toPath());
+
+        // AKKOR
+        assertTrue(content.contains("Kanonikus hash: " + String.format("%016x", board.getCanonicalHash())));
+
+        // AMIT - hibás kanonikus hash a tömör kód nélküli, érvényes fájlban
+        createValidSaveFile(tempFile);
+        String valid = Files.readString(tempFile.toPath());
+        Files.writeString(tempFile.toPath(), "Kanonikus hash: 0000000000000001\n" + valid);
+
+        // AKKOR
+        assertThrows(IOException.class, () -> gameLoader.loadGame(tempFile.getAbsolutePath()));
+
+        // Takarítás
+        deleteFileSilently(saveFile);
+    }
+
+    @Test
+    @DisplayName("A szabályrendszer mentésre kerül, hiányában a betöltés szabad szabályokat ad")
+    void testRuleSetRoundTrip() throws IOException {
+        // AMIKOR
+        gameLoader.saveGame(board, player1, player2, currentPlayer, GameMode.HUMAN_VS_HUMAN, 5, RuleSet.RENJU);
+        File saveFile = new File("game_save.txt");
+
+        // AKKOR
+        assertEquals(RuleSet.RENJU, gameLoader.loadGame(saveFile.getAbsolutePath()).ruleSet());
+
+        // AMIT - régi formátumú fájl szabályrendszer nélkül
+        createValidSaveFile(tempFile);
+
+        // AKKOR
+        assertEquals(RuleSet.FREESTYLE, gameLoader.loadGame(tempFile.getAbsolutePath()).ruleSet());
+
+        // AMIT - Renju 4-es nyerő hosszal
+        String content = Files.readString(saveFile.toPath()).replace("Nyerő hossz: 5", "Nyerő hossz: 4");
+        Files.writeString(tempFile.toPath(), content);
+
+        // AKKOR
+        assertThrows(IOException.class, () -> gameLoader.loadGame(tempFile.getAbsolutePath()));
+
+        // Takarítás
+        deleteFileSilently(saveFile);
+    }
+}
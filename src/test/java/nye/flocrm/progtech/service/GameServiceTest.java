@@ -444,4 +444,252 @@ public class GameServiceTest {
         assertNotNull(player2);
         assertEquals(player1, gameService.getCurrentPlayer()); // Kezdő játékos player1
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("A GameService egyedi táblamérettel és nyerő hosszal is működik")
+    void testCustomBoardSizeAndWinningLength() {
+        // AMIKOR - 15x15-ös tábla, 4 egy vonalban
+        GameService customService = new GameService(GameMode.HUMAN_VS_HUMAN, 15, 4);
+
+        // AMIT - X négyet rak le az utolsó sorba, O máshova lép
+        customService.makeMove(14, 11);
+        customService.makeMove(0, 0);
+        customService.makeMove(14, 12);
+        customService.makeMove(0, 1);
+        customService.makeMove(14, 13);
+        customService.makeMove(0, 2);
+        customService.makeMove(14, 14);
+
+        // AKKOR
+        assertEquals(15, customService.getBoard().getSize());
+        assertEquals(4, customService.getWinningLength());
+        assertEquals(GameState.PLAYER_X_WON, customService.getGameState(), "4 egy vonalban nyer");
+    }
+
+    @Test
+    @DisplayName("A GameService kivételt dob, ha a nyerő hossz nem fér el a táblán")
+    void testWinningLengthLargerThanBoard() {
+        // AMIKOR & AKKOR
+        assertThrows(IllegalArgumentException.class, () -> new GameService(GameMode.HUMAN_VS_HUMAN, 5, 6));
+    }
+
+    @Test
+    @DisplayName("A GameService minden lépés után új pillanatképet tesz közzé")
+    void testSnapshotPublishedAfterMove() {
+        // AMIKOR
+        BoardSnapshot initial = gameService.getSnapshot();
+
+        // AMIT
+        gameService.makeMove(2, 3);
+
+        // AKKOR
+        BoardSnapshot published = gameService.getSnapshot();
+        assertEquals('.', initial.getSymbolAt(2, 3), "A korábbi pillanatkép nem változik");
+        assertEquals('X', published.getSymbolAt(2, 3));
+        assertEquals(gameService.getBoard().getHash(), published.getHash());
+    }
+
+    @Test
+    @DisplayName("AI mód esetén a pillanatkép az AI lépését is tartalmazza")
+    void testSnapshotIncludesAIMove() {
+        // AMIKOR
+        aiGameService.makeMove(0, 0);
+
+        // AKKOR
+        BoardSnapshot published = aiGameService.getSnapshot();
+        assertEquals(2, published.getMoveCount(), "Az ember és az AI lépése is látszik");
+        assertEquals(aiGameService.getBoard().getVersion(), published.getVersion());
+    }
+
+    @Test
+    @DisplayName("A makeMove() az utolsó lépésből észleli O győzelmét")
+    void testMakeMoveDetectsWinFromLastMove() {
+        // AMIKOR - O függőleges ötöst rak ki, X szétszórtan lép
+        int[][] moves = {{0, 0}, {1, 5}, {0, 2}, {2, 5}, {0, 4}, {3, 5}, {9, 9}, {4, 5}, {9, 0}};
+        for (int[] move : moves) {
+            assertTrue(gameService.makeMove(move[0], move[1]));
+        }
+        assertEquals(GameState.IN_PROGRESS, gameService.getGameState());
+
+        // AMIT - az ötödik O kő a sorozat közepére kerül
+        gameService.makeMove(5, 5);
+
+        // AKKOR
+        assertEquals(GameState.PLAYER_O_WON, gameService.getGameState());
+        assertFalse(gameService.makeMove(8, 8), "Befejezett játékban nincs több lépés");
+    }
+
+    @Test
+    @DisplayName("A makeMove() az utolsó lépés után döntetlent állapít meg tele táblánál")
+    void testMakeMoveDetectsDrawFromLastMove() {
+        // AMIKOR - 3x3-as tábla, 3 egy vonalban; X O X / X O O / O X X
+        GameService smallService = new GameService(GameMode.HUMAN_VS_HUMAN, 3, 3);
+        int[][] moves = {{0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {1, 2}, {2, 1}, {2, 0}};
+        for (int[] move : moves) {
+            smallService.makeMove(move[0], move[1]);
+        }
+        assertEquals(GameState.IN_PROGRESS, smallService.getGameState());
+
+        // AMIT
+        smallService.makeMove(2, 2);
+
+        // AKKOR
+        assertEquals(GameState.DRAW, smallService.getGameState());
+    }
+
+    @Test
+    @DisplayName("Renju szabálynál X dupla hármasa tiltott, a lépés nem kerül a táblára")
+    void testRenjuRejectsForbiddenMove() {
+        // AMIKOR - X két nyitott kettest épít a (7,7) körül, O az első sorban lép
+        GameService renju = new GameService(GameMode.HUMAN_VS_HUMAN, 15, 5, RuleSet.RENJU);
+        int[][] moves = {{7, 5}, {0, 0}, {7, 6}, {0, 2}, {5, 7}, {0, 4}, {6, 7}, {0, 6}};
+        for (int[] move : moves) {
+            assertTrue(renju.makeMove(move[0], move[1]));
+        }
+
+        // AKKOR
+        assertEquals(RuleSet.RENJU, renju.getRuleSet());
+        assertTrue(renju.isForbiddenMove(7, 7));
+        assertFalse(renju.makeMove(7, 7), "A dupla hármas tiltott");
+        assertTrue(renju.getBoard().isEmptyCell(7, 7));
+        assertEquals('X', renju.getCurrentPlayer().getSymbol(), "Tiltott lépés után is X következik");
+        assertTrue(renju.makeMove(7, 8), "Más lépés megengedett");
+
+        // AKKOR - O-ra nem vonatkozik a tiltás
+        assertFalse(renju.isForbiddenMove(7, 7));
+        assertTrue(renju.makeMove(7, 7));
+    }
+
+    @Test
+    @DisplayName("Szabad szabálynál ugyanaz a dupla hármas megengedett")
+    void testFreestyleAllowsDoubleThree() {
+        // AMIKOR
+        GameService freestyle = new GameService(GameMode.HUMAN_VS_HUMAN, 15, 5);
+        int[][] moves = {{7, 5}, {0, 0}, {7, 6}, {0, 2}, {5, 7}, {0, 4}, {6, 7}, {0, 6}};
+        for (int[] move : moves) {
+            freestyle.makeMove(move[0], move[1]);
+        }
+
+        // AKKOR
+        assertEquals(RuleSet.FREESTYLE, freestyle.getRuleSet());
+        assertFalse(freestyle.isForbiddenMove(7, 7));
+        assertTrue(freestyle.makeMove(7, 7));
+    }
+
+    @Test
+    @DisplayName("Renju csak 5-ös nyerő hosszal, és null szabályrendszerrel nem hozható létre játék")
+    void testRuleSetValidation() {
+        // AKKOR
+        assertThrows(IllegalArgumentException.class, () -> new GameService(GameMode.HUMAN_VS_HUMAN, 15, 4, RuleSet.RENJU));
+        assertThrows(IllegalArgumentException.class, () -> new GameService(GameMode.HUMAN_VS_HUMAN, 15, 5, null));
+        assertEquals(RuleSet.EXACT_FIVE, new GameService(GameMode.HUMAN_VS_HUMAN, 15, 4, RuleSet.EXACT_FIVE).getRuleSet());
+    }
+
+    @Test
+    @DisplayName("5-ös nyerő hossznál a GameService kéréskor fenyegetés felismerőt kapcsol a táblához")
+    void testThreatDetectorFollowsGame() {
+        // AMIKOR
+        gameService.makeMove(4, 4);
+        gameService.makeMove(0, 0);
+        gameService.makeMove(4, 5);
+
+        // AKKOR - a lépések utáni első kérés a teljes állásból épít
+        ThreatDetector threats = gameService.getThreatDetector();
+        assertNotNull(threats);
+        assertSame(gameService.getBoard(), threats.getBoard());
+        assertEquals(ThreatType.OPEN_THREE, threats.threatAt('X', 4, 6));
+        assertNull(new GameService(GameMode.HUMAN_VS_HUMAN, 10, 4).getThreatDetector());
+        assertSame(threats, gameService.getThreatDetector(), "Egyszer jön létre");
+    }
+
+    @Test
+    @DisplayName("Korai döntetlen szabállyal a játszma döntetlen, amint egyik fél sem tud már nyerni")
+    void testEarlyDrawWhenNoWindowIsOpen() {
+        // AMIKOR - 3x3-as tábla, 3 egy vonalban; X O X / X O O / O X .
+        GameService plain = new GameService(GameMode.HUMAN_VS_HUMAN, 3, 3);
+        GameService early = new GameService(GameMode.HUMAN_VS_HUMAN, 3, 3);
+        early.setEarlyDraw(true);
+        int[][] moves = {{0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {1, 2}, {2, 1}};
+        for (int[] move : moves) {
+            plain.makeMove(move[0], move[1]);
+            early.makeMove(move[0], move[1]);
+        }
+        assertEquals(GameState.IN_PROGRESS, early.getGameState(), "X-nek még nyitott a 2. sor és az 1. oszlop");
+
+        // AMIT
+        plain.makeMove(2, 0);
+        early.makeMove(2, 0);
+
+        // AKKOR
+        assertTrue(early.isEarlyDraw());
+        assertEquals(GameState.DRAW, early.getGameState());
+        assertEquals(GameState.IN_PROGRESS, plain.getGameState(), "A szabály nélkül a tábla végéig folytatódik");
+        assertFalse(early.getBoard().isFull());
+    }
+
+    @Test
+    @DisplayName("A korai döntetlen szabály kikapcsolható, és a checkForWinner() is figyelembe veszi")
+    void testEarlyDrawToggleAndFullCheck() {
+        // AMIKOR - a holt állás a szabály bekapcsolása előtt jön létre
+        GameService service = new GameService(GameMode.HUMAN_VS_HUMAN, 3, 3);
+        int[][] moves = {{0, 0}, {0, 1}, {0, 2}, {1, 1}, {1, 0}, {1, 2}, {2, 1}, {2, 0}};
+        for (int[] move : moves) {
+            service.makeMove(move[0], move[1]);
+        }
+        assertEquals(GameState.IN_PROGRESS, service.getGameState());
+
+        // AMIT
+        service.setEarlyDraw(true);
+        service.checkForWinner();
+
+        // AKKOR
+        assertEquals(GameState.DRAW, service.getGameState());
+        service.setEarlyDraw(false);
+        assertFalse(service.isEarlyDraw());
+    }
+
+    @Test
+    @DisplayName("HUMAN_VS_SEARCH_AI módban a kereső AI a játékmód időkeretével válaszol")
+    void testSearchAiModeRespondsToMove() {
+        // AMIKOR
+        GameService searchService = new GameService(GameMode.HUMAN_VS_SEARCH_AI);
+
+        // AMIT
+        searchService.makeMove(4, 4);
+
+        // AKKOR
+        assertInstanceOf(SearchAIPlayer.class, searchService.getPlayer2());
+        assertEquals(GameMode.HUMAN_VS_SEARCH_AI.getMoveTimeMillis(), ((SearchAIPlayer) searchService.getPlayer2()).getMoveTimeMillis());
+        assertEquals(Runtime.getRuntime().availableProcessors(), ((SearchAIPlayer) searchService.getPlayer2()).getThreadCount());
+        assertEquals(2, searchService.getBoard().getMoveCount(), "Az AI-nak válaszolnia kell");
+        assertSame(searchService.getPlayer1(), searchService.getCurrentPlayer());
+
+        // AMIT & AKKOR - lezárás után a szálkészlet leáll, az AI egy szálon válaszol tovább
+        searchService.close();
+        searchService.makeMove(0, 0);
+        assertEquals(4, searchService.getBoard().getMoveCount(), "Lezárás után is válaszol");
+    }
+
+    @Test
+    @DisplayName("HUMAN_VS_MCTS_AI módban a Monte Carlo AI a játékmód időkeretével válaszol")
+    void testMctsAiModeRespondsToMove() {
+        // AMIKOR
+        GameService mctsService = new GameService(GameMode.HUMAN_VS_MCTS_AI);
+
+        // AMIT
+        mctsService.makeMove(4, 4);
+
+        // AKKOR
+        assertInstanceOf(MctsAIPlayer.class, mctsService.getPlayer2());
+        MctsAIPlayer mctsAi = (MctsAIPlayer) mctsService.getPlayer2();
+        assertEquals(GameMode.HUMAN_VS_MCTS_AI.getMoveTimeMillis(), mctsAi.getMoveTimeMillis());
+        assertEquals(Runtime.getRuntime().availableProcessors(), mctsAi.getThreadCount());
+        assertEquals(2, mctsService.getBoard().getMoveCount(), "Az AI-nak válaszolnia kell");
+        assertSame(mctsService.getPlayer1(), mctsService.getCurrentPlayer());
+
+        // AMIT & AKKOR - lezárás után a szálkészlet leáll, az AI egy szálon válaszol tovább
+        mctsService.close();
+        mctsService.makeMove(0, 0);
+        assertEquals(4, mctsService.getBoard().getMoveCount(), "Lezárás után is válaszol");
+    }
+}
@@ -0,0 +1,175 @@
+package nye.flocrm.progtech.service;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.RuleSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * MctsEngine (Monte Carlo fakereső) tesztjei
+ */
+public class MctsEngineTest {
+
+    private Board board;
+    private MctsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        engine = new MctsEngine(new WinChecker(), 1, MctsEngine.MIN_CAPACITY * 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("Megtalálja a nyerő lépést és blokkolja az ellenfél négyesét")
+    void testFindsWinAndBlock() {
+        // AMIKOR
+        place(board, 'X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place(board, 'O', 7, 2, 3, 3, 3, 4, 0, 14);
+
+        // AMIT
+        MctsEngine.Result win = engine.search(board, 'X', 200);
+        engine.clearTree();
+        MctsEngine.Result block = engine.search(board, 'O', 200);
+
+        // AKKOR
+        assertEquals(7 * 15 + 7, win.move());
+        assertEquals(1.0, win.winRate());
+        assertEquals(7 * 15 + 7, block.move(), "O-nak X ötösét kell blokkolnia");
+        assertTrue(block.playouts() > 0);
+        assertTrue(block.playoutsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("A megtett lépések alatti részfát a következő keresés megtartja")
+    void testReusesSubtree() {
+        // AMIKOR
+        place(board, 'X', 7, 7);
+        place(board, 'O', 7, 8);
+        engine.setPlayoutLimit(20_000);
+        MctsEngine.Result first = engine.search(board, 'X', 10_000);
+        board.placeSymbol(first.move() / 15, first.move() % 15, 'X');
+        MctsEngine.Result reply = engine.search(board, 'O', 10_000);
+        board.placeSymbol(reply.move() / 15, reply.move() % 15, 'O');
+
+        // AMIT
+        MctsEngine.Result second = engine.search(board, 'X', 10_000);
+
+        // AKKOR
+        assertEquals(0, first.reusedVisits());
+        assertTrue(reply.reusedVisits() > 0, "Az ellenfél lépésének részfája: " + reply.reusedVisits());
+        assertTrue(second.reusedVisits() > 0, "A saját lépés alatti részfa: " + second.reusedVisits());
+        assertEquals(20_000, second.playouts());
+        assertTrue(board.isEmptyCell(second.move() / 15, second.move() % 15));
+    }
+
+    @Test
+    @DisplayName("Nem folytatható állásnál (pl. visszavont lépés) új fát épít")
+    void testDiscardsTreeForUnrelatedPosition() {
+        // AMIKOR
+        place(board, 'X', 7, 7);
+        place(board, 'O', 7, 8);
+        engine.setPlayoutLimit(2000);
+        engine.search(board, 'X', 10_000);
+        board.undo();
+
+        // AMIT
+        MctsEngine.Result result = engine.search(board, 'O', 10_000);
+
+        // AKKOR
+        assertEquals(0, result.reusedVisits());
+        assertEquals(2000, result.playouts());
+        assertTrue(engine.getTreeSize() > 0);
+        engine.clearTree();
+        assertEquals(0, engine.getTreeSize());
+    }
+
+    @Test
+    @DisplayName("Több szálon is megtalálja a blokkolást, a lejátszási keretet pontosan betartja")
+    void testMultipleThreads() {
+        // AMIKOR
+        MctsEngine parallel = new MctsEngine(new WinChecker(), 4, MctsEngine.MIN_CAPACITY * 64);
+        parallel.setPlayoutLimit(5000);
+        place(board, 'X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place(board, 'O', 7, 2, 3, 3, 3, 4);
+        long hash = board.getHash();
+
+        // AMIT
+        MctsEngine.Result result = parallel.search(board, 'O', 10_000);
+        parallel.close();
+
+        // AKKOR
+        assertEquals(4, parallel.getThreadCount());
+        assertEquals(7 * 15 + 7, result.move());
+        assertTrue(result.playouts() <= 5000);
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    @DisplayName("Betelt csomópont készlettel és lejárt határidővel is érvényes lépést ad")
+    void testSmallCapacityAndDeadline() {
+        // AMIKOR
+        MctsEngine small = new MctsEngine(new WinChecker(), 1, MctsEngine.MIN_CAPACITY);
+        place(board, 'X', 7, 7, 8, 8);
+        place(board, 'O', 7, 8, 6, 6);
+
+        // AMIT
+        MctsEngine.Result full = small.search(board, 'X', 100);
+        MctsEngine.Result lapsed = engine.search(board, 'X', 0);
+
+        // AKKOR
+        assertTrue(small.getTreeSize() <= MctsEngine.MIN_CAPACITY);
+        assertTrue(board.isEmptyCell(full.move() / 15, full.move() % 15));
+        assertTrue(board.isEmptyCell(lapsed.move() / 15, lapsed.move() % 15));
+    }
+
+    @Test
+    @DisplayName("A szabályrendszer nyerő hosszát követi (pontosan öt: a túlhosszú sor nem nyer)")
+    void testExactFiveRule() {
+        // AMIKOR
+        engine.close();
+        engine = new MctsEngine(new WinChecker(5, RuleSet.EXACT_FIVE), 1, MctsEngine.MIN_CAPACITY * 64);
+        place(board, 'X', 7, 1, 7, 2, 7, 3, 7, 4, 7, 6, 9, 3, 9, 4, 9, 5, 9, 6);
+        place(board, 'O', 7, 0, 9, 2, 0, 0, 0, 2, 0, 4, 0, 6, 0, 8, 0, 10, 14, 14);
+
+        // AMIT
+        MctsEngine.Result result = engine.search(board, 'X', 200);
+
+        // AKKOR
+        assertNotEquals(7 * 15 + 5, result.move(), "A (7,5) hatos sort adna, nem nyer");
+        assertEquals(9 * 15 + 7, result.move(), "A (9,7) pontosan ötöt ad");
+        assertEquals(1.0, result.winRate());
+    }
+
+    @Test
+    @DisplayName("Szélső esetek és érvénytelen paraméterek")
+    void testEdgeCasesAndInvalidArguments() {
+        // AMIKOR
+        Board full = new Board(3);
+        char[] symbols = {'X', 'O', 'X', 'X', 'O', 'O', 'O', 'X', 'X'};
+        for (int i = 0; i < symbols.length; i++) {
+            full.placeSymbol(i / 3, i % 3, symbols[i]);
+        }
+
+        // AMIT & AKKOR
+        assertEquals(-1, engine.search(full, 'X', 10).move());
+        assertEquals(7 * 15 + 7, engine.search(board, 'X', 10).move(), "Üres táblán középre lép");
+        assertThrows(IllegalArgumentException.class, () -> engine.search(board, 'X', -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.setPlayoutLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> engine.searchUntil(board, 'X', System.nanoTime(), 0, () -> false));
+        assertThrows(IllegalArgumentException.class, () -> new MctsEngine(null));
+        assertThrows(IllegalArgumentException.class, () -> new MctsEngine(new WinChecker(), 0, MctsEngine.DEFAULT_CAPACITY));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsEngine(new WinChecker(), ParallelSearch.MAX_THREADS + 1, MctsEngine.DEFAULT_CAPACITY));
+        assertThrows(IllegalArgumentException.class, () -> new MctsEngine(new WinChecker(), 1, MctsEngine.MIN_CAPACITY - 1));
+        assertThrows(IllegalArgumentException.class, () -> new MctsEngine(new WinChecker(), 1, MctsEngine.MAX_CAPACITY + 1));
+    }
+}
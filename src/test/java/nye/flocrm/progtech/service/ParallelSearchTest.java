@@ -0,0 +1,120 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * ParallelSearch (többszálú Lazy SMP keresés) tesztjei
+ */
+public class ParallelSearchTest {
+
+    private Board board;
+    private TranspositionTable table;
+    private ParallelSearch search;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        table = new TranspositionTable(4);
+        search = new ParallelSearch(new WinChecker(), 4, table);
+    }
+
+    @AfterEach
+    void tearDown() {
+        search.close();
+    }
+
+    @Test
+    @DisplayName("Több szálon is megtalálja a nyerő lépést és blokkolja a négyest")
+    void testFindsWinAndBlock() {
+        // AMIKOR
+        place(board, 'X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place(board, 'O', 7, 2, 3, 3, 3, 4, 3, 5);
+
+        // AMIT
+        SearchEngine.Result win = search.search(board, 'X', 1000);
+        SearchEngine.Result block = search.search(board, 'O', 1000);
+
+        // AKKOR
+        assertEquals(7 * 15 + 7, win.move());
+        assertEquals(SearchEngine.WIN_SCORE - 1, win.score());
+        assertEquals(7 * 15 + 7, block.move(), "O-nak X ötösét kell blokkolnia");
+        assertEquals(4, search.getThreadCount());
+        assertSame(table, search.getTranspositionTable());
+        assertSame(table, search.getEngine().getTranspositionTable());
+    }
+
+    @Test
+    @DisplayName("Rögzített mélységen ugyanazt az értéket adja, mint egy szálon, a csomópontok összesítve")
+    void testSameScoreAsSingleThread() {
+        // AMIKOR
+        place(board, 'X', 7, 7, 8, 7);
+        place(board, 'O', 7, 8, 6, 6);
+        SearchEngine single = new SearchEngine(new WinChecker());
+        single.setMaxDepth(4);
+        search.getEngine().setMaxDepth(4);
+
+        // AMIT
+        SearchEngine.Result expected = single.search(board, 'X', 60_000);
+        SearchEngine.Result result = search.search(board, 'X', 60_000);
+
+        // AKKOR
+        assertEquals(4, result.depth());
+        assertEquals(expected.score(), result.score());
+        assertTrue(result.nodes() > 0);
+        assertTrue(table.getProbeCount() > 0);
+    }
+
+    @Test
+    @DisplayName("A határidőre minden szál leáll, a tábla nem változik")
+    void testRespectsDeadline() {
+        // AMIKOR
+        Random random = new Random(19);
+        for (int i = 0; i < 12; i++) {
+            int row = 4 + random.nextInt(7);
+            int col = 4 + random.nextInt(7);
+            if (board.isEmptyCell(row, col)) {
+                board.placeSymbol(row, col, i % 2 == 0 ? 'X' : 'O');
+            }
+        }
+        long hash = board.getHash();
+
+        // AMIT
+        long start = System.nanoTime();
+        SearchEngine.Result result = search.search(board, 'X', 100);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // AKKOR
+        assertTrue(elapsedMillis < 10_000, "A keresés nem állt le a határidőnél: " + elapsedMillis + " ms");
+        assertTrue(result.depth() < SearchEngine.MAX_DEPTH, "A határidő állította le, nem a mélységkorlát");
+        assertTrue(board.isEmptyCell(result.move() / 15, result.move() % 15));
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    @DisplayName("Lezárás után egy szálon keres, érvénytelen paraméterekre kivételt dob")
+    void testCloseAndInvalidArguments() {
+        // AMIKOR
+        place(board, 'X', 7, 7);
+        search.close();
+
+        // AMIT
+        SearchEngine.Result result = search.search(board, 'O', 50);
+
+        // AKKOR
+        assertTrue(board.isEmptyCell(result.move() / 15, result.move() % 15));
+        assertEquals(7 * 15 + 7, search.search(new Board(15), 'X', 10).move(), "Üres táblán középre lép");
+        assertThrows(IllegalArgumentException.class, () -> search.search(board, 'X', -1));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(new WinChecker(), 0, table));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelSearch(new WinChecker(), ParallelSearch.MAX_THREADS + 1, table));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(new WinChecker(), 2, null));
+    }
+}
@@ -0,0 +1,88 @@
+package nye.flocrm.progtech.service;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.HumanPlayer;
+import nye.flocrm.progtech.model.SearchAIPlayer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ponderer (háttérben gondolkodás vezérlése) tesztjei
+ */
+public class PondererTest {
+
+    private Board board;
+    private SearchAIPlayer aiPlayer;
+    private Ponderer ponderer;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+        board.placeSymbol(4, 4, 'O');
+        aiPlayer = new SearchAIPlayer("Kereső", 'O', new WinChecker(), 50);
+        ponderer = new Ponderer(Ponderer.DEFAULT_BUDGET_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ponderer.close();
+    }
+
+    @Test
+    @DisplayName("A gondolkodás elindul és leállítás után gyorsan befejeződik")
+    void testStartAndStop() {
+        // AMIKOR
+        assertTrue(ponderer.start(aiPlayer, board));
+        assertTrue(ponderer.isPondering());
+        assertFalse(ponderer.start(aiPlayer, board), "Ugyanarra az állásra már fut");
+
+        // AMIT
+        long start = System.nanoTime();
+        ponderer.stop();
+        long elapsed = System.nanoTime() - start;
+
+        // AKKOR
+        assertFalse(ponderer.isPondering());
+        assertTrue(elapsed < 5_000_000_000L, "A leállítás nem várja meg a keretet");
+        assertEquals(1, board.getMoveCount(), "Az élő táblát nem módosítja");
+    }
+
+    @Test
+    @DisplayName("A CPU keret egy állásra összesen érvényes, új állásnál újraindul")
+    void testBudget() throws InterruptedException {
+        // AMIKOR
+        Ponderer limited = new Ponderer(100);
+        try {
+            assertTrue(limited.start(aiPlayer, board));
+            long giveUp = System.nanoTime() + 10_000_000_000L;
+            while (limited.isPondering() && System.nanoTime() - giveUp < 0) {
+                Thread.sleep(10);
+            }
+            assertFalse(limited.isPondering(), "A CPU keret elfogyásakor magától leáll");
+
+            // AMIT & AKKOR
+            assertFalse(limited.start(aiPlayer, board), "Az állás kerete elfogyott");
+            board.placeSymbol(0, 0, 'X');
+            assertTrue(limited.start(aiPlayer, board), "Új állásnál a keret újraindul");
+            limited.stop();
+        } finally {
+            limited.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Nem gondolkodó játékosnál és érvénytelen keretnél nem indul")
+    void testInvalidUse() {
+        // AMIKOR & AKKOR
+        assertFalse(ponderer.start(new HumanPlayer("Ember", 'X'), board));
+        assertFalse(ponderer.isPondering());
+        ponderer.stop();
+        assertThrows(IllegalArgumentException.class, () -> new Ponderer(-1));
+        assertFalse(new Ponderer(0).start(aiPlayer, board), "Nulla kerettel kikapcsolva");
+        ponderer.close();
+        assertFalse(ponderer.start(aiPlayer, board), "Lezárás után nem indul");
+    }
+}
@@ -0,0 +1,181 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * SearchEngine (alfa-béta kereső) tesztjei
+ */
+public class SearchEngineTest {
+
+    private Board board;
+    private SearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        engine = new SearchEngine(new WinChecker());
+    }
+
+    @Test
+    @DisplayName("A kereső megtalálja az azonnali nyerő lépést")
+    void testFindsImmediateWin() {
+        // AMIKOR
+        place(board, 'X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place(board, 'O', 7, 2, 3, 3, 3, 4, 3, 5);
+
+        // AMIT
+        SearchEngine.Result result = engine.search(board, 'X', 1000);
+
+        // AKKOR
+        assertEquals(7 * 15 + 7, result.move());
+        assertEquals(SearchEngine.WIN_SCORE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("A kereső blokkolja az ellenfél négyesét")
+    void testBlocksOpponentFour() {
+        // AMIKOR - O négyese, az egyik vége blokkolt
+        place(board, 'O', 3, 3, 3, 4, 3, 5, 3, 6);
+        place(board, 'X', 3, 2, 9, 9, 10, 10);
+        engine.setMaxDepth(2);
+
+        // AMIT
+        SearchEngine.Result result = engine.search(board, 'X', 1000);
+
+        // AKKOR
+        assertEquals(3 * 15 + 7, result.move());
+        assertEquals(2, result.depth());
+    }
+
+    @Test
+    @DisplayName("A kereső nyitott hármasból nyílt négyessel három lépésben nyer")
+    void testFindsWinInThreePlies() {
+        // AMIKOR
+        place(board, 'X', 7, 5, 7, 6, 7, 7);
+        place(board, 'O', 0, 0, 0, 14, 14, 0);
+        engine.setMaxDepth(3);
+
+        // AMIT
+        SearchEngine.Result result = engine.search(board, 'X', 5000);
+
+        // AKKOR
+        assertEquals(SearchEngine.WIN_SCORE - 3, result.score());
+        assertTrue(result.move() == 7 * 15 + 4 || result.move() == 7 * 15 + 8, "Nyílt négyest kell lépnie: " + result.move());
+    }
+
+    @Test
+    @DisplayName("A kereső betartja a határidőt, és nem módosítja a táblát")
+    void testRespectsDeadline() {
+        // AMIKOR
+        Random random = new Random(19);
+        for (int i = 0; i < 12; i++) {
+            int row = 4 + random.nextInt(7);
+            int col = 4 + random.nextInt(7);
+            if (board.isEmptyCell(row, col)) {
+                board.placeSymbol(row, col, i % 2 == 0 ? 'X' : 'O');
+            }
+        }
+        long hash = board.getHash();
+        int moveCount = board.getMoveCount();
+
+        // AMIT
+        long start = System.nanoTime();
+        SearchEngine.Result result = engine.search(board, 'X', 50);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // AKKOR
+        assertTrue(elapsedMillis < 10_000, "A keresés nem állt le a határidőnél: " + elapsedMillis + " ms");
+        assertTrue(result.depth() < SearchEngine.MAX_DEPTH, "A határidő állította le, nem a mélységkorlát");
+        assertTrue(board.isEmptyCell(result.move() / 15, result.move() % 15));
+        assertTrue(result.nodes() > 0);
+        assertEquals(hash, board.getHash());
+        assertEquals(moveCount, board.getMoveCount());
+    }
+
+    @Test
+    @DisplayName("Lejárt határidő, üres és tele tábla esetén is érvényes eredmény")
+    void testEdgeCases() {
+        // AMIKOR & AKKOR
+        assertEquals(7 * 15 + 7, engine.search(board, 'X', 0).move(), "Üres táblán középre lép");
+
+        place(board, 'X', 7, 7);
+        int move = engine.search(board, 'O', 0).move();
+        assertTrue(board.isEmptyCell(move / 15, move % 15));
+
+        Board full = new Board(3);
+        for (int cell = 0; cell < 9; cell++) {
+            full.placeSymbol(cell / 3, cell % 3, cell % 2 == 0 ? 'X' : 'O');
+        }
+        assertEquals(-1, new SearchEngine(new WinChecker(3)).search(full, 'X', 10).move());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.search(board, 'X', -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.setMaxDepth(0));
+        assertThrows(IllegalArgumentException.class, () -> new SearchEngine(null));
+    }
+
+    @Test
+    @DisplayName("Transzpozíciós táblával ugyanazt az eredményt adja kevesebb csomóponttal")
+    void testTranspositionTableKeepsResult() {
+        // AMIKOR
+        place(board, 'X', 7, 7, 8, 7);
+        place(board, 'O', 7, 8, 6, 6);
+        engine.setMaxDepth(4);
+        SearchEngine.Result plain = engine.search(board, 'X', 60_000);
+        TranspositionTable table = new TranspositionTable(4);
+        engine.setTranspositionTable(table);
+
+        // AMIT
+        SearchEngine.Result cached = engine.search(board, 'X', 60_000);
+
+        // AKKOR
+        assertEquals(plain.score(), cached.score());
+        assertEquals(plain.depth(), cached.depth());
+        assertTrue(cached.nodes() < plain.nodes(), cached.nodes() + " >= " + plain.nodes());
+        assertTrue(table.getHitRate() > 0);
+        assertSame(table, engine.getTranspositionTable());
+
+        // AMIKOR & AKKOR - a nyerő sorozat értéke táblával is a gyökértől mért távolság
+        board.clear();
+        place(board, 'X', 7, 5, 7, 6, 7, 7);
+        place(board, 'O', 0, 0, 0, 14, 14, 0);
+        assertEquals(SearchEngine.WIN_SCORE - 3, engine.search(board, 'X', 60_000).score());
+    }
+
+    @Test
+    @DisplayName("Más szálból leállítva a határidő előtt visszatér az utolsó teljes iterációval")
+    void testStopFromOtherThread() throws InterruptedException {
+        // AMIKOR
+        place(board, 'X', 7, 7, 8, 8);
+        place(board, 'O', 7, 8, 6, 6);
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            engine.stop();
+        });
+        stopper.start();
+
+        // AMIT
+        long start = System.nanoTime();
+        SearchEngine.Result result = engine.search(board, 'X', 60_000);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        stopper.join();
+
+        // AKKOR
+        assertTrue(elapsedMillis < 10_000, "A keresés nem állt le: " + elapsedMillis + " ms");
+        assertTrue(board.isEmptyCell(result.move() / 15, result.move() % 15));
+
+        // AMIKOR & AKKOR - a következő keresést a korábbi leállítás nem érinti
+        engine.setMaxDepth(2);
+        assertEquals(2, engine.search(board, 'X', 60_000).depth());
+    }
+}
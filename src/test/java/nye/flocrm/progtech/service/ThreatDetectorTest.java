@@ -0,0 +1,152 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.RuleSet;
+import nye.flocrm.progtech.model.ThreatType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * ThreatDetector (fenyegetés felismerő) tesztjei
+ */
+public class ThreatDetectorTest {
+
+    private Board board;
+    private ThreatDetector threats;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        threats = new ThreatDetector(board, new WinChecker());
+    }
+
+    @Test
+    @DisplayName("Üres táblán és egyetlen kőnél nincs fenyegetés")
+    void testNoThreatsOnEmptyBoard() {
+        // AMIKOR
+        place(board, 'X', 7, 7);
+
+        // AKKOR
+        for (ThreatType type : ThreatType.values()) {
+            assertEquals(0, threats.count('X', type), type.name());
+            assertEquals(0, threats.count('O', type), type.name());
+        }
+        assertEquals(-1, threats.firstCell('X', ThreatType.FIVE));
+        assertEquals(ThreatType.NONE, threats.threatAt('X', 7, 7), "Foglalt cellán nincs fenyegetés");
+    }
+
+    @Test
+    @DisplayName("Nyitott kettesből nyitott és tört hármas, nyitott hármasból nyílt négyes és négyes lépés adódik")
+    void testThreeAndFourCells() {
+        // AMIKOR - nyitott kettes
+        place(board, 'X', 7, 6, 7, 7);
+
+        // AKKOR
+        assertEquals(ThreatType.OPEN_THREE, threats.threatAt('X', 7, 5));
+        assertEquals(ThreatType.OPEN_THREE, threats.threatAt('X', 7, 8));
+        assertEquals(ThreatType.BROKEN_THREE, threats.threatAt('X', 7, 4));
+        assertEquals(ThreatType.BROKEN_THREE, threats.threatAt('X', 7, 9));
+        assertEquals(ThreatType.NONE, threats.threatAt('O', 7, 5), "O szemszögéből nincs fenyegetés");
+
+        // AMIKOR - nyitott hármas
+        place(board, 'X', 7, 5);
+
+        // AKKOR
+        assertEquals(ThreatType.OPEN_FOUR, threats.threatAt('X', 7, 4));
+        assertEquals(ThreatType.OPEN_FOUR, threats.threatAt('X', 7, 8));
+        assertEquals(ThreatType.FOUR, threats.threatAt('X', 7, 3));
+        assertEquals(2, threats.count('X', ThreatType.OPEN_FOUR));
+
+        // AMIKOR - O blokkolja az egyik végét
+        place(board, 'O', 7, 8);
+
+        // AKKOR
+        assertEquals(ThreatType.FOUR, threats.threatAt('X', 7, 4));
+        assertEquals(0, threats.count('X', ThreatType.OPEN_FOUR));
+    }
+
+    @Test
+    @DisplayName("Négyes mellett az ötös cellák és a négy-hármas kettős fenyegetés")
+    void testFiveAndFourThree() {
+        // AMIKOR - nyílt négyes
+        place(board, 'X', 7, 4, 7, 5, 7, 6, 7, 7);
+
+        // AKKOR
+        assertEquals(2, threats.count('X', ThreatType.FIVE));
+        assertEquals(ThreatType.FIVE, threats.threatAt('X', 7, 3));
+        assertEquals(ThreatType.FIVE, threats.threatAt('X', 7, 8));
+
+        // AMIKOR - egyik oldalon blokkolt hármas és egy függőleges kettes
+        board.clear();
+        place(board, 'O', 7, 3);
+        place(board, 'X', 7, 4, 7, 5, 7, 6, 5, 7, 6, 7);
+
+        // AKKOR - a (7,7) négyest és nyitott hármast ad egyszerre
+        assertEquals(ThreatType.OPEN_FOUR, threats.threatAt('X', 7, 7));
+    }
+
+    @Test
+    @DisplayName("A túlhosszú sor a szabályrendszer szerint számít ötösnek")
+    void testOverlineFollowsRuleSet() {
+        // AMIKOR
+        Board renjuBoard = new Board(15);
+        ThreatDetector renju = new ThreatDetector(renjuBoard, new WinChecker(5, RuleSet.RENJU));
+        place(board, 'X', 7, 1, 7, 2, 7, 3, 7, 4, 7, 6);
+        int[] row = {1, 2, 3, 4, 6};
+        for (int col : row) {
+            renjuBoard.placeSymbol(7, col, 'X');
+            renjuBoard.placeSymbol(9, col, 'O');
+        }
+
+        // AKKOR
+        assertEquals(ThreatType.FIVE, threats.threatAt('X', 7, 5), "Szabad szabályokkal a hatos is nyer");
+        assertEquals(ThreatType.NONE, renju.threatAt('X', 7, 5), "Renju: X hatosa nem nyer");
+        assertEquals(ThreatType.FIVE, renju.threatAt('O', 9, 5), "Renju: O hatosa nyer");
+        assertThrows(IllegalArgumentException.class, () -> new ThreatDetector(new Board(), new WinChecker(4)));
+    }
+
+    @Test
+    @DisplayName("A lépésenként frissített halmazok megegyeznek az újraépítettel lépések és visszavonások után")
+    void testIncrementalMatchesRebuild() {
+        // AMIKOR
+        Random random = new Random(17);
+        for (int step = 0; step < 300; step++) {
+            if (board.getMoveCount() > 0 && random.nextInt(4) == 0) {
+                board.undo();
+            } else if (!board.isFull()) {
+                int cell = board.randomEmptyCell(random);
+                board.placeSymbol(cell / 15, cell % 15, board.getMoveCount() % 2 == 0 ? 'X' : 'O');
+            }
+        }
+        ThreatDetector fresh = new ThreatDetector(board.copy(), new WinChecker());
+
+        // AKKOR
+        for (char player : new char[]{'X', 'O'}) {
+            int classified = 0;
+            for (int row = 0; row < 15; row++) {
+                for (int col = 0; col < 15; col++) {
+                    ThreatType type = threats.threatAt(player, row, col);
+                    assertEquals(fresh.threatAt(player, row, col), type, player + ": " + row + "," + col);
+                    if (type != ThreatType.NONE) {
+                        classified++;
+                    }
+                }
+            }
+            int listed = 0;
+            for (ThreatType type : ThreatType.values()) {
+                for (int i = 0; i < threats.count(player, type); i++) {
+                    int cell = threats.cellAt(player, type, i);
+                    assertEquals(type, threats.threatAt(player, cell / 15, cell % 15));
+                    listed++;
+                }
+            }
+            assertEquals(classified, listed);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> threats.cellAt('X', ThreatType.NONE, 0));
+    }
+}
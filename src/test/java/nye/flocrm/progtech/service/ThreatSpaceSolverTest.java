@@ -0,0 +1,151 @@
+package nye.flocrm.progtech.service;
+
+import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.RuleSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static nye.flocrm.progtech.service.BoardFixtures.place;
+
+/**
+ * ThreatSpaceSolver (VCF/VCT fenyegetés-tér kereső) tesztjei
+ */
+public class ThreatSpaceSolverTest {
+
+    private Board board;
+    private ThreatSpaceSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(15);
+        solver = new ThreatSpaceSolver(new WinChecker());
+        // A tesztekben a hidegen induló JVM se fusson időkorlátba
+        solver.setTimeLimitMillis(2000);
+    }
+
+    /** X: egy szélén blokkolt hármas a 7. sorban és a 10. oszlopban; a (7,10) dupla négyes. */
+    private void placeDoubleFour() {
+        place(board, 'X', 7, 7, 7, 8, 7, 9, 8, 10, 9, 10, 10, 10);
+        place(board, 'O', 7, 6, 11, 10, 0, 0, 0, 3, 0, 6, 0, 9);
+    }
+
+    @Test
+    @DisplayName("VCF: megtalálja a dupla négyest, a tábla nem változik")
+    void testFindsDoubleFour() {
+        // AMIKOR
+        placeDoubleFour();
+        long hash = board.getHash();
+
+        // AMIT
+        ThreatSpaceSolver.Result vcf = solver.findVcf(board, 'X');
+        ThreatSpaceSolver.Result vct = solver.findVct(board, 'X');
+
+        // AKKOR
+        assertTrue(vcf.isWin());
+        assertEquals(7 * 15 + 10, vcf.move());
+        assertFalse(vcf.aborted());
+        assertEquals(7 * 15 + 10, vct.move());
+        assertFalse(solver.findVcf(board, 'O').isWin(), "O-nak nincs négyese");
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    @DisplayName("VCT: két nyitott kettesből hármasokkal nyer, négyesekkel nem; az ismételt keresés a gyorsítótárból jön")
+    void testFindsVctButNotVcf() {
+        // AMIKOR
+        place(board, 'X', 7, 5, 7, 6, 5, 7, 6, 7);
+        place(board, 'O', 0, 0, 0, 14, 14, 0, 14, 14);
+
+        // AMIT
+        ThreatSpaceSolver.Result vcf = solver.findVcf(board, 'X');
+        ThreatSpaceSolver.Result first = solver.findVct(board, 'X');
+        ThreatSpaceSolver.Result second = solver.findVct(board, 'X');
+
+        // AKKOR
+        assertFalse(vcf.isWin());
+        assertFalse(vcf.aborted());
+        assertTrue(first.isWin());
+        assertTrue(board.isEmptyCell(first.move() / 15, first.move() % 15));
+        assertEquals(first.move(), second.move());
+        assertTrue(second.nodes() < first.nodes(), first.nodes() + " -> " + second.nodes());
+    }
+
+    @Test
+    @DisplayName("Ha a védőnek ötös fenyegetése van, a támadónak előbb blokkolnia kell")
+    void testMustBlockDefenderFive() {
+        // AMIKOR - a dupla négyes mellett O-nak négyese van a 2. sorban
+        placeDoubleFour();
+        place(board, 'O', 2, 2, 2, 3, 2, 4, 2, 5);
+        place(board, 'X', 2, 1, 12, 12, 12, 14, 14, 12);
+
+        // AMIT
+        ThreatSpaceSolver.Result x = solver.findVcf(board, 'X');
+        ThreatSpaceSolver.Result o = solver.findVcf(board, 'O');
+
+        // AKKOR
+        assertFalse(x.isWin(), "A (2,6) blokkolás nem négyes, X-nek nincs kényszerített nyerése");
+        assertEquals(2 * 15 + 6, o.move(), "O azonnal nyer");
+    }
+
+    @Test
+    @DisplayName("Renju szabálynál X tiltott dupla négyesét kihagyja")
+    void testRenjuSkipsForbiddenMove() {
+        // AMIKOR
+        placeDoubleFour();
+        ThreatSpaceSolver renju = new ThreatSpaceSolver(new WinChecker(RuleSet.RENJU_WINNING_LENGTH, RuleSet.RENJU));
+
+        // AMIT
+        ThreatSpaceSolver.Result result = renju.findVcf(board, 'X');
+
+        // AKKOR
+        assertFalse(result.isWin());
+        assertTrue(solver.findVcf(board, 'X').isWin(), "Szabad szabálynál nyer");
+    }
+
+    @Test
+    @DisplayName("A csomópont korlát lezárja a keresést; érvénytelen paraméterekre kivételt dob")
+    void testLimitsAndInvalidArguments() {
+        // AMIKOR
+        place(board, 'X', 7, 5, 7, 6, 5, 7, 6, 7);
+        place(board, 'O', 0, 0, 0, 14, 14, 0, 14, 14);
+        solver.setNodeLimit(1);
+
+        // AMIT
+        ThreatSpaceSolver.Result result = solver.findVct(board, 'X');
+
+        // AKKOR
+        assertFalse(result.isWin());
+        assertTrue(result.aborted());
+        assertEquals(1, solver.getNodeLimit());
+        assertThrows(IllegalArgumentException.class, () -> solver.findVcf(board, '.'));
+        assertThrows(IllegalArgumentException.class, () -> solver.setNodeLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> solver.setTimeLimitMillis(-1));
+        assertThrows(IllegalArgumentException.class, () -> solver.setVcfDepth(ThreatSpaceSolver.MAX_VCF_DEPTH + 1));
+        assertThrows(IllegalArgumentException.class, () -> solver.setVctDepth(0));
+        assertThrows(IllegalArgumentException.class, () -> new ThreatSpaceSolver(new WinChecker(4)));
+        assertThrows(IllegalArgumentException.class, () -> new ThreatSpaceSolver(null));
+    }
+
+    @Test
+    @DisplayName("Védekezés: ellenőrzötten cáfoló lépést ad, ha a nyerés első lépése nem elég")
+    void testFindDefence() {
+        // AMIKOR - X nyitott átlós hármasa mellett egy második fenyegetés is kész, O van lépésen
+        place(board, 'X', 5, 7, 6, 8, 7, 8, 7, 9, 9, 8);
+        place(board, 'O', 6, 6, 6, 7, 7, 6, 8, 7, 9, 7);
+        long hash = board.getHash();
+        int first = solver.findVct(board, 'X').move();
+
+        // AMIT
+        ThreatSpaceSolver.Result defence = solver.findDefence(board, 'X');
+
+        // AKKOR
+        assertEquals(hash, board.getHash());
+        assertTrue(defence.move() >= 0);
+        assertNotEquals(first, defence.move(), "Az első lépés elfoglalása után is nyerne");
+        board.placeSymbol(defence.move() / 15, defence.move() % 15, 'O');
+        assertFalse(solver.findVct(board, 'X').isWin());
+        assertEquals(-1, solver.findDefence(new Board(15), 'X').move(), "Nyerés nélkül nincs védekezés");
+        assertThrows(IllegalArgumentException.class, () -> solver.findDefence(board, '.'));
+    }
+}
@@ -0,0 +1,139 @@
+package nye.flocrm.progtech.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TranspositionTable (transzpozíciós tábla) tesztjei
+ */
+public class TranspositionTableTest {
+
+    private TranspositionTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new TranspositionTable(1);
+    }
+
+    @Test
+    @DisplayName("A tárolt bejegyzés mezői változatlanul visszaolvashatók")
+    void testStoreAndProbeRoundTrip() {
+        // AMIKOR
+        table.store(0x1234_5678_9ABC_DEF0L, 224, -SearchEngine.WIN_SCORE + 3, 12, TranspositionTable.BOUND_UPPER);
+        table.store(42L, -1, 0, 0, TranspositionTable.BOUND_EXACT);
+
+        // AMIT
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        long empty = table.probe(42L);
+
+        // AKKOR
+        assertEquals(224, TranspositionTable.move(entry));
+        assertEquals(-SearchEngine.WIN_SCORE + 3, TranspositionTable.score(entry));
+        assertEquals(12, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.BOUND_UPPER, TranspositionTable.bound(entry));
+        assertEquals(-1, TranspositionTable.move(empty));
+        assertEquals(TranspositionTable.BOUND_EXACT, TranspositionTable.bound(empty));
+        assertEquals(0, table.probe(43L), "Ismeretlen állásra nincs találat");
+        assertEquals(32768, table.getBucketCount(), "1 MB = 2^15 darab 32 bájtos vödör");
+    }
+
+    @Test
+    @DisplayName("A mélység szerint cserélő hely megtartja a mélyebb bejegyzést, a másik hely mindig cserél")
+    void testReplacementScheme() {
+        // AMIKOR - három állás ugyanabban a vödörben
+        long deep = 5L;
+        long shallow = deep + table.getBucketCount();
+        long newer = shallow + table.getBucketCount();
+        table.store(deep, 1, 10, 8, TranspositionTable.BOUND_EXACT);
+        table.store(shallow, 2, 20, 3, TranspositionTable.BOUND_EXACT);
+        table.store(newer, 3, 30, 2, TranspositionTable.BOUND_EXACT);
+
+        // AKKOR
+        assertNotEquals(0, table.probe(deep), "A mélyebb bejegyzés megmarad");
+        assertEquals(0, table.probe(shallow), "A mindig cserélő helyet felülírta az újabb");
+        assertEquals(3, TranspositionTable.move(table.probe(newer)));
+
+        // AMIKOR - új keresés: a régi generáció mélyebb bejegyzése is cserélhető
+        table.newSearch();
+        table.store(shallow, 2, 20, 1, TranspositionTable.BOUND_LOWER);
+
+        // AKKOR
+        assertEquals(0, table.probe(deep));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(table.probe(shallow)));
+    }
+
+    @Test
+    @DisplayName("A statisztikák a találatokat, ütközéseket és a telítettséget mérik")
+    void testStatistics() {
+        // AMIKOR
+        assertEquals(0, table.getHitRate());
+        table.store(7L, 1, 1, 1, TranspositionTable.BOUND_EXACT);
+        table.probe(7L);
+        table.probe(7L + table.getBucketCount());
+        table.probe(8L);
+        table.probe(9L);
+
+        // AKKOR
+        assertEquals(4, table.getProbeCount());
+        assertEquals(0.25, table.getHitRate(), 1e-9);
+        assertEquals(0.25, table.getCollisionRate(), 1e-9);
+        assertEquals(1.0 / (2 * table.getBucketCount()), table.getFillRate(), 1e-12);
+
+        table.clear();
+        assertEquals(0, table.getProbeCount());
+        assertEquals(0, table.getFillRate());
+        assertEquals(0, table.probe(7L));
+    }
+
+    @Test
+    @DisplayName("Párhuzamos írás és olvasás mellett sem ad más álláshoz tartozó adatot")
+    void testConcurrentAccessNeverReturnsForeignData() throws InterruptedException {
+        // AMIKOR - sok szál ír kevés vödörbe; az érték a kulcsból számolható
+        TranspositionTable shared = new TranspositionTable(1);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong() & 0xFFFF_FFFFL | (long) random.nextInt(64) << 40;
+                    int expected = (int) (key >>> 40);
+                    shared.store(key, expected, expected * 3, expected & 63, TranspositionTable.BOUND_EXACT);
+                    long entry = shared.probe(key ^ 1);
+                    if (entry != 0 && TranspositionTable.score(entry) != 3 * TranspositionTable.move(entry)) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        // AMIT
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // AKKOR
+        assertEquals(0, wrong.get());
+        assertTrue(shared.getFillRate() > 0);
+    }
+
+    @Test
+    @DisplayName("Érvénytelen méret vagy bejegyzés esetén kivételt dob")
+    void testValidation() {
+        // AMIKOR & AKKOR
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(TranspositionTable.MAX_SIZE_MB + 1));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, 0, 0, TranspositionTable.MAX_DEPTH + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, -2, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, 0, 0, 1, 0));
+    }
+}
@@ -1,11 +1,17 @@
 package nye.flocrm.progtech.service;
 
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import nye.flocrm.progtech.model.Board;
+import nye.flocrm.progtech.model.RuleSet;
+import nye.flocrm.progtech.model.SparseBoard;
 
 public class WinCheckerTest {
 
@@ -137,4 +143,312 @@ public class WinCheckerTest {
         // AKKOR
         assertTrue(winChecker.checkWin(board, 0, 7), "Győzelem észlelése a tábla szélén");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Egyedi nyerő hossz esetén 4 egymás mellett lévő szimbólum is nyer")
+    void testCustomWinningLength() {
+        // AMIKOR - 4-es nyerő hossz, 15x15-ös tábla
+        WinChecker fourInRow = new WinChecker(4);
+        Board bigBoard = new Board(15);
+        for (int col = 11; col < 15; col++) {
+            bigBoard.placeSymbol(14, col, 'O');
+        }
+
+        // AKKOR
+        assertEquals(4, fourInRow.getWinningLength());
+        assertTrue(fourInRow.checkWin(bigBoard, 14, 14), "4-es nyerő hossznál a 4 egymás melletti jel nyer");
+        assertTrue(fourInRow.checkWinForPlayer(bigBoard, 'O'), "A teljes tábla ellenőrzése is észleli a győzelmet");
+        assertFalse(winChecker.checkWinForPlayer(bigBoard, 'O'), "Az alapértelmezett 5-ös hossznál nem nyer");
+    }
+
+    @Test
+    @DisplayName("A WinChecker kivételt dob nem pozitív nyerő hosszra")
+    void testInvalidWinningLength() {
+        // AMIKOR & AKKOR
+        assertThrows(IllegalArgumentException.class, () -> new WinChecker(0));
+    }
+
+    @Test
+    @DisplayName("A checkWin() végtelen táblán csempehatáron át is észleli a győzelmet")
+    void testCheckWinOnSparseBoardAcrossTiles() {
+        // AMIKOR - átlós ötös a (14,14) .. (18,18) cellákon, negatív sorokkal eltolva
+        SparseBoard sparseBoard = new SparseBoard();
+        for (int i = 0; i < 5; i++) {
+            sparseBoard.placeSymbol(-18 + i, 14 + i, 'O');
+        }
+
+        // AKKOR
+        assertTrue(winChecker.checkWin(sparseBoard, -16, 16), "Győzelem észlelése csempehatáron át");
+        assertFalse(winChecker.checkWin(sparseBoard, 0, 0), "Üres cellán nincs győzelem");
+    }
+
+    /**
+     * Cellánkénti összevetési alap a bitboard kereséshez.
+     */
+    private static boolean perCellWin(WinChecker checker, Board source, char symbol) {
+        for (int row = 0; row < source.getSize(); row++) {
+            for (int col = 0; col < source.getSize(); col++) {
+                if (source.getSymbolAt(row, col) == symbol && checker.checkWin(source, row, col)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("A bitboard alapú checkWinForPlayer() a cellánkénti ellenőrzéssel egyezik")
+    void testBitboardMatchesPerCell() {
+        Random random = new Random(3);
+        for (int size : new int[]{3, 5, 8, 10, 13, 19}) {
+            for (int length = 3; length <= Math.min(size, 6); length++) {
+                WinChecker checker = new WinChecker(length);
+                for (int game = 0; game < 30; game++) {
+                    // AMIKOR - véletlen, különböző telítettségű állás
+                    Board randomBoard = new Board(size);
+                    int stones = random.nextInt(size * size + 1);
+                    while (randomBoard.getMoveCount() < stones) {
+                        int index = randomBoard.randomEmptyCell(random);
+                        randomBoard.placeSymbol(index / size, index % size, random.nextBoolean() ? 'X' : 'O');
+                    }
+
+                    // AKKOR
+                    for (char symbol : new char[]{'X', 'O'}) {
+                        assertEquals(perCellWin(checker, randomBoard, symbol),
+                                checker.checkWinForPlayer(randomBoard, symbol),
+                                size + "x" + size + ", hossz " + length + ", " + symbol);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A bitboard keresés nem számol sorvégen átforduló sorozatot")
+    void testBitboardRowEdges() {
+        // AMIKOR - a 2. sor végén 3, a 3. sor elején 2 X: bitindexben egymás után 5
+        board.placeSymbol(2, 7, 'X');
+        board.placeSymbol(2, 8, 'X');
+        board.placeSymbol(2, 9, 'X');
+        board.placeSymbol(3, 0, 'X');
+        board.placeSymbol(3, 1, 'X');
+        // Átló, amely a jobb szélen "kilógna"
+        board.placeSymbol(5, 7, 'O');
+        board.placeSymbol(6, 8, 'O');
+        board.placeSymbol(7, 9, 'O');
+        board.placeSymbol(8, 0, 'O');
+        board.placeSymbol(9, 1, 'O');
+
+        // AKKOR
+        assertFalse(winChecker.checkWinForPlayer(board, 'X'));
+        assertFalse(winChecker.checkWinForPlayer(board, 'O'));
+        assertFalse(winChecker.checkWinForPlayer(board, '.'), "Érvénytelen szimbólum nem nyer");
+    }
+
+    @Test
+    @DisplayName("A hasWinningLine() pillanatkép bitjein és szóhatáron átnyúló mellékátlón is működik")
+    void testHasWinningLineOnSnapshotBits() {
+        // AMIKOR - mellékátló a (4,8)..(8,4) cellákon (bitindex 48..84, két szón át)
+        for (int i = 0; i < 5; i++) {
+            board.placeSymbol(4 + i, 8 - i, 'O');
+        }
+
+        // AKKOR
+        assertTrue(winChecker.hasWinningLine(board.snapshot().getBits('O'), Board.SIZE));
+        assertFalse(winChecker.hasWinningLine(board.snapshot().getBits('X'), Board.SIZE));
+        assertThrows(IllegalArgumentException.class, () -> winChecker.hasWinningLine(new long[1], Board.SIZE));
+    }
+
+    @Test
+    @DisplayName("Pontosan öt szabálynál a túlhosszú sor nem nyer, a pontos ötös igen")
+    void testExactFiveRejectsOverline() {
+        // AMIKOR - hatos X sor és pontos O ötös
+        WinChecker exact = new WinChecker(5, RuleSet.EXACT_FIVE);
+        for (int col = 0; col < 6; col++) {
+            board.placeSymbol(0, col, 'X');
+        }
+        for (int row = 2; row < 7; row++) {
+            board.placeSymbol(row, 9, 'O');
+        }
+
+        // AKKOR
+        assertFalse(exact.checkWin(board, 0, 2), "A hatos sor nem nyer");
+        assertFalse(exact.checkWinForPlayer(board, 'X'));
+        assertTrue(exact.checkWin(board, 4, 9));
+        assertTrue(exact.checkWinForPlayer(board, 'O'));
+        assertTrue(winChecker.checkWinForPlayer(board, 'X'), "Szabad szabályokkal a hatos sor is nyer");
+        assertEquals(RuleSet.EXACT_FIVE, exact.getRuleSet());
+    }
+
+    @Test
+    @DisplayName("Renju szabálynál X-nek pontosan öt kell, O-nak a túlhosszú sor is győzelem")
+    void testRenjuOverlineOnlyForO() {
+        // AMIKOR
+        WinChecker renju = new WinChecker(5, RuleSet.RENJU);
+        for (int col = 0; col < 6; col++) {
+            board.placeSymbol(0, col, 'X');
+            board.placeSymbol(9, col, 'O');
+        }
+
+        // AKKOR
+        assertFalse(renju.checkWin(board, 0, 0));
+        assertFalse(renju.checkWinForPlayer(board, 'X'));
+        assertTrue(renju.checkWin(board, 9, 0));
+        assertTrue(renju.checkWinForPlayer(board, 'O'));
+        assertThrows(IllegalArgumentException.class, () -> new WinChecker(5, null));
+    }
+
+    @Test
+    @DisplayName("A vektoros bitboard keresés a skalárral és a cellánkénti ellenőrzéssel egyezik nagy táblákon")
+    void testVectorMatchesScalar() {
+        assumeTrue(WinChecker.isVectorAvailable(), "A jdk.incubator.vector modul nem elérhető");
+        boolean previous = WinChecker.isVectorEnabled();
+        Random random = new Random(15);
+        try {
+            for (int size : new int[]{16, 23, 50, 64, 101}) {
+                for (int length = 4; length <= 6; length++) {
+                    WinChecker checker = new WinChecker(length);
+                    for (int game = 0; game < 10; game++) {
+                        // AMIKOR - véletlen, ritka állás
+                        Board randomBoard = new Board(size);
+                        int stones = random.nextInt(size * size / 4 + 1);
+                        while (randomBoard.getMoveCount() < stones) {
+                            int index = randomBoard.randomEmptyCell(random);
+                            randomBoard.placeSymbol(index / size, index % size, random.nextBoolean() ? 'X' : 'O');
+                        }
+
+                        // AKKOR
+                        for (char symbol : new char[]{'X', 'O'}) {
+                            long[] bits = randomBoard.getBits(symbol);
+                            assertTrue(WinChecker.setVectorEnabled(true));
+                            boolean vector = checker.hasWinningLine(bits, size);
+                            WinChecker.setVectorEnabled(false);
+                            boolean scalar = checker.hasWinningLine(bits, size);
+                            String message = size + "x" + size + ", hossz " + length + ", " + symbol;
+                            assertEquals(scalar, vector, message);
+                            assertEquals(perCellWin(checker, randomBoard, symbol), vector, message);
+                        }
+                    }
+                }
+            }
+        } finally {
+            WinChecker.setVectorEnabled(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Pontosan öt és Renju szabálynál a vektoros út is kizárja a túlhosszú sort")
+    void testVectorExactMatchesScalar() {
+        assumeTrue(WinChecker.isVectorAvailable(), "A jdk.incubator.vector modul nem elérhető");
+        boolean previous = WinChecker.isVectorEnabled();
+        Random random = new Random(151);
+        try {
+            for (int size : new int[]{16, 23, 64, 101}) {
+                for (RuleSet ruleSet : new RuleSet[]{RuleSet.EXACT_FIVE, RuleSet.RENJU}) {
+                    WinChecker checker = new WinChecker(5, ruleSet);
+                    for (int game = 0; game < 10; game++) {
+                        // AMIKOR - véletlen állás, benne egy hatos X sor egy tábla szélén
+                        Board randomBoard = randomBoard(random, size);
+                        int row = random.nextInt(size);
+                        for (int col = 0; col < 6; col++) {
+                            if (randomBoard.isEmptyCell(row, col)) {
+                                randomBoard.placeSymbol(row, col, 'X');
+                            }
+                        }
+
+                        // AKKOR
+                        for (char symbol : new char[]{'X', 'O'}) {
+                            assertTrue(WinChecker.setVectorEnabled(true));
+                            boolean vector = checker.checkWinForPlayer(randomBoard, symbol);
+                            WinChecker.setVectorEnabled(false);
+                            String message = size + "x" + size + ", " + ruleSet + ", " + symbol;
+                            assertEquals(checker.checkWinForPlayer(randomBoard, symbol), vector, message);
+                            assertEquals(perCellWin(checker, randomBoard, symbol), vector, message);
+                        }
+                    }
+                }
+            }
+
+            // AMIKOR - csak egy hatos sor a tábla szélén és belül
+            Board overline = new Board(32);
+            for (int col = 0; col < 6; col++) {
+                overline.placeSymbol(0, col, 'X');
+                overline.placeSymbol(20, 10 + col, 'X');
+            }
+            WinChecker exact = new WinChecker(5, RuleSet.EXACT_FIVE);
+
+            // AKKOR
+            assertTrue(WinChecker.setVectorEnabled(true));
+            assertFalse(exact.checkWinForPlayer(overline, 'X'), "A hatos sor pontosan öt szabálynál nem nyer");
+            assertTrue(new WinChecker(5).checkWinForPlayer(overline, 'X'));
+        } finally {
+            WinChecker.setVectorEnabled(previous);
+        }
+    }
+
+    /**
+     * Véletlen állás a megadott méretben, legfeljebb a cellák felén kővel.
+     */
+    private static Board randomBoard(Random random, int size) {
+        Board randomBoard = new Board(size);
+        int stones = random.nextInt(size * size / 2 + 1);
+        while (randomBoard.getMoveCount() < stones) {
+            int index = randomBoard.randomEmptyCell(random);
+            randomBoard.placeSymbol(index / size, index % size, random.nextBoolean() ? 'X' : 'O');
+        }
+        return randomBoard;
+    }
+
+    @Test
+    @DisplayName("A pontos hosszú bitboard keresés a cellánkénti ellenőrzéssel egyezik")
+    void testExactBitboardMatchesPerCell() {
+        Random random = new Random(16);
+        for (int size : new int[]{5, 8, 10, 13, 19}) {
+            for (RuleSet ruleSet : new RuleSet[]{RuleSet.EXACT_FIVE, RuleSet.RENJU}) {
+                WinChecker checker = new WinChecker(5, ruleSet);
+                for (int game = 0; game < 40; game++) {
+                    // AMIKOR
+                    Board randomBoard = randomBoard(random, size);
+
+                    // AKKOR
+                    for (char symbol : new char[]{'X', 'O'}) {
+                        assertEquals(perCellWin(checker, randomBoard, symbol),
+                                checker.checkWinForPlayer(randomBoard, symbol),
+                                size + "x" + size + ", " + ruleSet + ", " + symbol);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A kötegelt checkWinners() soros és párhuzamos futása is a táblánkénti ellenőrzéssel egyezik")
+    void testCheckWinnersMatchesPerBoard() {
+        // AMIKOR - 2000 véletlen 15x15-ös állás egy tömbben
+        Random random = new Random(17);
+        int size = 15;
+        int count = 2000;
+        long[] packed = new long[count * WinChecker.packedStride(size)];
+        byte[] expected = new byte[count];
+        for (int i = 0; i < count; i++) {
+            Board randomBoard = randomBoard(random, size);
+            WinChecker.pack(randomBoard.snapshot(), packed, i);
+            expected[i] = (byte) ((winChecker.checkWinForPlayer(randomBoard, 'X') ? WinChecker.WINNER_X : 0)
+                    | (winChecker.checkWinForPlayer(randomBoard, 'O') ? WinChecker.WINNER_O : 0));
+        }
+        byte[] sequential = new byte[count];
+        byte[] parallel = new byte[count];
+        winChecker.checkWinners(packed, size, sequential);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            winChecker.checkWinners(packed, size, parallel, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        // AKKOR
+        assertArrayEquals(expected, sequential);
+        assertArrayEquals(expected, parallel);
+        assertThrows(IllegalArgumentException.class, () -> winChecker.checkWinners(packed, size, new byte[count + 1]));
+    }
+}
@@ -0,0 +1,135 @@
+package nye.flocrm.progtech.service;
+
+import java.util.Random;
+
+import nye.flocrm.progtech.model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WinningWindows (nyerő ablakok indexe) tesztjei
+ */
+public class WinningWindowsTest {
+
+    private Board board;
+    private WinningWindows windows;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+        windows = new WinningWindows(board, new WinChecker());
+    }
+
+    /**
+     * Ablakok megszámolása a tábla bejárásával (összevetési alap).
+     */
+    private static int bruteForceCount(Board source, int length, char player, int stones) {
+        int size = source.getSize();
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        int count = 0;
+        for (int[] dir : directions) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int endRow = row + (length - 1) * dir[0];
+                    int endCol = col + (length - 1) * dir[1];
+                    if (endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    int own = 0;
+                    int other = 0;
+                    for (int i = 0; i < length; i++) {
+                        char symbol = source.getSymbolAt(row + i * dir[0], col + i * dir[1]);
+                        if (symbol == player) {
+                            own++;
+                        } else if (symbol != '.') {
+                            other++;
+                        }
+                    }
+                    if (own == stones && other == 0) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    @DisplayName("Egy 10x10-es táblán 2 * 10 * 6 + 2 * 6 * 6 = 192 darab 5-ös ablak van, kezdetben mind üres")
+    void testWindowCount() {
+        // AKKOR
+        assertEquals(192, windows.getWindowCount());
+        assertEquals(192, windows.getEmptyWindowCount());
+        assertEquals(192, windows.getOpenWindowCount('X'));
+        assertFalse(windows.hasWin('X'));
+    }
+
+    @Test
+    @DisplayName("Az ablakszámlálók lerakás és visszavonás után is egyeznek a bejárással számolt értékkel")
+    void testCountersMatchBruteForce() {
+        // AMIKOR
+        Board small = new Board(8);
+        WinningWindows smallWindows = new WinningWindows(small, 4);
+        Random random = new Random(9);
+        for (int step = 0; step < 300; step++) {
+            if (small.getMoveCount() > 0 && (small.isFull() || random.nextInt(3) == 0)) {
+                small.undo();
+            } else {
+                int index = small.randomEmptyCell(random);
+                small.placeSymbol(index / 8, index % 8, random.nextBoolean() ? 'X' : 'O');
+            }
+
+            // AKKOR
+            for (char player : new char[]{'X', 'O'}) {
+                for (int stones = 1; stones <= 4; stones++) {
+                    assertEquals(bruteForceCount(small, 4, player, stones), smallWindows.countWindows(player, stones),
+                            step + ". lépés, " + player + ", " + stones + " kő");
+                }
+                assertEquals(new WinChecker(4).checkWinForPlayer(small, player), smallWindows.hasWin(player));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A győzelem a nyerő ablakot érintő cellákon látszik, a többin nem")
+    void testIsWinAt() {
+        // AMIKOR
+        for (int col = 2; col < 7; col++) {
+            board.placeSymbol(4, col, 'O');
+        }
+        board.placeSymbol(0, 0, 'X');
+
+        // AKKOR
+        assertTrue(windows.hasWin('O'));
+        assertTrue(windows.isWinAt(4, 2));
+        assertTrue(windows.isWinAt(4, 6));
+        assertFalse(windows.isWinAt(0, 0));
+        assertFalse(windows.isWinAt(5, 5), "Üres cellán nincs győzelem");
+        assertEquals(1, windows.countWindows('O', 5));
+    }
+
+    @Test
+    @DisplayName("A clear() és a copyFrom() után az index újraépül, leválasztás után nem követi a táblát")
+    void testResetAndDetach() {
+        // AMIKOR
+        Board source = new Board();
+        for (int col = 0; col < 4; col++) {
+            source.placeSymbol(9, col, 'X');
+        }
+        board.copyFrom(source);
+
+        // AKKOR - egy 4-es sor nyitott végű ablaka
+        assertEquals(1, windows.countWindows('X', 4));
+
+        board.clear();
+        assertEquals(192, windows.getEmptyWindowCount());
+
+        windows.detach();
+        board.placeSymbol(0, 0, 'X');
+        assertEquals(192, windows.getEmptyWindowCount());
+        assertThrows(IllegalArgumentException.class, () -> windows.countWindows('X', 0));
+        assertThrows(IllegalArgumentException.class, () -> new WinningWindows(board, 0));
+    }
+}